@@ -56,48 +56,82 @@ public class DOMParser {
    * @return TreeNode contain the content parsed from token list
    */
   public static Node createDOMTree(Node currentNode, List<String> xmlTokens) {
-    Node parsingNode;
+    StringBuilder source = new StringBuilder();
+    for (String token : xmlTokens) {
+      source.append(token);
+    }
+    TokenCursor cursor = new TokenCursor();
+    cursor.reset(source.toString());
+    int start = 0;
+    for (String token : xmlTokens) {
+      int kind;
+      if (token.startsWith("<!--")) {
+        kind = TokenHandler.COMMENT;
+      } else if (token.indexOf('<') >= 0) {
+        kind = TokenHandler.TAG;
+      } else {
+        kind = TokenHandler.TEXT;
+      }
+      cursor.add(kind, start, start + token.length());
+      start += token.length();
+    }
+    return createDOMTree(currentNode, cursor);
+  }
+
+  /**
+   * Creates the XML DOM tree from the tokens of a cursor.
+   *
+   * @param cursor the tokens
+   * @return TreeNode contain the content parsed from the tokens
+   * @since 4.4
+   */
+  public static Node createDOMTree(TokenCursor cursor) {
+    return createDOMTree(new Node(), cursor);
+  }
+
+  /**
+   * Creates the XML DOM tree from the tokens of a cursor as childNodeList of currentNode. The tags are matched
+   * once per token, text tokens are not matched at all.
+   *
+   * @param currentNode The Node to add childNode to.
+   * @param cursor the tokens
+   * @return TreeNode contain the content parsed from the tokens
+   * @since 4.4
+   */
+  public static Node createDOMTree(Node currentNode, TokenCursor cursor) {
+    return createDOMTree(currentNode, new ParsedTags(cursor), 0, cursor.size());
+  }
 
-    for (int i = 0; i < xmlTokens.size(); i++) {
-      String token = xmlTokens.get(i);
-      Matcher startMatcher = TAGSTARTPATTERN.matcher(token);
-      Matcher endMatcher = TAGCLOSEPATTERN.matcher(token);
+  private static Node createDOMTree(Node currentNode, ParsedTags tags, int from, int to) {
+    Node parsingNode;
+    TokenCursor cursor = tags.cursor;
 
-      if (COMMENTPATTERN.matcher(token).find()) {
+    for (int i = from; i < to; i++) {
+      if (tags.isComment(i)) {
+        String token = cursor.token(i);
         parsingNode = new Node();
         parsingNode.setParentNode(currentNode);
         currentNode.addChildNode(parsingNode);
         parsingNode.setTitle(token.substring(4, token.length() - 3));
-      } else if (startMatcher.find()) {
-        String tag = startMatcher.group(1).toLowerCase();
+      } else if (tags.isStart(i)) {
+        String tag = tags.names[i];
 
-        if (SELFTCLOSETAGPATTERN.matcher(token).find()) {
+        if (tags.isSelfClosed(i)) {
           parsingNode = new Node();
           parsingNode.setParentNode(currentNode);
           currentNode.addChildNode(parsingNode);
           parsingNode.setTitle(tag);
-          String tokenBody = startMatcher.group(2);
-          Matcher attributes = ATTRIBUTESPATTERN.matcher(tokenBody);
-
-          while (attributes.find()) {
-            String attr = attributes.group(1).toLowerCase();
-            String val = attributes.group(4) == null ? attributes.group(3) : attributes.group(4);
-            parsingNode.addAttribute(attr, val);
-          }
+          addAttributes(parsingNode, tags.bodies[i]);
         } else {
           int findDeep = 0;
-          int matchedEnd = 0;
-          for (int j = i + 1; j < xmlTokens.size(); j++) {
-            Matcher startFindMatcher = TAGSTARTPATTERN
-                    .matcher(xmlTokens.get(j));
-            Matcher endFindMatcher = TAGCLOSEPATTERN.matcher(xmlTokens.get(j));
-            if (startFindMatcher.find()) {
-              if (!SELFTCLOSETAGPATTERN.matcher(xmlTokens.get(j)).find()) {
+          int matchedEnd = -1;
+          for (int j = i + 1; j < to; j++) {
+            if (tags.isStart(j)) {
+              if (!tags.isSelfClosed(j)) {
                 findDeep++;
               }
-            } else if (endFindMatcher.find()) {
-              if (endFindMatcher.group(1).toLowerCase().equals(tag)
-                      && findDeep == 0) {
+            } else if (tags.isClose(j)) {
+              if (tags.names[j].equals(tag) && findDeep == 0) {
                 matchedEnd = j;
                 break;
               } else {
@@ -109,38 +143,112 @@ public class DOMParser {
             parsingNode = new Node();
             parsingNode.setParentNode(currentNode);
             parsingNode.setTitle(tag);
-
-            String tokenBody = startMatcher.group(2);
-
-            Matcher attributes = ATTRIBUTESPATTERN.matcher(tokenBody);
-
-            while (attributes.find()) {
-              String attr = attributes.group(1).toLowerCase();
-              String val = attributes.group(4) == null ? attributes.group(3) : attributes.group(4);
-              parsingNode.addAttribute(attr, val);
-            }
+            addAttributes(parsingNode, tags.bodies[i]);
             currentNode.addChildNode(parsingNode);
-            createDOMTree(parsingNode, xmlTokens.subList(i + 1, matchedEnd));
+            createDOMTree(parsingNode, tags, i + 1, matchedEnd);
             i = matchedEnd;
           } else {
             parsingNode = new Node();
             parsingNode.setParentNode(currentNode);
             currentNode.addChildNode(parsingNode);
-            parsingNode.setContent(token);
+            parsingNode.setContent(cursor.token(i));
           }
         }
-      } else if (endMatcher.find()) {
-        parsingNode = new Node();
-        parsingNode.setParentNode(currentNode);
-        parsingNode.setContent(token);
-        currentNode.addChildNode(parsingNode);
       } else {
         parsingNode = new Node();
         parsingNode.setParentNode(currentNode);
-        parsingNode.setContent(token);
+        parsingNode.setContent(cursor.token(i));
         currentNode.addChildNode(parsingNode);
       }
     }
     return currentNode;
   }
+
+  private static void addAttributes(Node node, String tokenBody) {
+    Matcher attributes = ATTRIBUTESPATTERN.matcher(tokenBody);
+
+    while (attributes.find()) {
+      String attr = attributes.group(1).toLowerCase();
+      String val = attributes.group(4) == null ? attributes.group(3) : attributes.group(4);
+      node.addAttribute(attr, val);
+    }
+  }
+
+  /**
+   * The tags of the tokens of a cursor, each token being matched once against the tag patterns.
+   */
+  private static class ParsedTags {
+    private static final byte COMMENT = 1;
+
+    private static final byte START = 2;
+
+    private static final byte SELF_CLOSED = 4;
+
+    private static final byte CLOSE = 8;
+
+    private final TokenCursor cursor;
+
+    private final byte[] types;
+
+    /**
+     * The lower case tag names of the start and close tags.
+     */
+    private final String[] names;
+
+    /**
+     * The bodies of the start tags, holding their attributes.
+     */
+    private final String[] bodies;
+
+    ParsedTags(TokenCursor cursor) {
+      this.cursor = cursor;
+      int size = cursor.size();
+      types = new byte[size];
+      names = new String[size];
+      bodies = new String[size];
+      for (int i = 0; i < size; i++) {
+        // a text token has no '<' so none of the patterns can match it
+        if (cursor.kind(i) == TokenHandler.TEXT) {
+          continue;
+        }
+        String token = cursor.token(i);
+        Matcher startMatcher = TAGSTARTPATTERN.matcher(token);
+        byte type = 0;
+        if (COMMENTPATTERN.matcher(token).find()) {
+          type |= COMMENT;
+        }
+        if (startMatcher.find()) {
+          type |= START;
+          names[i] = startMatcher.group(1).toLowerCase();
+          bodies[i] = startMatcher.group(2);
+          if (SELFTCLOSETAGPATTERN.matcher(token).find()) {
+            type |= SELF_CLOSED;
+          }
+        } else {
+          Matcher endMatcher = TAGCLOSEPATTERN.matcher(token);
+          if (endMatcher.find()) {
+            type |= CLOSE;
+            names[i] = endMatcher.group(1).toLowerCase();
+          }
+        }
+        types[i] = type;
+      }
+    }
+
+    boolean isComment(int i) {
+      return (types[i] & COMMENT) != 0;
+    }
+
+    boolean isStart(int i) {
+      return (types[i] & START) != 0;
+    }
+
+    boolean isSelfClosed(int i) {
+      return (types[i] & SELF_CLOSED) != 0;
+    }
+
+    boolean isClose(int i) {
+      return (types[i] & CLOSE) != 0;
+    }
+  }
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.common.xmlprocessor;
+
+/**
+ * A {@link Filter} on XML Strings which is also able to run as one stage of a {@link TokenPipeline}, so that
+ * consecutive filters share a single tokenization of the input instead of each one re-parsing the output of the
+ * previous one.
+ * <br>
+ * Running the filter as a stage must give the same result as {@link Filter#doFilter(Object)} on a String.
+ *
+ * @since 4.4
+ */
+public interface StreamFilter extends Filter {
+
+  /**
+   * Creates a new stage of this filter. A stage is used for one input only and may keep state.
+   *
+   * @param next the handler receiving the output of the stage
+   * @return the stage
+   */
+  TokenHandler createStage(TokenHandler next);
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.common.xmlprocessor;
+
+import java.util.Arrays;
+
+/**
+ * Offset based view of the tokens of an XML String, filled by {@link Tokenizer#tokenize(String, TokenCursor)}.
+ * <br>
+ * The kind, start and end of the tokens are held in primitive arrays and the tokens are read in place from the
+ * source String, so that going through the tokens does not create any object. A cursor can be reset and reused
+ * for another input, its arrays are then kept.
+ * <br>
+ * The cursor is either used as an iterator with {@link #next()} and the accessors without index, or with random
+ * access by token index.
+ *
+ * @since 4.4
+ */
+public class TokenCursor {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private String source = "";
+
+  private byte[] kinds;
+
+  private int[] starts;
+
+  private int[] ends;
+
+  private int size;
+
+  private int position = -1;
+
+  private final TokenHandler filler = new TokenHandler() {
+    public void token(int kind, String source, int start, int end) {
+      add(kind, start, end);
+    }
+
+    public void markup(String markup) {
+      throw new UnsupportedOperationException("A cursor only holds the tokens of its source");
+    }
+
+    public void end() {
+    }
+  };
+
+  /**
+   * Constructor.
+   */
+  public TokenCursor() {
+    kinds = new byte[DEFAULT_CAPACITY];
+    starts = new int[DEFAULT_CAPACITY];
+    ends = new int[DEFAULT_CAPACITY];
+  }
+
+  /**
+   * Clears the tokens and sets the source of the next tokens, keeping the allocated arrays.
+   *
+   * @param source the XML String
+   */
+  public void reset(String source) {
+    this.source = source;
+    size = 0;
+    position = -1;
+  }
+
+  /**
+   * Adds a token of the source.
+   *
+   * @param kind the token kind, see {@link TokenHandler}
+   * @param start the start offset of the token in the source, inclusive
+   * @param end the end offset of the token in the source, exclusive
+   */
+  void add(int kind, int start, int end) {
+    if (size == starts.length) {
+      int capacity = size * 2;
+      kinds = Arrays.copyOf(kinds, capacity);
+      starts = Arrays.copyOf(starts, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+    }
+    kinds[size] = (byte) kind;
+    starts[size] = start;
+    ends[size] = end;
+    size++;
+  }
+
+  /**
+   * Gets the handler adding the tokens it receives to this cursor.
+   *
+   * @return the handler
+   */
+  TokenHandler filler() {
+    return filler;
+  }
+
+  /**
+   * Gets the source holding the tokens.
+   *
+   * @return the source String
+   */
+  public String getSource() {
+    return source;
+  }
+
+  /**
+   * Gets the number of tokens.
+   *
+   * @return the number of tokens
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Moves the cursor to the next token.
+   *
+   * @return true if there is a next token, false if the end of the tokens is reached
+   */
+  public boolean next() {
+    if (position < size) {
+      position++;
+    }
+    return position < size;
+  }
+
+  /**
+   * Moves the cursor before the first token.
+   */
+  public void rewind() {
+    position = -1;
+  }
+
+  /**
+   * Gets the index of the current token.
+   *
+   * @return the index of the current token
+   */
+  public int position() {
+    return position;
+  }
+
+  /**
+   * Gets the kind of the current token.
+   *
+   * @return {@link TokenHandler#TEXT}, {@link TokenHandler#TAG} or {@link TokenHandler#COMMENT}
+   */
+  public int kind() {
+    return kind(position);
+  }
+
+  /**
+   * Gets the start offset of the current token in the source.
+   *
+   * @return the start offset, inclusive
+   */
+  public int start() {
+    return start(position);
+  }
+
+  /**
+   * Gets the end offset of the current token in the source.
+   *
+   * @return the end offset, exclusive
+   */
+  public int end() {
+    return end(position);
+  }
+
+  /**
+   * Gets the current token as a String. This creates a new String, prefer the offsets when possible.
+   *
+   * @return the current token
+   */
+  public String token() {
+    return token(position);
+  }
+
+  /**
+   * Gets the kind of a token.
+   *
+   * @param index the token index
+   * @return {@link TokenHandler#TEXT}, {@link TokenHandler#TAG} or {@link TokenHandler#COMMENT}
+   */
+  public int kind(int index) {
+    checkIndex(index);
+    return kinds[index];
+  }
+
+  /**
+   * Gets the start offset of a token in the source.
+   *
+   * @param index the token index
+   * @return the start offset, inclusive
+   */
+  public int start(int index) {
+    checkIndex(index);
+    return starts[index];
+  }
+
+  /**
+   * Gets the end offset of a token in the source.
+   *
+   * @param index the token index
+   * @return the end offset, exclusive
+   */
+  public int end(int index) {
+    checkIndex(index);
+    return ends[index];
+  }
+
+  /**
+   * Gets a token as a String. This creates a new String, prefer the offsets when possible.
+   *
+   * @param index the token index
+   * @return the token
+   */
+  public String token(int index) {
+    checkIndex(index);
+    return source.substring(starts[index], ends[index]);
+  }
+
+  /**
+   * Checks whether a token is equal to a String, without creating the token String.
+   *
+   * @param index the token index
+   * @param value the String to compare
+   * @return true if the token is equal to value
+   */
+  public boolean tokenEquals(int index, String value) {
+    checkIndex(index);
+    int length = ends[index] - starts[index];
+    return length == value.length() && source.regionMatches(starts[index], value, 0, length);
+  }
+
+  /**
+   * Pushes a token to a handler.
+   *
+   * @param index the token index
+   * @param handler the handler
+   */
+  public void emit(int index, TokenHandler handler) {
+    checkIndex(index);
+    handler.token(kinds[index], source, starts[index], ends[index]);
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Token index: " + index + ", size: " + size);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.common.xmlprocessor;
+
+/**
+ * Receives the tokens of an XML string in document order, as they are emitted by
+ * {@link Tokenizer#tokenize(String, TokenHandler)} or by the previous stage of a {@link TokenPipeline}.
+ * <br>
+ * A token is given as a region of a source string so that no substring has to be created when the
+ * token is passed through unchanged.
+ *
+ * @since 4.4
+ */
+public interface TokenHandler {
+
+  /**
+   * A text run. A text token never contains the {@code <} character.
+   */
+  int TEXT = 0;
+
+  /**
+   * A tag, from {@code <} up to the next {@code >}, or up to the end of the input if the tag is not terminated.
+   */
+  int TAG = 1;
+
+  /**
+   * A comment, from {@code <!--} up to the next {@code -->}, or up to the end of the input.
+   */
+  int COMMENT = 2;
+
+  /**
+   * Receives one token.
+   *
+   * @param kind the token kind: {@link #TEXT}, {@link #TAG} or {@link #COMMENT}
+   * @param source the string holding the token
+   * @param start the start offset of the token in source, inclusive
+   * @param end the end offset of the token in source, exclusive
+   */
+  void token(int kind, String source, int start, int end);
+
+  /**
+   * Receives a fragment of markup which has not been tokenized yet, for example a tag rebuilt by a filter.
+   * The fragment must be handled exactly as if its tokens had been read from the input.
+   *
+   * @param markup the markup fragment
+   */
+  void markup(String markup);
+
+  /**
+   * Notifies that all the tokens of the input have been received.
+   */
+  void end();
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.common.xmlprocessor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs a chain of {@link StreamFilter}s over an XML String in a single pass: the input is tokenized once and each
+ * token flows through the stages of the filters, the last stage writing straight to the output buffer.
+ *
+ * @since 4.4
+ */
+public final class TokenPipeline {
+
+  private TokenPipeline() {
+  }
+
+  /**
+   * Processes the input through one filter.
+   *
+   * @param input the XML String
+   * @param filter the filter
+   * @return the filtered String
+   */
+  public static String process(String input, StreamFilter filter) {
+    return process(input, Collections.singletonList(filter));
+  }
+
+  /**
+   * Processes the input through the filters, in order. The result is the same as applying
+   * {@link Filter#doFilter(Object)} of each filter one after the other.
+   *
+   * @param input the XML String
+   * @param filters the filters
+   * @return the filtered String
+   */
+  public static String process(String input, List<? extends StreamFilter> filters) {
+    Output output = new Output(input.length());
+    TokenHandler head = output;
+    for (int i = filters.size() - 1; i >= 0; i--) {
+      head = filters.get(i).createStage(head);
+    }
+    Tokenizer.tokenize(input, head);
+    head.end();
+    return output.toString();
+  }
+
+  /**
+   * The last handler of the pipeline, collecting the output.
+   */
+  private static class Output implements TokenHandler {
+    private final StringBuilder builder;
+
+    Output(int capacity) {
+      builder = new StringBuilder(capacity + 16);
+    }
+
+    public void token(int kind, String source, int start, int end) {
+      builder.append(source, start, end);
+    }
+
+    public void markup(String markup) {
+      builder.append(markup);
+    }
+
+    public void end() {
+    }
+
+    @Override
+    public String toString() {
+      return builder.toString();
+    }
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.common.xmlprocessor;
+
+import org.apache.commons.lang.StringEscapeUtils;
+
+/**
+ * Base class for the stages of a {@link TokenPipeline}. A stage receives the tokens of the input, transforms them
+ * and pushes the result to the next stage. By default, every token is passed through unchanged.
+ * <br>
+ * The markup fragments received from the previous stage are tokenized here. When a fragment ends with a tag or a
+ * comment which is not terminated, the token is completed with what comes next, so that the stage gets the same
+ * tokens as it would by tokenizing the whole output of the previous stage.
+ *
+ * @since 4.4
+ */
+public abstract class TokenStage implements TokenHandler {
+
+  /**
+   * The next stage, which receives the output of this stage.
+   */
+  protected final TokenHandler next;
+
+  /**
+   * The last token of a markup fragment which is not terminated yet, or null.
+   */
+  private StringBuilder pending;
+
+  /**
+   * Whether the tokens being dispatched are the last ones of the input.
+   */
+  private boolean lastTokens;
+
+  private final TokenHandler dispatcher = new TokenHandler() {
+    public void token(int kind, String source, int start, int end) {
+      if (lastTokens || isTerminated(kind, source, start, end)) {
+        onToken(kind, source, start, end);
+      } else {
+        pending = new StringBuilder(end - start + 16).append(source, start, end);
+      }
+    }
+
+    public void markup(String markup) {
+      Tokenizer.tokenize(markup, this);
+    }
+
+    public void end() {
+    }
+  };
+
+  /**
+   * Constructor.
+   *
+   * @param next the next stage
+   */
+  protected TokenStage(TokenHandler next) {
+    this.next = next;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void token(int kind, String source, int start, int end) {
+    if (pending != null) {
+      pending.append(source, start, end);
+      dispatchPending();
+    } else {
+      onToken(kind, source, start, end);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void markup(String markup) {
+    if (pending != null) {
+      pending.append(markup);
+      dispatchPending();
+    } else {
+      Tokenizer.tokenize(markup, dispatcher);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void end() {
+    if (pending != null) {
+      lastTokens = true;
+      dispatchPending();
+    }
+    onEnd();
+  }
+
+  /**
+   * Handles one token of the input.
+   *
+   * @param kind the token kind
+   * @param source the string holding the token
+   * @param start the start offset of the token in source, inclusive
+   * @param end the end offset of the token in source, exclusive
+   * @see TokenHandler#token(int, String, int, int)
+   */
+  protected void onToken(int kind, String source, int start, int end) {
+    next.token(kind, source, start, end);
+  }
+
+  /**
+   * Handles the end of the input. Must call {@link TokenHandler#end()} on the next stage.
+   */
+  protected void onEnd() {
+    next.end();
+  }
+
+  private void dispatchPending() {
+    String markup = pending.toString();
+    pending = null;
+    Tokenizer.tokenize(markup, dispatcher);
+  }
+
+  private static boolean isTerminated(int kind, String source, int start, int end) {
+    switch (kind) {
+      case TAG:
+        return source.charAt(end - 1) == '>';
+      case COMMENT:
+        return source.startsWith("-->", end - 3);
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Gets the token as a String, without copying it when the token spans the whole source.
+   *
+   * @param source the string holding the token
+   * @param start the start offset of the token
+   * @param end the end offset of the token
+   * @return the token
+   */
+  protected static String text(String source, int start, int end) {
+    return start == 0 && end == source.length() ? source : source.substring(start, end);
+  }
+
+  /**
+   * Finds a character inside a token.
+   *
+   * @param source the string holding the token
+   * @param c the character to find
+   * @param start the start offset of the token
+   * @param end the end offset of the token
+   * @return the offset of the first occurrence of the character in the token, or -1
+   */
+  protected static int indexOf(String source, char c, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (source.charAt(i) == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Pushes a text token held by a whole String to the next stage.
+   *
+   * @param text the text, which must not contain the {@code <} character
+   */
+  protected void emitText(String text) {
+    if (text.length() > 0) {
+      next.token(TEXT, text, 0, text.length());
+    }
+  }
+
+  /**
+   * Pushes a text token escaped by {@link StringEscapeUtils#escapeHtml(String)} to the next stage. The token is
+   * passed through in place when it has nothing to escape, which is the common case.
+   *
+   * @param source the string holding the token
+   * @param start the start offset of the token
+   * @param end the end offset of the token
+   */
+  protected void emitEscaped(String source, int start, int end) {
+    for (int i = start; i < end; i++) {
+      char c = source.charAt(i);
+      if (c == '&' || c == '<' || c == '>' || c == '"' || c > 0x7F) {
+        emitText(StringEscapeUtils.escapeHtml(source.substring(start, end)));
+        return;
+      }
+    }
+    next.token(TEXT, source, start, end);
+  }
+
+  /**
+   * Reads a simple tag token in place: {@code <name>}, {@code </name>} or {@code <name />} with a lower case name.
+   * Such a tag is read the same way by the patterns of {@link DOMParser}, which are not needed for it.
+   *
+   * @param source the string holding the token
+   * @param start the start offset of the tag token
+   * @param end the end offset of the tag token
+   * @return the end offset of the tag name, the name starting after {@code <} or {@code </}; or -1 if the token is
+   *         not a simple tag
+   */
+  protected static int simpleTagNameEnd(String source, int start, int end) {
+    if (end - start < 3) {
+      return -1;
+    }
+    int nameStart = source.charAt(start + 1) == '/' ? start + 2 : start + 1;
+    int nameEnd = nameStart;
+    while (nameEnd < end && isLowerCaseWordChar(source.charAt(nameEnd))) {
+      nameEnd++;
+    }
+    if (nameEnd == nameStart) {
+      return -1;
+    }
+    if (end - nameEnd == 1 && source.charAt(nameEnd) == '>') {
+      return nameEnd;
+    }
+    if (end - nameEnd == 3 && nameStart == start + 1 && source.startsWith(" />", nameEnd)) {
+      return nameEnd;
+    }
+    return -1;
+  }
+
+  private static boolean isLowerCaseWordChar(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_';
+  }
+}
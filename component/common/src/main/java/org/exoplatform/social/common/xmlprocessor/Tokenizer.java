@@ -28,61 +28,71 @@ import java.util.List;
 public class Tokenizer {
   /**
    * Splits tag of XML String to an arrayList
+   * <br>
+   * This creates a String per token, {@link #tokenize(String, TokenCursor)} should be preferred.
    *
    * @param html
    * @return list of HTML tags
    */
   public static List<String> tokenize(String html) {
-    ArrayList<String> tokens = new ArrayList<String>();
+    TokenCursor cursor = tokenize(html, new TokenCursor());
+    List<String> tokens = new ArrayList<String>(cursor.size());
+    while (cursor.next()) {
+      tokens.add(cursor.token());
+    }
+    return tokens;
+  }
+
+  /**
+   * Splits the XML String into the offsets of its tokens, without creating any String.
+   *
+   * @param html the XML String
+   * @param cursor the cursor to fill, which is reset first
+   * @return the cursor, positioned before the first token
+   * @since 4.4
+   */
+  public static TokenCursor tokenize(String html, TokenCursor cursor) {
+    cursor.reset(html);
+    tokenize(html, cursor.filler());
+    return cursor;
+  }
+
+  /**
+   * Scans the XML String once and pushes each of its tokens to the handler, without building any list.
+   * {@link TokenHandler#end()} is not called so that several fragments can be pushed to the same handler.
+   *
+   * @param html the XML String
+   * @param handler the handler receiving the tokens
+   * @since 4.4
+   */
+  public static void tokenize(String html, TokenHandler handler) {
     int pos = 0;
-    String token = "";
     int len = html.length();
     while (pos < len) {
-      char c = html.charAt(pos);
-
-      String ahead = html.substring(pos, pos > len - 4 ? len : pos + 4);
-
-      // a comment is starting
-      if ("<!--".equals(ahead)) {
-        // store the current token
-        if (token.length() > 0) {
-          tokens.add(token);
-        }
-
-        // clear the token
-        token = "";
-
-        // search the end of <......>
-        int end = moveToMarkerEnd(pos, "-->", html);
-        tokens.add(html.substring(pos, end));
-        pos = end;
-
-        // a new "<" token is starting
-      } else if ('<' == c) {
-
-        // store the current token
-        if (token.length() > 0) {
-          tokens.add(token);
-        }
+      int tagStart = html.indexOf('<', pos);
+      if (tagStart < 0) {
+        tagStart = len;
+      }
 
-        // clear the token
-        token = "";
+      // store the current text token
+      if (tagStart > pos) {
+        handler.token(TokenHandler.TEXT, html, pos, tagStart);
+      }
+      if (tagStart == len) {
+        break;
+      }
 
-        // search the end of <......>
-        int end = moveToMarkerEnd(pos, ">", html);
-        tokens.add(html.substring(pos, end));
-        pos = end;
+      // a comment is starting: search the end of <!--......-->
+      if (html.startsWith("<!--", tagStart)) {
+        pos = moveToMarkerEnd(tagStart, "-->", html);
+        handler.token(TokenHandler.COMMENT, html, tagStart, pos);
 
+        // a new "<" token is starting: search the end of <......>
       } else {
-        token = token + c;
-        pos++;
+        pos = moveToMarkerEnd(tagStart, ">", html);
+        handler.token(TokenHandler.TAG, html, tagStart, pos);
       }
-
-    }
-    if (token.length() > 0) {
-      tokens.add(token);
     }
-    return tokens;
   }
 
   private static int moveToMarkerEnd(int pos, String marker, String s) {
@@ -16,8 +16,10 @@
  */
 package org.exoplatform.social.common.xmlprocessor;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
@@ -93,14 +95,24 @@ public class XMLProcessorImpl implements XMLProcessor {
 
   /**
    * {@inheritDoc}
+   * <br>
+   * Consecutive {@link StreamFilter}s applied to a String are run together by a {@link TokenPipeline}, so that the
+   * input is tokenized only once for all of them.
    */
   public Object process(Object input) {
     if (input == null) return input;
-    for (Iterator<Filter> filterIterator = filters.iterator();
-         filterIterator.hasNext();
-         ) {
-      Filter filter = filterIterator.next();
-      input = filter.doFilter(input);
+    Filter[] chain = filters.toArray(new Filter[filters.size()]);
+    int i = 0;
+    while (i < chain.length) {
+      if (input instanceof String && chain[i] instanceof StreamFilter) {
+        List<StreamFilter> streamFilters = new ArrayList<StreamFilter>();
+        while (i < chain.length && chain[i] instanceof StreamFilter) {
+          streamFilters.add((StreamFilter) chain[i++]);
+        }
+        input = TokenPipeline.process((String) input, streamFilters);
+      } else {
+        input = chain[i++].doFilter(input);
+      }
     }
     return input;
   }
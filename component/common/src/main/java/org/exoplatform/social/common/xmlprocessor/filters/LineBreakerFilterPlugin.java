@@ -16,14 +16,23 @@
  */
 package org.exoplatform.social.common.xmlprocessor.filters;
 
+import java.util.regex.Pattern;
+
 import org.exoplatform.social.common.xmlprocessor.BaseXMLFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.StreamFilter;
+import org.exoplatform.social.common.xmlprocessor.TokenHandler;
+import org.exoplatform.social.common.xmlprocessor.TokenStage;
 
 /**
  * This Filter repace native line break character in String input and replace it with HTML /<br> tag.
  *
  * @author Ly Minh Phuong - http://phuonglm.net
  */
-public class LineBreakerFilterPlugin extends BaseXMLFilterPlugin {
+public class LineBreakerFilterPlugin extends BaseXMLFilterPlugin implements StreamFilter {
+
+  private static final Pattern LINE_BREAK_PATTERN = Pattern.compile("\\r?\\n");
+
+  private static final String LINE_BREAK_TAG = "<br />";
 
   /**
    * {@inheritDoc}
@@ -32,8 +41,50 @@ public class LineBreakerFilterPlugin extends BaseXMLFilterPlugin {
   public Object doFilter(Object input) {
     if (input instanceof String) {
       String inputString = (String) input;
-      input = inputString.replaceAll("\\r?\\n", "<br />");
+      input = LINE_BREAK_PATTERN.matcher(inputString).replaceAll(LINE_BREAK_TAG);
     }
     return input;
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  public TokenHandler createStage(TokenHandler next) {
+    return new LineBreakerStage(next);
+  }
+
+  /**
+   * Splits the text tokens around their line breaks. Line breaks inside tags, which are unusual, are replaced in
+   * the tag String and the result is tokenized again, as {@link #doFilter(Object)} would do.
+   */
+  private static class LineBreakerStage extends TokenStage {
+
+    LineBreakerStage(TokenHandler next) {
+      super(next);
+    }
+
+    @Override
+    protected void onToken(int kind, String source, int start, int end) {
+      int lineBreak = indexOf(source, '\n', start, end);
+      if (lineBreak < 0) {
+        next.token(kind, source, start, end);
+      } else if (kind != TEXT) {
+        next.markup(LINE_BREAK_PATTERN.matcher(source.substring(start, end)).replaceAll(LINE_BREAK_TAG));
+      } else {
+        int pos = start;
+        while (lineBreak >= 0) {
+          int textEnd = lineBreak > pos && source.charAt(lineBreak - 1) == '\r' ? lineBreak - 1 : lineBreak;
+          if (textEnd > pos) {
+            next.token(TEXT, source, pos, textEnd);
+          }
+          next.token(TAG, LINE_BREAK_TAG, 0, LINE_BREAK_TAG.length());
+          pos = lineBreak + 1;
+          lineBreak = indexOf(source, '\n', pos, end);
+        }
+        if (end > pos) {
+          next.token(TEXT, source, pos, end);
+        }
+      }
+    }
+  }
 }
@@ -18,7 +18,6 @@
 package org.exoplatform.social.common.xmlprocessor.filters;
 
 import java.util.LinkedList;
-import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,6 +27,11 @@ import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.social.common.xmlprocessor.BaseXMLFilterPlugin;
 import org.exoplatform.social.common.xmlprocessor.DOMParser;
+import org.exoplatform.social.common.xmlprocessor.StreamFilter;
+import org.exoplatform.social.common.xmlprocessor.TokenCursor;
+import org.exoplatform.social.common.xmlprocessor.TokenHandler;
+import org.exoplatform.social.common.xmlprocessor.TokenPipeline;
+import org.exoplatform.social.common.xmlprocessor.TokenStage;
 import org.exoplatform.social.common.xmlprocessor.Tokenizer;
 import org.exoplatform.social.common.xmlprocessor.model.Attributes;
 import org.exoplatform.social.common.xmlprocessor.model.Node;
@@ -42,7 +46,7 @@ import org.exoplatform.social.common.xmlprocessor.model.Node;
  * @author Ly Minh Phuong - http://phuonglm.net
  * @since 1.2.2
  */
-public class URLConverterFilterPlugin extends BaseXMLFilterPlugin {
+public class URLConverterFilterPlugin extends BaseXMLFilterPlugin implements StreamFilter {
   private int urlMaxLength = -1;
   private static final Log LOG = ExoLogger.getLogger(URLConverterFilterPlugin.class);
   
@@ -110,13 +114,47 @@ public class URLConverterFilterPlugin extends BaseXMLFilterPlugin {
     this.urlMaxLength = urlMaxLength;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public TokenHandler createStage(TokenHandler next) {
+    return new URLConverterStage(next);
+  }
+
   private String convertURL(String xmlString){
-    List<String> xmlTokens = Tokenizer.tokenize(xmlString);
+    return TokenPipeline.process(xmlString, this);
+  }
+
+  private String convertURL(TokenCursor xmlTokens){
     Node rootNode = DOMParser.createDOMTree(xmlTokens);
     nodeFilter(rootNode);
     return rootNode.toString();
   }
 
+  /**
+   * Collects the input and converts the URLs at the end of it, as the conversion needs the DOM tree. The input is
+   * tokenized again as a whole, so that adjacent text tokens are joined before looking for URLs.
+   */
+  private class URLConverterStage extends TokenStage {
+
+    private final StringBuilder xmlString = new StringBuilder();
+
+    URLConverterStage(TokenHandler next) {
+      super(next);
+    }
+
+    @Override
+    protected void onToken(int kind, String source, int start, int end) {
+      xmlString.append(source, start, end);
+    }
+
+    @Override
+    protected void onEnd() {
+      next.markup(convertURL(Tokenizer.tokenize(xmlString.toString(), new TokenCursor())));
+      next.end();
+    }
+  }
+
   private int nodeFilter(Node currentNode) {
     LinkedList<Node> currentChildNode = currentNode.getChildNodes();
     if (currentNode.getTitle().isEmpty()) {
@@ -147,9 +185,11 @@ public class URLConverterFilterPlugin extends BaseXMLFilterPlugin {
       
       int lastMatch = 0;
       
+      // most of the texts have no link, don't run the pattern on them
+      boolean mayContainURL = mayContainURL(content);
       Matcher m = URL_PATTERN.matcher(content);
       
-      while (m.find()) {
+      while (mayContainURL && m.find()) {
         String textLink = content.substring(m.start(), m.end());
         String url = textLink;
         int start = m.start();
@@ -210,6 +250,38 @@ public class URLConverterFilterPlugin extends BaseXMLFilterPlugin {
     return insertedCount;
   }
   
+  /**
+   * Checks cheaply whether the text may contain a link, so that {@link #URL_PATTERN} is only run on the text nodes
+   * which may match it. Any match of the pattern contains either a protocol ("://") or a dot followed by a digit
+   * (IP address) or by two letters (domain name), the text which contains none of them can't have any link.
+   *
+   * @param content the unescaped content of a text node
+   * @return false if the text contains no link for sure
+   * @since 4.4
+   */
+  static boolean mayContainURL(String content) {
+    if (content.indexOf("://") >= 0) {
+      return true;
+    }
+    int length = content.length();
+    int dot = content.indexOf('.');
+    while (dot >= 0 && dot + 1 < length) {
+      char c = content.charAt(dot + 1);
+      if (c >= '0' && c <= '9') {
+        return true;
+      }
+      if (isASCIILetter(c) && dot + 2 < length && isASCIILetter(content.charAt(dot + 2))) {
+        return true;
+      }
+      dot = content.indexOf('.', dot + 1);
+    }
+    return false;
+  }
+
+  private static boolean isASCIILetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
   private String shortenURL(String url) {
     if (urlMaxLength < 3 || url.length() < urlMaxLength)
       return url;
@@ -16,99 +16,216 @@
  */
 package org.exoplatform.social.common.xmlprocessor.filters;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 
 import org.apache.commons.lang.StringEscapeUtils;
 import org.exoplatform.social.common.xmlprocessor.BaseXMLFilterPlugin;
 import org.exoplatform.social.common.xmlprocessor.DOMParser;
-import org.exoplatform.social.common.xmlprocessor.Tokenizer;
-import org.exoplatform.social.common.xmlprocessor.model.Node;
+import org.exoplatform.social.common.xmlprocessor.StreamFilter;
+import org.exoplatform.social.common.xmlprocessor.TokenHandler;
+import org.exoplatform.social.common.xmlprocessor.TokenPipeline;
+import org.exoplatform.social.common.xmlprocessor.TokenStage;
+import org.exoplatform.social.common.xmlprocessor.model.Attributes;
 
 /**
  * This Filter try Smart way to autoCorrect the typo in HTML input (auto close opened TAG, escape wrong TAG).
  *
  * @author Ly Minh Phuong - http://phuonglm.net
  */
-public class XMLBalancerFilterPlugin extends BaseXMLFilterPlugin {
+public class XMLBalancerFilterPlugin extends BaseXMLFilterPlugin implements StreamFilter {
   /**
    * {@inheritDoc}
    */
   @Override
   public Object doFilter(Object input) {
     if (input instanceof String) {
-      input = createDOMTree((String) input).toString();
+      input = TokenPipeline.process((String) input, this);
     }
     return input;
   }
 
   /**
-   * Creates DOM tree From String input and Balance it.
-   *
-   * @param xmlString
-   * @return
+   * {@inheritDoc}
    */
-  private Node createDOMTree(String xmlString) {
-    Node rootNode = new Node();
-    Node parsingNode = rootNode;
-    Node currentNode = rootNode;
+  public TokenHandler createStage(TokenHandler next) {
+    return new BalancerStage(next);
+  }
 
-    List<String> xmlTokens = Tokenizer.tokenize(xmlString);
+  /**
+   * Balances the tokens on the fly with a stack of the opened tags, writing the same output as the DOM tree the
+   * filter used to build: tags are normalized, opened tags are closed at the latest at the end of the input, wrong
+   * closing tags and text are escaped.
+   */
+  private static class BalancerStage extends TokenStage {
+
+    /**
+     * The opened elements, the innermost one last.
+     */
+    private final List<OpenedElement> openedElements = new ArrayList<OpenedElement>();
+
+    BalancerStage(TokenHandler next) {
+      super(next);
+    }
+
+    @Override
+    protected void onToken(int kind, String source, int start, int end) {
+      if (kind == TEXT) {
+        addChild();
+        emitEscaped(source, start, end);
+        return;
+      }
+      int nameEnd = kind == TAG ? simpleTagNameEnd(source, start, end) : -1;
+      if (nameEnd > 0) {
+        if (source.charAt(start + 1) == '/') {
+          closeTag(source, start + 2, nameEnd, source, start, end);
+        } else {
+          addChild();
+          String tag = source.substring(start + 1, nameEnd);
+          openTag(new OpenedElement(tag, "<" + tag), nameEnd < end - 1);
+        }
+        return;
+      }
+      String token = text(source, start, end);
 
-    for (String token : xmlTokens) {
       Matcher startMatcher = DOMParser.TAGSTARTPATTERN.matcher(token);
       Matcher endMatcher = DOMParser.TAGCLOSEPATTERN.matcher(token);
 
       if (DOMParser.COMMENTPATTERN.matcher(token).find()) {
-        parsingNode = new Node();
-        parsingNode.setParentNode(currentNode);
-        currentNode.addChildNode(parsingNode);
-        parsingNode.setTitle(token);
+        addChild();
+        // a comment is kept as a node titled by the whole comment
+        next.markup("<" + token + "></" + token + ">");
       } else if (startMatcher.find()) {
+        addChild();
         String tag = startMatcher.group(1).toLowerCase();
 
-        parsingNode = new Node();
-        parsingNode.setParentNode(currentNode);
-        parsingNode.setTitle(tag);
-
-        String tokenBody = startMatcher.group(2);
-
-        Matcher attributes = DOMParser.ATTRIBUTESPATTERN.matcher(tokenBody);
-
-        while (attributes.find()) {
-          String attr = attributes.group(1).toLowerCase();
-          String val = attributes.group(4) == null ? attributes.group(3) : attributes.group(4);
-          parsingNode.addAttribute(attr, val);
-        }
-        currentNode.addChildNode(parsingNode);
-        if (!DOMParser.SELFTCLOSETAGPATTERN.matcher(token).find()) {
-          currentNode = parsingNode;
+        Attributes attributes = new Attributes();
+        Matcher attributesMatcher = DOMParser.ATTRIBUTESPATTERN.matcher(startMatcher.group(2));
+        while (attributesMatcher.find()) {
+          String attr = attributesMatcher.group(1).toLowerCase();
+          String val = attributesMatcher.group(4) == null ? attributesMatcher.group(3) : attributesMatcher.group(4);
+          attributes.put(attr, val);
         }
+        openTag(new OpenedElement(tag, "<" + tag + attributes.toString()),
+                DOMParser.SELFTCLOSETAGPATTERN.matcher(token).find());
       } else if (endMatcher.find()) {
         String tag = endMatcher.group(1).toLowerCase();
-        Node searchOpenedNode = currentNode;
-        while (!searchOpenedNode.getTitle().equals(tag)
-                && !(searchOpenedNode.getParentNode() == null)) {
-          searchOpenedNode = searchOpenedNode.getParentNode();
+        closeTag(tag, 0, tag.length(), source, start, end);
+      } else {
+        addChild();
+        emitEscaped(source, start, end);
+      }
+    }
+
+    private void openTag(OpenedElement element, boolean selfClosed) {
+      if (selfClosed) {
+        close(element);
+      } else {
+        if (!element.isSelfClosable()) {
+          open(element);
         }
-        if (searchOpenedNode.getParentNode() == null) {
-          Node invalidNode = new Node();
-          invalidNode.setContent(StringEscapeUtils.escapeHtml(token));
-          currentNode.addChildNode(invalidNode);
-        } else if (searchOpenedNode.getTitle().equals(currentNode.getTitle())) {
-          currentNode = currentNode.getParentNode();
-        } else {
-          currentNode = searchOpenedNode.getParentNode();
+        openedElements.add(element);
+      }
+    }
+
+    /**
+     * Closes the innermost opened element with the given name and the elements it contains, or escapes the closing
+     * tag when there is no such element.
+     *
+     * @param name the string holding the tag name
+     * @param nameStart the start offset of the tag name
+     * @param nameEnd the end offset of the tag name
+     * @param source the string holding the closing tag token
+     * @param start the start offset of the closing tag token
+     * @param end the end offset of the closing tag token
+     */
+    private void closeTag(String name, int nameStart, int nameEnd, String source, int start, int end) {
+      int length = nameEnd - nameStart;
+      int searchOpened = openedElements.size() - 1;
+      while (searchOpened >= 0) {
+        String tag = openedElements.get(searchOpened).tag;
+        if (tag.length() == length && tag.regionMatches(0, name, nameStart, length)) {
+          break;
         }
+        searchOpened--;
+      }
+      if (searchOpened < 0) {
+        addChild();
+        emitEscaped(source, start, end);
+      } else {
+        closeUntil(searchOpened);
+      }
+    }
+
+    @Override
+    protected void onEnd() {
+      closeUntil(0);
+      next.end();
+    }
+
+    /**
+     * Notifies the innermost opened element that it gets a child: a br or img element which gets a child is no
+     * longer written as a self closed tag.
+     */
+    private void addChild() {
+      if (!openedElements.isEmpty()) {
+        OpenedElement parent = openedElements.get(openedElements.size() - 1);
+        if (!parent.opened) {
+          open(parent);
+        }
+      }
+    }
+
+    private void open(OpenedElement element) {
+      next.markup(element.openTag + ">");
+      element.opened = true;
+    }
 
+    private void close(OpenedElement element) {
+      if (element.opened) {
+        String closeTag = "</" + element.tag + ">";
+        next.token(TAG, closeTag, 0, closeTag.length());
+      } else if (element.isSelfClosable()) {
+        next.markup(element.openTag + " />");
       } else {
-        parsingNode = new Node();
-        parsingNode.setParentNode(currentNode);
-        parsingNode.setContent(StringEscapeUtils.escapeHtml(token));
+        next.markup(element.openTag + "></" + element.tag + ">");
+      }
+    }
 
-        currentNode.addChildNode(parsingNode);
+    private void closeUntil(int index) {
+      for (int i = openedElements.size() - 1; i >= index; i--) {
+        close(openedElements.remove(i));
       }
     }
-    return rootNode;
+  }
+
+  /**
+   * An element which is opened and not closed yet.
+   */
+  private static class OpenedElement {
+    private final String tag;
+
+    /**
+     * The opening tag, without its ending {@code >}.
+     */
+    private final String openTag;
+
+    /**
+     * Whether the opening tag has been written.
+     */
+    private boolean opened;
+
+    OpenedElement(String tag, String openTag) {
+      this.tag = tag;
+      this.openTag = openTag;
+    }
+
+    /**
+     * See {@link org.exoplatform.social.common.xmlprocessor.model.Node#isSelfClosedNode()}.
+     */
+    boolean isSelfClosable() {
+      return "br".equals(tag) || "img".equals(tag);
+    }
   }
 }
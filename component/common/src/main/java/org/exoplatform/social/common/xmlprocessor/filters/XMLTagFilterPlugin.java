@@ -17,13 +17,15 @@
 package org.exoplatform.social.common.xmlprocessor.filters;
 
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.regex.Matcher;
 
 import org.apache.commons.lang.StringEscapeUtils;
 import org.exoplatform.social.common.xmlprocessor.BaseXMLFilterPlugin;
 import org.exoplatform.social.common.xmlprocessor.DOMParser;
-import org.exoplatform.social.common.xmlprocessor.Tokenizer;
+import org.exoplatform.social.common.xmlprocessor.StreamFilter;
+import org.exoplatform.social.common.xmlprocessor.TokenHandler;
+import org.exoplatform.social.common.xmlprocessor.TokenPipeline;
+import org.exoplatform.social.common.xmlprocessor.TokenStage;
 import org.exoplatform.social.common.xmlprocessor.model.Attributes;
 import org.exoplatform.social.common.xmlprocessor.model.XMLTagFilterPolicy;
 
@@ -33,7 +35,7 @@ import org.exoplatform.social.common.xmlprocessor.model.XMLTagFilterPolicy;
  *
  * @author Ly Minh Phuong - http://phuonglm.net
  */
-public class XMLTagFilterPlugin extends BaseXMLFilterPlugin {
+public class XMLTagFilterPlugin extends BaseXMLFilterPlugin implements StreamFilter {
   private LinkedHashMap<String, Attributes> allowedTags;
 
   /**
@@ -68,17 +70,46 @@ public class XMLTagFilterPlugin extends BaseXMLFilterPlugin {
    */
   public Object doFilter(Object input) {
     if (input instanceof String) {
-      input = nodeFilter((String) input);
+      input = TokenPipeline.process((String) input, this);
     }
     return input;
   }
 
-  private String nodeFilter(String xmlInput) {
-    List<String> xmlTokens = Tokenizer.tokenize(xmlInput);
+  /**
+   * {@inheritDoc}
+   */
+  public TokenHandler createStage(TokenHandler next) {
+    return new TagFilterStage(next);
+  }
 
-    for (int i = 0; i < xmlTokens.size(); i++) {
-      String token = xmlTokens.get(i);
+  /**
+   * Escapes the tags which are not allowed and removes the attributes which are not allowed. Text tokens never
+   * contain tags and allowed simple tags need no change, they are passed through in place.
+   */
+  private class TagFilterStage extends TokenStage {
 
+    TagFilterStage(TokenHandler next) {
+      super(next);
+    }
+
+    @Override
+    protected void onToken(int kind, String source, int start, int end) {
+      if (kind == TEXT) {
+        next.token(kind, source, start, end);
+        return;
+      }
+      int nameEnd = kind == TAG ? simpleTagNameEnd(source, start, end) : -1;
+      if (nameEnd > 0) {
+        // a simple tag is kept as it is when allowed
+        int nameStart = source.charAt(start + 1) == '/' ? start + 2 : start + 1;
+        if (isAllowed(source, nameStart, nameEnd)) {
+          next.token(kind, source, start, end);
+        } else {
+          emitText(StringEscapeUtils.escapeHtml(text(source, start, end)));
+        }
+        return;
+      }
+      String token = text(source, start, end);
 
       Matcher startMatcher = DOMParser.TAGSTARTPATTERN.matcher(token);
       Matcher endMatcher = DOMParser.TAGCLOSEPATTERN.matcher(token);
@@ -87,7 +118,7 @@ public class XMLTagFilterPlugin extends BaseXMLFilterPlugin {
         String tag = startMatcher.group(1).toLowerCase();
 
         if (!allowedTags.containsKey(tag)) {
-          xmlTokens.set(i, StringEscapeUtils.escapeHtml(token));
+          emitText(StringEscapeUtils.escapeHtml(token));
         } else {
           StringBuilder tagStringBuilder = new StringBuilder("<" + tag);
 
@@ -108,21 +139,24 @@ public class XMLTagFilterPlugin extends BaseXMLFilterPlugin {
           } else {
             tagStringBuilder.append(">");
           }
-          xmlTokens.set(i, tagStringBuilder.toString());
-        }
-      } else if (endMatcher.find()) {
-        String tag = endMatcher.group(1).toLowerCase();
-        if (!allowedTags.containsKey(tag)) {
-          xmlTokens.set(i, StringEscapeUtils.escapeHtml(token));
+          next.markup(tagStringBuilder.toString());
         }
+      } else if (endMatcher.find() && !allowedTags.containsKey(endMatcher.group(1).toLowerCase())) {
+        emitText(StringEscapeUtils.escapeHtml(token));
+      } else {
+        next.token(kind, source, start, end);
       }
     }
-    StringBuilder xmlStringBuilder = new StringBuilder();
 
-    for (String xmlToken : xmlTokens) {
-      xmlStringBuilder.append(xmlToken);
+    private boolean isAllowed(String source, int nameStart, int nameEnd) {
+      int length = nameEnd - nameStart;
+      for (String tag : allowedTags.keySet()) {
+        if (tag.length() == length && source.regionMatches(nameStart, tag, 0, length)) {
+          return true;
+        }
+      }
+      return false;
     }
-    return xmlStringBuilder.toString();
   }
 
 }
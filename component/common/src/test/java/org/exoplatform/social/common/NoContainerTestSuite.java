@@ -18,6 +18,8 @@ package org.exoplatform.social.common;
 
 import org.exoplatform.social.common.jcr.filter.FilterLiteralTest;
 import org.exoplatform.social.common.xmlprocessor.DOMParserTest;
+import org.exoplatform.social.common.xmlprocessor.TokenCursorTest;
+import org.exoplatform.social.common.xmlprocessor.TokenPipelineTest;
 import org.exoplatform.social.common.xmlprocessor.TokenizerTest;
 import org.exoplatform.social.common.xmlprocessor.filters.DOMContentEscapeFilterPluginTest;
 import org.exoplatform.social.common.xmlprocessor.filters.DOMLineBreakerFilterPluginTest;
@@ -37,6 +39,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
   DOMParserTest.class,
   TokenizerTest.class,
+  TokenCursorTest.class,
+  TokenPipelineTest.class,
   AttributesTest.class,
   DOMContentEscapeFilterPluginTest.class,
   DOMLineBreakerFilterPluginTest.class,
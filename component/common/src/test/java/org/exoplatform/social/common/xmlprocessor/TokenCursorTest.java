@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.common.xmlprocessor;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit Test for {@link TokenCursor}.
+ */
+public class TokenCursorTest extends TestCase {
+
+  public void testTokenize() {
+    TokenCursor cursor = Tokenizer.tokenize("a <b>c<!-- d -->< e", new TokenCursor());
+    assertEquals(5, cursor.size());
+
+    assertTrue(cursor.next());
+    assertEquals(TokenHandler.TEXT, cursor.kind());
+    assertEquals(0, cursor.start());
+    assertEquals(2, cursor.end());
+    assertEquals("a ", cursor.token());
+
+    assertTrue(cursor.next());
+    assertEquals(TokenHandler.TAG, cursor.kind());
+    assertTrue(cursor.tokenEquals(cursor.position(), "<b>"));
+
+    assertTrue(cursor.next());
+    assertEquals("c", cursor.token());
+
+    assertTrue(cursor.next());
+    assertEquals(TokenHandler.COMMENT, cursor.kind());
+    assertEquals("<!-- d -->", cursor.token());
+
+    assertTrue(cursor.next());
+    assertEquals(TokenHandler.TAG, cursor.kind());
+    assertEquals("< e", cursor.token());
+
+    assertFalse(cursor.next());
+    assertFalse(cursor.next());
+
+    cursor.rewind();
+    assertTrue(cursor.next());
+    assertEquals("a ", cursor.token());
+  }
+
+  public void testReuse() {
+    TokenCursor cursor = new TokenCursor();
+    StringBuilder html = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      html.append("<p>").append(i).append("</p>");
+    }
+    Tokenizer.tokenize(html.toString(), cursor);
+    assertEquals(300, cursor.size());
+    assertEquals("99", cursor.token(298));
+
+    Tokenizer.tokenize("hello", cursor);
+    assertEquals(1, cursor.size());
+    assertEquals("hello", cursor.token(0));
+    assertEquals("hello", cursor.getSource());
+    try {
+      cursor.token(1);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // expected
+    }
+  }
+
+}
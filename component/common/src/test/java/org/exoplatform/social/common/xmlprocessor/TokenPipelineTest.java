@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.common.xmlprocessor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.exoplatform.social.common.xmlprocessor.filters.LineBreakerFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.filters.URLConverterFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.filters.XMLBalancerFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.filters.XMLTagFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.model.XMLTagFilterPolicy;
+import org.exoplatform.social.common.xmlprocessor.model.XMLTagFilterPolicy.AllowedTag;
+
+/**
+ * Unit Test for {@link TokenPipeline}.
+ */
+public class TokenPipelineTest extends TestCase {
+
+  private static final String[] INPUTS = {
+    "",
+    "hello 1",
+    "hello 1\n hello2\r\nhello 3",
+    "<a<b>Hello 2<a><b>",
+    "<b><i> hello 3</b> hello 4</i>",
+    "<b> hello 6 <br /><b>",
+    "<br></br><img src='a.png'>caption</img>",
+    "3 < 5\n >",
+    "<script>alert('x')</script> see http://www.exoplatform.com/ now",
+    "<p>Meeting notes:</p>\n<div class='c' id=\"d\">See www.google.com</div><b\n>",
+    "<a title='x>y'>link</a>",
+    "text <!-- comment --> more",
+    "<i><!--www.google.com</b>\"<!--<script>",
+    "<a href=\"http://x.com\"></p><!--<p><img src='x.png'><><!--'<script><a title='x>y'>"
+  };
+
+  private List<StreamFilter> filters;
+
+  @Override
+  protected void setUp() throws Exception {
+    XMLTagFilterPolicy tagFilterPolicy = new XMLTagFilterPolicy();
+    tagFilterPolicy.addAllowedTags("b", "i", "br", "p", "div");
+    Set<String> aAttributes = new HashSet<String>();
+    aAttributes.add("href");
+    aAttributes.add("target");
+    tagFilterPolicy.addAllowedTag(new AllowedTag("a", aAttributes));
+
+    filters = new ArrayList<StreamFilter>();
+    filters.add(new XMLBalancerFilterPlugin());
+    filters.add(new XMLTagFilterPlugin(tagFilterPolicy));
+    filters.add(new LineBreakerFilterPlugin());
+    filters.add(new URLConverterFilterPlugin(-1));
+  }
+
+  /**
+   * Tests that {@link TokenPipeline#process(String, List)} gives the same result as applying the filters one after
+   * the other.
+   */
+  public void testProcessLikeChainedFilters() {
+    for (String input : INPUTS) {
+      Object expected = input;
+      for (StreamFilter filter : filters) {
+        expected = filter.doFilter(expected);
+      }
+      assertEquals(input, expected, TokenPipeline.process(input, filters));
+    }
+  }
+
+  /**
+   * Tests {@link XMLProcessorImpl#process(Object)} with stream filters and another filter in the chain.
+   */
+  public void testProcessorWithStreamFilters() {
+    XMLProcessor xmlProcessor = new XMLProcessorImpl();
+    xmlProcessor.addFilter(new LineBreakerFilterPlugin());
+    xmlProcessor.addFilter(new XMLBalancerFilterPlugin());
+    xmlProcessor.addFilter(new Filter() {
+      public Object doFilter(Object input) {
+        return ((String) input).toUpperCase();
+      }
+    });
+    xmlProcessor.addFilter(new XMLBalancerFilterPlugin());
+
+    assertEquals("HELLO 1<br /> HELLO2", xmlProcessor.process("hello 1\n hello2"));
+    assertEquals("<a>HELLO 2<a><b></b></a></a>", xmlProcessor.process("<a<b>Hello 2<a><b>"));
+  }
+
+}
@@ -59,4 +59,22 @@ public class TokenizerTest extends TestCase {
     assertEquals("</a>", result.get(2));
   }
 
+  public void testTokenizeToHandler() {
+    final StringBuilder events = new StringBuilder();
+    Tokenizer.tokenize("a <b>c<!-- d -->< e", new TokenHandler() {
+      public void token(int kind, String source, int start, int end) {
+        events.append(kind).append(':').append(source, start, end).append('|');
+      }
+
+      public void markup(String markup) {
+        fail();
+      }
+
+      public void end() {
+        fail();
+      }
+    });
+    assertEquals("0:a |1:<b>|0:c|2:<!-- d -->|1:< e|", events.toString());
+  }
+
 }
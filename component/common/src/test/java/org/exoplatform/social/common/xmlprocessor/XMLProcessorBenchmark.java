@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.common.xmlprocessor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.exoplatform.social.common.xmlprocessor.filters.LineBreakerFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.filters.URLConverterFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.filters.XMLBalancerFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.filters.XMLTagFilterPlugin;
+import org.exoplatform.social.common.xmlprocessor.model.XMLTagFilterPolicy;
+import org.exoplatform.social.common.xmlprocessor.model.XMLTagFilterPolicy.AllowedTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of the activity and comment sanitization chain, configured as in the social extension. It is not
+ * part of the test suites, run it with the {@link #main(String[])} method from the test classpath.
+ * <br>
+ * "chained" applies the filters one after the other, each one tokenizing the output of the previous one, and
+ * "pipeline" is {@link XMLProcessorImpl#process(Object)} which tokenizes the input once for all the filters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XMLProcessorBenchmark {
+
+  /**
+   * Activity and comment bodies as they are posted from the composer.
+   */
+  static final String[] BODIES = {
+    "Great job on the release! Thanks everyone",
+    "+1",
+    "Hello <b>team</b>,\nthe new <a href=\"http://www.exoplatform.com/docs\">docs</a> are online.\n"
+        + "Please check http://community.exoplatform.com and tell me what you think.\n\nRegards",
+    "<p>Meeting notes:</p><ul><li>item one</li><li>item <i>two</i></li></ul>\n"
+        + "<div class='note'>See www.google.com for details</div><script>alert(1)</script>",
+    "I have uploaded the new version of the specification in the documents of the space, "
+        + "could you review it before friday? The main changes are in the chapters 3 and 4, "
+        + "the rest is mostly typos.\nThanks!",
+    "<b>Reminder</b>: the office will be closed on monday.<br>Have a nice weekend &amp; see you on tuesday :)",
+    "@john have a look at <a href='https://github.com/exoplatform/social/pull/42' target='_blank'>this PR</a>"
+  };
+
+  @Param({"chained", "pipeline"})
+  public String mode;
+
+  private XMLProcessor xmlProcessor;
+
+  private List<Filter> filters;
+
+  @Setup
+  public void setUp() {
+    XMLTagFilterPolicy tagFilterPolicy = new XMLTagFilterPolicy();
+    tagFilterPolicy.addAllowedTags("b", "i", "u", "br", "p", "div", "span", "ul", "ol", "li", "blockquote");
+    Set<String> aAttributes = new HashSet<String>();
+    aAttributes.add("href");
+    aAttributes.add("target");
+    tagFilterPolicy.addAllowedTag(new AllowedTag("a", aAttributes));
+
+    filters = new ArrayList<Filter>();
+    filters.add(new XMLBalancerFilterPlugin());
+    filters.add(new XMLTagFilterPlugin(tagFilterPolicy));
+    filters.add(new LineBreakerFilterPlugin());
+    filters.add(new URLConverterFilterPlugin(-1));
+
+    xmlProcessor = new XMLProcessorImpl();
+    for (Filter filter : filters) {
+      xmlProcessor.addFilter(filter);
+    }
+  }
+
+  @Benchmark
+  public void process(Blackhole blackhole) {
+    boolean chained = "chained".equals(mode);
+    for (String body : BODIES) {
+      if (chained) {
+        Object output = body;
+        for (Filter filter : filters) {
+          output = filter.doFilter(output);
+        }
+        blackhole.consume(output);
+      } else {
+        blackhole.consume(xmlProcessor.process(body));
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(XMLProcessorBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.common.xmlprocessor.filters;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of the link detection of {@link URLConverterFilterPlugin} on comments, most of them without any link.
+ * It is not part of the test suites, run it with the {@link #main(String[])} method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class URLConverterFilterPluginBenchmark {
+
+  /**
+   * Comments as they are received by the filter, after the balancer, tag filter and line breaker.
+   */
+  static final String[] COMMENTS = {
+    "Great job on the release! Thanks everyone",
+    "+1",
+    "I agree with you. Let's discuss it on monday during the weekly meeting.",
+    "Could you review it before friday? The main changes are in the chapters 3 and 4, "
+        + "the rest is mostly typos.<br />Thanks!",
+    "<b>Reminder</b>: the office will be closed on monday.<br />Have a nice weekend &amp; see you on tuesday :)",
+    "Hello <b>team</b>,<br />the new docs are online.<br />"
+        + "Please check http://community.exoplatform.com and tell me what you think.<br /><br />Regards",
+    "See www.google.com for details",
+    "@john have a look at <a href=\"https://github.com/exoplatform/social/pull/42\" target=\"_blank\">this PR</a>",
+    "The staging server is 192.168.1.12:8080/portal, the credentials are the usual ones"
+  };
+
+  private URLConverterFilterPlugin urlConverterFilter;
+
+  @Setup
+  public void setUp() {
+    urlConverterFilter = new URLConverterFilterPlugin(-1);
+  }
+
+  @Benchmark
+  public void doFilter(Blackhole blackhole) {
+    for (String comment : COMMENTS) {
+      blackhole.consume(urlConverterFilter.doFilter(comment));
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(URLConverterFilterPluginBenchmark.class.getSimpleName()).build()).run();
+  }
+}
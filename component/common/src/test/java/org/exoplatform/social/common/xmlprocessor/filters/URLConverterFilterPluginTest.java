@@ -127,4 +127,24 @@ public class URLConverterFilterPluginTest extends TestCase {
         urlConverterFilter.doFilter("http://abc.com:80/abc.jsp?a=1&b=2"));
   }
 
+  /**
+   * Unit test for {@link URLConverterFilterPlugin#mayContainURL(String)}
+   */
+  public void testMayContainURL() {
+    assertFalse(URLConverterFilterPlugin.mayContainURL(""));
+    assertFalse(URLConverterFilterPlugin.mayContainURL("Great job on the release! Thanks everyone"));
+    assertFalse(URLConverterFilterPlugin.mayContainURL("The end. See you tomorrow..."));
+    assertFalse(URLConverterFilterPlugin.mayContainURL("version 4.x"));
+    assertTrue(URLConverterFilterPlugin.mayContainURL("http://cwks"));
+    assertTrue(URLConverterFilterPlugin.mayContainURL("see www.google.com"));
+    assertTrue(URLConverterFilterPlugin.mayContainURL("server 192.168.0.1"));
+    assertTrue(URLConverterFilterPlugin.mayContainURL("exo.FR"));
+
+    Filter urlConverterFilter = new URLConverterFilterPlugin(-1);
+    assertEquals("The end. See you tomorrow &amp; after...",
+        urlConverterFilter.doFilter("The end. See you tomorrow & after..."));
+    assertEquals("version <a href=\"http://4.2.0.1\" target=\"_blank\">4.2.0.1</a> is out",
+        urlConverterFilter.doFilter("version 4.2.0.1 is out"));
+  }
+
 }
@@ -89,4 +89,25 @@ public abstract class BaseActivityProcessorPlugin extends BaseComponentPlugin im
     return keys;
   }
   public abstract void processActivity(ExoSocialActivity activity);
+
+  /**
+   * Processes a list of activities loaded together, a page of a stream for example. The default implementation
+   * processes them one by one, the processors which need to look something up for each activity can override it
+   * to do the lookups once for all the activities.
+   * <br>
+   * An activity which fails to be processed is logged and skipped, the others are still processed. The overriding
+   * methods must do the same: the caller does not process the list again, as an activity must be processed only once.
+   *
+   * @param activities the activities to process
+   * @since 4.4
+   */
+  public void processActivities(List<ExoSocialActivity> activities) {
+    for (ExoSocialActivity activity : activities) {
+      try {
+        processActivity(activity);
+      } catch (Exception e) {
+        LOG.warn("activity processing failed " + e.getMessage());
+      }
+    }
+  }
 }
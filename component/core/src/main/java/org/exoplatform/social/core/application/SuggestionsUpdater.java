@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.application;
+
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.core.relationship.RelationshipEvent;
+import org.exoplatform.social.core.relationship.RelationshipListenerPlugin;
+import org.exoplatform.social.core.relationship.model.Relationship;
+import org.exoplatform.social.core.storage.api.RelationshipStorage;
+import org.exoplatform.social.core.storage.cache.CachedRelationshipStorage;
+
+/**
+ * Updates the cached suggestions of the connections of 2 identities once they are connected, outside of the request
+ * which confirmed the relationship when the relationship events are asynchronous. The suggestions are otherwise only
+ * removed from the cache and computed again when they are displayed.
+ *
+ * @since 4.4
+ */
+public class SuggestionsUpdater extends RelationshipListenerPlugin {
+
+  private static final Log LOG = ExoLogger.getLogger(SuggestionsUpdater.class);
+
+  public SuggestionsUpdater(InitParams params) {
+  }
+
+  @Override
+  public void confirmed(RelationshipEvent event) {
+    Relationship relationship = event.getPayload();
+    RelationshipStorage storage = getRelationshipStorage();
+    if (!(storage instanceof CachedRelationshipStorage)) {
+      return;
+    }
+    try {
+      ((CachedRelationshipStorage) storage).updateSuggestions(relationship.getSender(), relationship.getReceiver());
+    } catch (Exception e) {
+      LOG.warn("Failed to update the suggestions for " + event + ": " + e.getMessage());
+    }
+  }
+
+  @Override
+  public void ignored(RelationshipEvent event) {
+    ;// void on purpose
+  }
+
+  @Override
+  public void removed(RelationshipEvent event) {
+    ;// void on purpose
+  }
+
+  @Override
+  public void requested(RelationshipEvent event) {
+    ;// void on purpose
+  }
+
+  @Override
+  public void denied(RelationshipEvent event) {
+    ;// void on purpose
+  }
+
+  private RelationshipStorage getRelationshipStorage() {
+    return (RelationshipStorage) PortalContainer.getInstance().getComponentInstanceOfType(RelationshipStorage.class);
+  }
+
+}
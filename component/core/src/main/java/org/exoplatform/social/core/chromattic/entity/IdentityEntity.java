@@ -38,6 +38,10 @@ import org.exoplatform.social.core.storage.query.PropertyLiteralExpression;
 @PrimaryType(name = "soc:identitydefinition")
 public abstract class IdentityEntity {
   public final static String RELATIONSHIP_NUMBER_PARAM = "relationshipNo";
+  public final static String SENDER_NUMBER_PARAM = "senderNo";
+  public final static String RECEIVER_NUMBER_PARAM = "receiverNo";
+  public final static String IGNORE_NUMBER_PARAM = "ignoreNo";
+  public final static String IGNORED_NUMBER_PARAM = "ignoredNo";
   public final static String LATEST_ACTIIVTY_CREATED_TIME_PARAM = "latestActivityCreatedTime";
   public final static String LATEST_LAZY_CREATED_TIME_PARAM = "latestLazyCreatedTime";
 
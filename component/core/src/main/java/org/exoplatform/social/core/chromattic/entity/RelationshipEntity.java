@@ -79,7 +79,7 @@ public abstract class RelationshipEntity {
   public abstract void setReciprocal(RelationshipEntity reciprocal);
 
   /**
-   * The time when the relationship is created.
+   * The time when the relationship is created, or confirmed for a connection.
    */
   @Property(name = "soc:createdTime")
   public abstract Long getCreatedTime();
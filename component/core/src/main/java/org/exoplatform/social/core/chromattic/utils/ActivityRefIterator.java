@@ -16,12 +16,15 @@
  */
 package org.exoplatform.social.core.chromattic.utils;
 
+import java.text.DateFormatSymbols;
 import java.util.*;
 
 import org.exoplatform.social.core.chromattic.entity.*;
 
 public class ActivityRefIterator implements Iterator<ActivityRef> {
 
+  private static final List<String> MONTH_NAME = Arrays.asList(new DateFormatSymbols(Locale.ENGLISH).getMonths());
+
   private final ActivityRefListEntity listEntity;
 
   //
@@ -47,6 +50,61 @@ public class ActivityRefIterator implements Iterator<ActivityRef> {
 
   }
 
+  /**
+   * Creates an iterator which starts at the day of a time: the years, months and days after it are skipped without
+   * loading their references. The references of that day which are more recent than the time are still returned.
+   */
+  ActivityRefIterator(final ActivityRefListEntity listEntity, final long time) {
+
+    this.listEntity = listEntity;
+
+    Calendar calendar = Calendar.getInstance(Locale.ENGLISH);
+    calendar.setTimeInMillis(time);
+    int year = calendar.get(Calendar.YEAR);
+    int month = calendar.get(Calendar.MONTH);
+    int day = calendar.get(Calendar.DAY_OF_MONTH);
+
+    this.yearIterator = skipAfter(listEntity.getYears().values(), year, null).iterator();
+
+    if (yearIterator.hasNext()) {
+      ActivityRefYearEntity yearEntity = yearIterator.next();
+      boolean sameYear = Integer.parseInt(yearEntity.getName()) == year;
+      Collection<ActivityRefMonthEntity> months = yearEntity.getMonths().values();
+      this.monthIterator = (sameYear ? skipAfter(months, month, MONTH_NAME) : months).iterator();
+      if (monthIterator.hasNext()) {
+        ActivityRefMonthEntity monthEntity = monthIterator.next();
+        boolean sameMonth = sameYear && MONTH_NAME.indexOf(monthEntity.getName()) == month;
+        Collection<ActivityRefDayEntity> days = monthEntity.getDays().values();
+        this.dayIterator = (sameMonth ? skipAfter(days, day, null) : days).iterator();
+        if (dayIterator.hasNext()) {
+          this.entityIterator = orderRefs();
+        }
+      }
+    }
+
+  }
+
+  /**
+   * Skips the first entities, which are the most recent ones, while they are after a year, month or day.
+   *
+   * @param entities the entities in descending order
+   * @param max the last year, month index or day to keep
+   * @param names the month names, null if the names are numbers
+   */
+  private static <T extends NamedEntity> Collection<T> skipAfter(Collection<T> entities, int max, List<String> names) {
+    List<T> got = new ArrayList<T>(entities);
+    int i = 0;
+    while (i < got.size()) {
+      String name = got.get(i).getName();
+      int index = names == null ? Integer.parseInt(name) : names.indexOf(name);
+      if (index <= max) {
+        break;
+      }
+      ++i;
+    }
+    return got.subList(i, got.size());
+  }
+
   private Iterator<ActivityRef> orderRefs() {
     List<ActivityRef> got = new ArrayList<ActivityRef>(dayIterator.next().getActivityRefList());
     // We use this local cache to avoid accessing the JCR at each call
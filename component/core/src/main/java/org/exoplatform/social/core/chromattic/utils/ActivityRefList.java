@@ -51,6 +51,16 @@ public class ActivityRefList implements Collection<ActivityRef> {
     return new ActivityRefIterator(listEntity);
   }
 
+  /**
+   * Gets an iterator which starts with the references of the day of a time, newest first.
+   *
+   * @param time the time
+   * @return the iterator
+   */
+  public ActivityRefIterator iterator(final long time) {
+    return new ActivityRefIterator(listEntity, time);
+  }
+
   public Object[] toArray() {
     throw new RuntimeException();
   }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.identity.model;
+
+/**
+ * The status of an identity: whether it exists, is deleted or is disabled. It is read without loading the identity
+ * nor its profile and without creating the identity when it does not exist.
+ *
+ * @since 4.4
+ */
+public class IdentityStatus {
+
+  /** The status of an identity which does not exist. */
+  public static final IdentityStatus NOT_FOUND = new IdentityStatus(null, false, false);
+
+  private final String id;
+
+  private final boolean deleted;
+
+  private final boolean enable;
+
+  public IdentityStatus(final String id, final boolean deleted, final boolean enable) {
+    this.id = id;
+    this.deleted = deleted;
+    this.enable = enable;
+  }
+
+  /**
+   * @return the id of the identity, null if it does not exist
+   */
+  public String getId() {
+    return id;
+  }
+
+  public boolean exists() {
+    return id != null;
+  }
+
+  public boolean isDeleted() {
+    return deleted;
+  }
+
+  public boolean isEnable() {
+    return enable;
+  }
+
+  /**
+   * @return true if the identity exists, is not deleted and is enabled
+   */
+  public boolean isActive() {
+    return exists() && !deleted && enable;
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.identity.model;
+
+/**
+ * The fields of a profile needed to display an identity in a stream: its name, avatar and position. It is read from
+ * the profile summary cache so that rendering an activity does not load the whole profile of its poster.
+ *
+ * @since 4.4
+ */
+public class ProfileSummary {
+
+  private final String identityId;
+
+  private final String remoteId;
+
+  private final String fullName;
+
+  private final String avatarUrl;
+
+  private final String position;
+
+  private final String url;
+
+  public ProfileSummary(final Profile profile) {
+    this.identityId = profile.getIdentity().getId();
+    this.remoteId = profile.getIdentity().getRemoteId();
+    this.fullName = profile.getFullName();
+    this.avatarUrl = profile.getAvatarUrl();
+    this.position = (String) profile.getProperty(Profile.POSITION);
+    this.url = profile.getUrl();
+  }
+
+  public String getIdentityId() {
+    return identityId;
+  }
+
+  public String getRemoteId() {
+    return remoteId;
+  }
+
+  public String getFullName() {
+    return fullName;
+  }
+
+  public String getAvatarUrl() {
+    return avatarUrl;
+  }
+
+  public String getPosition() {
+    return position;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+}
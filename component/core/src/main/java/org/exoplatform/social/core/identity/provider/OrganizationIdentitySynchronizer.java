@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.identity.provider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang.StringUtils;
+import org.exoplatform.commons.utils.ListAccess;
+import org.exoplatform.container.component.ComponentRequestLifecycle;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.management.annotations.Managed;
+import org.exoplatform.management.annotations.ManagedDescription;
+import org.exoplatform.management.annotations.ManagedName;
+import org.exoplatform.management.jmx.annotations.NameTemplate;
+import org.exoplatform.management.jmx.annotations.Property;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.services.organization.OrganizationService;
+import org.exoplatform.services.organization.User;
+import org.exoplatform.services.organization.UserStatus;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.storage.api.IdentityStorage;
+
+/**
+ * Reconciles the identities of the {@link OrganizationIdentityProvider} with the users of the organization service,
+ * for instance after a bulk import of users in LDAP which did not go through the user listeners.
+ *
+ * The enabled users are read page by page and compared to a hash of the profile of each enabled identity. Only the
+ * identities which are missing or differ are written, one save per page, and the enabled identities of the users which
+ * are no longer enabled are disabled once all the users have been read. The profile listeners are not notified, so no
+ * activity is published.
+ *
+ * @since 4.4
+ */
+@Managed
+@ManagedDescription("Synchronizes the identities with the users of the organization service")
+@NameTemplate({@Property(key = "service", value = "social"), @Property(key = "view", value = "IdentitySynchronizer")})
+public class OrganizationIdentitySynchronizer {
+
+  private static final Log LOG = ExoLogger.getLogger(OrganizationIdentitySynchronizer.class);
+
+  /** The profile properties read from the users. */
+  static final String[] SYNCHRONIZED_PROPERTIES = {
+      Profile.USERNAME, Profile.FIRST_NAME, Profile.LAST_NAME, Profile.FULL_NAME, Profile.EMAIL
+  };
+
+  static final String BATCH_SIZE_PARAM = "batch-size";
+
+  static final int DEFAULT_BATCH_SIZE = 200;
+
+  private final OrganizationService organizationService;
+
+  private final IdentityStorage identityStorage;
+
+  private final int batchSize;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private volatile int total;
+
+  private volatile int processed;
+
+  private volatile int created;
+
+  private volatile int updated;
+
+  private volatile int disabled;
+
+  private volatile long duration;
+
+  public OrganizationIdentitySynchronizer(OrganizationService organizationService,
+                                          IdentityStorage identityStorage,
+                                          InitParams params) {
+    this.organizationService = organizationService;
+    this.identityStorage = identityStorage;
+    ValueParam batchSizeParam = params != null ? params.getValueParam(BATCH_SIZE_PARAM) : null;
+    this.batchSize = batchSizeParam != null ? Integer.parseInt(batchSizeParam.getValue()) : DEFAULT_BATCH_SIZE;
+  }
+
+  /**
+   * Synchronizes the identities with the users. It returns immediately if a synchronization is already running.
+   *
+   * @return false if a synchronization is already running
+   * @throws Exception if the users can not be read
+   */
+  @Managed
+  @ManagedDescription("Synchronizes the identities with the users of the organization service")
+  public boolean synchronize() throws Exception {
+    if (!running.compareAndSet(false, true)) {
+      LOG.info("The identities are already being synchronized");
+      return false;
+    }
+    long start = System.currentTimeMillis();
+    total = processed = created = updated = disabled = 0;
+    duration = 0;
+    try {
+      Map<String, Integer> hashes = identityStorage.getProfileHashes(OrganizationIdentityProvider.NAME,
+                                                                     SYNCHRONIZED_PROPERTIES);
+
+      boolean complete = false;
+      RequestLifeCycle.begin((ComponentRequestLifecycle) organizationService);
+      try {
+        ListAccess<User> users = organizationService.getUserHandler().findAllUsers(UserStatus.ENABLED);
+        total = users.getSize();
+        while (processed < total) {
+          User[] page = users.load(processed, Math.min(batchSize, total - processed));
+          if (page == null || page.length == 0) {
+            break;
+          }
+          synchronizeUsers(page, hashes);
+          processed += page.length;
+          LOG.info(getProgress());
+        }
+        complete = processed == total;
+      } finally {
+        RequestLifeCycle.end();
+      }
+
+      // the users which were not read are not known to be disabled, their identities must be left as they are
+      if (!complete) {
+        duration = System.currentTimeMillis() - start;
+        LOG.warn("The users were not all read, no identity is disabled. " + getProgress());
+        return true;
+      }
+
+      // the enabled identities which were not found are no longer enabled users
+      List<Profile> profiles = new ArrayList<Profile>();
+      for (Iterator<String> it = hashes.keySet().iterator(); it.hasNext();) {
+        Identity identity = new Identity(OrganizationIdentityProvider.NAME, it.next());
+        identity.setEnable(false);
+        profiles.add(new Profile(identity));
+        if (profiles.size() == batchSize || !it.hasNext()) {
+          identityStorage.syncProfiles(profiles);
+          disabled += profiles.size();
+          profiles.clear();
+        }
+      }
+
+      duration = System.currentTimeMillis() - start;
+      LOG.info(getProgress());
+      return true;
+    } finally {
+      running.set(false);
+    }
+  }
+
+  private void synchronizeUsers(User[] users, Map<String, Integer> hashes) {
+    List<Profile> profiles = new ArrayList<Profile>();
+    for (User user : users) {
+      Profile profile = toProfile(user);
+      Integer hash = hashes.remove(user.getUserName());
+      if (hash == null || hash.intValue() != hash(profile)) {
+        profiles.add(profile);
+      }
+    }
+    if (!profiles.isEmpty()) {
+      int createdCount = identityStorage.syncProfiles(profiles);
+      int savedCount = 0;
+      for (Profile profile : profiles) {
+        // the deleted identities are skipped
+        if (profile.getIdentity().getId() != null) {
+          ++savedCount;
+        }
+      }
+      created += createdCount;
+      updated += savedCount - createdCount;
+    }
+  }
+
+  /**
+   * Builds the profile of an enabled identity with the properties of a user, the same way as the user listener does.
+   */
+  static Profile toProfile(User user) {
+    Identity identity = new Identity(OrganizationIdentityProvider.NAME, user.getUserName());
+    identity.setEnable(true);
+    String fullName = user.getDisplayName();
+    if (StringUtils.isEmpty(fullName)) {
+      fullName = user.getFirstName() + " " + user.getLastName();
+    }
+    Profile profile = new Profile(identity);
+    profile.setProperty(Profile.USERNAME, user.getUserName());
+    profile.setProperty(Profile.FIRST_NAME, user.getFirstName());
+    profile.setProperty(Profile.LAST_NAME, user.getLastName());
+    profile.setProperty(Profile.FULL_NAME, fullName);
+    profile.setProperty(Profile.EMAIL, user.getEmail());
+    return profile;
+  }
+
+  /**
+   * Computes the hash of the synchronized properties as {@link IdentityStorage#getProfileHashes(String, String...)}.
+   */
+  static int hash(Profile profile) {
+    Object[] values = new Object[SYNCHRONIZED_PROPERTIES.length];
+    for (int i = 0; i < values.length; ++i) {
+      values[i] = profile.getProperty(SYNCHRONIZED_PROPERTIES[i]);
+    }
+    return Arrays.hashCode(values);
+  }
+
+  @Managed
+  @ManagedName("Running")
+  @ManagedDescription("Whether a synchronization is running")
+  public boolean isRunning() {
+    return running.get();
+  }
+
+  @Managed
+  @ManagedName("Total")
+  @ManagedDescription("The number of enabled users to synchronize")
+  public int getTotal() {
+    return total;
+  }
+
+  @Managed
+  @ManagedName("Processed")
+  @ManagedDescription("The number of users already synchronized")
+  public int getProcessed() {
+    return processed;
+  }
+
+  @Managed
+  @ManagedName("Created")
+  @ManagedDescription("The number of identities created")
+  public int getCreated() {
+    return created;
+  }
+
+  @Managed
+  @ManagedName("Updated")
+  @ManagedDescription("The number of identities updated or enabled")
+  public int getUpdated() {
+    return updated;
+  }
+
+  @Managed
+  @ManagedName("Disabled")
+  @ManagedDescription("The number of identities disabled")
+  public int getDisabled() {
+    return disabled;
+  }
+
+  @Managed
+  @ManagedName("Progress")
+  @ManagedDescription("The progress of the last synchronization")
+  public String getProgress() {
+    StringBuilder progress = new StringBuilder("Identity synchronization: ")
+        .append(processed).append('/').append(total).append(" users processed, ")
+        .append(created).append(" identities created, ")
+        .append(updated).append(" updated or enabled, ")
+        .append(disabled).append(" disabled");
+    if (duration > 0) {
+      progress.append(" in ").append(duration).append(" ms");
+    }
+    return progress.toString();
+  }
+
+}
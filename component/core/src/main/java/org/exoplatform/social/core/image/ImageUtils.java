@@ -19,11 +19,17 @@ package org.exoplatform.social.core.image;
 
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.FileInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 import org.exoplatform.commons.utils.MimeTypeResolver;
 import org.exoplatform.services.log.ExoLogger;
@@ -38,6 +44,8 @@ public class ImageUtils {
   public static final String KEY_DIMENSION_SEPARATOR = "x";
 
   public static final String GIF_EXTENDSION          = "gif";
+  private static final String PNG_EXTENSION          = "png";
+  private static final String PNG_MIME_TYPE          = "image/png";
   private static final Log LOG = ExoLogger.getLogger(ImageUtils.class);
 
   /**
@@ -99,74 +107,192 @@ public class ImageUtils {
                                                                String avatarFileName,
                                                                String avatarMimeType,
                                                                String avatarWorkspace) {
+    if (height <= 0 && width <= 0) {
+      LOG.warn("Fail to resize image to avatar attachment with dimention <= 0x0");
+      return null;
+    }
     try {
-      MimeTypeResolver mimeTypeResolver = new MimeTypeResolver();
-
-      BufferedImage image = null;
-      int minSize = 0;
-      String extension = mimeTypeResolver.getExtension(avatarMimeType);
-      // TODO: Resize gif image. Now we skip gif because we can't resize it now
-      if (extension.equalsIgnoreCase(GIF_EXTENDSION))
+      BufferedImage image = readImage(imageStream, width, height);
+      if (image == null) {
         return null;
-      image = ImageIO.read(imageStream);
-      if (height <= minSize & width <= minSize) {
-        LOG.warn("Fail to resize image to avatar attachment with dimention <= 0x0");
+      }
+      image = resize(image, width, height);
+      return createAvatarAttachment(image, avatarId, avatarFileName, avatarMimeType, avatarWorkspace);
+    } catch (Exception e) {
+      LOG.error("Fail to resize image to avatar attachment: " + e);
+      return null;
+    }
+  }
+
+  /**
+   * Creates square avatars of several sizes from a single decoding of the image. The image is
+   * subsampled while it is decoded so that the full resolution is never loaded in memory.
+   *
+   * @param imageStream the image
+   * @param avatarId
+   * @param avatarFileName
+   * @param avatarMimeType
+   * @param avatarWorkspace
+   * @param sizes the sizes of the avatars, in pixels
+   * @return the avatars in the order of the sizes, null if the image could not be resized
+   * @since 4.4
+   */
+  public static List<AvatarAttachment> createSquareAvatarAttachments(InputStream imageStream,
+                                                                     String avatarId,
+                                                                     String avatarFileName,
+                                                                     String avatarMimeType,
+                                                                     String avatarWorkspace,
+                                                                     int... sizes) {
+    int[] sorted = sizes.clone();
+    Arrays.sort(sorted);
+    if (sorted.length == 0 || sorted[0] <= 0) {
+      LOG.warn("Fail to resize image to avatar attachments with sizes " + Arrays.toString(sizes));
+      return null;
+    }
+    try {
+      int largest = sorted[sorted.length - 1];
+      BufferedImage image = readImage(imageStream, largest, largest);
+      if (image == null) {
         return null;
       }
-      
-      if (height <= minSize)
-        height = image.getHeight() * width / image.getWidth();
-      else if (width <= minSize)
-        width = image.getWidth() * height / image.getHeight();
-
-      // Create temp file to store resized image to put to avatar attachment
-      File tmp = File.createTempFile("RESIZED", null);
-      image = org.apache.shindig.gadgets.rewrite.image.ImageUtils.getScaledInstance(image,
-                                                 width,
-                                                 height,
-                                                 RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR,
-                                                 false,
-                                                 BufferedImage.TYPE_INT_RGB);
-
-      int imgWidth = image.getWidth();
-      int imgHeight = image.getHeight();
-      
-      if (imgWidth != imgHeight) { // in case of image has width and height not the same
-        int x,y,w,h;
-        int cropDimension = imgWidth > imgHeight ? imgHeight : imgWidth;
-        int offset = (cropDimension == imgWidth) ? imgHeight - cropDimension : imgWidth - cropDimension;
-        
-        if (imgWidth < imgHeight) {
-          x = 0;
-          y = (int)(offset/2);
-          w = imgWidth;
-          h = imgHeight - offset;
-        } else {
-          x = (int)(offset/2);
-          y = 0;
-          w = imgWidth - offset;
-          h = imgHeight;
+
+      // each size is resized from the previous one, which is much smaller than the decoded image
+      AvatarAttachment[] avatars = new AvatarAttachment[sizes.length];
+      for (int i = sorted.length - 1; i >= 0; --i) {
+        image = resizeToSquare(image, sorted[i]);
+        AvatarAttachment avatar = createAvatarAttachment(image, avatarId, avatarFileName, avatarMimeType, avatarWorkspace);
+        for (int j = 0; j < sizes.length; ++j) {
+          if (sizes[j] == sorted[i]) {
+            avatars[j] = avatar;
+          }
         }
-        
-        image = image.getSubimage(x, y, w, h);
       }
-      
-      ImageIO.write(image, extension, tmp);
-      
-      // Create new avatar attachment
-      AvatarAttachment newAvatarAttachment = new AvatarAttachment(avatarId,
-                                                                  avatarFileName,
-                                                                  avatarMimeType,
-                                                                  new FileInputStream(tmp),
-                                                                  avatarWorkspace,
-                                                                  System.currentTimeMillis());
-
-      // Delete temp file
-      tmp.delete();
-      return newAvatarAttachment;
+      return Arrays.asList(avatars);
     } catch (Exception e) {
-      LOG.error("Fail to resize image to avatar attachment: " + e);
+      LOG.error("Fail to resize image to avatar attachments: " + e);
       return null;
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Computes the subsampling to apply while decoding an image so that it stays at least twice as
+   * large as the target dimension, the remaining reduction being done by the bilinear resizing.
+   *
+   * @param sourceWidth the width of the image
+   * @param sourceHeight the height of the image
+   * @param width the target width, 0 to keep the ratio
+   * @param height the target height, 0 to keep the ratio
+   * @return the subsampling, 1 when the image must be fully decoded
+   * @since 4.4
+   */
+  static int getSubsampling(int sourceWidth, int sourceHeight, int width, int height) {
+    int subsampling = Integer.MAX_VALUE;
+    if (width > 0) {
+      subsampling = Math.min(subsampling, sourceWidth / (2 * width));
+    }
+    if (height > 0) {
+      subsampling = Math.min(subsampling, sourceHeight / (2 * height));
+    }
+    return Math.max(1, subsampling == Integer.MAX_VALUE ? 1 : subsampling);
+  }
+
+  /**
+   * Decodes the first frame of an image, subsampled for the given target dimension.
+   */
+  private static BufferedImage readImage(InputStream imageStream, int width, int height) throws IOException {
+    ImageInputStream input = ImageIO.createImageInputStream(imageStream);
+    if (input == null) {
+      return null;
+    }
+    try {
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+      if (!readers.hasNext()) {
+        LOG.warn("Fail to resize image to avatar attachment: unsupported image format");
+        return null;
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        int subsampling = getSubsampling(reader.getWidth(0), reader.getHeight(0), width, height);
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    } finally {
+      input.close();
+    }
+  }
+
+  /**
+   * Resizes the image to the given dimension then crops the longer side to get a square.
+   */
+  private static BufferedImage resize(BufferedImage image, int width, int height) {
+    if (height <= 0) {
+      height = Math.max(1, image.getHeight() * width / image.getWidth());
+    } else if (width <= 0) {
+      width = Math.max(1, image.getWidth() * height / image.getHeight());
+    }
+    // the progressive scaling only applies to downscaling, an enlarged image is drawn in one step
+    boolean progressive = image.getWidth() >= width && image.getHeight() >= height;
+    image = org.apache.shindig.gadgets.rewrite.image.ImageUtils.getScaledInstance(image,
+                                                                                  width,
+                                                                                  height,
+                                                                                  RenderingHints.VALUE_INTERPOLATION_BILINEAR,
+                                                                                  progressive,
+                                                                                  BufferedImage.TYPE_INT_RGB);
+    return crop(image);
+  }
+
+  /**
+   * Resizes the shorter side of the image to the given size then crops the longer side.
+   */
+  private static BufferedImage resizeToSquare(BufferedImage image, int size) {
+    if (image.getWidth() == size && image.getHeight() == size) {
+      return image;
+    }
+    return image.getWidth() > image.getHeight() ? resize(image, 0, size) : resize(image, size, 0);
+  }
+
+  private static BufferedImage crop(BufferedImage image) {
+    int imgWidth = image.getWidth();
+    int imgHeight = image.getHeight();
+    if (imgWidth == imgHeight) {
+      return image;
+    }
+    int cropDimension = Math.min(imgWidth, imgHeight);
+    return image.getSubimage((imgWidth - cropDimension) / 2, (imgHeight - cropDimension) / 2, cropDimension, cropDimension);
+  }
+
+  /**
+   * Encodes the image in memory. GIF images and formats without writer are encoded in PNG.
+   */
+  private static AvatarAttachment createAvatarAttachment(BufferedImage image,
+                                                         String avatarId,
+                                                         String avatarFileName,
+                                                         String avatarMimeType,
+                                                         String avatarWorkspace) throws IOException {
+    String extension = new MimeTypeResolver().getExtension(avatarMimeType);
+    String mimeType = avatarMimeType;
+    if (extension == null || extension.length() == 0 || extension.equalsIgnoreCase(GIF_EXTENDSION)
+        || !ImageIO.getImageWritersByFormatName(extension).hasNext()) {
+      extension = PNG_EXTENSION;
+      mimeType = PNG_MIME_TYPE;
+    }
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    if (!ImageIO.write(image, extension, output)) {
+      throw new IOException("No writer for the format " + extension);
+    }
+
+    AvatarAttachment avatar = new AvatarAttachment();
+    avatar.setId(avatarId);
+    avatar.setFileName(avatarFileName);
+    avatar.setMimeType(mimeType);
+    avatar.setWorkspace(avatarWorkspace);
+    avatar.setImageBytes(output.toByteArray());
+    avatar.setLastModified(System.currentTimeMillis());
+    return avatar;
+  }
+}
@@ -29,6 +29,7 @@ import org.exoplatform.social.core.space.SpaceUtils;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.space.spi.SpaceService;
 import org.exoplatform.social.core.storage.api.IdentityStorage;
+import org.exoplatform.social.core.storage.api.SpaceStorage;
 
 /**
  * SocialMembershipListenerImpl is registered to OrganizationService to handle membership operation associated
@@ -48,6 +49,7 @@ public class SocialMembershipListenerImpl extends MembershipEventListener {
   @Override
   public void postDelete(Membership m) throws Exception {
     if (m.getGroupId().startsWith(SpaceUtils.SPACE_GROUP)) {
+      updateGroupMembership(m);
       OrganizationService orgService = CommonsUtils.getService(OrganizationService.class);
       
       //check if user has the membership type "*", if yes, no need to remove this membership
@@ -82,6 +84,7 @@ public class SocialMembershipListenerImpl extends MembershipEventListener {
   public void postSave(Membership m, boolean isNew) throws Exception {
     //only trigger when the Organization service adds new membership to existing SpaceGroup
     if (m.getGroupId().startsWith(SpaceUtils.SPACE_GROUP)) {
+      updateGroupMembership(m);
 
       ExoContainer container = ExoContainerContext.getCurrentContainer();
       UserACL acl = (UserACL) container.getComponentInstanceOfType(UserACL.class);
@@ -121,6 +124,13 @@ public class SocialMembershipListenerImpl extends MembershipEventListener {
     }
   }
   
+  private void updateGroupMembership(Membership m) {
+    SpaceStorage storage = CommonsUtils.getService(SpaceStorage.class);
+
+    //clear caching for the membership checks of the space
+    storage.updateGroupMembership(m.getGroupId(), m.getUserName());
+  }
+
   private void clearIdentityCaching() {
     IdentityStorage storage = (IdentityStorage) ExoContainerContext.getCurrentContainer().getComponentInstanceOfType(IdentityStorage.class);
     
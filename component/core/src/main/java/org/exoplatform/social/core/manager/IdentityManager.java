@@ -22,7 +22,11 @@ import org.exoplatform.social.core.identity.IdentityProviderPlugin;
 import org.exoplatform.social.core.identity.SpaceMemberFilterListAccess.Type;
 import org.exoplatform.social.core.identity.model.GlobalId;
 import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.IdentityStatus;
 import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.identity.model.ProfileSummary;
+import org.exoplatform.social.core.model.AvatarAttachment;
+import org.exoplatform.social.core.model.AvatarSize;
 import org.exoplatform.social.core.profile.ProfileFilter;
 import org.exoplatform.social.core.profile.ProfileListener;
 import org.exoplatform.social.core.profile.ProfileListenerPlugin;
@@ -30,6 +34,7 @@ import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.storage.api.IdentityStorage;
 import org.exoplatform.webui.exception.MessageException;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -120,6 +125,17 @@ public interface IdentityManager {
    */
   Profile getProfile(Identity identity);
 
+  /**
+   * Gets the avatar of an identity in one of the fixed sizes.
+   *
+   * @param identity The provided identity.
+   * @param size The size of the avatar.
+   * @return The avatar with its bytes, or null if the identity has no avatar.
+   * @LevelAPI Experimental
+   * @since 4.4
+   */
+  AvatarAttachment getAvatar(Identity identity, AvatarSize size);
+
   /**
    * Updates a specific profile.
    *
@@ -382,6 +398,51 @@ public interface IdentityManager {
    */
   boolean identityExisted(String providerId, String remoteId);
 
+  /**
+   * Gets whether an identity exists, is deleted or is disabled. Unlike {@link #getOrCreateIdentity(String, String, boolean)},
+   * neither the identity provider nor the profile is read and a missing identity is not created.
+   *
+   * @param providerId Id of the provider.
+   * @param remoteId The remote Id.
+   * @return The status of the identity, {@link IdentityStatus#NOT_FOUND} if it does not exist.
+   * @LevelAPI Experimental
+   * @since 4.4
+   */
+  IdentityStatus getIdentityStatus(String providerId, String remoteId);
+
+  /**
+   * Gets several identities by their Ids at once. The profiles are loaded when they are first accessed.
+   *
+   * @param identityIds The identity Ids.
+   * @return The identities found, in the order of the Ids. The unknown Ids are skipped.
+   * @LevelAPI Experimental
+   * @since 4.4
+   */
+  List<Identity> getIdentitiesByIds(Collection<String> identityIds);
+
+  /**
+   * Gets several identities of a provider by their remote Ids at once. Unlike {@link #getOrCreateIdentity(String, String, boolean)},
+   * the missing identities are not created. The profiles are loaded when they are first accessed.
+   *
+   * @param providerId Id of the provider.
+   * @param remoteIds The remote Ids.
+   * @return The identities found, in the order of the remote Ids. The unknown remote Ids are skipped.
+   * @LevelAPI Experimental
+   * @since 4.4
+   */
+  List<Identity> getIdentitiesByRemoteIds(String providerId, Collection<String> remoteIds);
+
+  /**
+   * Gets the summary of the profile of an identity: its name, avatar and position. Unlike {@link #getIdentity(String, boolean)},
+   * the whole profile is not loaded.
+   *
+   * @param identityId Id of the identity.
+   * @return The profile summary, null if the identity does not exist.
+   * @LevelAPI Experimental
+   * @since 4.4
+   */
+  ProfileSummary getProfileSummary(String identityId);
+
   /**
    * Saves an identity.
    *
@@ -17,6 +17,7 @@
 package org.exoplatform.social.core.manager;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,9 +32,13 @@ import org.exoplatform.social.core.identity.ProfileFilterListAccess;
 import org.exoplatform.social.core.identity.SpaceMemberFilterListAccess;
 import org.exoplatform.social.core.identity.SpaceMemberFilterListAccess.Type;
 import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.IdentityStatus;
 import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.identity.model.ProfileSummary;
 import org.exoplatform.social.core.identity.model.Profile.UpdateType;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
+import org.exoplatform.social.core.model.AvatarAttachment;
+import org.exoplatform.social.core.model.AvatarSize;
 import org.exoplatform.social.core.profile.ProfileFilter;
 import org.exoplatform.social.core.profile.ProfileLifeCycle;
 import org.exoplatform.social.core.profile.ProfileListener;
@@ -133,6 +138,13 @@ public class IdentityManagerImpl implements IdentityManager {
     return profile;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public AvatarAttachment getAvatar(Identity identity, AvatarSize size) {
+    return identityStorage.getAvatar(identity, size);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -383,6 +395,38 @@ public class IdentityManagerImpl implements IdentityManager {
     return identityProvider.getIdentityByRemoteId(remoteId) != null ? true : false;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public IdentityStatus getIdentityStatus(String providerId, String remoteId) {
+    return getIdentityStorage().getIdentityStatus(providerId, remoteId);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<Identity> getIdentitiesByIds(Collection<String> identityIds) {
+    return getIdentityStorage().findIdentitiesByIds(identityIds);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<Identity> getIdentitiesByRemoteIds(String providerId, Collection<String> remoteIds) {
+    return getIdentityStorage().findIdentities(providerId, remoteIds);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public ProfileSummary getProfileSummary(String identityId) {
+    Identity identity = getIdentityStorage().findIdentityById(identityId);
+    if (identity == null) {
+      return null;
+    }
+    return new ProfileSummary(getIdentityStorage().loadProfileSummary(new Profile(identity)));
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -97,6 +97,18 @@ public interface RelationshipManager {
    */
   void confirm(Identity invitedIdentity, Identity invitingIdentity);
 
+  /**
+   * Connects many pairs of identities at once, such as the people of a department being onboarded. The relationships
+   * are saved by batches: the missing ones are created confirmed, the pending ones get confirmed and the other ones
+   * are left unchanged. The connections streams are updated in background.
+   *
+   * @param relationships The relationships to confirm, by their sender and receiver.
+   * @return The relationships which have been confirmed.
+   * @LevelAPI Experimental
+   * @since 4.4
+   */
+  List<Relationship> confirmAll(List<Relationship> relationships);
+
   /**
    * Denies to connect to an identity who sent invitation.
    * 
@@ -669,6 +681,19 @@ public interface RelationshipManager {
   @Deprecated
   public Map<Identity, Integer> getSuggestions(Identity identity, int offset, int limit);
   
+  /**
+   * Gets the status of the relationships between an identity and a list of identities, such as the viewer and the
+   * people of a page, without looking up each relationship.
+   *
+   * @param viewer The identity whose relationships are checked.
+   * @param others The identities to get the status with.
+   * @return The status by identity id: CONFIRMED, INCOMING when the other identity has sent the invitation, OUTGOING
+   *         when the viewer has sent it, or IGNORED. The identities without relationship are not in the map.
+   * @LevelAPI Experimental
+   * @since 4.4
+   */
+  Map<String, Relationship.Type> getRelationshipStatuses(Identity viewer, List<Identity> others);
+
   /**
    * Get the list of identities who are most recently connected with given user
    * the limit number of results must be greater than 0 or an empty list will be returned   
@@ -678,6 +703,46 @@ public interface RelationshipManager {
    * @return
    */
   List<Identity> getLastConnections(Identity identity, int limit);
+
+  /**
+   * Gets the identities connected with an identity since a time, the most recent connections first, such as the new
+   * connections of a digest period.
+   *
+   * @param identity The provided identity.
+   * @param since The minimum connection time, in milliseconds, all the connections if not positive.
+   * @param limit The maximum number of identities, it must be greater than 0 or an empty list is returned.
+   * @return The connected identities.
+   * @LevelAPI Experimental
+   * @since 4.4
+   */
+  List<Identity> getLastConnections(Identity identity, long since, int limit);
+
+  /**
+   * Gets the relationships of an identity created since a time, the most recent ones first. A connection is created
+   * when it is confirmed.
+   *
+   * @param identity The provided identity.
+   * @param type type of the relationship : ALL, PENDING, CONFIRMED, INCOMING, OUTGOING or IGNORED.
+   * @param since The minimum creation time, in milliseconds, all the relationships if not positive.
+   * @param offset The number of most recent relationships to skip.
+   * @param limit The maximum number of relationships, all of them if not positive.
+   * @return The list of relationships.
+   * @LevelAPI Experimental
+   * @since 4.4
+   */
+  List<Relationship> getLastRelationships(Identity identity, Relationship.Type type, long since, int offset, int limit);
+
+  /**
+   * Counts the relationships of an identity created since a time, without loading them.
+   *
+   * @param identity The provided identity.
+   * @param type type of the relationship : ALL, PENDING, CONFIRMED, INCOMING, OUTGOING or IGNORED.
+   * @param since The minimum creation time, in milliseconds, all the relationships if not positive.
+   * @return The number of relationships.
+   * @LevelAPI Experimental
+   * @since 4.4
+   */
+  int getLastRelationshipsCount(Identity identity, Relationship.Type type, long since);
   
   /**
    * Gets a list which contains all relationships by status.
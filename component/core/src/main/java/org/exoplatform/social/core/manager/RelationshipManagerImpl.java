@@ -63,6 +63,13 @@ public class RelationshipManagerImpl implements RelationshipManager {
    */
   protected static final int LIMIT = 200;
 
+  /**
+   * The number of relationships saved together by {@link #confirmAll(List)}.
+   *
+   * @since 4.4
+   */
+  protected static final int CONFIRM_BATCH_SIZE = 100;
+
   /**
    * Instantiates a new relationship manager.
    * 
@@ -456,6 +463,27 @@ public class RelationshipManagerImpl implements RelationshipManager {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public List<Relationship> confirmAll(List<Relationship> relationships) {
+    for (Relationship relationship : relationships) {
+      if (relationship.getSender().getId().equals(relationship.getReceiver().getId())) {
+        throw new RelationshipStorageException(RelationshipStorageException.Type.FAILED_TO_SAVE_RELATIONSHIP,
+                                               "the two identity are the same");
+      }
+    }
+    List<Relationship> confirmed = new ArrayList<Relationship>();
+    for (int i = 0; i < relationships.size(); i += CONFIRM_BATCH_SIZE) {
+      List<Relationship> batch = relationships.subList(i, Math.min(relationships.size(), i + CONFIRM_BATCH_SIZE));
+      confirmed.addAll(storage.confirmRelationships(batch));
+    }
+    for (Relationship relationship : confirmed) {
+      lifeCycle.relationshipConfirmed(this, relationship);
+    }
+    return confirmed;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -589,7 +617,36 @@ public class RelationshipManagerImpl implements RelationshipManager {
   public List<Identity> getLastConnections(Identity identity, int limit) {
     return storage.getLastConnections(identity, limit);
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<Identity> getLastConnections(Identity identity, long since, int limit) {
+    return storage.getLastConnections(identity, since, limit);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<Relationship> getLastRelationships(Identity identity, Relationship.Type type, long since, int offset,
+                                                 int limit) {
+    return storage.getLastRelationships(identity, type, since, offset, limit);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public int getLastRelationshipsCount(Identity identity, Relationship.Type type, long since) {
+    return storage.getLastRelationshipsCount(identity, type, since);
+  }
   
+  /**
+   * {@inheritDoc}
+   */
+  public Map<String, Relationship.Type> getRelationshipStatuses(Identity viewer, List<Identity> others) {
+    return storage.getRelationshipStatuses(viewer, others);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -241,6 +241,16 @@ public class AvatarAttachment {
     return imageBytes;
   }
 
+  /**
+   * Sets imageBytes.
+   *
+   * @param imageBytes the new image bytes
+   * @since 4.4
+   */
+  public void setImageBytes(byte[] imageBytes) {
+    this.imageBytes = imageBytes;
+  }
+
   /**
    * Sets the input stream.
    *
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.model;
+
+/**
+ * The fixed sizes in which the avatars are served, the resized avatars are square.
+ *
+ * @since 4.4
+ */
+public enum AvatarSize {
+
+  /** The avatar as it was uploaded */
+  ORIGINAL(0),
+
+  SMALL(32),
+
+  MEDIUM(64),
+
+  LARGE(128);
+
+  private final int width;
+
+  private AvatarSize(int width) {
+    this.width = width;
+  }
+
+  /**
+   * Gets the width and height of the resized avatar.
+   *
+   * @return the width in pixels, 0 for the original avatar
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Gets a size from its name, case insensitive.
+   *
+   * @param name the name of the size
+   * @return the size, {@link #ORIGINAL} if the name is null or unknown
+   */
+  public static AvatarSize fromName(String name) {
+    if (name != null) {
+      for (AvatarSize size : values()) {
+        if (size.name().equalsIgnoreCase(name)) {
+          return size;
+        }
+      }
+    }
+    return ORIGINAL;
+  }
+
+}
@@ -16,14 +16,13 @@
  */
 package org.exoplatform.social.core.processor;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.text.MessageFormat;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.exoplatform.container.PortalContainer;
 import org.exoplatform.services.log.ExoLogger;
@@ -80,6 +79,12 @@ public final class I18NActivityProcessor {
    */
   private ResourceBundleService resourceBundleService;
 
+  /**
+   * The messages already resolved, the key is made of the activityType, the message bundle key and the locale. It is
+   * cleared when a resource bundle plugin is added or removed.
+   */
+  private final Map<String, I18NMessage> messageCache = new ConcurrentHashMap<String, I18NMessage>();
+
   /**
    * Constructor.
    */
@@ -106,6 +111,7 @@ public final class I18NActivityProcessor {
     }
     resourceBundlePluginMap.put(activityResourceBundlePlugin.getActivityType(),
             activityResourceBundlePlugin);
+    messageCache.clear();
   }
 
   /**
@@ -123,6 +129,7 @@ public final class I18NActivityProcessor {
       return;
     }
     resourceBundlePluginMap.remove(activityResourceBundlePlugin.getActivityType());
+    messageCache.clear();
   }
 
   /**
@@ -140,15 +147,16 @@ public final class I18NActivityProcessor {
     //only processes I18N activity type
     if (i18nActivity.getTitleId() != null) {
       if (activityTypeRegistered(i18nActivity)) {
-        ResourceBundle resourceBundle = getResourceBundle(i18nActivity, selectedLocale);
-        if (resourceBundle == null) {
-          LOG.warn("no resource bundle key found registered for: " + getResourceBundleKeyFile(i18nActivity));
+        String messageBundleKey = getMessageBundleKey(i18nActivity);
+        if (messageBundleKey == null) {
           return i18nActivity;
         }
-        if (getMessageBundleKey(i18nActivity) == null) {
+        I18NMessage message = getMessage(i18nActivity.getType(), messageBundleKey, selectedLocale);
+        if (message == null) {
           return i18nActivity;
         }
-        String newTitle = appRes(resourceBundle, getMessageBundleKey(i18nActivity), i18nActivity.getTemplateParams());
+        Map<String, String> templateParams = i18nActivity.getTemplateParams();
+        String newTitle = message.format(templateParams != null ? templateParams.values().toArray(new String[0]) : null);
         if (newTitle != null) {
           i18nActivity.setTitle(newTitle);
         }
@@ -170,16 +178,11 @@ public final class I18NActivityProcessor {
     //only processes I18N activity type
     if (i18nActivity.getTitleId() != null) {
       if (activityTypeRegistered(i18nActivity)) {
-        ResourceBundle resourceBundle = getResourceBundle(i18nActivity, selectedLocale);
-        if (resourceBundle == null) {
-          LOG.warn("no resource bundle key found registered for: " + getResourceBundleKeyFile(i18nActivity));
-          return i18nActivity;
-        }
         if (getMessageBundleKeys(i18nActivity) == false) {
           return i18nActivity;
         }
         
-        transformKeys(i18nActivity, resourceBundle);
+        transformKeys(i18nActivity, selectedLocale);
       }
     }
     return i18nActivity;
@@ -195,7 +198,7 @@ public final class I18NActivityProcessor {
     this.resourceBundleService = resourceBundleService;
   }
 
-  private ExoSocialActivity transformKeys(ExoSocialActivity i18nActivity, ResourceBundle resourceBundle) {
+  private ExoSocialActivity transformKeys(ExoSocialActivity i18nActivity, Locale selectedLocale) {
 
     String[] resourceKeys = I18NActivityUtils.getResourceKeys(i18nActivity);
     String[] resourceParamValues = I18NActivityUtils.getResourceValues(i18nActivity);
@@ -214,8 +217,11 @@ public final class I18NActivityProcessor {
       //
       valuesOfParam = I18NActivityUtils.getParamValues(resourceParamValues[i]);
 
-      String title = appRes(resourceBundle, getMessageBundleKey(type, key), valuesOfParam);
-      sb.append(title);
+      I18NMessage message = getMessage(type, getMessageBundleKey(type, key), selectedLocale);
+      if (message == null) {
+        return i18nActivity;
+      }
+      sb.append(message.format(valuesOfParam));
 
       if (++count < resourceKeys.length) {
         sb.append("<br/>");
@@ -288,55 +294,43 @@ public final class I18NActivityProcessor {
   /**
    * Gets an associated resource bundle key file registered with this type of activity.
    *
-   * @param i18nActivity The i18n activity.
+   * @param activityType The activity type.
    * @return The associated resource bundle key file.
    */
-  private String getResourceBundleKeyFile(ExoSocialActivity i18nActivity) {
-    return resourceBundlePluginMap.get(i18nActivity.getType()).getResourceBundleKeyFile();
+  private String getResourceBundleKeyFile(String activityType) {
+    return resourceBundlePluginMap.get(activityType).getResourceBundleKeyFile();
   }
 
   /**
-   * Gets an associated message bundle value from a specific message bundle key. If templateParams is not null, try to resolve
-   * the detected compound message bundle.
+   * Gets the message of a message bundle key of an activity type in the selected locale, from the cache or else from
+   * the registered resource bundle.
    *
-   * @param resourceBundle The registered resource bundle from the resource bundle key file.
-   * @param msgKey The message key.
-   * @param templateParams The possible template params for resolving compound message bundle.
-   * @return The message bundle value or null if not found.
+   * @param activityType The activity type.
+   * @param msgKey The message bundle key.
+   * @param selectedLocale The selected locale.
+   * @return The message or null if the resource bundle or the message bundle key is not found.
    */
-  private String appRes(ResourceBundle resourceBundle, String msgKey, Map<String, String> templateParams) {
-
-    String value = appRes(resourceBundle, msgKey);
-    List<String> arguments = null;
-    if (templateParams != null) {
-      arguments = new ArrayList(templateParams.values());
+  private I18NMessage getMessage(String activityType, String msgKey, Locale selectedLocale) {
+    if (msgKey == null) {
+      return null;
     }
-    if (arguments != null && arguments.size() > 0) {
-      value = ResourceBundleUtil.replaceArguments(value, arguments);
+    String cacheKey = activityType + "|" + msgKey + "|" + selectedLocale;
+    I18NMessage message = messageCache.get(cacheKey);
+    if (message != null) {
+      return message;
     }
-    return value;
-  }
-  
-  /**
-   * Gets an associated message bundle value from a specific message bundle key. If templateParams is not null, try to resolve
-   * the detected compound message bundle.
-   *
-   * @param resourceBundle The registered resource bundle from the resource bundle key file.
-   * @param msgKey The message key.
-   * @param templateParams The possible template params for resolving the compound message bundle.
-   * @return The message bundle value or null if not found.
-   */
-  private String appRes(ResourceBundle resourceBundle, String msgKey, String[] values) {
-
-    String value = appRes(resourceBundle, msgKey);
-    List<String> arguments = null;
-    if (values != null) {
-      arguments = Arrays.asList(values);
+    ResourceBundle resourceBundle = getResourceBundle(activityType, selectedLocale);
+    if (resourceBundle == null) {
+      LOG.warn("no resource bundle key found registered for: " + getResourceBundleKeyFile(activityType));
+      return null;
     }
-    if (arguments != null && arguments.size() > 0) {
-      value = ResourceBundleUtil.replaceArguments(value, arguments);
+    String value = appRes(resourceBundle, msgKey);
+    if (value == null) {
+      return null;
     }
-    return value;
+    message = new I18NMessage(value);
+    messageCache.put(cacheKey, message);
+    return message;
   }
 
   /**
@@ -358,13 +352,13 @@ public final class I18NActivityProcessor {
 
 
   /**
-   * Gets an associated registered resource bundle from an i18n activity and the selected locale.
+   * Gets an associated registered resource bundle from an activity type and the selected locale.
    *
-   * @param i18nActivity The i18n activity.
+   * @param activityType The activity type.
    * @param selectedLocale The selected locale.
    * @return The associated registered resource bundle.
    */
-  private ResourceBundle getResourceBundle(ExoSocialActivity i18nActivity, Locale selectedLocale) {
+  private ResourceBundle getResourceBundle(String activityType, Locale selectedLocale) {
     if (resourceBundleService == null) {
       resourceBundleService = (ResourceBundleService) PortalContainer.getInstance().
               getComponentInstanceOfType(ResourceBundleService.class);
@@ -377,8 +371,42 @@ public final class I18NActivityProcessor {
       LOG.warn("No registered activity resource bundle");
       return null;
     }
-    ActivityResourceBundlePlugin resourceBundlePlugin = resourceBundlePluginMap.get(i18nActivity.getType());
+    ActivityResourceBundlePlugin resourceBundlePlugin = resourceBundlePluginMap.get(activityType);
     return resourceBundleService.getResourceBundle(resourceBundlePlugin.getResourceBundleKeyFile(), selectedLocale);
   }
 
+  /**
+   * A message found in a resource bundle, with its {@link MessageFormat} compiled on the first use with arguments.
+   */
+  private static final class I18NMessage {
+
+    private final String value;
+
+    private volatile MessageFormat messageFormat;
+
+    I18NMessage(String value) {
+      this.value = value;
+    }
+
+    /**
+     * Formats the message with the arguments, as {@link ResourceBundleUtil#replaceArguments(String, String[])} does.
+     *
+     * @param arguments The arguments, the message is returned as is if there is none.
+     * @return The formatted message.
+     */
+    String format(String[] arguments) {
+      if (arguments == null || arguments.length == 0) {
+        return value;
+      }
+      MessageFormat format = messageFormat;
+      if (format == null) {
+        format = new MessageFormat(ResourceBundleUtil.processSingleQuote(value));
+        messageFormat = format;
+      }
+      synchronized (format) {
+        return format.format(arguments);
+      }
+    }
+  }
+
 }
@@ -16,6 +16,7 @@
  */
 package org.exoplatform.social.core.processor;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -23,9 +24,11 @@ import java.util.regex.Pattern;
 
 import org.exoplatform.container.xml.InitParams;
 import org.exoplatform.portal.webui.util.Util;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
 import org.exoplatform.social.core.BaseActivityProcessorPlugin;
 import org.exoplatform.social.core.activity.model.ExoSocialActivity;
-import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.IdentityStatus;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
 import org.exoplatform.social.core.service.LinkProvider;
 
@@ -36,6 +39,8 @@ import org.exoplatform.social.core.service.LinkProvider;
  */
 public class MentionsProcessor extends BaseActivityProcessorPlugin {
 
+  private static final Log LOG = ExoLogger.getLogger(MentionsProcessor.class);
+
   private static final Pattern pattern = Pattern.compile("@([^\\s]+)|@([^\\s]+)$");
 
   public MentionsProcessor(InitParams params) {
@@ -43,28 +48,52 @@ public class MentionsProcessor extends BaseActivityProcessorPlugin {
   }
 
   public void processActivity(ExoSocialActivity activity) {
-    if (activity != null) {
-      String portalOwner = null;
-      try{
-        portalOwner = Util.getPortalRequestContext().getPortalOwner();
-      } catch (Exception e){
-        //default value for testing and social
-        portalOwner = LinkProvider.DEFAULT_PORTAL_OWNER;
+    processActivity(activity, getPortalOwner(), new HashMap<String, String>());
+  }
+
+  /**
+   * {@inheritDoc}
+   * <br>
+   * The identity and the profile of each mentioned user are loaded once for all the activities.
+   */
+  @Override
+  public void processActivities(List<ExoSocialActivity> activities) {
+    String portalOwner = getPortalOwner();
+    Map<String, String> profileLinks = new HashMap<String, String>();
+    for (ExoSocialActivity activity : activities) {
+      try {
+        processActivity(activity, portalOwner, profileLinks);
+      } catch (Exception e) {
+        LOG.warn("activity processing failed " + e.getMessage());
       }
-      activity.setTitle(substituteUsernames(portalOwner, activity.getTitle()));
-      activity.setBody(substituteUsernames(portalOwner, activity.getBody()));
+    }
+  }
+
+  private void processActivity(ExoSocialActivity activity, String portalOwner, Map<String, String> profileLinks) {
+    if (activity != null) {
+      activity.setTitle(substituteUsernames(portalOwner, activity.getTitle(), profileLinks));
+      activity.setBody(substituteUsernames(portalOwner, activity.getBody(), profileLinks));
       Map<String, String> templateParams = activity.getTemplateParams();
       List<String> templateParamKeys = getTemplateParamKeysToFilter(activity);
       for(String key : templateParamKeys){
-        templateParams.put(key, substituteUsernames(portalOwner, templateParams.get(key)));
+        templateParams.put(key, substituteUsernames(portalOwner, templateParams.get(key), profileLinks));
       }
     }
   }
 
+  private String getPortalOwner() {
+    try{
+      return Util.getPortalRequestContext().getPortalOwner();
+    } catch (Exception e){
+      //default value for testing and social
+      return LinkProvider.DEFAULT_PORTAL_OWNER;
+    }
+  }
+
   /*
    * Substitute @username expressions by full user profile link
    */
-  private String substituteUsernames(String portalOwner, String message) {
+  private String substituteUsernames(String portalOwner, String message, Map<String, String> profileLinks) {
     if (message == null || message.trim().isEmpty()) {
       return message;
     }
@@ -79,15 +108,10 @@ public class MentionsProcessor extends BaseActivityProcessorPlugin {
       if (username == null || username.isEmpty()) {
         continue;
       }
-      Identity identity = LinkProvider.getIdentityManager().getOrCreateIdentity(OrganizationIdentityProvider.NAME, username, false);
-      if (identity == null || identity.isDeleted() || !identity.isEnable()) {
-        continue;
-      }
-      try {
-        username = LinkProvider.getProfileLink(username, portalOwner);
-      } catch (Exception e) {
-        continue;
+      if (!profileLinks.containsKey(username)) {
+        profileLinks.put(username, getProfileLink(username, portalOwner));
       }
+      username = profileLinks.get(username);
       // Insert replacement
       if (username != null) {
         matcher.appendReplacement(buf, username);
@@ -99,4 +123,19 @@ public class MentionsProcessor extends BaseActivityProcessorPlugin {
     }
     return message;
   }
+
+  /*
+   * Gets the profile link of a mentioned user, null if the user is not found, deleted or disabled
+   */
+  private String getProfileLink(String username, String portalOwner) {
+    IdentityStatus status = LinkProvider.getIdentityManager().getIdentityStatus(OrganizationIdentityProvider.NAME, username);
+    if (!status.isActive()) {
+      return null;
+    }
+    try {
+      return LinkProvider.getProfileLink(username, portalOwner);
+    } catch (Exception e) {
+      return null;
+    }
+  }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.profile;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The searchable fields of a profile, as given to a {@link ProfileSearchIndex}.
+ *
+ * @since 4.4
+ */
+public class IndexedProfile {
+
+  private final String identityId;
+
+  private final String providerId;
+
+  private String firstName;
+
+  private String lastName;
+
+  private String fullName;
+
+  private String position;
+
+  private List<String> positions = Collections.emptyList();
+
+  private List<String> skills = Collections.emptyList();
+
+  private List<String> organizations = Collections.emptyList();
+
+  private List<String> jobsDescription = Collections.emptyList();
+
+  private long createdTime;
+
+  public IndexedProfile(String identityId, String providerId) {
+    this.identityId = identityId;
+    this.providerId = providerId;
+  }
+
+  public String getIdentityId() {
+    return identityId;
+  }
+
+  public String getProviderId() {
+    return providerId;
+  }
+
+  public String getFirstName() {
+    return firstName;
+  }
+
+  public void setFirstName(String firstName) {
+    this.firstName = firstName;
+  }
+
+  public String getLastName() {
+    return lastName;
+  }
+
+  public void setLastName(String lastName) {
+    this.lastName = lastName;
+  }
+
+  public String getFullName() {
+    return fullName;
+  }
+
+  public void setFullName(String fullName) {
+    this.fullName = fullName;
+  }
+
+  public String getPosition() {
+    return position;
+  }
+
+  public void setPosition(String position) {
+    this.position = position;
+  }
+
+  public List<String> getPositions() {
+    return positions;
+  }
+
+  public void setPositions(List<String> positions) {
+    this.positions = nonNull(positions);
+  }
+
+  public List<String> getSkills() {
+    return skills;
+  }
+
+  public void setSkills(List<String> skills) {
+    this.skills = nonNull(skills);
+  }
+
+  public List<String> getOrganizations() {
+    return organizations;
+  }
+
+  public void setOrganizations(List<String> organizations) {
+    this.organizations = nonNull(organizations);
+  }
+
+  public List<String> getJobsDescription() {
+    return jobsDescription;
+  }
+
+  public void setJobsDescription(List<String> jobsDescription) {
+    this.jobsDescription = nonNull(jobsDescription);
+  }
+
+  public long getCreatedTime() {
+    return createdTime;
+  }
+
+  public void setCreatedTime(long createdTime) {
+    this.createdTime = createdTime;
+  }
+
+  private static List<String> nonNull(List<String> values) {
+    return values != null ? values : Collections.<String>emptyList();
+  }
+}
@@ -0,0 +1,525 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.profile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringEscapeUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryParser.ParseException;
+import org.apache.lucene.queryParser.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.search.Sorting;
+import org.picocontainer.Startable;
+
+/**
+ * {@link ProfileSearchIndex} stored in a local Lucene index, in memory or in the directory given by the
+ * {@code directory} value parameter.
+ * <br>
+ * The fields compared with {@code LIKE '%text%'} by the JCR query are indexed lower cased and not analyzed, so they are
+ * matched by wildcard queries which walk the distinct indexed values instead of all the profiles. The fields matched
+ * with {@code contains()} by the JCR query are also indexed analyzed for the {@link ProfileFilter#getAll()} condition.
+ * <br>
+ * The changes are committed when a search needs them, so a burst of profile saves costs one commit. The changes done
+ * while the index is rebuilt are kept aside and applied at the end of the rebuild.
+ * <br>
+ * The index is local to the server: it is rebuilt in background from the first search after each start, and on a
+ * cluster it does not see the profiles saved by the other nodes, so it should only be used on a single node.
+ *
+ * @since 4.4
+ */
+public class LuceneProfileSearchIndex implements ProfileSearchIndex, Startable {
+
+  private static final Log LOG = ExoLogger.getLogger(LuceneProfileSearchIndex.class);
+
+  private static final String DIRECTORY_PARAM = "directory";
+
+  static final String ID = "id";
+
+  static final String PROVIDER = "provider";
+
+  static final String FIRST_NAME = "firstName";
+
+  static final String LAST_NAME = "lastName";
+
+  static final String FULL_NAME = "fullName";
+
+  static final String POSITION = "position";
+
+  static final String POSITIONS = "positions";
+
+  static final String SKILLS = "skills";
+
+  static final String ORGANIZATIONS = "organizations";
+
+  static final String JOBS_DESCRIPTION = "jobsDescription";
+
+  static final String CREATED_TIME = "createdTime";
+
+  /**
+   * Prefix of the analyzed copies of the fields, searched by the {@link ProfileFilter#getAll()} condition.
+   */
+  static final String TEXT_PREFIX = "text.";
+
+  private static final String[] TEXT_FIELDS = {
+      FULL_NAME, FIRST_NAME, LAST_NAME, POSITION, SKILLS, POSITIONS, ORGANIZATIONS, JOBS_DESCRIPTION
+  };
+
+  /**
+   * Above this number of excluded identities the filter is left to JCR, to stay under the clause limit of Lucene.
+   */
+  private static final int MAX_EXCLUDED_IDENTITIES = 512;
+
+  private final Directory directory;
+
+  private final Analyzer analyzer = new StandardAnalyzer(Version.LUCENE_29);
+
+  /**
+   * The writer, guarded by this.
+   */
+  private IndexWriter writer;
+
+  /**
+   * The reader of the last commit, guarded by this and reopened after a change.
+   */
+  private IndexReader reader;
+
+  private boolean readerStale;
+
+  /**
+   * Whether the writer has changes which are not committed yet, guarded by this.
+   */
+  private boolean uncommitted;
+
+  private volatile boolean ready;
+
+  private final Object pendingLock = new Object();
+
+  /**
+   * The changes done while the index is rebuilt, by identity id with a null profile for a removal, guarded by
+   * pendingLock. It is null when no rebuild is running.
+   */
+  private Map<String, IndexedProfile> pending;
+
+  public LuceneProfileSearchIndex(InitParams params) throws IOException {
+    this(openDirectory(params));
+  }
+
+  public LuceneProfileSearchIndex(Directory directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void start() {
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public synchronized void stop() {
+    ready = false;
+    try {
+      closeReader();
+      if (writer != null) {
+        writer.close();
+        writer = null;
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to close the profile search index", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean supports(ProfileFilter profileFilter) {
+    if (profileFilter == null) {
+      return false;
+    }
+    List<Identity> excludedIdentityList = profileFilter.getExcludedIdentityList();
+    if (excludedIdentityList != null && excludedIdentityList.size() > MAX_EXCLUDED_IDENTITIES) {
+      return false;
+    }
+    // '?' is a wildcard for Lucene but a plain character for JCR, it can not be escaped in a wildcard query
+    return isWildcardSafe(profileFilter.getName())
+        && isWildcardSafe(profileFilter.getPosition())
+        && isWildcardSafe(profileFilter.getSkills())
+        && isWildcardSafe(profileFilter.getCompany());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public synchronized void rebuild(Iterator<IndexedProfile> profiles) throws IOException {
+    ready = false;
+    synchronized (pendingLock) {
+      pending = new HashMap<String, IndexedProfile>();
+    }
+    Map<String, IndexedProfile> changes;
+    try {
+      IndexWriter indexWriter = getWriter();
+      indexWriter.deleteAll();
+      int count = 0;
+      while (profiles.hasNext()) {
+        indexWriter.addDocument(toDocument(profiles.next()));
+        count++;
+      }
+
+      // the changes done during the rebuild are newer than the profiles read, the next ones wait for the rebuild
+      synchronized (pendingLock) {
+        changes = pending;
+        pending = null;
+        ready = true;
+      }
+      for (Map.Entry<String, IndexedProfile> change : changes.entrySet()) {
+        if (change.getValue() != null) {
+          indexWriter.updateDocument(new Term(ID, change.getKey()), toDocument(change.getValue()));
+        } else {
+          indexWriter.deleteDocuments(new Term(ID, change.getKey()));
+        }
+      }
+      indexWriter.commit();
+      uncommitted = false;
+      readerStale = true;
+      LOG.info("Profile search index built with " + count + " profiles");
+    } finally {
+      synchronized (pendingLock) {
+        pending = null;
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void index(IndexedProfile profile) throws IOException {
+    if (keepForRebuild(profile.getIdentityId(), profile)) {
+      return;
+    }
+    synchronized (this) {
+      if (!ready) {
+        return;
+      }
+      getWriter().updateDocument(new Term(ID, profile.getIdentityId()), toDocument(profile));
+      uncommitted = true;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void remove(String identityId) throws IOException {
+    if (keepForRebuild(identityId, null)) {
+      return;
+    }
+    synchronized (this) {
+      if (!ready) {
+        return;
+      }
+      getWriter().deleteDocuments(new Term(ID, identityId));
+      uncommitted = true;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public synchronized void clear() throws IOException {
+    ready = false;
+    IndexWriter indexWriter = getWriter();
+    indexWriter.deleteAll();
+    indexWriter.commit();
+    uncommitted = false;
+    readerStale = true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<String> search(String providerId, ProfileFilter profileFilter, long offset, long limit)
+      throws IOException, ParseException {
+    if (offset < 0) {
+      offset = 0;
+    }
+    IndexReader indexReader = acquireReader();
+    try {
+      if (limit <= 0 || offset + limit > indexReader.numDocs()) {
+        limit = indexReader.numDocs() - offset;
+      }
+      if (limit <= 0) {
+        return Collections.emptyList();
+      }
+      IndexSearcher searcher = new IndexSearcher(indexReader);
+      TopDocs topDocs = searcher.search(buildQuery(providerId, profileFilter), null, (int) (offset + limit),
+                                        buildSort(profileFilter.getSorting()));
+      List<String> identityIds = new ArrayList<String>();
+      ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+      for (int i = (int) offset; i < scoreDocs.length; i++) {
+        identityIds.add(searcher.doc(scoreDocs[i].doc).get(ID));
+      }
+      return identityIds;
+    } finally {
+      indexReader.decRef();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public int count(String providerId, ProfileFilter profileFilter) throws IOException, ParseException {
+    IndexReader indexReader = acquireReader();
+    try {
+      return new IndexSearcher(indexReader).search(buildQuery(providerId, profileFilter), null, 1).totalHits;
+    } finally {
+      indexReader.decRef();
+    }
+  }
+
+  /**
+   * Builds the query matching the same profiles as the conditions of
+   * {@link org.exoplatform.social.core.storage.impl.StorageUtils#applyFilter}. The position condition matches the
+   * position or one of the positions.
+   */
+  Query buildQuery(String providerId, ProfileFilter profileFilter) throws ParseException {
+    BooleanQuery query = new BooleanQuery();
+    query.add(new TermQuery(new Term(PROVIDER, providerId)), BooleanClause.Occur.MUST);
+
+    List<Identity> excludedIdentityList = profileFilter.getExcludedIdentityList();
+    if (excludedIdentityList != null) {
+      for (Identity excluded : excludedIdentityList) {
+        query.add(new TermQuery(new Term(ID, excluded.getId())), BooleanClause.Occur.MUST_NOT);
+      }
+    }
+
+    char firstChar = profileFilter.getFirstCharacterOfName();
+    String name = profileFilter.getName();
+    if (firstChar != '\u0000') {
+      query.add(new PrefixQuery(new Term(LAST_NAME, String.valueOf(firstChar).toLowerCase())),
+                BooleanClause.Occur.MUST);
+    } else if (name.trim().length() != 0) {
+      String pattern = toWildcard("*" + name.replace('%', '*') + "*");
+      query.add(anyOf(pattern, FIRST_NAME, LAST_NAME, FULL_NAME), BooleanClause.Occur.MUST);
+    }
+
+    String position = toInputPattern(profileFilter.getPosition());
+    if (position != null) {
+      query.add(anyOf(position, POSITION, POSITIONS), BooleanClause.Occur.MUST);
+    }
+    String skills = toInputPattern(profileFilter.getSkills());
+    if (skills != null) {
+      query.add(new WildcardQuery(new Term(SKILLS, skills)), BooleanClause.Occur.MUST);
+    }
+    String company = toInputPattern(profileFilter.getCompany());
+    if (company != null) {
+      query.add(new WildcardQuery(new Term(ORGANIZATIONS, company)), BooleanClause.Occur.MUST);
+    }
+
+    String all = profileFilter.getAll();
+    if (all.trim().length() != 0) {
+      BooleanQuery allQuery = new BooleanQuery();
+      for (String field : TEXT_FIELDS) {
+        QueryParser parser = new QueryParser(Version.LUCENE_29, TEXT_PREFIX + field, analyzer);
+        parser.setDefaultOperator(QueryParser.AND_OPERATOR);
+        allQuery.add(parser.parse(QueryParser.escape(all.toLowerCase())), BooleanClause.Occur.SHOULD);
+      }
+      query.add(allQuery, BooleanClause.Occur.MUST);
+    }
+
+    return query;
+  }
+
+  /**
+   * Builds the sort of {@code IdentityStorageImpl#applyOrder}, the identity id keeps the pages stable.
+   */
+  static Sort buildSort(Sorting sorting) {
+    boolean reverse = sorting.orderBy == Sorting.OrderBy.DESC;
+    SortField byId = new SortField(ID, SortField.STRING, reverse);
+    switch (sorting.sortBy) {
+      case DATE:
+        return new Sort(new SortField[] {new SortField(CREATED_TIME, SortField.STRING, reverse), byId});
+      case RELEVANCY:
+        return new Sort(new SortField[] {SortField.FIELD_SCORE,
+                                         new SortField(LAST_NAME, SortField.STRING, reverse),
+                                         new SortField(FIRST_NAME, SortField.STRING, reverse),
+                                         byId});
+      default:
+        return new Sort(new SortField[] {new SortField(LAST_NAME, SortField.STRING, reverse),
+                                         new SortField(FIRST_NAME, SortField.STRING, reverse),
+                                         byId});
+    }
+  }
+
+  static Document toDocument(IndexedProfile profile) {
+    Document document = new Document();
+    document.add(new Field(ID, profile.getIdentityId(), Field.Store.YES, Field.Index.NOT_ANALYZED));
+    document.add(new Field(PROVIDER, profile.getProviderId(), Field.Store.NO, Field.Index.NOT_ANALYZED));
+    // zero padded so that the string order is the numeric order
+    document.add(new Field(CREATED_TIME, String.format("%019d", profile.getCreatedTime()), Field.Store.NO,
+                           Field.Index.NOT_ANALYZED));
+    addField(document, FIRST_NAME, profile.getFirstName());
+    addField(document, LAST_NAME, profile.getLastName());
+    addField(document, FULL_NAME, profile.getFullName());
+    addField(document, POSITION, profile.getPosition());
+    addFields(document, POSITIONS, profile.getPositions());
+    addFields(document, SKILLS, profile.getSkills());
+    addFields(document, ORGANIZATIONS, profile.getOrganizations());
+    addFields(document, JOBS_DESCRIPTION, profile.getJobsDescription());
+    return document;
+  }
+
+  private static void addFields(Document document, String name, List<String> values) {
+    for (String value : values) {
+      addField(document, name, value);
+    }
+  }
+
+  private static void addField(Document document, String name, String value) {
+    if (value == null) {
+      return;
+    }
+    document.add(new Field(name, value.toLowerCase(), Field.Store.NO, Field.Index.NOT_ANALYZED));
+    document.add(new Field(TEXT_PREFIX + name, value, Field.Store.NO, Field.Index.ANALYZED));
+  }
+
+  private static Query anyOf(String pattern, String... fields) {
+    BooleanQuery query = new BooleanQuery();
+    for (String field : fields) {
+      query.add(new WildcardQuery(new Term(field, pattern)), BooleanClause.Occur.SHOULD);
+    }
+    return query;
+  }
+
+  /**
+   * Converts an input of the filter as {@link org.exoplatform.social.core.storage.impl.StorageUtils#applyFilter} does:
+   * the value is escaped and matched anywhere in the field.
+   *
+   * @return the wildcard pattern, null if the input is empty
+   */
+  private static String toInputPattern(String input) {
+    String value = StringEscapeUtils.escapeHtml(input).trim();
+    if (value.length() == 0) {
+      return null;
+    }
+    return toWildcard("*" + value + "*");
+  }
+
+  /**
+   * Lower cases a pattern and converts the single character wildcard of JCR to the one of Lucene.
+   */
+  private static String toWildcard(String pattern) {
+    return pattern.toLowerCase().replace('_', '?');
+  }
+
+  private static boolean isWildcardSafe(String value) {
+    return value == null || value.indexOf('?') == -1;
+  }
+
+  private IndexWriter getWriter() throws IOException {
+    if (writer == null) {
+      writer = new IndexWriter(directory, analyzer, true, IndexWriter.MaxFieldLength.UNLIMITED);
+    }
+    return writer;
+  }
+
+  /**
+   * Keeps a change for the end of the running rebuild, so it does not wait for the whole rebuild.
+   *
+   * @return false if no rebuild is running
+   */
+  private boolean keepForRebuild(String identityId, IndexedProfile profile) {
+    synchronized (pendingLock) {
+      if (pending == null) {
+        return false;
+      }
+      pending.put(identityId, profile);
+      return true;
+    }
+  }
+
+  private synchronized IndexReader acquireReader() throws IOException {
+    if (uncommitted) {
+      writer.commit();
+      uncommitted = false;
+      readerStale = true;
+    }
+    if (reader == null || readerStale) {
+      getWriter();
+      IndexReader newReader = IndexReader.open(directory, true);
+      closeReader();
+      reader = newReader;
+      readerStale = false;
+    }
+    reader.incRef();
+    return reader;
+  }
+
+  private void closeReader() throws IOException {
+    if (reader != null) {
+      reader.decRef();
+      reader = null;
+    }
+  }
+
+  private static Directory openDirectory(InitParams params) throws IOException {
+    ValueParam directoryParam = params != null ? params.getValueParam(DIRECTORY_PARAM) : null;
+    if (directoryParam == null || directoryParam.getValue().trim().length() == 0) {
+      return new RAMDirectory();
+    }
+    return FSDirectory.open(new File(directoryParam.getValue().trim()));
+  }
+}
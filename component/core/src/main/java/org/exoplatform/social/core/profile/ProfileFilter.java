@@ -57,6 +57,9 @@ public class ProfileFilter {
   
   private boolean isEmpty;
 
+  /** Loads only the summary of the found profiles. */
+  private boolean summaryOnly;
+
   public ProfileFilter() {
     this.name = "";
     this.position = "";
@@ -217,4 +220,26 @@ public class ProfileFilter {
   public boolean isEmpty() {
     return isEmpty;
   }
+
+  /**
+   * Checks if only the summary of the found profiles is loaded: the user name, the names, the position, the url and
+   * the avatar url.
+   *
+   * @return true if only the summary is loaded
+   * @since 4.4
+   */
+  public boolean isSummaryOnly() {
+    return summaryOnly;
+  }
+
+  /**
+   * Sets if only the summary of the found profiles is loaded, for the lists which do not display the other fields.
+   * The full profile can still be loaded with {@link org.exoplatform.social.core.manager.IdentityManager#getProfile}.
+   *
+   * @param summaryOnly true to load only the summary
+   * @since 4.4
+   */
+  public void setSummaryOnly(boolean summaryOnly) {
+    this.summaryOnly = summaryOnly;
+  }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.profile;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Search index of the profiles, used by the identity storage to answer the {@link ProfileFilter} queries without
+ * querying JCR.
+ * <br>
+ * The index is optional: when a component implementing this interface is registered in the container, the identity
+ * storage keeps it up to date with the saved, deleted, enabled and disabled identities, rebuilds it from JCR in
+ * background when it is not ready and uses it for the filters it supports. Only the enabled and not deleted identities are indexed.
+ *
+ * @since 4.4
+ */
+public interface ProfileSearchIndex {
+
+  /**
+   * Checks if the index has been built, before that the searches must use JCR.
+   *
+   * @return true if the index can be searched
+   */
+  boolean isReady();
+
+  /**
+   * Checks if the index can answer a filter exactly as the JCR query does.
+   *
+   * @param profileFilter the filter
+   * @return true if the filter is supported
+   */
+  boolean supports(ProfileFilter profileFilter);
+
+  /**
+   * Replaces the content of the index with the given profiles, the index is ready once done. The profiles indexed or
+   * removed while the rebuild runs are applied at its end.
+   *
+   * @param profiles the profiles of all the enabled and not deleted identities
+   * @throws Exception if the index could not be built
+   */
+  void rebuild(Iterator<IndexedProfile> profiles) throws Exception;
+
+  /**
+   * Adds or updates a profile, ignored while the index is not ready and not being rebuilt.
+   *
+   * @param profile the profile
+   * @throws Exception if the index could not be updated
+   */
+  void index(IndexedProfile profile) throws Exception;
+
+  /**
+   * Removes the profile of an identity, ignored while the index is not ready and not being rebuilt.
+   *
+   * @param identityId the identity id
+   * @throws Exception if the index could not be updated
+   */
+  void remove(String identityId) throws Exception;
+
+  /**
+   * Finds the identities of a provider matching a filter, sorted as the filter asks.
+   *
+   * @param providerId the provider id
+   * @param profileFilter the filter, see {@link #supports(ProfileFilter)}
+   * @param offset the index of the first identity
+   * @param limit the maximum number of identities, all of them if not positive
+   * @return the ids of the found identities
+   * @throws Exception if the index could not be searched
+   */
+  List<String> search(String providerId, ProfileFilter profileFilter, long offset, long limit) throws Exception;
+
+  /**
+   * Counts the identities of a provider matching a filter.
+   *
+   * @param providerId the provider id
+   * @param profileFilter the filter, see {@link #supports(ProfileFilter)}
+   * @return the number of identities
+   * @throws Exception if the index could not be searched
+   */
+  int count(String providerId, ProfileFilter profileFilter) throws Exception;
+
+  /**
+   * Drops the content of the index, it is not ready anymore until it is rebuilt.
+   *
+   * @throws Exception if the index could not be cleared
+   */
+  void clear() throws Exception;
+}
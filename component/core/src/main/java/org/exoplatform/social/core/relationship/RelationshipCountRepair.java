@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.relationship;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.management.annotations.Managed;
+import org.exoplatform.management.annotations.ManagedDescription;
+import org.exoplatform.management.annotations.ManagedName;
+import org.exoplatform.management.jmx.annotations.NameTemplate;
+import org.exoplatform.management.jmx.annotations.Property;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.core.storage.api.RelationshipStorage;
+import org.exoplatform.social.core.storage.cache.CachedRelationshipStorage;
+import org.exoplatform.social.core.storage.impl.RelationshipStorageImpl;
+
+/**
+ * Recomputes the relationship counters stored on the identities from their relationship lists, page by page. The
+ * counters are maintained with the relationships, this repairs the ones written by older versions or left wrong by a
+ * failure.
+ *
+ * @since 4.4
+ */
+@Managed
+@ManagedDescription("Recomputes the relationship counters of the identities")
+@NameTemplate({@Property(key = "service", value = "social"), @Property(key = "view", value = "RelationshipCountRepair")})
+public class RelationshipCountRepair {
+
+  private static final Log LOG = ExoLogger.getLogger(RelationshipCountRepair.class);
+
+  static final String BATCH_SIZE_PARAM = "batch-size";
+
+  static final int DEFAULT_BATCH_SIZE = 200;
+
+  private final RelationshipStorageImpl storage;
+
+  private final RelationshipStorage relationshipStorage;
+
+  private final int batchSize;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private volatile int processed;
+
+  private volatile long duration;
+
+  public RelationshipCountRepair(RelationshipStorageImpl storage,
+                                 RelationshipStorage relationshipStorage,
+                                 InitParams params) {
+    this.storage = storage;
+    this.relationshipStorage = relationshipStorage;
+    ValueParam batchSizeParam = params != null ? params.getValueParam(BATCH_SIZE_PARAM) : null;
+    this.batchSize = batchSizeParam != null ? Integer.parseInt(batchSizeParam.getValue()) : DEFAULT_BATCH_SIZE;
+  }
+
+  /**
+   * Recomputes the counters of all the identities. It returns immediately if a repair is already running.
+   *
+   * @return false if a repair is already running
+   */
+  @Managed
+  @ManagedDescription("Recomputes the relationship counters of all the identities")
+  public boolean repair() {
+    if (!running.compareAndSet(false, true)) {
+      LOG.info("The relationship counters are already being repaired");
+      return false;
+    }
+    long start = System.currentTimeMillis();
+    processed = 0;
+    duration = 0;
+    try {
+      int count;
+      do {
+        count = storage.recountRelationships(processed, batchSize);
+        processed += count;
+      } while (count == batchSize);
+
+      // the counts may be cached
+      if (relationshipStorage instanceof CachedRelationshipStorage) {
+        ((CachedRelationshipStorage) relationshipStorage).clearAllRelationshipCache();
+      }
+
+      duration = System.currentTimeMillis() - start;
+      LOG.info(getProgress());
+      return true;
+    } finally {
+      running.set(false);
+    }
+  }
+
+  @Managed
+  @ManagedName("Running")
+  @ManagedDescription("Whether a repair is running")
+  public boolean isRunning() {
+    return running.get();
+  }
+
+  @Managed
+  @ManagedName("Processed")
+  @ManagedDescription("The number of identities already repaired")
+  public int getProcessed() {
+    return processed;
+  }
+
+  @Managed
+  @ManagedName("Progress")
+  @ManagedDescription("The progress of the last repair")
+  public String getProgress() {
+    StringBuilder progress = new StringBuilder("Relationship counters repair: ")
+        .append(processed).append(" identities processed");
+    if (duration > 0) {
+      progress.append(" in ").append(duration).append(" ms");
+    }
+    return progress.toString();
+  }
+
+}
@@ -36,7 +36,6 @@ import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.services.organization.Group;
 import org.exoplatform.services.organization.GroupHandler;
-import org.exoplatform.services.organization.MembershipTypeHandler;
 import org.exoplatform.services.organization.OrganizationService;
 import org.exoplatform.services.organization.User;
 import org.exoplatform.social.core.application.PortletPreferenceRequiredPlugin;
@@ -52,6 +51,7 @@ import org.exoplatform.social.core.space.SpaceListAccess;
 import org.exoplatform.social.core.space.SpaceListenerPlugin;
 import org.exoplatform.social.core.space.SpaceUtils;
 import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.space.model.SpaceMembershipStatus;
 import org.exoplatform.social.core.space.model.Space.UpdatedField;
 import org.exoplatform.social.core.space.spi.SpaceApplicationHandler;
 import org.exoplatform.social.core.space.spi.SpaceLifeCycleListener;
@@ -573,13 +573,13 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   public void addMember(Space space, String userId) {
-    String[] members = space.getMembers();
-    space = this.removeInvited(space, userId);
-    space = this.removePending(space, userId);
-    if (!ArrayUtils.contains(members, userId)) {
-      members = (String[]) ArrayUtils.add(members, userId);
-      space.setMembers(members);
-      this.updateSpace(space);
+    boolean isMember = ArrayUtils.contains(space.getMembers(), userId);
+    if (!isMember || ArrayUtils.contains(space.getInvitedUsers(), userId)
+        || ArrayUtils.contains(space.getPendingUsers(), userId)) {
+      spaceStorage.moveSpaceMember(space, userId, SpaceMembershipStatus.MEMBER,
+                                   SpaceMembershipStatus.INVITED, SpaceMembershipStatus.PENDING);
+    }
+    if (!isMember) {
       SpaceUtils.addUserToGroupWithMemberMembership(userId, space.getGroupId());
       spaceLifeCycle.memberJoined(space, userId);
     }
@@ -600,11 +600,8 @@ public class SpaceServiceImpl implements SpaceService {
     if (spaceIdentity.isDeleted()) {
       return;
     }
-    String[] members = space.getMembers();
-    if (ArrayUtils.contains(members, userId)) {
-      members = (String[]) ArrayUtils.removeElement(members, userId);
-      space.setMembers(members);
-      this.updateSpace(space);
+    if (ArrayUtils.contains(space.getMembers(), userId)) {
+      spaceStorage.removeSpaceMember(space, userId, SpaceMembershipStatus.MEMBER);
       SpaceUtils.removeUserFromGroupWithMemberMembership(userId, space.getGroupId());
       spaceLifeCycle.memberLeft(space, userId);
     }
@@ -621,10 +618,8 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   private Space addPending(Space space, String userId) {
-    String[] pendingUsers = space.getPendingUsers();
-    if (!ArrayUtils.contains(pendingUsers, userId)) {
-      pendingUsers = (String[]) ArrayUtils.add(pendingUsers, userId);
-      space.setPendingUsers(pendingUsers);
+    if (!ArrayUtils.contains(space.getPendingUsers(), userId)) {
+      spaceStorage.addSpaceMember(space, userId, SpaceMembershipStatus.PENDING);
     }
     return space;
   }
@@ -633,10 +628,8 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   private Space removePending(Space space, String userId) {
-    String[] pendingUsers = space.getPendingUsers();
-    if (ArrayUtils.contains(pendingUsers, userId)) {
-      pendingUsers = (String[]) ArrayUtils.removeElement(pendingUsers, userId);
-      space.setPendingUsers(pendingUsers);
+    if (ArrayUtils.contains(space.getPendingUsers(), userId)) {
+      spaceStorage.removeSpaceMember(space, userId, SpaceMembershipStatus.PENDING);
     }
     return space;
   }
@@ -645,10 +638,8 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   private Space addInvited(Space space, String userId) {
-    String[] invitedUsers = space.getInvitedUsers();
-    if (!ArrayUtils.contains(invitedUsers, userId)) {
-      invitedUsers = (String[]) ArrayUtils.add(invitedUsers, userId);
-      space.setInvitedUsers(invitedUsers);
+    if (!ArrayUtils.contains(space.getInvitedUsers(), userId)) {
+      spaceStorage.addSpaceMember(space, userId, SpaceMembershipStatus.INVITED);
     }
     return space;
   }
@@ -657,10 +648,8 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   private Space removeInvited(Space space, String userId) {
-    String[] invitedUsers = space.getInvitedUsers();
-    if (ArrayUtils.contains(invitedUsers, userId)) {
-      invitedUsers = (String[]) ArrayUtils.removeElement(invitedUsers, userId);
-      space.setInvitedUsers(invitedUsers);
+    if (ArrayUtils.contains(space.getInvitedUsers(), userId)) {
+      spaceStorage.removeSpaceMember(space, userId, SpaceMembershipStatus.INVITED);
     }
     return space;
   }
@@ -734,8 +723,15 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   public boolean isMember(Space space, String userId) {
-    if (ArrayUtils.contains(space.getMembers(), userId)) return true;
-    return SpaceUtils.isUserHasMembershipTypesInGroup(userId, space.getGroupId(), MembershipTypeHandler.ANY_MEMBERSHIP_TYPE);
+    if (isInList(space, userId, SpaceMembershipStatus.MEMBER)) return true;
+    return spaceStorage.hasAnyGroupMembership(space.getGroupId(), userId);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean hasGroupMembership(Space space, String userId) {
+    return spaceStorage.hasAnyGroupMembership(space.getGroupId(), userId);
   }
 
   /**
@@ -750,8 +746,8 @@ public class SpaceServiceImpl implements SpaceService {
    */
   public boolean hasAccessPermission(Space space, String userId) {
     if (userId.equals(getUserACL().getSuperUser()) 
-        || (ArrayUtils.contains(space.getMembers(), userId)) 
-        || (ArrayUtils.contains(space.getManagers(), userId))) {
+        || isInList(space, userId, SpaceMembershipStatus.MEMBER)
+        || isInList(space, userId, SpaceMembershipStatus.MANAGER)) {
       return true;
     }
     return false;
@@ -1233,12 +1229,10 @@ public class SpaceServiceImpl implements SpaceService {
       return;
     }
     if (isPending(space, userId)) {
-      space = removePending(space, userId);
       addMember(space, userId);
     } else {
       space = addInvited(space, userId);
     }
-    this.updateSpace(space);
     spaceLifeCycle.addInvitedUser(space, userId);
   }
 
@@ -1253,8 +1247,6 @@ public class SpaceServiceImpl implements SpaceService {
 
     if (ArrayUtils.contains(space.getPendingUsers(), userId)) {
       this.addMember(space, userId);
-      space = removeInvited(space, userId);
-      this.updateSpace(space);
       return;
     }
     
@@ -1268,7 +1260,6 @@ public class SpaceServiceImpl implements SpaceService {
       addMember(space, userId);
     } else if (registration.equals(Space.VALIDATION)) {
       space = addPending(space, userId);
-      saveSpace(space, false);
     } else {
       LOG.warn("Unable request to join");
     }
@@ -1359,25 +1350,25 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   public boolean hasSettingPermission(Space space, String userId) {
-    if (userId.equals(getUserACL().getSuperUser()) || ArrayUtils.contains(space.getManagers(), userId)) {
+    if (userId.equals(getUserACL().getSuperUser()) || isInList(space, userId, SpaceMembershipStatus.MANAGER)) {
       return true;
     }
-    return SpaceUtils.isUserHasMembershipTypesInGroup(userId, space.getGroupId(), MembershipTypeHandler.ANY_MEMBERSHIP_TYPE);
+    return spaceStorage.hasAnyGroupMembership(space.getGroupId(), userId);
   }
 
   /**
    * {@inheritDoc}
    */
   public boolean isInvitedUser(Space space, String userId) {
-    return ArrayUtils.contains(space.getInvitedUsers(), userId);
+    return isInList(space, userId, SpaceMembershipStatus.INVITED);
   }
 
   /**
    * {@inheritDoc}
    */
   public boolean isManager(Space space, String userId) {
-    if (ArrayUtils.contains(space.getManagers(), userId)) return true;
-    return SpaceUtils.isUserHasMembershipTypesInGroup(userId, space.getGroupId(), MembershipTypeHandler.ANY_MEMBERSHIP_TYPE);
+    if (isInList(space, userId, SpaceMembershipStatus.MANAGER)) return true;
+    return spaceStorage.hasAnyGroupMembership(space.getGroupId(), userId);
   }
 
   /**
@@ -1394,7 +1385,27 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   public boolean isPendingUser(Space space, String userId) {
-    return ArrayUtils.contains(space.getPendingUsers(), userId);
+    return isInList(space, userId, SpaceMembershipStatus.PENDING);
+  }
+
+  /**
+   * Checks if a user is in one list of users of a space. The lists of a saved space are checked on the cached
+   * hash sets of the stored space, not on the arrays of the given one.
+   */
+  private boolean isInList(Space space, String userId, SpaceMembershipStatus status) {
+    if (space.getId() != null) {
+      return spaceStorage.isSpaceMember(space.getId(), userId, status);
+    }
+    switch (status) {
+      case MANAGER:
+        return ArrayUtils.contains(space.getManagers(), userId);
+      case PENDING:
+        return ArrayUtils.contains(space.getPendingUsers(), userId);
+      case INVITED:
+        return ArrayUtils.contains(space.getInvitedUsers(), userId);
+      default:
+        return ArrayUtils.contains(space.getMembers(), userId);
+    }
   }
 
   /**
@@ -1408,20 +1419,14 @@ public class SpaceServiceImpl implements SpaceService {
    * {@inheritDoc}
    */
   public void removeInvitedUser(Space space, String userId) {
-    if (ArrayUtils.contains(space.getInvitedUsers(), userId)) {
-      space = this.removeInvited(space, userId);
-      this.updateSpace(space);
-    }
+    this.removeInvited(space, userId);
   }
 
   /**
    * {@inheritDoc}
    */
   public void removePendingUser(Space space, String userId) {
-    if (ArrayUtils.contains(space.getPendingUsers(), userId)) {
-      space = this.removePending(space, userId);
-      this.updateSpace(space);
-    }
+    this.removePending(space, userId);
   }
 
   /**
@@ -1431,17 +1436,13 @@ public class SpaceServiceImpl implements SpaceService {
     String[] managers = space.getManagers();
     if (isManager) {
       if (!ArrayUtils.contains(managers, userId)) {
-        managers = (String[]) ArrayUtils.add(managers, userId);
-        space.setManagers(managers);
-        this.updateSpace(space);
+        spaceStorage.addSpaceMember(space, userId, SpaceMembershipStatus.MANAGER);
         SpaceUtils.addUserToGroupWithManagerMembership(userId, space.getGroupId());
         spaceLifeCycle.grantedLead(space, userId);
       }
     } else {
       if (ArrayUtils.contains(managers, userId)) {
-        managers = (String[]) ArrayUtils.removeElement(managers, userId);
-        space.setManagers(managers);
-        this.updateSpace(space);
+        spaceStorage.removeSpaceMember(space, userId, SpaceMembershipStatus.MANAGER);
         SpaceUtils.removeUserFromGroupWithManagerMembership(userId, space.getGroupId());
         Space updatedSpace = getSpaceById(space.getId()); 
         if (isMember(updatedSpace, userId)) {
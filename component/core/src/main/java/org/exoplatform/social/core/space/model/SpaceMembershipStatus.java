@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.space.model;
+
+/**
+ * The lists of users of a space.
+ *
+ * @since 4.4
+ */
+public enum SpaceMembershipStatus {
+
+  /**
+   * The members, see {@link Space#getMembers()}.
+   */
+  MEMBER,
+
+  /**
+   * The managers, see {@link Space#getManagers()}.
+   */
+  MANAGER,
+
+  /**
+   * The users who have requested to join, see {@link Space#getPendingUsers()}.
+   */
+  PENDING,
+
+  /**
+   * The invited users, see {@link Space#getInvitedUsers()}.
+   */
+  INVITED
+
+}
@@ -376,6 +376,18 @@ public interface SpaceService {
    */
   boolean isMember(Space space, String userId);
 
+  /**
+   * Checks if a given user has any membership in the group of a space. The check is cached and refreshed when a
+   * membership of the group changes.
+   *
+   * @param space The existing space.
+   * @param userId The remote user Id.
+   * @return TRUE if the user has a membership of any type in the group of the space. Otherwise, it is FALSE.
+   * @LevelAPI Platform
+   * @since 4.4
+   */
+  boolean hasGroupMembership(Space space, String userId);
+
   /**
    * Assigns the "manager" role to a user in a space.
    *
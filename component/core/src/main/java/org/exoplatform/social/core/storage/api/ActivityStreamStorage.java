@@ -132,6 +132,32 @@ public interface ActivityStreamStorage {
    */
   public void deleteConnect(Identity sender, Identity receiver);
   
+  /**
+   * Adds a page of the activities posted by an identity to the connections stream of another one, newest first,
+   * when they get connected. The activities already in the stream and the space activities are skipped.
+   * 
+   * @param poster the identity whose activities are added
+   * @param receiver the identity whose streams get the activities
+   * @param before only the activities last updated at or before this time are added
+   * @param limit the number of activities to go through
+   * @return the time to give as before to get the next page, or -1 when there is no more activity
+   * @since 4.4
+   */
+  public long connect(Identity poster, Identity receiver, long before, int limit);
+  
+  /**
+   * Removes a page of the activities posted by an identity from the connections stream of another one, newest first,
+   * when they get disconnected.
+   * 
+   * @param poster the identity whose activities are removed
+   * @param receiver the identity whose streams lose the activities
+   * @param before only the activities last updated at or before this time are removed
+   * @param limit the number of activities to go through
+   * @return the time to give as before to get the next page, or -1 when there is no more activity
+   * @since 4.4
+   */
+  public long deleteConnect(Identity poster, Identity receiver, long before, int limit);
+  
   /**
    * Updates the activity stream what relates to updated activity
    * It will run with asynchronous mode
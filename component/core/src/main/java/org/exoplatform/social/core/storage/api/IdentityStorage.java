@@ -17,14 +17,19 @@
 
 package org.exoplatform.social.core.storage.api;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.exoplatform.social.core.identity.SpaceMemberFilterListAccess.Type;
 import org.exoplatform.social.core.identity.model.ActiveIdentityFilter;
 import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.IdentityStatus;
 import org.exoplatform.social.core.identity.model.Profile;
 import org.exoplatform.social.core.identity.model.Profile.AttachedActivityType;
+import org.exoplatform.social.core.model.AvatarAttachment;
+import org.exoplatform.social.core.model.AvatarSize;
 import org.exoplatform.social.core.profile.ProfileFilter;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.storage.IdentityStorageException;
@@ -95,6 +100,28 @@ public interface IdentityStorage {
    */
   public Profile loadProfile(Profile profile) throws IdentityStorageException;
 
+  /**
+   * Loads the summary of a profile: the user name, the names, the position, the url and the avatar url. The other
+   * fields of the profile are not loaded.
+   *
+   * @param profile the profile
+   * @return the profile with only its summary
+   * @throws IdentityStorageException
+   * @since 4.4
+   */
+  public Profile loadProfileSummary(Profile profile) throws IdentityStorageException;
+
+  /**
+   * Gets the avatar of an identity in one of the fixed sizes.
+   *
+   * @param identity the identity
+   * @param size the size of the avatar, the original avatar is returned when it cannot be resized
+   * @return the avatar with its bytes, null if the identity has no avatar
+   * @throws IdentityStorageException
+   * @since 4.4
+   */
+  public AvatarAttachment getAvatar(Identity identity, AvatarSize size) throws IdentityStorageException;
+
   /**
    * Gets the identity by remote id.
    *
@@ -105,6 +132,80 @@ public interface IdentityStorage {
    */
   public Identity findIdentity(final String providerId, final String remoteId) throws IdentityStorageException;
 
+  /**
+   * Gets whether an identity exists, is deleted or is disabled, without loading its profile.
+   *
+   * @param providerId the identity provider
+   * @param remoteId   the id
+   * @return the status of the identity, {@link IdentityStatus#NOT_FOUND} if it does not exist
+   * @throws IdentityStorageException
+   * @since 4.4
+   */
+  public IdentityStatus getIdentityStatus(final String providerId, final String remoteId) throws IdentityStorageException;
+
+  /**
+   * Gets several identities by their ids at once. The profiles of the identities are not loaded.
+   *
+   * @param ids the ids of the identities
+   * @return the identities found, in the order of the ids
+   * @throws IdentityStorageException
+   * @since 4.4
+   */
+  public List<Identity> findIdentitiesByIds(final Collection<String> ids) throws IdentityStorageException;
+
+  /**
+   * Gets several identities of a provider by their remote ids at once. The profiles of the identities are not loaded.
+   *
+   * @param providerId the identity provider
+   * @param remoteIds  the remote ids of the identities
+   * @return the identities found, in the order of the remote ids
+   * @throws IdentityStorageException
+   * @since 4.4
+   */
+  public List<Identity> findIdentities(final String providerId, final Collection<String> remoteIds)
+      throws IdentityStorageException;
+
+  /**
+   * Gets a hash of some profile properties of each enabled identity of a provider, by remote id. The disabled and
+   * deleted identities are not returned. The hash is {@link java.util.Arrays#hashCode(Object[])} of the values of the
+   * properties, in the given order, the missing ones being null.
+   *
+   * @param providerId the identity provider
+   * @param properties the names of the profile properties
+   * @return the hashes by remote id
+   * @throws IdentityStorageException
+   * @since 4.4
+   */
+  public Map<String, Integer> getProfileHashes(final String providerId, final String... properties)
+      throws IdentityStorageException;
+
+  /**
+   * Creates or updates several identities with one save. The identity of each profile is found by its provider and
+   * remote id, and created with its profile when it does not exist. Its enabled state is set from the identity and its
+   * profile gets the string properties of the profile, the null ones being removed and the other ones being left
+   * unchanged. The deleted identities are skipped and a disabled identity which does not exist is not created. The
+   * ids of the saved identities and profiles are set.
+   *
+   * @param profiles the profiles
+   * @return the number of identities created
+   * @throws IdentityStorageException
+   * @since 4.4
+   */
+  public int syncProfiles(final List<Profile> profiles) throws IdentityStorageException;
+
+  /**
+   * Filters some identities of the organization provider with a profile filter from the in memory indexes, without
+   * querying JCR. The found identities are sorted by full name. The excluded identities of the filter are ignored.
+   *
+   * @param profileFilter the filter
+   * @param identityIds the ids of the identities to filter
+   * @return the ids of the identities matching the filter, null if no index can answer the filter
+   * @throws IdentityStorageException
+   * @since 4.4
+   */
+  public List<String> filterIdentityIds(final ProfileFilter profileFilter, final Collection<String> identityIds)
+      throws IdentityStorageException;
+
   /**
    * Saves profile.
    *
@@ -41,6 +41,19 @@ public interface RelationshipStorage {
    */
   public Relationship saveRelationship(final Relationship relationship) throws RelationshipStorageException;
 
+  /**
+   * Confirms many relationships at once and saves them together. The relationships which do not exist yet are created
+   * confirmed and the pending ones get confirmed, the other ones are left unchanged. The connections streams of the
+   * identities are updated in background.
+   *
+   * @param relationships the relationships, by their sender and receiver
+   * @return the relationships which have been confirmed
+   * @throws RelationshipStorageException
+   * @since 4.4
+   */
+  public List<Relationship> confirmRelationships(final List<Relationship> relationships)
+      throws RelationshipStorageException;
+
   /**
    * Removes the relationship.
    *
@@ -343,6 +356,20 @@ public interface RelationshipStorage {
                                                int maxConnectionsToLoad, 
                                                int maxSuggestions) throws RelationshipStorageException;
   
+  /**
+   * Gets the status of the relationships between an identity and a list of identities, read in one pass over the
+   * relationships of the identity instead of one lookup per identity.
+   *
+   * @param viewer The identity whose relationships are checked.
+   * @param others The identities to get the status with.
+   * @return The status by identity id: CONFIRMED, INCOMING when the other identity has sent the invitation, OUTGOING
+   *         when the viewer has sent it, or IGNORED. The identities without relationship are not in the map.
+   * @throws RelationshipStorageException
+   * @since 4.4
+   */
+  public Map<String, Relationship.Type> getRelationshipStatuses(Identity viewer, List<Identity> others)
+      throws RelationshipStorageException;
+
   /**
    * Get the list of identities who are most recently connected with given user
    * the limit number of results must be greater than 0 or an empty list will be returned   
@@ -352,6 +379,50 @@ public interface RelationshipStorage {
    * @return
    */
   public List<Identity> getLastConnections(Identity identity, int limit) throws RelationshipStorageException;
+
+  /**
+   * Gets the identities connected with an identity since a time, the most recent connections first. The connections
+   * are read from an index by creation time, so it does not depend on the number of older connections.
+   *
+   * @param identity The identity.
+   * @param since The minimum connection time, in milliseconds, all the connections if not positive.
+   * @param limit The maximum number of identities, it must be greater than 0 or an empty list is returned.
+   * @return The connected identities.
+   * @throws RelationshipStorageException
+   * @since 4.4
+   */
+  public List<Identity> getLastConnections(Identity identity, long since, int limit)
+      throws RelationshipStorageException;
+
+  /**
+   * Gets the relationships of an identity created since a time, the most recent ones first. A connection is created
+   * when it is confirmed.
+   *
+   * @param identity The identity.
+   * @param type The status of the relationships: CONFIRMED, PENDING, INCOMING, OUTGOING, IGNORED or ALL for the
+   *             connections and pending ones.
+   * @param since The minimum creation time, in milliseconds, all the relationships if not positive.
+   * @param offset The number of most recent relationships to skip.
+   * @param limit The maximum number of relationships, all of them if not positive.
+   * @return The relationships.
+   * @throws RelationshipStorageException
+   * @since 4.4
+   */
+  public List<Relationship> getLastRelationships(Identity identity, Relationship.Type type, long since, int offset,
+                                                 int limit) throws RelationshipStorageException;
+
+  /**
+   * Counts the relationships of an identity created since a time, without loading them.
+   *
+   * @param identity The identity.
+   * @param type The status of the relationships, as for {@link #getLastRelationships}.
+   * @param since The minimum creation time, in milliseconds, all the relationships if not positive.
+   * @return The number of relationships.
+   * @throws RelationshipStorageException
+   * @since 4.4
+   */
+  public int getLastRelationshipsCount(Identity identity, Relationship.Type type, long since)
+      throws RelationshipStorageException;
   
   /**
    * Gets a list of all relationships by status.
@@ -19,6 +19,7 @@ package org.exoplatform.social.core.storage.api;
 
 import org.exoplatform.social.core.space.SpaceFilter;
 import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.space.model.SpaceMembershipStatus;
 import org.exoplatform.social.core.storage.SpaceStorageException;
 
 import java.util.List;
@@ -49,6 +50,81 @@ public interface SpaceStorage {
    */
   public void saveSpace(Space space, boolean isNew) throws SpaceStorageException;
 
+  /**
+   * Adds a user to one list of users of a space, without saving the other lists: only the reference of the user to
+   * the space is created, and the user gets the activities of the space when added as a member.
+   * <br>
+   * The list is still stored as one multi-valued property of the space, which is rewritten with the user added, so
+   * the cost grows with the size of that list.
+   *
+   * @param space the space, its list is updated too
+   * @param userId the user name
+   * @param status the list to add the user to
+   * @return true if the user was not in the list
+   * @throws SpaceStorageException
+   * @since 4.4
+   */
+  public boolean addSpaceMember(Space space, String userId, SpaceMembershipStatus status) throws SpaceStorageException;
+
+  /**
+   * Removes a user from one list of users of a space, without saving the other lists. The multi-valued property of
+   * the list is rewritten, as in {@link #addSpaceMember(Space, String, SpaceMembershipStatus)}.
+   *
+   * @param space the space, its list is updated too
+   * @param userId the user name
+   * @param status the list to remove the user from
+   * @return true if the user was in the list
+   * @throws SpaceStorageException
+   * @since 4.4
+   */
+  public boolean removeSpaceMember(Space space, String userId, SpaceMembershipStatus status) throws SpaceStorageException;
+
+  /**
+   * Moves a user from some lists of users of a space to another one, such as from the invited and pending users to
+   * the members, and saves all the changes at once: the user is never left out of all the lists.
+   *
+   * @param space the space, its lists are updated too
+   * @param userId the user name
+   * @param status the list to add the user to
+   * @param from the lists to remove the user from
+   * @return true if the user was not in the list to add to
+   * @throws SpaceStorageException
+   * @since 4.4
+   */
+  public boolean moveSpaceMember(Space space, String userId, SpaceMembershipStatus status,
+                                 SpaceMembershipStatus... from) throws SpaceStorageException;
+
+  /**
+   * Checks if a user is in one list of users of a saved space.
+   *
+   * @param spaceId the space id
+   * @param userId the user name
+   * @param status the list, the members including the managers
+   * @return true if the user is in the list
+   * @throws SpaceStorageException
+   * @since 4.4
+   */
+  public boolean isSpaceMember(String spaceId, String userId, SpaceMembershipStatus status) throws SpaceStorageException;
+
+  /**
+   * Checks if a user has the membership of any type, "*", in a group of the organization service.
+   *
+   * @param groupId the group id, such as the group of a space
+   * @param userId the user name
+   * @return true if the user has the membership
+   * @since 4.4
+   */
+  public boolean hasAnyGroupMembership(String groupId, String userId);
+
+  /**
+   * Notifies that the memberships of a user in a group have been changed in the organization service.
+   *
+   * @param groupId the group id
+   * @param userId the user name
+   * @since 4.4
+   */
+  public void updateGroupMembership(String groupId, String userId);
+
   /**
    * Renames a space.
    * 
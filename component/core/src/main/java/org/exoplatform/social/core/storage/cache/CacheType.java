@@ -35,6 +35,9 @@ public enum CacheType {
   IDENTITY("IdentityCache"),
   IDENTITY_INDEX("IdentityIndexCache"),
   PROFILE("ProfileCache"),
+  PROFILE_SUMMARY("ProfileSummaryCache"),
+  AVATAR("AvatarCache"),
+  IDENTITY_STATUS("IdentityStatusCache"),
   IDENTITIES_COUNT("IdentitiesCountCache"),
   IDENTITIES("IdentitiesCache"),
   ACTIVE_IDENTITIES("ActiveIdentitiesCache"),
@@ -44,6 +47,7 @@ public enum CacheType {
   RELATIONSHIP_FROM_IDENTITY("RelationshipFromIdentityCache"),
   RELATIONSHIPS_COUNT("RelationshipsCountCache"),
   RELATIONSHIPS("RelationshipsCache"),
+  RELATIONSHIP_GRAPH("RelationshipGraphCache"),
   SUGGESTIONS("SuggestionsCache"),
 
   //
@@ -63,7 +67,8 @@ public enum CacheType {
   SPACES("SpacesCache"),
   
   //
-  SPACE_SIMPLE("SpaceSimpleCache")
+  SPACE_SIMPLE("SpaceSimpleCache"),
+  SPACE_GROUP_MEMBERSHIP("SpaceGroupMembershipCache")
 
   ;
 
@@ -141,6 +141,21 @@ public class CachedActivityStorage implements ActivityStorage {
    */
   private List<ExoSocialActivity> buildActivities(ListActivitiesData data) {
 
+    // load together the activities which are not cached yet, so that the activity processors run once for them
+    List<String> missingIds = new ArrayList<String>();
+    for (ActivityKey k : data.getIds()) {
+      if (k.getId() != null && k.getId().length() > 0 && exoActivityCache.get(k) == null) {
+        missingIds.add(k.getId());
+      }
+    }
+    if (missingIds.size() > 1) {
+      List<ExoSocialActivity> got = storage.getActivities(missingIds);
+      for (int i = 0; i < missingIds.size(); i++) {
+        ExoSocialActivity a = got.get(i);
+        exoActivityCache.put(new ActivityKey(missingIds.get(i)), a != null ? new ActivityData(a) : ActivityData.NULL);
+      }
+    }
+
     List<ExoSocialActivity> activities = new ArrayList<ExoSocialActivity>();
     for (ActivityKey k : data.getIds()) {
       ExoSocialActivity a = getActivity(k.getId());
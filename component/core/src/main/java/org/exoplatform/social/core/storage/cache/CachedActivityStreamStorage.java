@@ -175,6 +175,16 @@ public class CachedActivityStreamStorage implements ActivityStreamStorage {
     this.storage.deleteConnect(sender, receiver);
   }
   
+  @Override
+  public long connect(Identity poster, Identity receiver, long before, int limit) {
+    return this.storage.connect(poster, receiver, before, limit);
+  }
+  
+  @Override
+  public long deleteConnect(Identity poster, Identity receiver, long before, int limit) {
+    return this.storage.deleteConnect(poster, receiver, before, limit);
+  }
+  
   @Override
   public void createActivityRef(Identity owner,
                                 List<ExoSocialActivity> activities,
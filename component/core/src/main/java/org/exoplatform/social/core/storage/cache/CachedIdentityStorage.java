@@ -18,7 +18,12 @@
 package org.exoplatform.social.core.storage.cache;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.exoplatform.commons.utils.CommonsUtils;
@@ -31,10 +36,13 @@ import org.exoplatform.services.user.UserStateService;
 import org.exoplatform.social.core.identity.SpaceMemberFilterListAccess.Type;
 import org.exoplatform.social.core.identity.model.ActiveIdentityFilter;
 import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.IdentityStatus;
 import org.exoplatform.social.core.identity.model.Profile;
 import org.exoplatform.social.core.identity.model.Profile.AttachedActivityType;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
 import org.exoplatform.social.core.identity.provider.SpaceIdentityProvider;
+import org.exoplatform.social.core.model.AvatarAttachment;
+import org.exoplatform.social.core.model.AvatarSize;
 import org.exoplatform.social.core.profile.ProfileFilter;
 import org.exoplatform.social.core.profile.ProfileLoader;
 import org.exoplatform.social.core.space.model.Space;
@@ -42,11 +50,15 @@ import org.exoplatform.social.core.storage.IdentityStorageException;
 import org.exoplatform.social.core.storage.api.IdentityStorage;
 import org.exoplatform.social.core.storage.cache.loader.ServiceContext;
 import org.exoplatform.social.core.storage.cache.model.data.ActiveIdentitiesData;
+import org.exoplatform.social.core.storage.cache.model.data.AvatarData;
 import org.exoplatform.social.core.storage.cache.model.data.IdentityData;
+import org.exoplatform.social.core.storage.cache.model.data.IdentityStatusData;
 import org.exoplatform.social.core.storage.cache.model.data.IntegerData;
 import org.exoplatform.social.core.storage.cache.model.data.ListIdentitiesData;
 import org.exoplatform.social.core.storage.cache.model.data.ProfileData;
+import org.exoplatform.social.core.storage.cache.model.data.ProfileSummaryData;
 import org.exoplatform.social.core.storage.cache.model.key.ActiveIdentityKey;
+import org.exoplatform.social.core.storage.cache.model.key.AvatarKey;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityCompositeKey;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityFilterKey;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityKey;
@@ -70,6 +82,9 @@ public class CachedIdentityStorage implements IdentityStorage {
   private final ExoCache<IdentityKey, IdentityData> exoIdentityCache;
   private final ExoCache<IdentityCompositeKey, IdentityKey> exoIdentityIndexCache;
   private final ExoCache<IdentityKey, ProfileData> exoProfileCache;
+  private final ExoCache<IdentityKey, ProfileSummaryData> exoProfileSummaryCache;
+  private final ExoCache<AvatarKey, AvatarData> exoAvatarCache;
+  private final ExoCache<IdentityCompositeKey, IdentityStatusData> exoIdentityStatusCache;
   private final ExoCache<IdentityFilterKey, IntegerData> exoIdentitiesCountCache;
   private final ExoCache<ListIdentitiesKey, ListIdentitiesData> exoIdentitiesCache;
   private final ExoCache<ActiveIdentityKey, ActiveIdentitiesData> exoActiveIdentitiesCache;
@@ -77,6 +92,9 @@ public class CachedIdentityStorage implements IdentityStorage {
   private final FutureExoCache<IdentityKey, IdentityData, ServiceContext<IdentityData>> identityCache;
   private final FutureExoCache<IdentityCompositeKey, IdentityKey, ServiceContext<IdentityKey>> identityIndexCache;
   private final FutureExoCache<IdentityKey, ProfileData, ServiceContext<ProfileData>> profileCache;
+  private final FutureExoCache<IdentityKey, ProfileSummaryData, ServiceContext<ProfileSummaryData>> profileSummaryCache;
+  private final FutureExoCache<AvatarKey, AvatarData, ServiceContext<AvatarData>> avatarCache;
+  private final FutureExoCache<IdentityCompositeKey, IdentityStatusData, ServiceContext<IdentityStatusData>> identityStatusCache;
   private final FutureExoCache<IdentityFilterKey, IntegerData, ServiceContext<IntegerData>> identitiesCountCache;
   private final FutureExoCache<ListIdentitiesKey, ListIdentitiesData, ServiceContext<ListIdentitiesData>> identitiesCache;
   private final FutureExoCache<ActiveIdentityKey, ActiveIdentitiesData, ServiceContext<ActiveIdentitiesData>> activeIdentitiesCache;
@@ -108,14 +126,20 @@ public class CachedIdentityStorage implements IdentityStorage {
    * Build the identity list from the caches Ids.
    *
    * @param data ids
+   * @param profileFilter the filter of the list, it tells if only the summary of the profiles is loaded
    * @return identities
    */
-  private List<Identity> buildIdentities(ListIdentitiesData data) {
+  private List<Identity> buildIdentities(ListIdentitiesData data, ProfileFilter profileFilter) {
 
+    boolean summaryOnly = isSummaryOnly(profileFilter);
     List<Identity> identities = new ArrayList<Identity>();
     for (IdentityKey k : data.getIds()) {
       Identity gotIdentity = findIdentityById(k.getId());
-      gotIdentity.setProfile(loadProfile(gotIdentity.getProfile()));
+      if (summaryOnly) {
+        gotIdentity.setProfile(loadProfileSummary(gotIdentity.getProfile()));
+      } else {
+        gotIdentity.setProfile(loadProfile(gotIdentity.getProfile()));
+      }
       identities.add(gotIdentity);
     }
     return identities;
@@ -126,21 +150,43 @@ public class CachedIdentityStorage implements IdentityStorage {
    * Build the ids from the identitiy list.
    *
    * @param identities identities
+   * @param profileFilter the filter of the list, it tells if the profiles of the identities are only summaries
    * @return ids
    */
-  private ListIdentitiesData buildIds(List<Identity> identities) {
+  private ListIdentitiesData buildIds(List<Identity> identities, ProfileFilter profileFilter) {
 
+    boolean summaryOnly = isSummaryOnly(profileFilter);
     List<IdentityKey> data = new ArrayList<IdentityKey>();
     for (Identity i : identities) {
       IdentityKey k = new IdentityKey(i);
       exoIdentityCache.put(k, new IdentityData(i));
-      exoProfileCache.put(k, new ProfileData(i.getProfile()));
+      if (summaryOnly) {
+        exoProfileSummaryCache.put(k, new ProfileSummaryData(i.getProfile()));
+      } else {
+        exoProfileCache.put(k, new ProfileData(i.getProfile()));
+      }
       data.add(new IdentityKey(i));
     }
     return new ListIdentitiesData(data);
 
   }
 
+  private static boolean isSummaryOnly(ProfileFilter profileFilter) {
+    return profileFilter != null && profileFilter.isSummaryOnly();
+  }
+
+  private void clearAvatarCache(IdentityKey key) {
+    for (AvatarSize size : AvatarSize.values()) {
+      exoAvatarCache.remove(new AvatarKey(key.getId(), size));
+    }
+  }
+
+  private void clearIdentityStatusCache(String providerId, String remoteId) {
+    if (providerId != null && remoteId != null) {
+      exoIdentityStatusCache.remove(new IdentityCompositeKey(providerId, remoteId));
+    }
+  }
+
   public CachedIdentityStorage(final IdentityStorageImpl storage, final SocialStorageCacheService cacheService) {
 
     //
@@ -151,6 +197,9 @@ public class CachedIdentityStorage implements IdentityStorage {
     this.exoIdentityCache = cacheService.getIdentityCache();
     this.exoIdentityIndexCache = cacheService.getIdentityIndexCache();
     this.exoProfileCache = cacheService.getProfileCache();
+    this.exoProfileSummaryCache = cacheService.getProfileSummaryCache();
+    this.exoAvatarCache = cacheService.getAvatarCache();
+    this.exoIdentityStatusCache = cacheService.getIdentityStatusCache();
     this.exoIdentitiesCountCache = cacheService.getCountIdentitiesCache();
     this.exoIdentitiesCache = cacheService.getIdentitiesCache();
     this.exoActiveIdentitiesCache = cacheService.getActiveIdentitiesCache();
@@ -159,6 +208,9 @@ public class CachedIdentityStorage implements IdentityStorage {
     this.identityCache = CacheType.IDENTITY.createFutureCache(exoIdentityCache);
     this.identityIndexCache = CacheType.IDENTITY_INDEX.createFutureCache(exoIdentityIndexCache);
     this.profileCache = CacheType.PROFILE.createFutureCache(exoProfileCache);
+    this.profileSummaryCache = CacheType.PROFILE_SUMMARY.createFutureCache(exoProfileSummaryCache);
+    this.avatarCache = CacheType.AVATAR.createFutureCache(exoAvatarCache);
+    this.identityStatusCache = CacheType.IDENTITY_STATUS.createFutureCache(exoIdentityStatusCache);
     this.identitiesCountCache = CacheType.IDENTITIES_COUNT.createFutureCache(exoIdentitiesCountCache);
     this.identitiesCache = CacheType.IDENTITIES.createFutureCache(exoIdentitiesCache);
     this.activeIdentitiesCache = CacheType.ACTIVE_IDENTITIES.createFutureCache(exoActiveIdentitiesCache);
@@ -176,6 +228,7 @@ public class CachedIdentityStorage implements IdentityStorage {
     //
     IdentityKey key = new IdentityKey(new Identity(identity.getId()));
     exoIdentityCache.put(key, new IdentityData(identity));
+    clearIdentityStatusCache(identity.getProviderId(), identity.getRemoteId());
     clearCache();
   }
 
@@ -188,6 +241,7 @@ public class CachedIdentityStorage implements IdentityStorage {
     IdentityKey key = new IdentityKey(new Identity(identity.getId()));
     exoIdentityCache.remove(key);
     exoIdentityIndexCache.remove(key);
+    clearIdentityStatusCache(identity.getProviderId(), identity.getRemoteId());
     clearCache();
 
     //
@@ -219,13 +273,7 @@ public class CachedIdentityStorage implements IdentityStorage {
 
     //
     if (i != null) {
-      ProfileLoader loader = new ProfileLoader() {
-        public Profile load() throws IdentityStorageException {
-          Profile profile = new Profile(i);
-          return loadProfile(profile);
-        }
-      };
-      i.setProfileLoader(loader);
+      setProfileLoader(i);
     }
 
     //
@@ -233,6 +281,16 @@ public class CachedIdentityStorage implements IdentityStorage {
 
   }
 
+  private void setProfileLoader(final Identity i) {
+    ProfileLoader loader = new ProfileLoader() {
+      public Profile load() throws IdentityStorageException {
+        Profile profile = new Profile(i);
+        return loadProfile(profile);
+      }
+    };
+    i.setProfileLoader(loader);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -248,6 +306,9 @@ public class CachedIdentityStorage implements IdentityStorage {
       exoIdentityIndexCache.remove(new IdentityCompositeKey(data.getProviderId(), data.getRemoteId()));
     }
     exoProfileCache.remove(key);
+    exoProfileSummaryCache.remove(key);
+    clearAvatarCache(key);
+    clearIdentityStatusCache(identity.getProviderId(), identity.getRemoteId());
     clearCache();
 
   }
@@ -267,6 +328,9 @@ public class CachedIdentityStorage implements IdentityStorage {
       exoIdentityIndexCache.remove(new IdentityCompositeKey(data.getProviderId(), data.getRemoteId()));
     }
     exoProfileCache.remove(key);
+    exoProfileSummaryCache.remove(key);
+    clearAvatarCache(key);
+    clearIdentityStatusCache(identity.getProviderId(), identity.getRemoteId());
     clearCache();
 
   }
@@ -290,6 +354,50 @@ public class CachedIdentityStorage implements IdentityStorage {
     
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public Profile loadProfileSummary(final Profile profile) throws IdentityStorageException {
+
+    IdentityKey key = new IdentityKey(new Identity(profile.getIdentity().getId()));
+
+    // the full profile has the fields of the summary
+    ProfileData profileData = exoProfileCache.get(key);
+    if (profileData != null) {
+      return profileData.build();
+    }
+
+    return profileSummaryCache.get(
+        new ServiceContext<ProfileSummaryData>() {
+
+          public ProfileSummaryData execute() {
+            return new ProfileSummaryData(storage.loadProfileSummary(profile));
+          }
+        },
+        key)
+        .build();
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public AvatarAttachment getAvatar(final Identity identity, final AvatarSize size) throws IdentityStorageException {
+
+    AvatarKey key = new AvatarKey(identity.getId(), size);
+
+    return avatarCache.get(
+        new ServiceContext<AvatarData>() {
+
+          public AvatarData execute() {
+            return new AvatarData(storage.getAvatar(identity, size));
+          }
+        },
+        key)
+        .build();
+
+  }
+
   /**
    * Clear identity cache.
    * 
@@ -302,8 +410,11 @@ public class CachedIdentityStorage implements IdentityStorage {
     IdentityData data = exoIdentityCache.remove(key);
     if (data != null) {
       exoIdentityIndexCache.remove(new IdentityCompositeKey(data.getProviderId(), oldRemoteId));
+      clearIdentityStatusCache(data.getProviderId(), oldRemoteId);
     }
     exoProfileCache.remove(key);
+    exoProfileSummaryCache.remove(key);
+    clearAvatarCache(key);
     clearCache();
   }
   
@@ -338,6 +449,154 @@ public class CachedIdentityStorage implements IdentityStorage {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public IdentityStatus getIdentityStatus(final String providerId, final String remoteId) throws IdentityStorageException {
+
+    //
+    IdentityCompositeKey key = new IdentityCompositeKey(providerId, remoteId);
+
+    //
+    return identityStatusCache.get(
+        new ServiceContext<IdentityStatusData>() {
+          public IdentityStatusData execute() {
+            return new IdentityStatusData(storage.getIdentityStatus(providerId, remoteId));
+          }
+        },
+        key).build();
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<Identity> findIdentitiesByIds(final Collection<String> ids) throws IdentityStorageException {
+
+    //
+    Map<String, Identity> found = new HashMap<String, Identity>();
+    List<String> misses = new ArrayList<String>();
+    for (String id : new LinkedHashSet<String>(ids)) {
+      IdentityData data = exoIdentityCache.get(new IdentityKey(new Identity(id)));
+      if (data == null) {
+        misses.add(id);
+      }
+      else if (data.getId() != null) {
+        found.put(id, data.build());
+      }
+    }
+
+    // the misses are loaded by one query
+    if (!misses.isEmpty()) {
+      for (Identity i : storage.findIdentitiesByIds(misses)) {
+        exoIdentityCache.put(new IdentityKey(i), new IdentityData(i));
+        found.put(i.getId(), i);
+      }
+    }
+
+    //
+    List<Identity> identities = new ArrayList<Identity>(found.size());
+    Set<String> added = new HashSet<String>();
+    for (String id : ids) {
+      Identity i = found.get(id);
+      if (i != null && added.add(id)) {
+        setProfileLoader(i);
+        identities.add(i);
+      }
+    }
+    return identities;
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<Identity> findIdentities(final String providerId, final Collection<String> remoteIds)
+      throws IdentityStorageException {
+
+    //
+    Map<String, String> ids = new HashMap<String, String>();
+    List<String> misses = new ArrayList<String>();
+    for (String remoteId : new LinkedHashSet<String>(remoteIds)) {
+      IdentityKey key = exoIdentityIndexCache.get(new IdentityCompositeKey(providerId, remoteId));
+      if (key == null) {
+        misses.add(remoteId);
+      }
+      else {
+        ids.put(remoteId, key.getId());
+      }
+    }
+
+    // the misses are loaded by one query
+    if (!misses.isEmpty()) {
+      for (Identity i : storage.findIdentities(providerId, misses)) {
+        IdentityKey key = new IdentityKey(i);
+        exoIdentityCache.put(key, new IdentityData(i));
+        exoIdentityIndexCache.put(new IdentityCompositeKey(providerId, i.getRemoteId()), key);
+        ids.put(i.getRemoteId(), i.getId());
+      }
+    }
+
+    //
+    List<String> sortedIds = new ArrayList<String>(ids.size());
+    for (String remoteId : remoteIds) {
+      String id = ids.get(remoteId);
+      if (id != null) {
+        sortedIds.add(id);
+      }
+    }
+    return findIdentitiesByIds(sortedIds);
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public Map<String, Integer> getProfileHashes(final String providerId, final String... properties)
+      throws IdentityStorageException {
+
+    return storage.getProfileHashes(providerId, properties);
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public int syncProfiles(final List<Profile> profiles) throws IdentityStorageException {
+
+    //
+    int created = storage.syncProfiles(profiles);
+
+    //
+    for (Profile profile : profiles) {
+      Identity identity = profile.getIdentity();
+      exoIdentityIndexCache.remove(new IdentityCompositeKey(identity.getProviderId(), identity.getRemoteId()));
+      clearIdentityStatusCache(identity.getProviderId(), identity.getRemoteId());
+      if (identity.getId() != null) {
+        IdentityKey key = new IdentityKey(new Identity(identity.getId()));
+        exoIdentityCache.remove(key);
+        exoProfileCache.remove(key);
+        exoProfileSummaryCache.remove(key);
+      }
+    }
+    identitiesCache.clear();
+    clearCache();
+    getCachedRelationshipStorage().clearAllRelationshipCache();
+
+    return created;
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<String> filterIdentityIds(final ProfileFilter profileFilter, final Collection<String> identityIds)
+      throws IdentityStorageException {
+
+    return storage.filterIdentityIds(profileFilter, identityIds);
+
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -349,6 +608,8 @@ public class CachedIdentityStorage implements IdentityStorage {
     //
     IdentityKey key = new IdentityKey(new Identity(profile.getIdentity().getId()));
     exoProfileCache.remove(key);
+    exoProfileSummaryCache.remove(key);
+    clearAvatarCache(key);
 
   }
 
@@ -363,6 +624,8 @@ public class CachedIdentityStorage implements IdentityStorage {
     //
     IdentityKey key = new IdentityKey(new Identity(profile.getIdentity().getId()));
     exoProfileCache.remove(key);
+    exoProfileSummaryCache.remove(key);
+    clearAvatarCache(key);
     clearCache();
 
   }
@@ -392,13 +655,13 @@ public class CachedIdentityStorage implements IdentityStorage {
           public ListIdentitiesData execute() {
             List<Identity> got = storage.getIdentitiesByProfileFilter(
                 providerId, profileFilter, offset, limit, forceLoadOrReloadProfile);
-            return buildIds(got);
+            return buildIds(got, profileFilter);
           }
         },
         listKey);
 
     //
-    return buildIdentities(keys);
+    return buildIdentities(keys, profileFilter);
     
   }
   
@@ -418,14 +681,14 @@ public class CachedIdentityStorage implements IdentityStorage {
           public ListIdentitiesData execute() {
             List<Identity> got = storage.getIdentitiesForMentions(
                 providerId, profileFilter, offset, limit, forceLoadOrReloadProfile);
-            return buildIds(got);
+            return buildIds(got, profileFilter);
           }
         },
         listKey);
 
     //
     LOG.trace("getIdentitiesForMentions:: return " + keys.getIds().size());
-    return buildIdentities(keys);
+    return buildIdentities(keys, profileFilter);
     
   }
 
@@ -489,14 +752,14 @@ public class CachedIdentityStorage implements IdentityStorage {
           public ListIdentitiesData execute() {
             List<Identity> got = storage.getIdentitiesByFirstCharacterOfName(
                 providerId, profileFilter, offset, limit, forceLoadOrReloadProfile);
-            return buildIds(got);
+            return buildIds(got, profileFilter);
           }
         },
         listKey);
 
     //
     LOG.trace("getIdentitiesByFirstCharacterOfName:: return " + keys.getIds().size());
-    return buildIdentities(keys);
+    return buildIdentities(keys, profileFilter);
 
   }
 
@@ -530,12 +793,12 @@ public class CachedIdentityStorage implements IdentityStorage {
         new ServiceContext<ListIdentitiesData>() {
           public ListIdentitiesData execute() {
             List<Identity> got = storage.getSpaceMemberIdentitiesByProfileFilter(space , profileFilter, type, offset, limit);
-            return buildIds(got);
+            return buildIds(got, profileFilter);
           }
         },
         listKey);
 
-    return buildIdentities(keys);
+    return buildIdentities(keys, profileFilter);
 
   }
 
@@ -544,6 +807,7 @@ public class CachedIdentityStorage implements IdentityStorage {
     //
     IdentityKey key = new IdentityKey(new Identity(identity.getId()));
     exoProfileCache.remove(key);
+    exoProfileSummaryCache.remove(key);
     clearCache();
   }
 
@@ -567,13 +831,13 @@ public class CachedIdentityStorage implements IdentityStorage {
         new ServiceContext<ListIdentitiesData>() {
           public ListIdentitiesData execute() {
             List<Identity> got = storage.getIdentitiesForUnifiedSearch(providerId, profileFilter, offset, limit);
-            return buildIds(got);
+            return buildIds(got, profileFilter);
           }
         },
         listKey);
 
     //
-    return buildIdentities(keys);
+    return buildIdentities(keys, profileFilter);
     
   }
   
@@ -612,6 +876,7 @@ public class CachedIdentityStorage implements IdentityStorage {
     IdentityKey key = new IdentityKey(new Identity(identity.getId()));
     identityCache.remove(key);
     exoIdentityCache.remove(key);
+    clearIdentityStatusCache(identity.getProviderId(), identity.getRemoteId());
     identitiesCache.clear();
     clearCache();
     getCachedRelationshipStorage().clearAllRelationshipCache();
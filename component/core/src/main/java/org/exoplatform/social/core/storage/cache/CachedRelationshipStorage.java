@@ -18,13 +18,18 @@
 package org.exoplatform.social.core.storage.cache;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-
-import javax.jcr.Node;
-import javax.jcr.RepositoryException;
+import java.util.Random;
+import java.util.Set;
 
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.services.cache.ExoCache;
@@ -42,6 +47,7 @@ import org.exoplatform.social.core.storage.cache.model.data.IdentityData;
 import org.exoplatform.social.core.storage.cache.model.data.IntegerData;
 import org.exoplatform.social.core.storage.cache.model.data.ListIdentitiesData;
 import org.exoplatform.social.core.storage.cache.model.data.RelationshipData;
+import org.exoplatform.social.core.storage.cache.model.data.RelationshipGraphData;
 import org.exoplatform.social.core.storage.cache.model.data.SuggestionsData;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityFilterKey;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityKey;
@@ -53,6 +59,7 @@ import org.exoplatform.social.core.storage.cache.model.key.RelationshipType;
 import org.exoplatform.social.core.storage.cache.model.key.SuggestionKey;
 import org.exoplatform.social.core.storage.cache.selector.RelationshipCacheSelector;
 import org.exoplatform.social.core.storage.cache.selector.SuggestionCacheSelector;
+import org.exoplatform.social.core.storage.cache.selector.SuggestionOwnerSelector;
 import org.exoplatform.social.core.storage.impl.AbstractStorage;
 import org.exoplatform.social.core.storage.impl.RelationshipStorageImpl;
 
@@ -73,6 +80,7 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
   private final ExoCache<RelationshipCountKey, IntegerData> exoRelationshipCountCache;
   private final ExoCache<ListRelationshipsKey, ListIdentitiesData> exoRelationshipsCache;
   private final ExoCache<SuggestionKey, SuggestionsData> exoSuggestionCache;
+  private final ExoCache<IdentityKey, RelationshipGraphData> exoRelationshipGraphCache;
 
   //
   private final FutureExoCache<RelationshipKey, RelationshipData, ServiceContext<RelationshipData>> relationshipCache;
@@ -80,6 +88,7 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
   private final FutureExoCache<RelationshipCountKey, IntegerData, ServiceContext<IntegerData>> relationshipsCount;
   private final FutureExoCache<ListRelationshipsKey, ListIdentitiesData, ServiceContext<ListIdentitiesData>> relationshipsCache;
   private final FutureExoCache<SuggestionKey, SuggestionsData, ServiceContext<SuggestionsData>> suggestionCache;
+  private final FutureExoCache<IdentityKey, RelationshipGraphData, ServiceContext<RelationshipGraphData>> relationshipGraphCache;
 
   //
   private final ExoCache<IdentityKey, IdentityData> exoIdentityCache;
@@ -102,6 +111,18 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
       identities.add(r.getReceiver().getId());
     }
 
+    clearCacheFor(identities);
+
+  }
+
+  /**
+   * Clears the relationship lists, counts, suggestions and graphs of some identities, going through the caches once
+   * for all of them.
+   *
+   * @param identities the identity ids
+   */
+  private void clearCacheFor(Collection<String> identities) {
+
     try {
       exoRelationshipsCache.select(new RelationshipCacheSelector(identities.toArray(new String[]{})));
       exoRelationshipCountCache.select(new RelationshipCacheSelector(identities.toArray(new String[]{})));
@@ -111,6 +132,10 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
       LOG.error(e);
     }
 
+    for (String id : identities) {
+      exoRelationshipGraphCache.remove(new IdentityKey(new Identity(id)));
+    }
+
   }
   
   /**
@@ -121,6 +146,7 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
       exoRelationshipsCache.clearCache();
       exoRelationshipCountCache.clearCache();
       exoSuggestionCache.clearCache();
+      exoRelationshipGraphCache.clearCache();
     } catch (Exception e) {
       LOG.error(e);
     }
@@ -143,6 +169,43 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
 
   }
 
+  /**
+   * Gets the relationship graph of an identity, read from JCR when it is not cached.
+   *
+   * @param identity the identity
+   * @return the relationship graph
+   */
+  private RelationshipGraphData getRelationshipGraph(final Identity identity) {
+
+    return relationshipGraphCache.get(
+        new ServiceContext<RelationshipGraphData>() {
+          public RelationshipGraphData execute() {
+            return storage.getRelationshipGraph(identity);
+          }
+        },
+        new IdentityKey(identity));
+
+  }
+
+  /**
+   * Build the identity list from a page of the relationship graph.
+   *
+   * @param identity the owner of the graph
+   * @param type the relationship type
+   * @param offset the offset
+   * @param limit the limit
+   * @return identities
+   */
+  private List<Identity> buildRelationships(Identity identity, RelationshipType type, long offset, long limit) {
+
+    List<String> ids = getRelationshipGraph(identity).getIds(type, offset, limit);
+    if (ids.isEmpty()) {
+      return new ArrayList<Identity>();
+    }
+    return identityStorage.findIdentitiesByIds(ids);
+
+  }
+
   /**
    * Build the ids from the identitiy list.
    *
@@ -162,20 +225,105 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
   }
   
   /**
-   * Build the suggestions from the identity map.
+   * Computes the suggestions of an identity from the relationship graphs: the identities connected to its connections
+   * which have no relationship with it, by number of common connections. Like
+   * {@link RelationshipStorageImpl#getSuggestions(Identity, int, int, int)}, only a random sample of the connections
+   * is treated when maxConnectionsToLoad and maxConnections are positive.
    *
-   * @param map map of identity
+   * @param identity the identity
+   * @param maxConnections the maximum number of connections of each connection to treat
+   * @param maxConnectionsToLoad the maximum number of connections of the identity to treat
+   * @param maxSuggestions the maximum number of suggestions, all of them if not positive
+   * @return the ids of the suggestions and their number of common connections, the best ones first
    */
-  private SuggestionsData buildIdMap(Map<Identity, Integer> map) {
+  private SuggestionsData computeSuggestions(Identity identity, int maxConnections, int maxConnectionsToLoad,
+                                             int maxSuggestions) {
 
-    Map<String, Integer> data = new LinkedHashMap<String, Integer>();
-    for (Entry<Identity, Integer> item : map.entrySet()) {
-      data.put(item.getKey().getId(), item.getValue());
+    if (maxConnectionsToLoad > 0 && maxConnections > maxConnectionsToLoad) {
+      maxConnectionsToLoad = maxConnections;
     }
-    
-    return new SuggestionsData(data);
+    RelationshipGraphData graph = getRelationshipGraph(identity);
+    int size = graph.size(RelationshipType.CONNECTION);
+    Random random = new Random();
+
+    // The ideal number of connections to treat, we go beyond it if there are not enough suggestions
+    int endIndex;
+    List<String> connections;
+    if (size > maxConnectionsToLoad && maxConnectionsToLoad > 0 && maxConnections > 0) {
+      endIndex = maxConnections;
+      connections = graph.getIds(RelationshipType.CONNECTION, random.nextInt(size - maxConnectionsToLoad),
+                                 maxConnectionsToLoad);
+    }
+    else {
+      endIndex = size;
+      connections = graph.getIds(RelationshipType.CONNECTION, 0, -1);
+    }
+
+    //
+    Map<String, Integer> counts = new HashMap<String, Integer>();
+    for (int j = 0; j < connections.size(); j++) {
+      if (j >= endIndex && counts.size() > maxSuggestions && maxSuggestions > 0) {
+        break;
+      }
+      RelationshipGraphData connectionGraph = getRelationshipGraph(new Identity(connections.get(j)));
+      int connectionSize = connectionGraph.size(RelationshipType.CONNECTION);
+      List<String> candidates;
+      if (connectionSize > maxConnections && maxConnections > 0) {
+        candidates = connectionGraph.getIds(RelationshipType.CONNECTION,
+                                            random.nextInt(connectionSize - maxConnections), maxConnections);
+      }
+      else {
+        candidates = connectionGraph.getIds(RelationshipType.CONNECTION, 0, -1);
+      }
+      for (String candidate : candidates) {
+        if (isSuggestible(identity.getId(), graph, candidate)) {
+          Integer count = counts.get(candidate);
+          counts.put(candidate, count == null ? 1 : count + 1);
+        }
+      }
+    }
+
+    // the best suggestions first
+    List<Entry<String, Integer>> ranked = new ArrayList<Entry<String, Integer>>(counts.entrySet());
+    Collections.sort(ranked, new Comparator<Entry<String, Integer>>() {
+      public int compare(Entry<String, Integer> o1, Entry<String, Integer> o2) {
+        return o2.getValue().compareTo(o1.getValue());
+      }
+    });
+
+    // the deleted identities are not suggested, they are skipped page by page
+    Map<String, Integer> suggestions = new LinkedHashMap<String, Integer>();
+    int pageSize = maxSuggestions > 0 ? maxSuggestions : ranked.size();
+    for (int from = 0; from < ranked.size(); from += pageSize) {
+      List<Entry<String, Integer>> page = ranked.subList(from, Math.min(ranked.size(), from + pageSize));
+      List<String> ids = new ArrayList<String>(page.size());
+      for (Entry<String, Integer> e : page) {
+        ids.add(e.getKey());
+      }
+      for (Identity i : identityStorage.findIdentitiesByIds(ids)) {
+        if (!i.isDeleted()) {
+          suggestions.put(i.getId(), counts.get(i.getId()));
+          if (maxSuggestions > 0 && suggestions.size() == maxSuggestions) {
+            return new SuggestionsData(suggestions);
+          }
+        }
+      }
+    }
+    return new SuggestionsData(suggestions);
+
   }
-  
+
+  /**
+   * Checks if an identity may be suggested to the owner of a relationship graph.
+   */
+  private boolean isSuggestible(String ownerId, RelationshipGraphData graph, String candidate) {
+    return !ownerId.equals(candidate)
+        && !graph.contains(RelationshipType.CONNECTION, candidate)
+        && !graph.contains(RelationshipType.INCOMMING, candidate)
+        && !graph.contains(RelationshipType.OUTGOING, candidate)
+        && !graph.contains(RelationshipType.IGNORED, candidate);
+  }
+
   /**
    * Build the suggestions map from the caches Ids.
    *
@@ -184,13 +332,115 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
    */
   private Map<Identity, Integer> buildSuggestions(SuggestionsData data) {
     Map<Identity, Integer> suggestions = new LinkedHashMap<Identity, Integer>();
-    for (Entry<String, Integer> item : data.getMap().entrySet()) {
-      Identity gotIdentity = identityStorage.findIdentityById(item.getKey());
-      suggestions.put(gotIdentity, item.getValue());
+    if (data.getMap().isEmpty()) {
+      return suggestions;
+    }
+    for (Identity gotIdentity : identityStorage.findIdentitiesByIds(data.getMap().keySet())) {
+      suggestions.put(gotIdentity, data.getMap().get(gotIdentity.getId()));
     }
     return suggestions;
 
   }
+
+  /**
+   * Updates the cached suggestions once two identities got connected: each one may become a better suggestion for
+   * the connections of the other, with one more common connection. It is called in background by
+   * {@link org.exoplatform.social.core.application.SuggestionsUpdater}, the suggestions of the two identities and
+   * the ones in which they were suggested are already removed by {@link #saveRelationship(Relationship)}. The
+   * suggestions computed from a random sample of the connections are removed, they are computed again when needed.
+   *
+   * @param identity1 the first identity
+   * @param identity2 the second identity
+   * @since 4.4
+   */
+  public void updateSuggestions(Identity identity1, Identity identity2) {
+
+    RelationshipGraphData graph1 = getRelationshipGraph(identity1);
+    RelationshipGraphData graph2 = getRelationshipGraph(identity2);
+    if (!graph1.contains(RelationshipType.CONNECTION, identity2.getId())) {
+      return;
+    }
+
+    //
+    Map<String, Identity> newcomers = new HashMap<String, Identity>();
+    for (String id : graph1.getIds(RelationshipType.CONNECTION, 0, -1)) {
+      newcomers.put(id, identity2);
+    }
+    for (String id : graph2.getIds(RelationshipType.CONNECTION, 0, -1)) {
+      newcomers.put(id, identity1);
+    }
+    newcomers.remove(identity1.getId());
+    newcomers.remove(identity2.getId());
+    if (newcomers.isEmpty()) {
+      return;
+    }
+
+    //
+    SuggestionOwnerSelector selector = new SuggestionOwnerSelector(newcomers.keySet());
+    try {
+      exoSuggestionCache.select(selector);
+    }
+    catch (Exception e) {
+      LOG.error(e);
+      return;
+    }
+
+    //
+    for (SuggestionKey<IdentityKey> key : selector.getKeys()) {
+      SuggestionsData data = exoSuggestionCache.get(key);
+      if (data == null) {
+        continue;
+      }
+      if (key.getMaxConnections() > 0 || key.getMaxConnectionsToLoad() > 0) {
+        exoSuggestionCache.remove(key);
+        continue;
+      }
+      String ownerId = key.getKey().getId();
+      Identity newcomer = newcomers.get(ownerId);
+      RelationshipGraphData ownerGraph = getRelationshipGraph(new Identity(ownerId));
+      if (!isSuggestible(ownerId, ownerGraph, newcomer.getId())) {
+        continue;
+      }
+      int count = ownerGraph.countCommon(RelationshipType.CONNECTION, getRelationshipGraph(newcomer));
+      exoSuggestionCache.put(key, new SuggestionsData(insertSuggestion(data.getMap(), newcomer.getId(), count,
+                                                                       key.getMaxSuggestions())));
+    }
+
+  }
+
+  /**
+   * Inserts a suggestion at its rank in a copy of suggestions, the ones beyond the maximum are dropped.
+   */
+  private Map<String, Integer> insertSuggestion(Map<String, Integer> suggestions, String id, int count,
+                                                int maxSuggestions) {
+
+    Map<String, Integer> updated = new LinkedHashMap<String, Integer>();
+    boolean inserted = false;
+    for (Entry<String, Integer> e : suggestions.entrySet()) {
+      if (e.getKey().equals(id)) {
+        continue;
+      }
+      if (!inserted && count > e.getValue()) {
+        updated.put(id, count);
+        inserted = true;
+      }
+      updated.put(e.getKey(), e.getValue());
+    }
+    if (!inserted) {
+      updated.put(id, count);
+    }
+    if (maxSuggestions > 0) {
+      Iterator<String> it = updated.keySet().iterator();
+      for (int i = 0; it.hasNext(); ++i) {
+        it.next();
+        if (i >= maxSuggestions) {
+          it.remove();
+        }
+      }
+    }
+    return updated;
+
+  }
   
   public CachedRelationshipStorage(final RelationshipStorageImpl storage, final IdentityStorage identityStorage,
                                    final SocialStorageCacheService cacheService) {
@@ -206,6 +456,7 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
     this.exoRelationshipCountCache = cacheService.getRelationshipsCount();
     this.exoRelationshipsCache = cacheService.getRelationshipsCache();
     this.exoSuggestionCache = cacheService.getSuggestionCache();
+    this.exoRelationshipGraphCache = cacheService.getRelationshipGraphCache();
 
     //
     this.relationshipCache = CacheType.RELATIONSHIP.createFutureCache(exoRelationshipCache);
@@ -213,6 +464,7 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
     this.relationshipsCount = CacheType.RELATIONSHIPS_COUNT.createFutureCache(exoRelationshipCountCache);
     this.relationshipsCache = CacheType.RELATIONSHIPS.createFutureCache(exoRelationshipsCache);
     this.suggestionCache = CacheType.SUGGESTIONS.createFutureCache(exoSuggestionCache);
+    this.relationshipGraphCache = CacheType.RELATIONSHIP_GRAPH.createFutureCache(exoRelationshipGraphCache);
 
     //
     this.exoIdentityCache = cacheService.getIdentityCache();
@@ -239,6 +491,29 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
 
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public List<Relationship> confirmRelationships(final List<Relationship> relationships)
+      throws RelationshipStorageException {
+
+    List<Relationship> confirmed = storage.confirmRelationships(relationships);
+
+    Set<String> identities = new HashSet<String>();
+    for (Relationship r : confirmed) {
+      RelationshipKey key = new RelationshipKey(r.getId());
+      exoRelationshipCache.put(key, new RelationshipData(r));
+      exoRelationshipByIdentityCache.put(new RelationshipIdentityKey(r.getSender().getId(), r.getReceiver().getId()), key);
+      exoRelationshipByIdentityCache.put(new RelationshipIdentityKey(r.getReceiver().getId(), r.getSender().getId()), key);
+      identities.add(r.getSender().getId());
+      identities.add(r.getReceiver().getId());
+    }
+    clearCacheFor(identities);
+
+    return confirmed;
+
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -370,33 +645,10 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
   
   @Override
   public boolean hasRelationship(Identity identity1, Identity identity2, String relationshipPath) throws RelationshipStorageException {
-    RelationshipIdentityKey key = new RelationshipIdentityKey(identity2.getId(), identity1.getId());
-    RelationshipKey gotKey = exoRelationshipByIdentityCache.get(key);
-    if (gotKey != null && ! gotKey.equals(RELATIONSHIP_NOT_FOUND) && getRelationship(identity1, identity2).getStatus().equals(Relationship.Type.CONFIRMED)) {
-      return true;
+    if (identity1 == null || identity2 == null) {
+      return false;
     }
-    
-    key = new RelationshipIdentityKey(identity1.getId(), identity2.getId());
-    gotKey = exoRelationshipByIdentityCache.get(key);
-    if (gotKey != null && ! gotKey.equals(RELATIONSHIP_NOT_FOUND) && getRelationship(identity1, identity2).getStatus().equals(Relationship.Type.CONFIRMED)) {
-      return true;
-    }
-    
-    try {
-      Node relationshipNode = node(relationshipPath.toString());
-      if (relationshipNode != null) {
-        RelationshipKey k;
-
-        k = new RelationshipKey(relationshipNode.getUUID());
-
-        exoRelationshipByIdentityCache.put(key, k);
-        return true;
-      }
-    } catch (RepositoryException e) {
-      throw new RelationshipStorageException(RelationshipStorageException.Type.FAILED_TO_GET_RELATIONSHIP_OF_THEM, e.getMessage());
-    }
-    
-    return false;
+    return getRelationshipGraph(identity1).contains(RelationshipType.CONNECTION, identity2.getId());
   }
 
   /**
@@ -438,21 +690,7 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
   public List<Identity> getIncomingRelationships(final Identity receiver, final long offset, final long limit)
       throws RelationshipStorageException {
 
-    //
-    IdentityKey key = new IdentityKey(receiver);
-    ListRelationshipsKey<IdentityKey> listKey =
-        new ListRelationshipsKey<IdentityKey>(key, RelationshipType.INCOMMING, offset, limit);
-    ListIdentitiesData keys = relationshipsCache.get(
-        new ServiceContext<ListIdentitiesData>() {
-          public ListIdentitiesData execute() {
-            List<Identity> got = storage.getIncomingRelationships(receiver, offset, limit);
-            return buildIds(got);
-          }
-        },
-        listKey);
-
-    //
-    return buildRelationships(keys);
+    return buildRelationships(receiver, RelationshipType.INCOMMING, offset, limit);
 
   }
 
@@ -461,19 +699,7 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
    */
   public int getIncomingRelationshipsCount(final Identity receiver) throws RelationshipStorageException {
 
-    //
-    IdentityKey iKey = new IdentityKey(receiver);
-    RelationshipCountKey<IdentityKey> key = new RelationshipCountKey<IdentityKey>(iKey, RelationshipType.INCOMMING);
-
-    //
-    return relationshipsCount.get(
-        new ServiceContext<IntegerData>() {
-          public IntegerData execute() {
-            return new IntegerData(storage.getIncomingRelationshipsCount(receiver));
-          }
-        },
-        key)
-        .build();
+    return getRelationshipGraph(receiver).size(RelationshipType.INCOMMING);
 
   }
 
@@ -483,21 +709,7 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
   public List<Identity> getOutgoingRelationships(final Identity sender, final long offset, final long limit)
       throws RelationshipStorageException {
 
-    //
-    IdentityKey key = new IdentityKey(sender);
-    ListRelationshipsKey<IdentityKey> listKey =
-        new ListRelationshipsKey<IdentityKey>(key, RelationshipType.OUTGOING, offset, limit);
-    ListIdentitiesData keys = relationshipsCache.get(
-        new ServiceContext<ListIdentitiesData>() {
-          public ListIdentitiesData execute() {
-            List<Identity> got = storage.getOutgoingRelationships(sender, offset, limit);
-            return buildIds(got);
-          }
-        },
-        listKey);
-
-    //
-    return buildRelationships(keys);
+    return buildRelationships(sender, RelationshipType.OUTGOING, offset, limit);
 
   }
 
@@ -506,19 +718,7 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
    */
   public int getOutgoingRelationshipsCount(final Identity sender) throws RelationshipStorageException {
 
-    //
-    IdentityKey iKey = new IdentityKey(sender);
-    RelationshipCountKey<IdentityKey> key = new RelationshipCountKey<IdentityKey>(iKey, RelationshipType.OUTGOING);
-
-    //
-    return relationshipsCount.get(
-        new ServiceContext<IntegerData>() {
-          public IntegerData execute() {
-            return new IntegerData(storage.getOutgoingRelationshipsCount(sender));
-          }
-        },
-        key)
-        .build();
+    return getRelationshipGraph(sender).size(RelationshipType.OUTGOING);
 
   }
 
@@ -549,20 +749,7 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
   public List<Identity> getConnections(final Identity identity, final long offset, final long limit)
       throws RelationshipStorageException {
 
-    //
-    IdentityKey key = new IdentityKey(identity);
-    ListRelationshipsKey<IdentityKey> listKey = new ListRelationshipsKey<IdentityKey>(key, RelationshipType.CONNECTION, offset, limit);
-    ListIdentitiesData keys = relationshipsCache.get(
-        new ServiceContext<ListIdentitiesData>() {
-          public ListIdentitiesData execute() {
-            List<Identity> got = storage.getConnections(identity, offset, limit);
-            return buildIds(got);
-          }
-        },
-        listKey);
-
-    //
-    return buildRelationships(keys);
+    return buildRelationships(identity, RelationshipType.CONNECTION, offset, limit);
 
   }
 
@@ -570,7 +757,7 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
    * {@inheritDoc}
    */
   public List<Identity> getConnections(final Identity identity) throws RelationshipStorageException {
-    return storage.getConnections(identity);
+    return buildRelationships(identity, RelationshipType.CONNECTION, 0, -1);
   }
 
   /**
@@ -578,19 +765,7 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
    */
   public int getConnectionsCount(final Identity identity) throws RelationshipStorageException {
 
-    //
-    IdentityKey iKey = new IdentityKey(identity);
-    RelationshipCountKey<IdentityKey> key = new RelationshipCountKey<IdentityKey>(iKey, RelationshipType.CONNECTION);
-
-    //
-    return relationshipsCount.get(
-        new ServiceContext<IntegerData>() {
-          public IntegerData execute() {
-            return new IntegerData(storage.getConnectionsCount(identity));
-          }
-        },
-        key)
-        .build();
+    return getRelationshipGraph(identity).size(RelationshipType.CONNECTION);
 
   }
 
@@ -741,10 +916,7 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
     SuggestionsData keys = suggestionCache.get(
         new ServiceContext<SuggestionsData>() {
           public SuggestionsData execute() {
-            Map<Identity, Integer> got = storage.getSuggestions(identity, maxConnections, 
-                                                                maxConnectionsToLoad, 
-                                                                maxSuggestions);
-            return buildIdMap(got);
+            return computeSuggestions(identity, maxConnections, maxConnectionsToLoad, maxSuggestions);
           }
         },
         suggestKey);
@@ -753,23 +925,89 @@ public class CachedRelationshipStorage extends AbstractStorage implements Relati
     return buildSuggestions(keys);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public Map<String, Relationship.Type> getRelationshipStatuses(final Identity viewer, final List<Identity> others)
+      throws RelationshipStorageException {
+
+    Map<String, Relationship.Type> statuses = new HashMap<String, Relationship.Type>();
+    if (viewer == null || others == null || others.isEmpty()) {
+      return statuses;
+    }
+    RelationshipGraphData graph = getRelationshipGraph(viewer);
+    for (Identity other : others) {
+      Relationship.Type status = graph.getStatus(other.getId());
+      if (status != null) {
+        statuses.put(other.getId(), status);
+      }
+    }
+    return statuses;
+
+  }
+
   @Override
   public List<Identity> getLastConnections(final Identity identity, final int limit) throws RelationshipStorageException {
-    //
-    IdentityKey key = new IdentityKey(identity);
-    ListRelationshipsKey<IdentityKey> listKey =
-        new ListRelationshipsKey<IdentityKey>(key, RelationshipType.LAST_CONNECTIONS, 0, limit);
-    ListIdentitiesData keys = relationshipsCache.get(
-        new ServiceContext<ListIdentitiesData>() {
-          public ListIdentitiesData execute() {
-            List<Identity> got = storage.getLastConnections(identity, limit);
-            return buildIds(got);
-          }
-        },
-        listKey);
+    return getLastConnections(identity, 0, limit);
+  }
 
-    //
-    return buildRelationships(keys);
+  /**
+   * {@inheritDoc}
+   */
+  public List<Identity> getLastConnections(final Identity identity, final long since, final int limit)
+      throws RelationshipStorageException {
+
+    if (limit <= 0) {
+      return new ArrayList<Identity>();
+    }
+    List<String> ids = getRelationshipGraph(identity).getLatestIds(since, limit, RelationshipType.CONNECTION);
+    if (ids.isEmpty()) {
+      return new ArrayList<Identity>();
+    }
+    return identityStorage.findIdentitiesByIds(ids);
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<Relationship> getLastRelationships(final Identity identity, final Relationship.Type type,
+                                                 final long since, final int offset, final int limit)
+      throws RelationshipStorageException {
+
+    int from = Math.max(0, offset);
+    List<String> ids = getRelationshipGraph(identity).getLatestIds(since, limit > 0 ? from + limit : 0,
+                                                                   RelationshipStorageImpl.getGraphTypes(type));
+    return getRelationships(identity, ids.subList(Math.min(from, ids.size()), ids.size()));
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public int getLastRelationshipsCount(final Identity identity, final Relationship.Type type, final long since)
+      throws RelationshipStorageException {
+
+    return getRelationshipGraph(identity).getLatestIds(since, 0, RelationshipStorageImpl.getGraphTypes(type)).size();
+
+  }
+
+  /**
+   * Gets the relationships of an identity with some other identities, in the order of their ids. The other identities
+   * are loaded first, as the pending and ignored relationships are found by their remote ids.
+   */
+  private List<Relationship> getRelationships(Identity identity, List<String> ids) {
+    List<Relationship> relationships = new ArrayList<Relationship>();
+    if (ids.isEmpty()) {
+      return relationships;
+    }
+    for (Identity other : identityStorage.findIdentitiesByIds(ids)) {
+      Relationship relationship = getRelationship(identity, other);
+      if (relationship != null) {
+        relationships.add(relationship);
+      }
+    }
+    return relationships;
   }
   
   public List<Relationship> getRelationshipsByStatus(Identity identity, Relationship.Type type, long offset, long limit) {
@@ -27,9 +27,11 @@ import org.exoplatform.social.core.search.Sorting;
 import org.exoplatform.social.core.space.SpaceFilter;
 import org.exoplatform.social.core.space.SpaceUtils;
 import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.space.model.SpaceMembershipStatus;
 import org.exoplatform.social.core.storage.SpaceStorageException;
 import org.exoplatform.social.core.storage.api.SpaceStorage;
 import org.exoplatform.social.core.storage.cache.loader.ServiceContext;
+import org.exoplatform.social.core.storage.cache.model.data.BooleanData;
 import org.exoplatform.social.core.storage.cache.model.data.IntegerData;
 import org.exoplatform.social.core.storage.cache.model.data.ListIdentitiesData;
 import org.exoplatform.social.core.storage.cache.model.data.ListSpacesData;
@@ -38,6 +40,7 @@ import org.exoplatform.social.core.storage.cache.model.data.SpaceSimpleData;
 import org.exoplatform.social.core.storage.cache.model.key.ListIdentitiesKey;
 import org.exoplatform.social.core.storage.cache.model.key.ListSpacesKey;
 import org.exoplatform.social.core.storage.cache.model.key.SpaceFilterKey;
+import org.exoplatform.social.core.storage.cache.model.key.SpaceGroupMembershipKey;
 import org.exoplatform.social.core.storage.cache.model.key.SpaceKey;
 import org.exoplatform.social.core.storage.cache.model.key.SpaceRefKey;
 import org.exoplatform.social.core.storage.cache.model.key.SpaceType;
@@ -63,12 +66,14 @@ public class CachedSpaceStorage implements SpaceStorage {
   private final ExoCache<SpaceFilterKey, IntegerData> exoSpacesCountCache;
   private final ExoCache<ListSpacesKey, ListSpacesData> exoSpacesCache;
   private final ExoCache<ListIdentitiesKey, ListIdentitiesData> exoIdentitiesCache;
+  private final ExoCache<SpaceGroupMembershipKey, BooleanData> exoGroupMembershipCache;
 
   private final FutureExoCache<SpaceKey, SpaceData, ServiceContext<SpaceData>> spaceCache;
   private final FutureExoCache<SpaceKey, SpaceSimpleData, ServiceContext<SpaceSimpleData>> spaceSimpleCache;
   private final FutureExoCache<SpaceRefKey, SpaceKey, ServiceContext<SpaceKey>> spaceRefCache;
   private final FutureExoCache<SpaceFilterKey, IntegerData, ServiceContext<IntegerData>> spacesCountCache;
   private final FutureExoCache<ListSpacesKey, ListSpacesData, ServiceContext<ListSpacesData>> spacesCache;
+  private final FutureExoCache<SpaceGroupMembershipKey, BooleanData, ServiceContext<BooleanData>> groupMembershipCache;
 
   private final SpaceStorageImpl storage;
   private CachedActivityStorage cachedActivityStorage;
@@ -203,12 +208,14 @@ public class CachedSpaceStorage implements SpaceStorage {
     this.exoSpacesCountCache = cacheService.getSpacesCountCache();
     this.exoSpacesCache = cacheService.getSpacesCache();
     this.exoIdentitiesCache = cacheService.getIdentitiesCache();
+    this.exoGroupMembershipCache = cacheService.getSpaceGroupMembershipCache();
 
     this.spaceCache = CacheType.SPACE.createFutureCache(exoSpaceCache);
     this.spaceSimpleCache = CacheType.SPACE_SIMPLE.createFutureCache(exoSpaceSimpleCache);
     this.spaceRefCache = CacheType.SPACE_REF.createFutureCache(exoRefSpaceCache);
     this.spacesCountCache = CacheType.SPACES_COUNT.createFutureCache(exoSpacesCountCache);
     this.spacesCache = CacheType.SPACES.createFutureCache(exoSpacesCache);
+    this.groupMembershipCache = CacheType.SPACE_GROUP_MEMBERSHIP.createFutureCache(exoGroupMembershipCache);
 
   }
 
@@ -230,6 +237,17 @@ public class CachedSpaceStorage implements SpaceStorage {
 
   }
 
+  void clearGroupMembershipCache() {
+
+    try {
+      exoGroupMembershipCache.select(new ScopeCacheSelector<SpaceGroupMembershipKey, BooleanData>());
+    }
+    catch (Exception e) {
+      LOG.error(e);
+    }
+
+  }
+
   void clearSpaceCache() {
 
     try {
@@ -298,6 +316,58 @@ public class CachedSpaceStorage implements SpaceStorage {
 
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public boolean addSpaceMember(final Space space, final String userId, final SpaceMembershipStatus status)
+      throws SpaceStorageException {
+
+    //
+    boolean added = storage.addSpaceMember(space, userId, status);
+
+    //
+    if (added) {
+      exoSpaceCache.remove(new SpaceKey(space.getId()));
+      clearSpaceCache();
+    }
+    return added;
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean removeSpaceMember(final Space space, final String userId, final SpaceMembershipStatus status)
+      throws SpaceStorageException {
+
+    //
+    boolean removed = storage.removeSpaceMember(space, userId, status);
+
+    //
+    if (removed) {
+      exoSpaceCache.remove(new SpaceKey(space.getId()));
+      clearSpaceCache();
+    }
+    return removed;
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean moveSpaceMember(final Space space, final String userId, final SpaceMembershipStatus status,
+                                 final SpaceMembershipStatus... from) throws SpaceStorageException {
+
+    //
+    boolean added = storage.moveSpaceMember(space, userId, status, from);
+
+    // the user may have been removed from the other lists only
+    exoSpaceCache.remove(new SpaceKey(space.getId()));
+    clearSpaceCache();
+    return added;
+
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -359,6 +429,7 @@ public class CachedSpaceStorage implements SpaceStorage {
     if (removed != null) {
       cleanRef(removed);
     }
+    clearGroupMembershipCache();
 
     //
     getCachedActivityStorage().clearCache();
@@ -1140,11 +1211,25 @@ public class CachedSpaceStorage implements SpaceStorage {
    */
   public Space getSpaceById(final String id) throws SpaceStorageException {
 
+    //
+    SpaceData data = getSpaceData(id);
+
+    if (data != null) {
+      return data.build();
+    }
+    else {
+      return null;
+    }
+    
+  }
+
+  private SpaceData getSpaceData(final String id) {
+
     //
     SpaceKey key = new SpaceKey(id);
 
     //
-    SpaceData data = spaceCache.get(
+    return spaceCache.get(
         new ServiceContext<SpaceData>() {
           public SpaceData execute() {
             Space space = storage.getSpaceById(id);
@@ -1158,13 +1243,50 @@ public class CachedSpaceStorage implements SpaceStorage {
         },
         key);
 
-    if (data != null) {
-      return data.build();
-    }
-    else {
-      return null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean isSpaceMember(final String spaceId, final String userId, final SpaceMembershipStatus status)
+      throws SpaceStorageException {
+
+    //
+    SpaceData data = getSpaceData(spaceId);
+    return data != null && data.contains(status, userId);
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean hasAnyGroupMembership(final String groupId, final String userId) {
+
+    if (groupId == null || userId == null) {
+      return false;
     }
-    
+
+    //
+    SpaceGroupMembershipKey key = new SpaceGroupMembershipKey(groupId, userId);
+
+    //
+    BooleanData data = groupMembershipCache.get(
+        new ServiceContext<BooleanData>() {
+          public BooleanData execute() {
+            return new BooleanData(storage.hasAnyGroupMembership(groupId, userId));
+          }
+        },
+        key);
+
+    return data.build();
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void updateGroupMembership(final String groupId, final String userId) {
+    exoGroupMembershipCache.remove(new SpaceGroupMembershipKey(groupId, userId));
   }
   
   /**
@@ -20,20 +20,26 @@ package org.exoplatform.social.core.storage.cache;
 import org.exoplatform.services.cache.CacheService;
 import org.exoplatform.services.cache.ExoCache;
 import org.exoplatform.social.core.storage.cache.model.data.ActivityData;
+import org.exoplatform.social.core.storage.cache.model.data.AvatarData;
 import org.exoplatform.social.core.storage.cache.model.data.IdentityData;
+import org.exoplatform.social.core.storage.cache.model.data.IdentityStatusData;
+import org.exoplatform.social.core.storage.cache.model.data.BooleanData;
 import org.exoplatform.social.core.storage.cache.model.data.IntegerData;
 import org.exoplatform.social.core.storage.cache.model.data.ActiveIdentitiesData;
 import org.exoplatform.social.core.storage.cache.model.data.ListActivitiesData;
 import org.exoplatform.social.core.storage.cache.model.data.ListIdentitiesData;
 import org.exoplatform.social.core.storage.cache.model.data.ListSpacesData;
 import org.exoplatform.social.core.storage.cache.model.data.ProfileData;
+import org.exoplatform.social.core.storage.cache.model.data.ProfileSummaryData;
 import org.exoplatform.social.core.storage.cache.model.data.RelationshipData;
+import org.exoplatform.social.core.storage.cache.model.data.RelationshipGraphData;
 import org.exoplatform.social.core.storage.cache.model.data.SpaceData;
 import org.exoplatform.social.core.storage.cache.model.data.SpaceSimpleData;
 import org.exoplatform.social.core.storage.cache.model.data.SuggestionsData;
 import org.exoplatform.social.core.storage.cache.model.key.ActiveIdentityKey;
 import org.exoplatform.social.core.storage.cache.model.key.ActivityCountKey;
 import org.exoplatform.social.core.storage.cache.model.key.ActivityKey;
+import org.exoplatform.social.core.storage.cache.model.key.AvatarKey;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityCompositeKey;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityFilterKey;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityKey;
@@ -45,6 +51,7 @@ import org.exoplatform.social.core.storage.cache.model.key.RelationshipCountKey;
 import org.exoplatform.social.core.storage.cache.model.key.RelationshipIdentityKey;
 import org.exoplatform.social.core.storage.cache.model.key.RelationshipKey;
 import org.exoplatform.social.core.storage.cache.model.key.SpaceFilterKey;
+import org.exoplatform.social.core.storage.cache.model.key.SpaceGroupMembershipKey;
 import org.exoplatform.social.core.storage.cache.model.key.SpaceKey;
 import org.exoplatform.social.core.storage.cache.model.key.SpaceRefKey;
 import org.exoplatform.social.core.storage.cache.model.key.SuggestionKey;
@@ -59,6 +66,9 @@ public class SocialStorageCacheService {
   private final ExoCache<IdentityKey, IdentityData> identityCache;
   private final ExoCache<IdentityCompositeKey, IdentityKey> identityIndexCache;
   private final ExoCache<IdentityKey, ProfileData> profileCache;
+  private final ExoCache<IdentityKey, ProfileSummaryData> profileSummaryCache;
+  private final ExoCache<AvatarKey, AvatarData> avatarCache;
+  private final ExoCache<IdentityCompositeKey, IdentityStatusData> identityStatusCache;
   private final ExoCache<IdentityFilterKey, IntegerData> countIdentitiesCache;
   private final ExoCache<ListIdentitiesKey, ListIdentitiesData> identitiesCache;
   private final ExoCache<ActiveIdentityKey, ActiveIdentitiesData> activeIdentitiesCache;
@@ -68,6 +78,7 @@ public class SocialStorageCacheService {
   private final ExoCache<RelationshipIdentityKey, RelationshipKey> relationshipCacheByIdentity;
   private final ExoCache<RelationshipCountKey, IntegerData> relationshipsCount;
   private final ExoCache<ListRelationshipsKey, ListIdentitiesData> relationshipsCache;
+  private final ExoCache<IdentityKey, RelationshipGraphData> relationshipGraphCache;
   
   // Suggestion
   private final ExoCache<SuggestionKey, SuggestionsData> suggestionCache;
@@ -84,12 +95,16 @@ public class SocialStorageCacheService {
   private final ExoCache<ListSpacesKey, ListSpacesData> spacesCache;
   
   private final ExoCache<SpaceKey, SpaceSimpleData> spaceSimpleCache;
+  private final ExoCache<SpaceGroupMembershipKey, BooleanData> spaceGroupMembershipCache;
 
   public SocialStorageCacheService(CacheService cacheService) {
     
     this.identityCache = CacheType.IDENTITY.getFromService(cacheService);
     this.identityIndexCache = CacheType.IDENTITY_INDEX.getFromService(cacheService);
     this.profileCache = CacheType.PROFILE.getFromService(cacheService);
+    this.profileSummaryCache = CacheType.PROFILE_SUMMARY.getFromService(cacheService);
+    this.avatarCache = CacheType.AVATAR.getFromService(cacheService);
+    this.identityStatusCache = CacheType.IDENTITY_STATUS.getFromService(cacheService);
     this.countIdentitiesCache = CacheType.IDENTITIES_COUNT.getFromService(cacheService);
     this.identitiesCache = CacheType.IDENTITIES.getFromService(cacheService);
     this.activeIdentitiesCache = CacheType.ACTIVE_IDENTITIES.getFromService(cacheService);
@@ -98,6 +113,7 @@ public class SocialStorageCacheService {
     this.relationshipCacheByIdentity = CacheType.RELATIONSHIP_FROM_IDENTITY.getFromService(cacheService);
     this.relationshipsCount = CacheType.RELATIONSHIPS_COUNT.getFromService(cacheService);
     this.relationshipsCache = CacheType.RELATIONSHIPS.getFromService(cacheService);
+    this.relationshipGraphCache = CacheType.RELATIONSHIP_GRAPH.getFromService(cacheService);
     
     this.suggestionCache = CacheType.SUGGESTIONS.getFromService(cacheService);
 
@@ -111,6 +127,7 @@ public class SocialStorageCacheService {
     this.spacesCache = CacheType.SPACES.getFromService(cacheService);
     
     this.spaceSimpleCache = CacheType.SPACE_SIMPLE.getFromService(cacheService);
+    this.spaceGroupMembershipCache = CacheType.SPACE_GROUP_MEMBERSHIP.getFromService(cacheService);
 
   }
 
@@ -126,6 +143,18 @@ public class SocialStorageCacheService {
     return profileCache;
   }
 
+  public ExoCache<IdentityKey, ProfileSummaryData> getProfileSummaryCache() {
+    return profileSummaryCache;
+  }
+
+  public ExoCache<AvatarKey, AvatarData> getAvatarCache() {
+    return avatarCache;
+  }
+
+  public ExoCache<IdentityCompositeKey, IdentityStatusData> getIdentityStatusCache() {
+    return identityStatusCache;
+  }
+
   public ExoCache<IdentityFilterKey, IntegerData> getCountIdentitiesCache() {
     return countIdentitiesCache;
   }
@@ -159,6 +188,10 @@ public class SocialStorageCacheService {
     return relationshipsCache;
   }
 
+  public ExoCache<IdentityKey, RelationshipGraphData> getRelationshipGraphCache() {
+    return relationshipGraphCache;
+  }
+
   public ExoCache<ActivityKey, ActivityData> getActivityCache() {
     return activityCache;
   }
@@ -190,4 +223,8 @@ public class SocialStorageCacheService {
   public ExoCache<ListSpacesKey, ListSpacesData> getSpacesCache() {
     return spacesCache;
   }
+
+  public ExoCache<SpaceGroupMembershipKey, BooleanData> getSpaceGroupMembershipCache() {
+    return spaceGroupMembershipCache;
+  }
 }
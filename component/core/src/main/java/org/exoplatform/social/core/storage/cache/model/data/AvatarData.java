@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.storage.cache.model.data;
+
+import org.exoplatform.social.core.model.AvatarAttachment;
+
+/**
+ * Immutable avatar data, an identity without avatar is cached with no bytes.
+ *
+ * @since 4.4
+ */
+public class AvatarData implements CacheData<AvatarAttachment> {
+
+  private final String id;
+
+  private final String fileName;
+
+  private final String mimeType;
+
+  private final byte[] imageBytes;
+
+  private final long lastModified;
+
+  public AvatarData(final AvatarAttachment avatar) {
+    if (avatar != null) {
+      this.id = avatar.getId();
+      this.fileName = avatar.getFileName();
+      this.mimeType = avatar.getMimeType();
+      this.imageBytes = avatar.getImageBytes();
+      this.lastModified = avatar.getLastModified();
+    } else {
+      this.id = null;
+      this.fileName = null;
+      this.mimeType = null;
+      this.imageBytes = null;
+      this.lastModified = 0;
+    }
+  }
+
+  public AvatarAttachment build() {
+    if (imageBytes == null) {
+      return null;
+    }
+
+    AvatarAttachment avatar = new AvatarAttachment();
+    avatar.setId(id);
+    avatar.setFileName(fileName);
+    avatar.setMimeType(mimeType);
+    avatar.setImageBytes(imageBytes);
+    avatar.setLastModified(lastModified);
+    return avatar;
+  }
+
+}
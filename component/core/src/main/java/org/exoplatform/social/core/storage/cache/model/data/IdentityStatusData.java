@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.storage.cache.model.data;
+
+import org.exoplatform.social.core.identity.model.IdentityStatus;
+
+/**
+ * Immutable identity status data, the flags are packed in a byte.
+ *
+ * @since 4.4
+ */
+public class IdentityStatusData implements CacheData<IdentityStatus> {
+
+  private static final byte DELETED = 1;
+
+  private static final byte ENABLE = 2;
+
+  private final String id;
+
+  private final byte flags;
+
+  public IdentityStatusData(final IdentityStatus status) {
+    this.id = status.getId();
+    this.flags = (byte) ((status.isDeleted() ? DELETED : 0) | (status.isEnable() ? ENABLE : 0));
+  }
+
+  public IdentityStatus build() {
+    if (id == null) {
+      return IdentityStatus.NOT_FOUND;
+    }
+    return new IdentityStatus(id, (flags & DELETED) != 0, (flags & ENABLE) != 0);
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.storage.cache.model.data;
+
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.Profile;
+
+/**
+ * Immutable summary of a profile: the fields displayed by the identity lists.
+ *
+ * @since 4.4
+ */
+public class ProfileSummaryData implements CacheData<Profile> {
+
+  private final String profileId;
+
+  private final String identityId;
+
+  private final String providerId;
+
+  private final String remoteId;
+
+  private final String userName;
+
+  private final String firstName;
+
+  private final String lastName;
+
+  private final String fullName;
+
+  private final String position;
+
+  private final String url;
+
+  private final String avatarUrl;
+
+  private final Long createdTime;
+
+  public ProfileSummaryData(final Profile profile) {
+    this.profileId = profile.getId();
+    this.identityId = profile.getIdentity().getId();
+    this.providerId = profile.getIdentity().getProviderId();
+    this.remoteId = profile.getIdentity().getRemoteId();
+    this.userName = (String) profile.getProperty(Profile.USERNAME);
+    this.firstName = (String) profile.getProperty(Profile.FIRST_NAME);
+    this.lastName = (String) profile.getProperty(Profile.LAST_NAME);
+    this.fullName = (String) profile.getProperty(Profile.FULL_NAME);
+    this.position = (String) profile.getProperty(Profile.POSITION);
+    this.url = profile.getUrl();
+    this.avatarUrl = profile.getAvatarUrl();
+    this.createdTime = profile.getCreatedTime();
+  }
+
+  public String getIdentityId() {
+    return identityId;
+  }
+
+  public String getFullName() {
+    return fullName;
+  }
+
+  public String getAvatarUrl() {
+    return avatarUrl;
+  }
+
+  public Profile build() {
+    Identity identity = new Identity(identityId);
+    identity.setProviderId(providerId);
+    identity.setRemoteId(remoteId);
+
+    Profile profile = new Profile(identity);
+    profile.setId(profileId);
+    profile.setUrl(url);
+    profile.setAvatarUrl(avatarUrl);
+    profile.setCreatedTime(createdTime);
+    setProperty(profile, Profile.USERNAME, userName);
+    setProperty(profile, Profile.FIRST_NAME, firstName);
+    setProperty(profile, Profile.LAST_NAME, lastName);
+    setProperty(profile, Profile.FULL_NAME, fullName);
+    setProperty(profile, Profile.POSITION, position);
+
+    identity.setProfile(profile);
+    profile.clearHasChanged();
+    return profile;
+  }
+
+  private static void setProperty(Profile profile, String name, String value) {
+    if (value != null) {
+      profile.setProperty(name, value);
+    }
+  }
+
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.storage.cache.model.data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.exoplatform.social.core.relationship.model.Relationship;
+import org.exoplatform.social.core.storage.cache.model.key.RelationshipType;
+
+/**
+ * Immutable relationship graph of an identity: the ids of the enabled identities it is connected to, invited by,
+ * has invited and has ignored or been ignored by.
+ * <br>
+ * The ids are kept in the order of the relationship nodes, which is the order of the lists, and a sorted copy of each
+ * array is used to check if an identity is in it. The creation time of each relationship is kept too, and the ids
+ * ordered by it, newest first, are used to read the latest relationships.
+ *
+ * @since 4.4
+ */
+public class RelationshipGraphData implements Serializable {
+
+  private static final long serialVersionUID = 2L;
+
+  private static final String[] EMPTY = new String[0];
+
+  /**
+   * The connected, incoming, outgoing and ignored ids.
+   */
+  private final String[][] ids;
+
+  /**
+   * The creation times of the relationships, in the order of the ids, 0 when it is unknown.
+   */
+  private final long[][] times;
+
+  /**
+   * The sorted copies of the arrays, built on first use.
+   */
+  private transient volatile String[][] sorted;
+
+  /**
+   * The indexes of the ids by creation time, newest first, built on first use.
+   */
+  private transient volatile int[][] latest;
+
+  /**
+   * @param connections the connected ids
+   * @param incoming the ids of the identities which have invited the owner
+   * @param outgoing the ids of the identities the owner has invited
+   * @param ignored the ignored ids
+   * @param createdTimes the creation times of the relationships by id, may be null
+   */
+  public RelationshipGraphData(final List<String> connections, final List<String> incoming,
+                               final List<String> outgoing, final List<String> ignored,
+                               final Map<String, Long> createdTimes) {
+    this.ids = new String[][] { toArray(connections), toArray(incoming), toArray(outgoing), toArray(ignored) };
+    this.times = new long[ids.length][];
+    for (int i = 0; i < ids.length; ++i) {
+      times[i] = new long[ids[i].length];
+      for (int j = 0; j < ids[i].length; ++j) {
+        Long time = createdTimes != null ? createdTimes.get(ids[i][j]) : null;
+        times[i][j] = time != null ? time : 0;
+      }
+    }
+  }
+
+  /**
+   * Gets the number of identities of a relationship type.
+   *
+   * @param type CONNECTION, INCOMMING, OUTGOING or IGNORED
+   * @return the number of identities
+   */
+  public int size(final RelationshipType type) {
+    return ids[index(type)].length;
+  }
+
+  /**
+   * Checks if an identity has a relationship of a type with the owner of the graph.
+   *
+   * @param type CONNECTION, INCOMMING, OUTGOING or IGNORED
+   * @param identityId the identity id
+   * @return true if the identity is in the graph
+   */
+  public boolean contains(final RelationshipType type, final String identityId) {
+    if (identityId == null) {
+      return false;
+    }
+    return Arrays.binarySearch(sorted()[index(type)], identityId) >= 0;
+  }
+
+  /**
+   * Gets the status of the relationship between the owner of the graph and an identity.
+   *
+   * @param identityId the identity id
+   * @return CONFIRMED, INCOMING if the identity has invited the owner, OUTGOING if the owner has invited the identity,
+   *         IGNORED or null if there is no relationship
+   */
+  public Relationship.Type getStatus(final String identityId) {
+    if (contains(RelationshipType.CONNECTION, identityId)) {
+      return Relationship.Type.CONFIRMED;
+    }
+    else if (contains(RelationshipType.INCOMMING, identityId)) {
+      return Relationship.Type.INCOMING;
+    }
+    else if (contains(RelationshipType.OUTGOING, identityId)) {
+      return Relationship.Type.OUTGOING;
+    }
+    else if (contains(RelationshipType.IGNORED, identityId)) {
+      return Relationship.Type.IGNORED;
+    }
+    return null;
+  }
+
+  /**
+   * Gets a page of the ids of a relationship type, in the order of the relationship nodes.
+   *
+   * @param type CONNECTION, INCOMMING, OUTGOING or IGNORED
+   * @param offset the index of the first id
+   * @param limit the maximum number of ids, all of them if not positive
+   * @return the ids
+   */
+  public List<String> getIds(final RelationshipType type, final long offset, final long limit) {
+    String[] typeIds = ids[index(type)];
+    if (offset >= typeIds.length) {
+      return Collections.emptyList();
+    }
+    int from = (int) Math.max(0, offset);
+    int to = limit <= 0 ? typeIds.length : (int) Math.min(typeIds.length, from + limit);
+    return Arrays.asList(typeIds).subList(from, to);
+  }
+
+  /**
+   * Gets the ids of the latest relationships of some types, newest first. The relationships of the same time are
+   * ordered like their nodes, the last one first.
+   *
+   * @param since the minimum creation time of the relationships, all of them if not positive
+   * @param limit the maximum number of ids, all of them if not positive
+   * @param types CONNECTION, INCOMMING, OUTGOING or IGNORED
+   * @return the ids
+   */
+  public List<String> getLatestIds(final long since, final int limit, final RelationshipType... types) {
+    int[][] order = latest();
+    int[] indexes = new int[types.length];
+    for (int i = 0; i < types.length; ++i) {
+      indexes[i] = index(types[i]);
+    }
+
+    // merge the ordered ids of the types
+    int[] positions = new int[types.length];
+    List<String> got = new ArrayList<String>();
+    while (limit <= 0 || got.size() < limit) {
+      int next = -1;
+      long nextTime = 0;
+      for (int i = 0; i < indexes.length; ++i) {
+        int[] typeOrder = order[indexes[i]];
+        if (positions[i] < typeOrder.length) {
+          long time = times[indexes[i]][typeOrder[positions[i]]];
+          if (next < 0 || time > nextTime) {
+            next = i;
+            nextTime = time;
+          }
+        }
+      }
+      if (next < 0 || (since > 0 && nextTime < since)) {
+        break;
+      }
+      got.add(ids[indexes[next]][order[indexes[next]][positions[next]++]]);
+    }
+    return got;
+  }
+
+  /**
+   * Counts the identities which have a relationship of a type with both the owner of this graph and the owner of
+   * another graph, such as the common connections of two identities.
+   *
+   * @param type CONNECTION, INCOMMING, OUTGOING or IGNORED
+   * @param other the other graph
+   * @return the number of common identities
+   */
+  public int countCommon(final RelationshipType type, final RelationshipGraphData other) {
+    String[] a = sorted()[index(type)];
+    String[] b = other.sorted()[index(type)];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while (i < a.length && j < b.length) {
+      int c = a[i].compareTo(b[j]);
+      if (c == 0) {
+        ++count;
+        ++i;
+        ++j;
+      }
+      else if (c < 0) {
+        ++i;
+      }
+      else {
+        ++j;
+      }
+    }
+    return count;
+  }
+
+  private static int index(final RelationshipType type) {
+    switch (type) {
+      case CONNECTION:
+        return 0;
+      case INCOMMING:
+        return 1;
+      case OUTGOING:
+        return 2;
+      case IGNORED:
+        return 3;
+      default:
+        throw new IllegalArgumentException("No relationship graph for " + type);
+    }
+  }
+
+  private String[][] sorted() {
+    String[][] current = sorted;
+    if (current == null) {
+      current = new String[ids.length][];
+      for (int i = 0; i < ids.length; ++i) {
+        current[i] = ids[i].clone();
+        Arrays.sort(current[i]);
+      }
+      sorted = current;
+    }
+    return current;
+  }
+
+  private int[][] latest() {
+    int[][] current = latest;
+    if (current == null) {
+      current = new int[ids.length][];
+      for (int i = 0; i < ids.length; ++i) {
+        final long[] typeTimes = times[i];
+        Integer[] order = new Integer[typeTimes.length];
+        for (int j = 0; j < order.length; ++j) {
+          order[j] = order.length - 1 - j;
+        }
+        // stable, so the ties stay in the reverse order of the nodes
+        Arrays.sort(order, new Comparator<Integer>() {
+          public int compare(Integer o1, Integer o2) {
+            long t1 = typeTimes[o1];
+            long t2 = typeTimes[o2];
+            return t1 > t2 ? -1 : (t1 < t2 ? 1 : 0);
+          }
+        });
+        current[i] = new int[order.length];
+        for (int j = 0; j < order.length; ++j) {
+          current[i][j] = order[j];
+        }
+      }
+      latest = current;
+    }
+    return current;
+  }
+
+  private static String[] toArray(final List<String> list) {
+    return list == null || list.isEmpty() ? EMPTY : list.toArray(new String[list.size()]);
+  }
+
+}
@@ -17,7 +17,15 @@
 
 package org.exoplatform.social.core.storage.cache.model.data;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.space.model.SpaceMembershipStatus;
 
 /**
  * Immutable space data.
@@ -47,6 +55,11 @@ public class SpaceData implements CacheData<Space> {
   private final String[] pendingUser;
   private final String[] invitedUser;
 
+  /**
+   * The users of each list, built on first use.
+   */
+  private transient volatile Map<SpaceMembershipStatus, Set<String>> index;
+
   public SpaceData(final Space space) {
 
     id = space.getId();
@@ -98,6 +111,31 @@ public class SpaceData implements CacheData<Space> {
 
   }
 
+  /**
+   * Checks if a user is in one list of users of the space, in constant time.
+   *
+   * @param status the list
+   * @param userId the user name
+   * @return true if the user is in the list
+   * @since 4.4
+   */
+  public boolean contains(final SpaceMembershipStatus status, final String userId) {
+    Map<SpaceMembershipStatus, Set<String>> current = index;
+    if (current == null) {
+      current = new EnumMap<SpaceMembershipStatus, Set<String>>(SpaceMembershipStatus.class);
+      current.put(SpaceMembershipStatus.MEMBER, toSet(members));
+      current.put(SpaceMembershipStatus.MANAGER, toSet(managers));
+      current.put(SpaceMembershipStatus.PENDING, toSet(pendingUser));
+      current.put(SpaceMembershipStatus.INVITED, toSet(invitedUser));
+      index = current;
+    }
+    return current.get(status).contains(userId);
+  }
+
+  private static Set<String> toSet(final String[] ids) {
+    return ids == null ? Collections.<String>emptySet() : new HashSet<String>(Arrays.asList(ids));
+  }
+
   public String getId() {
     return id;
   }
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.storage.cache.model.key;
+
+import org.exoplatform.social.core.model.AvatarSize;
+
+/**
+ * Immutable avatar key.
+ * This key is used to cache the avatar of an identity in a given size.
+ *
+ * @since 4.4
+ */
+public class AvatarKey extends ScopeCacheKey {
+
+  private final String identityId;
+
+  private final AvatarSize size;
+
+  public AvatarKey(final String identityId, final AvatarSize size) {
+    this.identityId = identityId;
+    this.size = size;
+  }
+
+  public String getIdentityId() {
+    return identityId;
+  }
+
+  public AvatarSize getSize() {
+    return size;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof AvatarKey)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+
+    AvatarKey that = (AvatarKey) o;
+
+    if (identityId != null ? !identityId.equals(that.identityId) : that.identityId != null) {
+      return false;
+    }
+    if (size != that.size) {
+      return false;
+    }
+
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode();
+    result = 31 * result + (identityId != null ? identityId.hashCode() : 0);
+    result = 31 * result + (size != null ? size.hashCode() : 0);
+    return result;
+  }
+
+}
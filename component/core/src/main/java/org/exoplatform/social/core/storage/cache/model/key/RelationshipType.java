@@ -25,5 +25,5 @@ package org.exoplatform.social.core.storage.cache.model.key;
  */
 public enum RelationshipType {
   CONNECTION, INCOMMING, OUTGOING, RELATIONSHIP, LAST_CONNECTIONS,
-  CONNECTION_WITH_FILTER, OUTGOING_WITH_FILTER, INCOMMING_WITH_FILTER
+  CONNECTION_WITH_FILTER, OUTGOING_WITH_FILTER, INCOMMING_WITH_FILTER, IGNORED
 }
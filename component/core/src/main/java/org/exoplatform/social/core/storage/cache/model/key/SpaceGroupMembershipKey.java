@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.storage.cache.model.key;
+
+/**
+ * Immutable key of the membership of a user in the group of a space.
+ *
+ * @since 4.4
+ */
+public class SpaceGroupMembershipKey extends ScopeCacheKey {
+
+  private final String groupId;
+
+  private final String userId;
+
+  public SpaceGroupMembershipKey(final String groupId, final String userId) {
+    this.groupId = groupId;
+    this.userId = userId;
+  }
+
+  public String getGroupId() {
+    return groupId;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof SpaceGroupMembershipKey)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+
+    SpaceGroupMembershipKey that = (SpaceGroupMembershipKey) o;
+
+    if (groupId != null ? !groupId.equals(that.groupId) : that.groupId != null) {
+      return false;
+    }
+    if (userId != null ? !userId.equals(that.userId) : that.userId != null) {
+      return false;
+    }
+
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode();
+    result = 31 * result + (groupId != null ? groupId.hashCode() : 0);
+    result = 31 * result + (userId != null ? userId.hashCode() : 0);
+    return result;
+  }
+
+}
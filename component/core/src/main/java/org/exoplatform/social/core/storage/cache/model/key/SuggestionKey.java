@@ -40,6 +40,18 @@ public class SuggestionKey <T> extends ScopeCacheKey {
     return this.key;
   }
 
+  public int getMaxConnections() {
+    return this.maxConnections;
+  }
+
+  public int getMaxConnectionsToLoad() {
+    return this.maxConnectionsToLoad;
+  }
+
+  public int getMaxSuggestions() {
+    return this.maxSuggestions;
+  }
+
   @Override
   public int hashCode() {
     final int prime = 31;
@@ -17,6 +17,10 @@
 
 package org.exoplatform.social.core.storage.cache.selector;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.exoplatform.services.cache.ObjectCacheInfo;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityKey;
 import org.exoplatform.social.core.storage.cache.model.key.ListRelationshipsKey;
@@ -29,10 +33,10 @@ import org.exoplatform.social.core.storage.cache.model.key.ScopeCacheKey;
  */
 public class RelationshipCacheSelector extends ScopeCacheSelector<ScopeCacheKey, Object> {
 
-  private String[] target;
+  private Set<String> target;
 
   public RelationshipCacheSelector(final String... target) {
-    this.target = target;
+    this.target = new HashSet<String>(Arrays.asList(target));
   }
 
   @Override
@@ -58,7 +62,7 @@ public class RelationshipCacheSelector extends ScopeCacheSelector<ScopeCacheKey,
 
     if (key.getKey() instanceof IdentityKey) {
       String id = ((IdentityKey) key.getKey()).getId();
-      return id.equals(target[0]) || id.equals(target[1]);
+      return target.contains(id);
     }
 
     return true;
@@ -69,7 +73,7 @@ public class RelationshipCacheSelector extends ScopeCacheSelector<ScopeCacheKey,
 
     if (key.getKey() instanceof IdentityKey) {
       String id = ((IdentityKey) key.getKey()).getId();
-      return id.equals(target[0]) || id.equals(target[1]);
+      return target.contains(id);
     }
 
     return true;
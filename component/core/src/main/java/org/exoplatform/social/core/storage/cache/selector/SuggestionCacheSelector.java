@@ -16,6 +16,10 @@
  */
 package org.exoplatform.social.core.storage.cache.selector;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.exoplatform.services.cache.ObjectCacheInfo;
 import org.exoplatform.social.core.storage.cache.model.data.SuggestionsData;
 import org.exoplatform.social.core.storage.cache.model.key.IdentityKey;
@@ -24,10 +28,10 @@ import org.exoplatform.social.core.storage.cache.model.key.SuggestionKey;
 
 public class SuggestionCacheSelector extends ScopeCacheSelector<ScopeCacheKey, Object> {
   
-  private String[] target;
+  private Set<String> target;
 
   public SuggestionCacheSelector(String... target) {
-    this.target = target;
+    this.target = new HashSet<String>(Arrays.asList(target));
   }
   
   @Override
@@ -49,9 +53,7 @@ public class SuggestionCacheSelector extends ScopeCacheSelector<ScopeCacheKey, O
 
     if (key.getKey() instanceof IdentityKey) {
       String id = ((IdentityKey) key.getKey()).getId();
-      for (String i : target) {
-        if (id.equals(i)) return true;
-      }
+      if (target.contains(id)) return true;
       if (ocinfo == null)
         return true;
       Object value = ocinfo.get();
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.storage.cache.selector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.exoplatform.services.cache.ExoCache;
+import org.exoplatform.services.cache.ObjectCacheInfo;
+import org.exoplatform.social.core.storage.cache.model.key.IdentityKey;
+import org.exoplatform.social.core.storage.cache.model.key.ScopeCacheKey;
+import org.exoplatform.social.core.storage.cache.model.key.SuggestionKey;
+
+/**
+ * Collects the keys of the cached suggestions of some identities, without removing them, so that they can be updated
+ * once the selection is over.
+ *
+ * @since 4.4
+ */
+public class SuggestionOwnerSelector extends ScopeCacheSelector<ScopeCacheKey, Object> {
+
+  private final Set<String> owners;
+
+  private final List<SuggestionKey<IdentityKey>> keys = new ArrayList<SuggestionKey<IdentityKey>>();
+
+  public SuggestionOwnerSelector(final Set<String> owners) {
+    this.owners = owners;
+  }
+
+  @Override
+  public boolean select(ScopeCacheKey key, ObjectCacheInfo<? extends Object> ocinfo) {
+    if (!super.select(key, ocinfo) || !(key instanceof SuggestionKey)) {
+      return false;
+    }
+    Object owner = ((SuggestionKey<?>) key).getKey();
+    return owner instanceof IdentityKey && owners.contains(((IdentityKey) owner).getId());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void onSelect(ExoCache<? extends ScopeCacheKey, ? extends Object> exoCache, ScopeCacheKey key,
+                       ObjectCacheInfo<? extends Object> ocinfo) throws Exception {
+    keys.add((SuggestionKey<IdentityKey>) key);
+  }
+
+  public List<SuggestionKey<IdentityKey>> getKeys() {
+    return keys;
+  }
+
+}
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -56,7 +57,7 @@ import org.exoplatform.container.component.BaseComponentPlugin;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.social.core.ActivityProcessor;
-import org.exoplatform.social.core.activity.filter.ActivityCounter;
+import org.exoplatform.social.core.BaseActivityProcessorPlugin;
 import org.exoplatform.social.core.activity.filter.ActivityFilter;
 import org.exoplatform.social.core.activity.filter.ActivityIterator;
 import org.exoplatform.social.core.activity.filter.ActivityUpdateFilter;
@@ -561,6 +562,33 @@ public class ActivityStorageImpl extends AbstractStorage implements ActivityStor
     }
   }
 
+  /**
+   * Processes activities loaded together, the processors which extend {@link BaseActivityProcessorPlugin} get the
+   * whole list at once and skip the activities which fail themselves.
+   */
+  private void processActivities(List<ExoSocialActivity> activities) {
+    Iterator<ActivityProcessor> it = activityProcessors.iterator();
+    while (it.hasNext()) {
+      ActivityProcessor processor = it.next();
+      if (processor instanceof BaseActivityProcessorPlugin) {
+        try {
+          ((BaseActivityProcessorPlugin) processor).processActivities(activities);
+        } catch (Exception e) {
+          // not retried, the activities processed before the failure must not be processed twice
+          LOG.warn("activity processing failed " + e.getMessage());
+        }
+        continue;
+      }
+      for (ExoSocialActivity activity : activities) {
+        try {
+          processor.processActivity(activity);
+        } catch (Exception e) {
+          LOG.warn("activity processing failed " + e.getMessage());
+        }
+      }
+    }
+  }
+
   private ActivityStorage getStorage() {
     if (activityStorage == null) {
       activityStorage = (ActivityStorage) PortalContainer.getInstance().getComponentInstanceOfType(ActivityStorage.class);
@@ -600,6 +628,38 @@ public class ActivityStorageImpl extends AbstractStorage implements ActivityStor
       return null;
     }
   }
+  /**
+   * Gets the activities with the given ids, the activity processors being run once for all of them.
+   *
+   * @param activityIds the ids of the activities
+   * @return the activities in the order of the ids, null for the ids which are not found
+   * @throws ActivityStorageException
+   * @since 4.4
+   */
+  public List<ExoSocialActivity> getActivities(List<String> activityIds) throws ActivityStorageException {
+    List<ExoSocialActivity> activities = new ArrayList<ExoSocialActivity>(activityIds.size());
+    List<ExoSocialActivity> toProcess = new ArrayList<ExoSocialActivity>(activityIds.size());
+    for (String activityId : activityIds) {
+      ExoSocialActivity activity = null;
+      try {
+        ActivityEntity activityEntity = _findById(ActivityEntity.class, activityId);
+        activity = fillActivityFromEntity(activityEntity, new ExoSocialActivityImpl());
+      } catch (NodeNotFoundException e) {
+        activity = null;
+      }
+      activities.add(activity);
+      if (activity != null) {
+        toProcess.add(activity);
+      }
+    }
+
+    //
+    if (toProcess.size() > 0) {
+      processActivities(toProcess);
+    }
+    return activities;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -2456,7 +2516,8 @@ public class ActivityStorageImpl extends AbstractStorage implements ActivityStor
   }
   
   /**
-   * Counter of activies what is updated
+   * Counter of activies what is updated, the comments are counted as their activity.
+   * Only the ids are collected, the activities are not loaded.
    * @param query
    * @return
    */
@@ -2465,7 +2526,7 @@ public class ActivityStorageImpl extends AbstractStorage implements ActivityStor
     QueryResult<ActivityEntity> results = query.objects();
     
     ActivityEntity entity = null;
-    ActivityCounter counter = new ActivityCounter();
+    Set<String> counter = new HashSet<String>();
     
     //
     while (results.hasNext()) {
@@ -2476,7 +2537,7 @@ public class ActivityStorageImpl extends AbstractStorage implements ActivityStor
         entity = entity.getParentActivity();
       }
 
-      counter.add(getStorage().getActivity(entity.getId()));
+      counter.add(entity.getId());
 
     }
     
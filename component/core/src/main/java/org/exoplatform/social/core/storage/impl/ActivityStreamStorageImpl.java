@@ -17,6 +17,7 @@
 package org.exoplatform.social.core.storage.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -370,12 +371,12 @@ public class ActivityStreamStorageImpl extends AbstractStorage implements Activi
    */
   private void removeActivityRefs(String[] identityIds, ActivityEntity activityEntity) throws NodeNotFoundException {
     if (identityIds != null && identityIds.length > 0) {
-      Identity owner = CommonsUtils.getService(IdentityStorage.class).findIdentityById(activityEntity.getIdentity().getId());
-      for(String identityId : identityIds) {
-        if (identityId.equals(owner.getId()) || identityId.equals(activityEntity.getPosterIdentity().getId())) {
+      IdentityStorage storage = CommonsUtils.getService(IdentityStorage.class);
+      Identity owner = storage.findIdentityById(activityEntity.getIdentity().getId());
+      for(Identity identity : storage.findIdentitiesByIds(Arrays.asList(identityIds))) {
+        if (identity.getId().equals(owner.getId()) || identity.getId().equals(activityEntity.getPosterIdentity().getId())) {
           continue;
         }
-        Identity identity = CommonsUtils.getService(IdentityStorage.class).findIdentityById(identityId);
         manageRefList(new UpdateContext(null, identity), activityEntity, ActivityRefType.MY_ACTIVITIES);
         Relationship relationship = relationshipStorage.getRelationship(owner, identity);
         if (relationship == null || ! relationship.getStatus().equals(Relationship.Type.CONFIRMED)) {
@@ -387,8 +388,7 @@ public class ActivityStreamStorageImpl extends AbstractStorage implements Activi
   
   private void addMentioner(String[] identityIds, ActivityEntity activityEntity) throws NodeNotFoundException {
     if (identityIds != null && identityIds.length > 0) {
-      for(String identityId : identityIds) {
-        Identity identity = CommonsUtils.getService(IdentityStorage.class).findIdentityById(identityId);
+      for(Identity identity : CommonsUtils.getService(IdentityStorage.class).findIdentitiesByIds(Arrays.asList(identityIds))) {
         createOwnerRefs(identity, activityEntity);
       }
     }
@@ -404,13 +404,12 @@ public class ActivityStreamStorageImpl extends AbstractStorage implements Activi
   }
 
   private List<Identity> getMemberIdentities(Space space) {
-    List<Identity> identities = new ArrayList<Identity>();
-    for(String remoteId : space.getMembers()) {
-      //improves performance here just load identity data without profile (UT will be failed if load profile)
-      identities.add(identityStorage._findIdentityEntity(OrganizationIdentityProvider.NAME, remoteId, false));
+    if (space.getMembers() == null) {
+      return new ArrayList<Identity>();
     }
-    
-    return identities;
+    //improves performance here just load identity data without profile (UT will be failed if load profile)
+    return CommonsUtils.getService(IdentityStorage.class).findIdentities(OrganizationIdentityProvider.NAME,
+                                                                         Arrays.asList(space.getMembers()));
   }
   
   @Override
@@ -805,6 +804,58 @@ public class ActivityStreamStorageImpl extends AbstractStorage implements Activi
     }
   }
   
+  @Override
+  public long connect(Identity poster, Identity receiver, long before, int limit) {
+    try {
+      this.activityWriteLock.lock();
+      //
+      List<ActivityEntity> activities = new ArrayList<ActivityEntity>();
+      long next = getActivitiesByPoster(poster, before, limit, activities);
+      IdentityEntity receiverEntity = identityStorage._findIdentityEntity(receiver.getProviderId(), receiver.getRemoteId());
+      for (ActivityEntity entity : activities) {
+        // for SOC-4525
+        if (entity.getPath().contains(SPACE_NODETYPE_PATH)) {
+          continue;
+        }
+        if (isExistingActivityRef(receiverEntity, entity, ActivityRefType.CONNECTION)) {
+          continue;
+        }
+        createConnectionsRefs(receiver, entity);
+      }
+      return next;
+    } catch (NodeNotFoundException e) {
+      LOG.warn("Failed to add Activity references when create relationship.");
+      return -1;
+    } finally {
+      this.activityWriteLock.unlock();
+    }
+  }
+  
+  @Override
+  public long deleteConnect(Identity poster, Identity receiver, long before, int limit) {
+    try {
+      this.activityWriteLock.lock();
+      //
+      List<ActivityEntity> activities = new ArrayList<ActivityEntity>();
+      long next = getActivitiesByPoster(poster, before, limit, activities);
+      for (ActivityEntity entity : activities) {
+        // only the activities of the stream of the poster, as the other ones may be in the streams of the receiver
+        // for another reason
+        IdentityEntity owner = entity.getIdentity();
+        if (owner == null || !owner.getId().equals(poster.getId())) {
+          continue;
+        }
+        removeRelationshipRefs(receiver, entity);
+      }
+      return next;
+    } catch (NodeNotFoundException e) {
+      LOG.warn("Failed to delete Activity references when delete relationship.");
+      return -1;
+    } finally {
+      this.activityWriteLock.unlock();
+    }
+  }
+  
   /**
    * The reference types.
    */
@@ -1163,6 +1214,43 @@ public class ActivityStreamStorageImpl extends AbstractStorage implements Activi
     return got;
   }
   
+  /**
+   * Gets a page of the activities posted by an identity, newest first. The activities last updated at the same time
+   * as the last one of the page are added to it, so that the next page can start strictly before.
+   * 
+   * @param poster the poster
+   * @param before only the activities last updated at or before this time are got
+   * @param limit the size of the page
+   * @param got the list which gets the activities
+   * @return the time to start the next page at, or -1 when there is no more activity
+   */
+  private long getActivitiesByPoster(Identity poster, long before, int limit, List<ActivityEntity> got) throws NodeNotFoundException {
+    IdentityEntity identityEntity = identityStorage._findIdentityEntity(poster.getProviderId(), poster.getRemoteId());
+    ActivityRefList list = new ActivityRefList(ActivityRefType.MY_ACTIVITIES.refsOf(identityEntity));
+
+    //
+    ActivityRefIterator it = list.iterator(before);
+    Long last = null;
+    while (it.hasNext()) {
+      ActivityRef current = it.next();
+      ActivityEntity entity = current.getActivityEntity();
+      Long lastUpdated = entity == null ? current.getLastUpdated() : entity.getLastUpdated();
+      if (lastUpdated != null && lastUpdated > before) {
+        continue;
+      }
+      if (got.size() >= limit && last != null && !last.equals(lastUpdated)) {
+        return last - 1;
+      }
+      if (entity != null) {
+        got.add(entity);
+      }
+      if (lastUpdated != null) {
+        last = lastUpdated;
+      }
+    }
+    return -1;
+  }
+  
   private QueryResult<ActivityEntity> getActivitiesOfSpace(Identity spaceIdentity) {
 
     if (spaceIdentity == null) {
@@ -0,0 +1,370 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.storage.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.exoplatform.social.core.profile.ProfileFilter;
+import org.exoplatform.social.core.search.Sorting;
+
+/**
+ * In memory index of the names of the identities of a provider, used to filter the identities by name without querying
+ * JCR, as the mention suggestions do on each typed character.
+ * <br>
+ * The names are kept lower cased in an array sorted as the JCR query sorts the profiles (last name then first name,
+ * case insensitive), so a filter walks the array and stops as soon as it has the page it needs. A name matches when it
+ * contains the searched text, like the {@code LIKE '%text%'} condition of {@link StorageUtils#applyFilter}. The array
+ * is replaced on each change, so the searches never lock.
+ * <br>
+ * The index is an optional component: the identity storage only uses it when it is registered in the container. It
+ * only sees the changes done on its own server, so it must not be enabled on a cluster.
+ *
+ * @since 4.4
+ */
+public class IdentityNameIndex {
+
+  private static final Comparator<Entry> ORDER = new Comparator<Entry>() {
+    public int compare(Entry e1, Entry e2) {
+      int result = e1.lastNameKey.compareTo(e2.lastNameKey);
+      if (result != 0) {
+        return result;
+      }
+      result = e1.firstNameKey.compareTo(e2.firstNameKey);
+      if (result != 0) {
+        return result;
+      }
+      return e1.identityId.compareTo(e2.identityId);
+    }
+  };
+
+  private static final Comparator<Entry> FULL_NAME_ORDER = new Comparator<Entry>() {
+    public int compare(Entry e1, Entry e2) {
+      int result = e1.fullNameKey.compareTo(e2.fullNameKey);
+      if (result != 0) {
+        return result;
+      }
+      return e1.identityId.compareTo(e2.identityId);
+    }
+  };
+
+  private static final Entry[] EMPTY = new Entry[0];
+
+  /**
+   * The entries by identity id, guarded by this.
+   */
+  private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+  /**
+   * The entries sorted by name, null while the index is not loaded.
+   */
+  private volatile Entry[] sorted;
+
+  /**
+   * Checks if the index has been loaded, before that the searches must use JCR.
+   *
+   * @return true if the index is loaded
+   */
+  public boolean isLoaded() {
+    return sorted != null;
+  }
+
+  /**
+   * Loads the index with the names of all the identities of the provider, the previous content is dropped.
+   *
+   * @param names the names, see {@link #names(String, String, String, String)}
+   */
+  public synchronized void load(Collection<String[]> names) {
+    entries.clear();
+    for (String[] name : names) {
+      Entry entry = new Entry(name[0], name[1], name[2], name[3]);
+      entries.put(entry.identityId, entry);
+    }
+    Entry[] all = entries.values().toArray(new Entry[entries.size()]);
+    Arrays.sort(all, ORDER);
+    sorted = all;
+  }
+
+  /**
+   * Adds or updates the names of an identity. Nothing is done while the index is not loaded, the names are read when
+   * it is.
+   *
+   * @param identityId the identity id
+   * @param firstName the first name
+   * @param lastName the last name
+   * @param fullName the full name
+   */
+  public synchronized void put(String identityId, String firstName, String lastName, String fullName) {
+    if (sorted == null) {
+      return;
+    }
+    Entry entry = new Entry(identityId, firstName, lastName, fullName);
+    Entry previous = entries.put(identityId, entry);
+    Entry[] current = previous != null ? without(sorted, previous) : sorted;
+    int index = -(Arrays.binarySearch(current, entry, ORDER) + 1);
+    Entry[] updated = new Entry[current.length + 1];
+    System.arraycopy(current, 0, updated, 0, index);
+    updated[index] = entry;
+    System.arraycopy(current, index, updated, index + 1, current.length - index);
+    sorted = updated;
+  }
+
+  /**
+   * Removes an identity from the index.
+   *
+   * @param identityId the identity id
+   */
+  public synchronized void remove(String identityId) {
+    if (sorted == null) {
+      return;
+    }
+    Entry previous = entries.remove(identityId);
+    if (previous != null) {
+      sorted = without(sorted, previous);
+    }
+  }
+
+  /**
+   * Drops the content of the index, it must be loaded again before being used.
+   */
+  public synchronized void clear() {
+    entries.clear();
+    sorted = null;
+  }
+
+  /**
+   * Gets the number of indexed identities.
+   *
+   * @return the number of identities
+   */
+  public int size() {
+    Entry[] current = sorted;
+    return current != null ? current.length : 0;
+  }
+
+  /**
+   * Finds the identities which first, last or full name contains the name of the filter, in the order of the JCR query.
+   * The identities are found lazily, while the iterator is consumed.
+   *
+   * @param name the searched name, as given by {@link ProfileFilter#getName()}
+   * @param excludedIds the ids of the identities to exclude
+   * @return the ids of the found identities
+   */
+  public Iterator<String> find(String name, Set<String> excludedIds) {
+    Entry[] current = sorted;
+    String searched = name.trim().length() == 0 ? null : name.toLowerCase();
+    return new MatchIterator(current != null ? current : EMPTY, searched, excludedIds);
+  }
+
+  /**
+   * Finds among some identities the ones which first, last or full name contains a name, sorted by full name as the
+   * relationship queries sort them (case insensitive). Nothing is returned if one of the identities is not in the
+   * index, as the index can not tell if it matches.
+   *
+   * @param name the searched name, as given by {@link ProfileFilter#getName()}
+   * @param identityIds the ids of the identities to filter
+   * @return the ids of the found identities, null if one of the identities is not in the index
+   */
+  public List<String> filter(String name, Collection<String> identityIds) {
+    String searched = name.trim().length() == 0 ? null : name.toLowerCase();
+    List<Entry> found = new ArrayList<Entry>();
+    synchronized (this) {
+      if (sorted == null) {
+        return null;
+      }
+      for (String identityId : identityIds) {
+        Entry entry = entries.get(identityId);
+        if (entry == null) {
+          return null;
+        }
+        if (searched == null || entry.matches(searched)) {
+          found.add(entry);
+        }
+      }
+    }
+    Collections.sort(found, FULL_NAME_ORDER);
+    List<String> ids = new ArrayList<String>(found.size());
+    for (Entry entry : found) {
+      ids.add(entry.identityId);
+    }
+    return ids;
+  }
+
+  /**
+   * Checks if a filter only filters on the name and sorts as the index does, so it can be served by the index.
+   *
+   * @param profileFilter the filter, may be null
+   * @return true if the index can find the identities of the filter
+   */
+  public static boolean isIndexable(ProfileFilter profileFilter) {
+    if (profileFilter == null) {
+      return false;
+    }
+    Sorting sorting = profileFilter.getSorting();
+    if (sorting.sortBy != Sorting.SortBy.TITLE || sorting.orderBy != Sorting.OrderBy.ASC) {
+      return false;
+    }
+    return isNameFilter(profileFilter);
+  }
+
+  /**
+   * Checks if a filter only filters on the name, whatever its sorting, so the index can tell which identities match it.
+   *
+   * @param profileFilter the filter, may be null
+   * @return true if the index can match the identities of the filter
+   */
+  public static boolean isNameFilter(ProfileFilter profileFilter) {
+    if (profileFilter == null) {
+      return false;
+    }
+    String name = profileFilter.getName();
+    if (name == null || name.indexOf('*') >= 0 || name.indexOf('%') >= 0 || name.indexOf('_') >= 0) {
+      return false;
+    }
+    return profileFilter.getFirstCharacterOfName() == '\u0000'
+        && isBlank(profileFilter.getPosition())
+        && isBlank(profileFilter.getSkills())
+        && isBlank(profileFilter.getCompany())
+        && isBlank(profileFilter.getAll());
+  }
+
+  /**
+   * Checks if one of the names of an identity contains the searched name, as {@link #find(String, Set)} does.
+   *
+   * @param name the searched name, as given by {@link ProfileFilter#getName()}
+   * @param firstName the first name
+   * @param lastName the last name
+   * @param fullName the full name
+   * @return true if the identity matches
+   */
+  public static boolean matches(String name, String firstName, String lastName, String fullName) {
+    if (name.trim().length() == 0) {
+      return true;
+    }
+    return new Entry(null, firstName, lastName, fullName).matches(name.toLowerCase());
+  }
+
+  /**
+   * Gathers the names of an identity to load them with {@link #load(Collection)}.
+   */
+  public static String[] names(String identityId, String firstName, String lastName, String fullName) {
+    return new String[] {identityId, firstName, lastName, fullName};
+  }
+
+  private static boolean isBlank(String value) {
+    return value != null && value.trim().length() == 0;
+  }
+
+  private static Entry[] without(Entry[] current, Entry entry) {
+    int index = Arrays.binarySearch(current, entry, ORDER);
+    if (index < 0) {
+      return current;
+    }
+    Entry[] updated = new Entry[current.length - 1];
+    System.arraycopy(current, 0, updated, 0, index);
+    System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+    return updated;
+  }
+
+  private static String lower(String value) {
+    return value != null ? value.toLowerCase() : null;
+  }
+
+  private static final class Entry {
+
+    private final String identityId;
+
+    private final String firstName;
+
+    private final String lastName;
+
+    private final String fullName;
+
+    private final String firstNameKey;
+
+    private final String lastNameKey;
+
+    private final String fullNameKey;
+
+    private Entry(String identityId, String firstName, String lastName, String fullName) {
+      this.identityId = identityId;
+      this.firstName = lower(firstName);
+      this.lastName = lower(lastName);
+      this.fullName = lower(fullName);
+      this.firstNameKey = this.firstName != null ? this.firstName : "";
+      this.lastNameKey = this.lastName != null ? this.lastName : "";
+      this.fullNameKey = this.fullName != null ? this.fullName : "";
+    }
+
+    private boolean matches(String searched) {
+      return (firstName != null && firstName.contains(searched))
+          || (lastName != null && lastName.contains(searched))
+          || (fullName != null && fullName.contains(searched));
+    }
+  }
+
+  private static final class MatchIterator implements Iterator<String> {
+
+    private final Entry[] entries;
+
+    private final String searched;
+
+    private final Set<String> excludedIds;
+
+    private int index;
+
+    private String next;
+
+    private MatchIterator(Entry[] entries, String searched, Set<String> excludedIds) {
+      this.entries = entries;
+      this.searched = searched;
+      this.excludedIds = excludedIds;
+    }
+
+    public boolean hasNext() {
+      while (next == null && index < entries.length) {
+        Entry entry = entries[index++];
+        if ((searched == null || entry.matches(searched)) && !excludedIds.contains(entry.identityId)) {
+          next = entry.identityId;
+        }
+      }
+      return next != null;
+    }
+
+    public String next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      String result = next;
+      next = null;
+      return result;
+    }
+
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -17,17 +17,28 @@
 
 package org.exoplatform.social.core.storage.impl;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import javax.jcr.Node;
 import javax.jcr.PropertyType;
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
@@ -53,6 +64,8 @@ import org.exoplatform.services.organization.OrganizationService;
 import org.exoplatform.services.organization.User;
 import org.exoplatform.services.user.UserStateModel;
 import org.exoplatform.services.user.UserStateService;
+import org.exoplatform.social.common.service.impl.SocialServiceContextImpl;
+import org.exoplatform.social.common.service.thread.ThreadPoolConfig;
 import org.exoplatform.social.core.chromattic.entity.ActivityProfileEntity;
 import org.exoplatform.social.core.chromattic.entity.DisabledEntity;
 import org.exoplatform.social.core.chromattic.entity.IdentityEntity;
@@ -66,12 +79,17 @@ import org.exoplatform.social.core.identity.IdentityResult;
 import org.exoplatform.social.core.identity.SpaceMemberFilterListAccess.Type;
 import org.exoplatform.social.core.identity.model.ActiveIdentityFilter;
 import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.IdentityStatus;
 import org.exoplatform.social.core.identity.model.Profile;
 import org.exoplatform.social.core.identity.model.Profile.AttachedActivityType;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
 import org.exoplatform.social.core.identity.provider.SpaceIdentityProvider;
+import org.exoplatform.social.core.image.ImageUtils;
 import org.exoplatform.social.core.model.AvatarAttachment;
+import org.exoplatform.social.core.model.AvatarSize;
+import org.exoplatform.social.core.profile.IndexedProfile;
 import org.exoplatform.social.core.profile.ProfileFilter;
+import org.exoplatform.social.core.profile.ProfileSearchIndex;
 import org.exoplatform.social.core.search.Sorting;
 import org.exoplatform.social.core.service.LinkProvider;
 import org.exoplatform.social.core.space.SpaceUtils;
@@ -97,10 +115,37 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
   /** Logger */
   private static final Log LOG = ExoLogger.getLogger(IdentityStorageImpl.class);
 
+  /** The maximum number of disabled identities excluded by a count query */
+  private static final int COUNT_DISABLED_BATCH_SIZE = 100;
+
+  /** The maximum number of identities loaded by a bulk query */
+  private static final int FIND_IDENTITIES_BATCH_SIZE = 100;
+
   private IdentityStorage identityStorage;
   private RelationshipStorage relationshipStorage;
   private SpaceStorage spaceStorage;
   private OrganizationService organizationService;
+
+  /**
+   * The optional name index of the identities of the organization provider, to filter them without querying JCR.
+   */
+  private IdentityNameIndex nameIndex;
+
+  private volatile boolean nameIndexResolved;
+
+  /**
+   * The optional search index of the profiles of the organization provider.
+   */
+  private ProfileSearchIndex profileSearchIndex;
+
+  private volatile boolean profileSearchIndexResolved;
+
+  /**
+   * Whether the profile search index is being built in background.
+   */
+  private final AtomicBoolean profileSearchIndexBuilding = new AtomicBoolean();
+
+  private ExecutorService profileSearchIndexExecutor;
   
 
   static enum PropNs {
@@ -218,6 +263,33 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
     return spaceStorage;
   }
 
+  /**
+   * Gets the name index if it is registered, the container is only looked up once.
+   *
+   * @return the index, null if the identities must be searched in JCR
+   */
+  private IdentityNameIndex getNameIndex() {
+    if (!nameIndexResolved) {
+      nameIndex = (IdentityNameIndex) PortalContainer.getInstance().getComponentInstanceOfType(IdentityNameIndex.class);
+      nameIndexResolved = true;
+    }
+
+    return nameIndex;
+  }
+
+  /**
+   * Gets the profile search index if it is registered, the container is only looked up once.
+   */
+  private ProfileSearchIndex getProfileSearchIndex() {
+    if (!profileSearchIndexResolved) {
+      profileSearchIndex = (ProfileSearchIndex) PortalContainer.getInstance().
+                                                                getComponentInstanceOfType(ProfileSearchIndex.class);
+      profileSearchIndexResolved = true;
+    }
+
+    return profileSearchIndex;
+  }
+
   private QueryResult<ProfileEntity> getSpaceMemberIdentitiesByProfileFilterQueryBuilder(Space space,
       final ProfileFilter profileFilter, Type type,  long offset, long limit, boolean count)
       throws IdentityStorageException {
@@ -405,6 +477,10 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
 
     //
     getSession().save();
+    if (getNameIndex() != null) {
+      nameIndex.remove(identity.getId());
+    }
+    removeFromProfileSearchIndex(identity.getId());
 
     //
     LOG.debug(String.format(
@@ -656,6 +732,12 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
     
     getSession().save();
 
+    //
+    if (OrganizationIdentityProvider.NAME.equals(profileEntity.getIdentity().getProviderId())) {
+      updateNameIndex(profileEntity);
+      updateProfileSearchIndex(profileEntity);
+    }
+
     //
     LOG.debug(String.format(
         "Profile '%s' for %s:%s (%s) saved",
@@ -666,6 +748,265 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
     ));
   }
 
+  private void updateNameIndex(ProfileEntity profileEntity) {
+    if (getNameIndex() == null) {
+      return;
+    }
+    String identityId = profileEntity.getIdentity().getId();
+    if ("true".equals(profileEntity.getPropertyFirst(ProfileEntity.deleted.getName()))) {
+      nameIndex.remove(identityId);
+    } else {
+      nameIndex.put(identityId,
+                    profileEntity.getPropertyFirst(ProfileEntity.firstName.getName()),
+                    profileEntity.getPropertyFirst(ProfileEntity.lastName.getName()),
+                    profileEntity.getPropertyFirst(ProfileEntity.fullName.getName()));
+    }
+  }
+
+  /**
+   * Loads the name index with the profiles of the organization provider if it is registered and not loaded yet.
+   *
+   * @return false if the index is not registered or could not be loaded
+   */
+  private boolean loadNameIndex() {
+    if (getNameIndex() == null) {
+      return false;
+    }
+    if (nameIndex.isLoaded()) {
+      return true;
+    }
+    try {
+      QueryBuilder<ProfileEntity> builder = getSession().createQueryBuilder(ProfileEntity.class);
+      WhereExpression whereExpression = new WhereExpression();
+      whereExpression
+          .like(JCRProperties.path, getProviderRoot().getProviders().get(
+              OrganizationIdentityProvider.NAME).getPath() + StorageUtils.SLASH_STR + StorageUtils.PERCENT_STR)
+          .and()
+          .not().equals(ProfileEntity.deleted, "true");
+      builder.where(whereExpression.toString());
+
+      List<String[]> names = new ArrayList<String[]>();
+      QueryResult<ProfileEntity> results = builder.get().objects();
+      while (results.hasNext()) {
+        ProfileEntity profileEntity = results.next();
+        names.add(IdentityNameIndex.names(profileEntity.getIdentity().getId(),
+                                          profileEntity.getPropertyFirst(ProfileEntity.firstName.getName()),
+                                          profileEntity.getPropertyFirst(ProfileEntity.lastName.getName()),
+                                          profileEntity.getPropertyFirst(ProfileEntity.fullName.getName())));
+      }
+      nameIndex.load(names);
+      LOG.info("Identity name index loaded with " + names.size() + " profiles");
+      return true;
+    } catch (Exception e) {
+      LOG.warn("Failed to load the identity name index, the identities are searched in JCR", e);
+      return false;
+    }
+  }
+
+  /**
+   * Gets the profile search index if it is registered, supports the filter and is ready. When it is not ready, it is
+   * built in background and the identities are searched in JCR meanwhile.
+   *
+   * @return the index, null if the identities must be searched in JCR
+   */
+  private ProfileSearchIndex getProfileSearchIndex(String providerId, ProfileFilter profileFilter) {
+    if (!OrganizationIdentityProvider.NAME.equals(providerId)) {
+      return null;
+    }
+    ProfileSearchIndex index = getProfileSearchIndex();
+    if (index == null || !index.supports(profileFilter)) {
+      return null;
+    }
+    if (!index.isReady()) {
+      buildProfileSearchIndex(index);
+      return null;
+    }
+    return index;
+  }
+
+  /**
+   * Builds the profile search index in background, unless it is already being built.
+   */
+  private void buildProfileSearchIndex(final ProfileSearchIndex index) {
+    if (!profileSearchIndexBuilding.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      getProfileSearchIndexExecutor().submit(new Runnable() {
+        public void run() {
+          boolean created = startSynchronization();
+          try {
+            QueryBuilder<ProfileEntity> builder = getSession().createQueryBuilder(ProfileEntity.class);
+            WhereExpression whereExpression = new WhereExpression();
+            whereExpression
+                .like(JCRProperties.path, getProviderRoot().getProviders().get(
+                    OrganizationIdentityProvider.NAME).getPath() + StorageUtils.SLASH_STR + StorageUtils.PERCENT_STR)
+                .and()
+                .not().equals(ProfileEntity.deleted, "true");
+            builder.where(whereExpression.toString());
+            index.rebuild(new IndexedProfileIterator(builder.get().objects()));
+          } catch (Exception e) {
+            LOG.warn("Failed to build the profile search index, the identities are searched in JCR", e);
+          } finally {
+            stopSynchronization(created);
+            profileSearchIndexBuilding.set(false);
+          }
+        }
+      });
+    } catch (RuntimeException e) {
+      profileSearchIndexBuilding.set(false);
+      LOG.warn("Failed to start building the profile search index, the identities are searched in JCR", e);
+    }
+  }
+
+  private synchronized ExecutorService getProfileSearchIndexExecutor() {
+    if (profileSearchIndexExecutor == null) {
+      ThreadPoolConfig config = new ThreadPoolConfig();
+      config.setPoolSize(1);
+      config.setMaxPoolSize(1);
+      config.setKeepAliveTime(10L);
+      config.setTimeUnit(TimeUnit.SECONDS);
+      config.setMaxQueueSize(1);
+      config.setPriority(Thread.MIN_PRIORITY);
+      profileSearchIndexExecutor = SocialServiceContextImpl.getInstance().getExecutorServiceManager()
+                                                           .newThreadPool("ProfileSearchIndex", config);
+    }
+    return profileSearchIndexExecutor;
+  }
+
+  private void updateProfileSearchIndex(ProfileEntity profileEntity) {
+    ProfileSearchIndex index = getProfileSearchIndex();
+    // the changes done while the index is built are applied at the end of the build
+    if (index == null || !index.isReady() && !profileSearchIndexBuilding.get()) {
+      return;
+    }
+    try {
+      if (isSearchable(profileEntity)) {
+        index.index(toIndexedProfile(profileEntity));
+      } else {
+        index.remove(profileEntity.getIdentity().getId());
+      }
+    } catch (Exception e) {
+      LOG.warn("Failed to update the profile search index, it will be rebuilt", e);
+      clearProfileSearchIndex(index);
+    }
+  }
+
+  private void removeFromProfileSearchIndex(String identityId) {
+    ProfileSearchIndex index = getProfileSearchIndex();
+    // the changes done while the index is built are applied at the end of the build
+    if (index == null || !index.isReady() && !profileSearchIndexBuilding.get()) {
+      return;
+    }
+    try {
+      index.remove(identityId);
+    } catch (Exception e) {
+      LOG.warn("Failed to update the profile search index, it will be rebuilt", e);
+      clearProfileSearchIndex(index);
+    }
+  }
+
+  private void clearProfileSearchIndex(ProfileSearchIndex index) {
+    try {
+      index.clear();
+    } catch (Exception e) {
+      LOG.debug(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Loads the identities found by the profile search index, skipping the ones changed since they were indexed.
+   */
+  private List<Identity> loadIndexedIdentities(List<String> identityIds, ProfileFilter profileFilter) {
+    List<Identity> identities = new ArrayList<Identity>(identityIds.size());
+    for (String identityId : identityIds) {
+      Identity identity = getStorage().findIdentityById(identityId);
+      if (identity == null || identity.isDeleted() || !identity.isEnable()) {
+        continue;
+      }
+      identity.setProfile(loadProfile(identity, profileFilter));
+      identities.add(identity);
+    }
+    return identities;
+  }
+
+  /**
+   * Loads the profile of a found identity, only its summary if the filter asks for it.
+   */
+  private Profile loadProfile(Identity identity, ProfileFilter profileFilter) {
+    Profile profile = new Profile(identity);
+    if (profileFilter != null && profileFilter.isSummaryOnly()) {
+      return getStorage().loadProfileSummary(profile);
+    }
+    return getStorage().loadProfile(profile);
+  }
+
+  private boolean isSearchable(ProfileEntity profileEntity) {
+    IdentityEntity identityEntity = profileEntity.getIdentity();
+    return !"true".equals(getPropertyFirst(profileEntity, ProfileEntity.deleted.getName()))
+        && !Boolean.TRUE.equals(identityEntity.isDeleted())
+        && _getMixin(identityEntity, DisabledEntity.class, false) == null;
+  }
+
+  private IndexedProfile toIndexedProfile(ProfileEntity profileEntity) {
+    IdentityEntity identityEntity = profileEntity.getIdentity();
+    IndexedProfile indexedProfile = new IndexedProfile(identityEntity.getId(), identityEntity.getProviderId());
+    indexedProfile.setFirstName(getPropertyFirst(profileEntity, ProfileEntity.firstName.getName()));
+    indexedProfile.setLastName(getPropertyFirst(profileEntity, ProfileEntity.lastName.getName()));
+    indexedProfile.setFullName(getPropertyFirst(profileEntity, ProfileEntity.fullName.getName()));
+    indexedProfile.setPosition(getPropertyFirst(profileEntity, ProfileEntity.position.getName()));
+    indexedProfile.setPositions(profileEntity.getProperty(ProfileEntity.positions.getName()));
+    indexedProfile.setSkills(profileEntity.getProperty(ProfileEntity.skills.getName()));
+    indexedProfile.setOrganizations(profileEntity.getProperty(ProfileEntity.organizations.getName()));
+    indexedProfile.setJobsDescription(profileEntity.getProperty(ProfileEntity.jobsDescription.getName()));
+    if (profileEntity.getCreatedTime() != null) {
+      indexedProfile.setCreatedTime(profileEntity.getCreatedTime());
+    }
+    return indexedProfile;
+  }
+
+  private static String getPropertyFirst(ProfileEntity profileEntity, String name) {
+    List<String> values = profileEntity.getProperty(name);
+    return values != null && values.size() > 0 ? values.get(0) : null;
+  }
+
+  /**
+   * Gives the searchable profiles of a query result to {@link ProfileSearchIndex#rebuild(Iterator)}.
+   */
+  private class IndexedProfileIterator implements Iterator<IndexedProfile> {
+
+    private final QueryResult<ProfileEntity> results;
+
+    private IndexedProfile next;
+
+    private IndexedProfileIterator(QueryResult<ProfileEntity> results) {
+      this.results = results;
+    }
+
+    public boolean hasNext() {
+      while (next == null && results.hasNext()) {
+        ProfileEntity profileEntity = results.next();
+        if (isSearchable(profileEntity)) {
+          next = toIndexedProfile(profileEntity);
+        }
+      }
+      return next != null;
+    }
+
+    public IndexedProfile next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      IndexedProfile result = next;
+      next = null;
+      return result;
+    }
+
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
   protected Identity _findIdentity(final String providerId, final String remoteId) throws NodeNotFoundException {
 
     IdentityEntity identityEntity = _findIdentityEntity(providerId, remoteId);
@@ -758,11 +1099,6 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
 
   private void populateProfile(final Profile profile, final ProfileEntity profileEntity) {
 
-    IdentityEntity identity = profileEntity.getIdentity();
-
-    String providerId = identity.getProviderId();
-    String remoteId = identity.getRemoteId();
-
     profile.setId(profileEntity.getId());
     profile.setCreatedTime(profileEntity.getCreatedTime());
 
@@ -798,6 +1134,46 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
       LOG.warn(e.getMessage()); 
     }
     
+    populateProfileUrls(profile, profileEntity);
+
+    //
+    if (phones.size() > 0) {
+      profile.setProperty(Profile.CONTACT_PHONES, phones);
+    }
+    if (ims.size() > 0) {
+      profile.setProperty(Profile.CONTACT_IMS, ims);
+    }
+    if (urls.size() > 0) {
+      profile.setProperty(Profile.CONTACT_URLS, urls);
+    }
+
+    //
+    List<Map<String, Object>> xpData = new ArrayList<Map<String, Object>>();
+    for (ProfileXpEntity xpEntity : profileEntity.getXps().values()){
+      Map<String, Object> xpMap = new HashMap<String, Object>();
+      xpMap.put(Profile.EXPERIENCES_SKILLS, xpEntity.getSkills());
+      xpMap.put(Profile.EXPERIENCES_POSITION, xpEntity.getPosition());
+      xpMap.put(Profile.EXPERIENCES_START_DATE, xpEntity.getStartDate());
+      xpMap.put(Profile.EXPERIENCES_END_DATE, xpEntity.getEndDate());
+      xpMap.put(Profile.EXPERIENCES_COMPANY, xpEntity.getCompany());
+      xpMap.put(Profile.EXPERIENCES_DESCRIPTION, xpEntity.getDescription());
+      xpMap.put(Profile.EXPERIENCES_IS_CURRENT, xpEntity.isCurrent());
+      xpData.add(xpMap);
+    }
+
+    profile.setProperty(Profile.EXPERIENCES, xpData);
+  }
+
+  /**
+   * Sets the url and the avatar url of a profile.
+   */
+  private void populateProfileUrls(final Profile profile, final ProfileEntity profileEntity) {
+
+    IdentityEntity identity = profileEntity.getIdentity();
+
+    String providerId = identity.getProviderId();
+    String remoteId = identity.getRemoteId();
+
     if (OrganizationIdentityProvider.NAME.equals(providerId) || SpaceIdentityProvider.NAME.equals(providerId)) {
 
       //
@@ -830,33 +1206,6 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
       profile.setUrl(profileEntity.getExternalUrl());
       profile.setAvatarUrl(profileEntity.getExternalAvatarUrl());
     }
-
-    //
-    if (phones.size() > 0) {
-      profile.setProperty(Profile.CONTACT_PHONES, phones);
-    }
-    if (ims.size() > 0) {
-      profile.setProperty(Profile.CONTACT_IMS, ims);
-    }
-    if (urls.size() > 0) {
-      profile.setProperty(Profile.CONTACT_URLS, urls);
-    }
-
-    //
-    List<Map<String, Object>> xpData = new ArrayList<Map<String, Object>>();
-    for (ProfileXpEntity xpEntity : profileEntity.getXps().values()){
-      Map<String, Object> xpMap = new HashMap<String, Object>();
-      xpMap.put(Profile.EXPERIENCES_SKILLS, xpEntity.getSkills());
-      xpMap.put(Profile.EXPERIENCES_POSITION, xpEntity.getPosition());
-      xpMap.put(Profile.EXPERIENCES_START_DATE, xpEntity.getStartDate());
-      xpMap.put(Profile.EXPERIENCES_END_DATE, xpEntity.getEndDate());
-      xpMap.put(Profile.EXPERIENCES_COMPANY, xpEntity.getCompany());
-      xpMap.put(Profile.EXPERIENCES_DESCRIPTION, xpEntity.getDescription());
-      xpMap.put(Profile.EXPERIENCES_IS_CURRENT, xpEntity.isCurrent());
-      xpData.add(xpMap);
-    }
-
-    profile.setProperty(Profile.EXPERIENCES, xpData);
   }
 
   /*
@@ -972,6 +1321,115 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
     return profile;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public Profile loadProfileSummary(Profile profile) throws IdentityStorageException {
+
+    //
+    if (profile.getIdentity().getId() == null) {
+      throw new IllegalArgumentException();
+    }
+
+    ProfileEntity profileEntity;
+    try {
+      profileEntity = _findById(IdentityEntity.class, profile.getIdentity().getId()).getProfile();
+    }
+    catch (NodeNotFoundException e) {
+      throw new IdentityStorageException(IdentityStorageException.Type.FAIL_TO_FIND_IDENTITY_BY_NODE_ID,
+                                         e.getMessage(), e);
+    }
+    if (profileEntity == null) {
+      return loadProfile(profile);
+    }
+
+    //
+    profile.setId(profileEntity.getId());
+    profile.setCreatedTime(profileEntity.getCreatedTime());
+    setSummaryProperty(profile, Profile.USERNAME, profileEntity, PropNs.VOID.nameOf(Profile.USERNAME));
+    setSummaryProperty(profile, Profile.FIRST_NAME, profileEntity, ProfileEntity.firstName.getName());
+    setSummaryProperty(profile, Profile.LAST_NAME, profileEntity, ProfileEntity.lastName.getName());
+    setSummaryProperty(profile, Profile.FULL_NAME, profileEntity, ProfileEntity.fullName.getName());
+    setSummaryProperty(profile, Profile.POSITION, profileEntity, ProfileEntity.position.getName());
+    populateProfileUrls(profile, profileEntity);
+
+    profile.clearHasChanged();
+
+    return profile;
+  }
+
+  private static void setSummaryProperty(Profile profile, String name, ProfileEntity profileEntity, String property) {
+    String value = getPropertyFirst(profileEntity, property);
+    if (value != null) {
+      profile.setProperty(name, value);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public AvatarAttachment getAvatar(final Identity identity, final AvatarSize size) throws IdentityStorageException {
+
+    ProfileEntity profileEntity;
+    try {
+      profileEntity = _findById(IdentityEntity.class, identity.getId()).getProfile();
+    }
+    catch (NodeNotFoundException e) {
+      throw new IdentityStorageException(IdentityStorageException.Type.FAIL_TO_FIND_IDENTITY_BY_NODE_ID,
+                                         e.getMessage(), e);
+    }
+    NTFile avatarFile = profileEntity == null ? null : profileEntity.getAvatar();
+    if (avatarFile == null) {
+      return null;
+    }
+
+    //
+    byte[] imageBytes;
+    String mimeType;
+    try {
+      Node content = (Node) getSession().getJCRSession().getItem(getSession().getPath(avatarFile) + "/jcr:content");
+      mimeType = content.getProperty("jcr:mimeType").getString();
+      imageBytes = readBytes(content.getProperty("jcr:data").getStream());
+    }
+    catch (Exception e) {
+      LOG.warn("Failed to read the avatar of the identity " + identity.getId(), e);
+      return null;
+    }
+    long lastModified = avatarFile.getLastModified().getTime();
+
+    //
+    AvatarAttachment avatar = null;
+    if (size.getWidth() > 0) {
+      List<AvatarAttachment> avatars = ImageUtils.createSquareAvatarAttachments(new ByteArrayInputStream(imageBytes),
+                                                                               identity.getId(), null, mimeType, null,
+                                                                               size.getWidth());
+      avatar = avatars == null ? null : avatars.get(0);
+    }
+    if (avatar == null) {
+      avatar = new AvatarAttachment();
+      avatar.setId(identity.getId());
+      avatar.setMimeType(mimeType);
+      avatar.setImageBytes(imageBytes);
+    }
+    avatar.setLastModified(lastModified);
+    return avatar;
+  }
+
+  private static byte[] readBytes(InputStream input) throws IOException {
+    try {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = input.read(buffer)) != -1) {
+        output.write(buffer, 0, read);
+      }
+      return output.toByteArray();
+    }
+    finally {
+      input.close();
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -984,6 +1442,258 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public IdentityStatus getIdentityStatus(final String providerId, final String remoteId) throws IdentityStorageException {
+    try {
+      IdentityEntity identityEntity = _findIdentityEntity(providerId, remoteId);
+      return new IdentityStatus(identityEntity.getId(),
+                                Boolean.TRUE.equals(identityEntity.isDeleted()),
+                                _getMixin(identityEntity, DisabledEntity.class, false) == null);
+    }
+    catch (NodeNotFoundException e) {
+      return IdentityStatus.NOT_FOUND;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<Identity> findIdentitiesByIds(final Collection<String> ids) throws IdentityStorageException {
+    Map<String, Identity> found = new HashMap<String, Identity>();
+    List<String> distinctIds = new ArrayList<String>(new LinkedHashSet<String>(ids));
+    for (int i = 0; i < distinctIds.size(); i += FIND_IDENTITIES_BATCH_SIZE) {
+      List<String> batch = distinctIds.subList(i, Math.min(i + FIND_IDENTITIES_BATCH_SIZE, distinctIds.size()));
+      WhereExpression whereExpression = new WhereExpression();
+      whereExpression.startGroup();
+      for (int j = 0; j < batch.size(); ++j) {
+        if (j > 0) {
+          whereExpression.or();
+        }
+        whereExpression.equals(JCRProperties.id, batch.get(j));
+      }
+      whereExpression.endGroup();
+
+      for (Identity identity : findIdentities(whereExpression)) {
+        found.put(identity.getId(), identity);
+      }
+    }
+    return sortIdentities(ids, found);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<Identity> findIdentities(final String providerId, final Collection<String> remoteIds)
+      throws IdentityStorageException {
+    ProviderEntity providerEntity = getProviderRoot().getProviders().get(providerId);
+    if (providerEntity == null) {
+      return new ArrayList<Identity>();
+    }
+
+    Map<String, Identity> found = new HashMap<String, Identity>();
+    List<String> distinctIds = new ArrayList<String>(new LinkedHashSet<String>(remoteIds));
+    for (int i = 0; i < distinctIds.size(); i += FIND_IDENTITIES_BATCH_SIZE) {
+      List<String> batch = distinctIds.subList(i, Math.min(i + FIND_IDENTITIES_BATCH_SIZE, distinctIds.size()));
+      WhereExpression whereExpression = new WhereExpression();
+      whereExpression
+          .like(JCRProperties.path, providerEntity.getPath() + StorageUtils.SLASH_STR + StorageUtils.PERCENT_STR)
+          .and()
+          .startGroup();
+      for (int j = 0; j < batch.size(); ++j) {
+        if (j > 0) {
+          whereExpression.or();
+        }
+        whereExpression.equals(IdentityEntity.remoteId, batch.get(j));
+      }
+      whereExpression.endGroup();
+
+      for (Identity identity : findIdentities(whereExpression)) {
+        found.put(identity.getRemoteId(), identity);
+      }
+    }
+    return sortIdentities(remoteIds, found);
+  }
+
+  private List<Identity> findIdentities(final WhereExpression whereExpression) {
+    QueryBuilder<IdentityEntity> builder = getSession().createQueryBuilder(IdentityEntity.class);
+    builder.where(whereExpression.toString());
+
+    List<Identity> identities = new ArrayList<Identity>();
+    QueryResult<IdentityEntity> results = builder.get().objects();
+    while (results.hasNext()) {
+      IdentityEntity identityEntity = results.next();
+      Identity identity = new Identity(identityEntity.getId());
+      identity.setDeleted(Boolean.TRUE.equals(identityEntity.isDeleted()));
+      identity.setRemoteId(identityEntity.getRemoteId());
+      identity.setProviderId(identityEntity.getProviderId());
+      identity.setEnable(_getMixin(identityEntity, DisabledEntity.class, false) == null);
+      identities.add(identity);
+    }
+    return identities;
+  }
+
+  private static List<Identity> sortIdentities(final Collection<String> keys, final Map<String, Identity> identities) {
+    List<Identity> sorted = new ArrayList<Identity>(identities.size());
+    Set<String> added = new HashSet<String>();
+    for (String key : keys) {
+      Identity identity = identities.get(key);
+      if (identity != null && added.add(key)) {
+        sorted.add(identity);
+      }
+    }
+    return sorted;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public Map<String, Integer> getProfileHashes(final String providerId, final String... properties)
+      throws IdentityStorageException {
+
+    Map<String, Integer> hashes = new HashMap<String, Integer>();
+    ProviderEntity providerEntity = getProviderRoot().getProviders().get(providerId);
+    if (providerEntity == null) {
+      return hashes;
+    }
+
+    QueryBuilder<ProfileEntity> builder = getSession().createQueryBuilder(ProfileEntity.class);
+    WhereExpression whereExpression = new WhereExpression();
+    whereExpression
+        .like(JCRProperties.path, providerEntity.getPath() + StorageUtils.SLASH_STR + StorageUtils.PERCENT_STR)
+        .and()
+        .not().equals(ProfileEntity.deleted, "true");
+    builder.where(whereExpression.toString());
+
+    QueryResult<ProfileEntity> results = builder.get().objects();
+    String[] values = new String[properties.length];
+    while (results.hasNext()) {
+      ProfileEntity profileEntity = results.next();
+      if (isSearchable(profileEntity)) {
+        for (int i = 0; i < properties.length; ++i) {
+          values[i] = getPropertyFirst(profileEntity, PropNs.VOID.nameOf(properties[i]));
+        }
+        hashes.put(profileEntity.getIdentity().getRemoteId(), Arrays.hashCode(values));
+      }
+    }
+    return hashes;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public int syncProfiles(final List<Profile> profiles) throws IdentityStorageException {
+
+    int created = 0;
+    List<ProfileEntity> profileEntities = new ArrayList<ProfileEntity>(profiles.size());
+    for (Profile profile : profiles) {
+      Identity identity = profile.getIdentity();
+      ProviderEntity providerEntity = getProviderRoot().getProvider(identity.getProviderId());
+      IdentityEntity identityEntity = providerEntity.getIdentities().get(identity.getRemoteId());
+      if (identityEntity == null) {
+        if (!identity.isEnable()) {
+          continue;
+        }
+        identityEntity = providerEntity.createIdentity();
+        providerEntity.getIdentities().put(identity.getRemoteId(), identityEntity);
+        identityEntity.setProviderId(identity.getProviderId());
+        identityEntity.setRemoteId(identity.getRemoteId());
+        identityEntity.setDeleted(false);
+        ++created;
+      } else if (Boolean.TRUE.equals(identityEntity.isDeleted())) {
+        continue;
+      }
+      identity.setId(identityEntity.getId());
+
+      //
+      ProfileEntity profileEntity = identityEntity.getProfile();
+      if (profileEntity == null) {
+        profileEntity = identityEntity.createProfile();
+        identityEntity.setProfile(profileEntity);
+        profileEntity.setActivityProfile(profileEntity.createActivityProfile());
+        profileEntity.setParentId(identityEntity.getId());
+        profileEntity.setCreatedTime(System.currentTimeMillis());
+      }
+      profile.setId(profileEntity.getId());
+      for (Map.Entry<String, Object> property : profile.getProperties().entrySet()) {
+        Object value = property.getValue();
+        if ((value == null || value instanceof String) && isJcrProperty(property.getKey())) {
+          List<String> lvalue = null;
+          if (value != null) {
+            lvalue = new ArrayList<String>();
+            lvalue.add((String) value);
+          }
+          profileEntity.setProperty(PropNs.VOID.nameOf(property.getKey()), lvalue);
+        }
+      }
+
+      //
+      if (identity.isEnable()) {
+        _removeMixin(identityEntity, DisabledEntity.class);
+      } else {
+        _getMixin(identityEntity, DisabledEntity.class, true);
+      }
+      profileEntities.add(profileEntity);
+    }
+
+    //
+    getSession().save();
+
+    //
+    for (ProfileEntity profileEntity : profileEntities) {
+      if (OrganizationIdentityProvider.NAME.equals(profileEntity.getIdentity().getProviderId())) {
+        updateNameIndex(profileEntity);
+        updateProfileSearchIndex(profileEntity);
+      }
+    }
+
+    //
+    LOG.debug(String.format("%d profiles synchronized, %d identities created", profileEntities.size(), created));
+
+    return created;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<String> filterIdentityIds(final ProfileFilter profileFilter, final Collection<String> identityIds)
+      throws IdentityStorageException {
+
+    if (IdentityNameIndex.isNameFilter(profileFilter)) {
+      return loadNameIndex() ? nameIndex.filter(profileFilter.getName(), identityIds) : null;
+    }
+
+    // the search index applies the excluded identities, which the relationship queries ignore
+    List<Identity> excludedIdentityList = profileFilter.getExcludedIdentityList();
+    if (excludedIdentityList != null && !excludedIdentityList.isEmpty()) {
+      return null;
+    }
+    ProfileSearchIndex index = getProfileSearchIndex(OrganizationIdentityProvider.NAME, profileFilter);
+    if (index == null || !loadNameIndex()) {
+      return null;
+    }
+    // sorted by full name by the name index, which must know all the identities
+    List<String> known = nameIndex.filter("", identityIds);
+    if (known == null) {
+      return null;
+    }
+    try {
+      Set<String> found = new HashSet<String>(index.search(OrganizationIdentityProvider.NAME, profileFilter, 0, -1));
+      List<String> ids = new ArrayList<String>();
+      for (String identityId : known) {
+        if (found.contains(identityId)) {
+          ids.add(identityId);
+        }
+      }
+      return ids;
+    } catch (Exception e) {
+      LOG.warn("Failed to search the profile search index, the identities are searched in JCR", e);
+      return null;
+    }
+
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -1015,14 +1725,7 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
    */
   public int getIdentitiesCount(final String providerId) throws IdentityStorageException {
     ProviderEntity providerEntity = getProviderRoot().getProviders().get(providerId);
-    Iterator<IdentityEntity> iter = providerEntity.getIdentities().values().iterator();
-    int number = 0;
-    while (iter.hasNext()) {
-      if (_getMixin(iter.next(), DisabledEntity.class, false) == null) {
-        ++number;
-      }
-    }
-    return number;
+    return providerEntity.getIdentities().size() - getDisabledIdentityIds(providerId).size();
   }
   
   /**
@@ -1037,6 +1740,16 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
       offset = 0;
     }
 
+    //
+    ProfileSearchIndex index = getProfileSearchIndex(providerId, profileFilter);
+    if (index != null) {
+      try {
+        return loadIndexedIdentities(index.search(providerId, profileFilter, offset, limit), profileFilter);
+      } catch (Exception e) {
+        LOG.warn("Failed to search the profile search index, the identities are searched in JCR", e);
+      }
+    }
+
     String inputName = profileFilter.getName().replace(StorageUtils.ASTERISK_STR, StorageUtils.PERCENT_STR);
     StorageUtils.processUsernameSearchPattern(inputName.trim());
     List<Identity> excludedIdentityList = profileFilter.getExcludedIdentityList();
@@ -1069,7 +1782,7 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
       if (! identity.isEnable()) {
         continue;
       }
-      Profile profile = getStorage().loadProfile(new Profile(identity));
+      Profile profile = loadProfile(identity, profileFilter);
       identity.setProfile(profile);
       listIdentity.add(identity);
 
@@ -1090,6 +1803,12 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
       offset = 0;
     }
 
+    //
+    if (OrganizationIdentityProvider.NAME.equals(providerId) && IdentityNameIndex.isIndexable(profileFilter)
+        && loadNameIndex()) {
+      return getIdentitiesForMentionsFromIndex(profileFilter, offset, limit);
+    }
+
     QueryBuilder<ProfileEntity> builder = getSession().createQueryBuilder(ProfileEntity.class);
     WhereExpression whereExpression = new WhereExpression();
 
@@ -1126,7 +1845,7 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
       if (! identity.isEnable()) {
         continue;
       }
-      Profile profile = getStorage().loadProfile(new Profile(identity));
+      Profile profile = loadProfile(identity, profileFilter);
       identity.setProfile(profile);
       
       identityResult.add(identity);
@@ -1141,6 +1860,45 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
 
     return identityResult.result();
   }
+
+  /**
+   * Gets the identities of the organization provider which names contain the name of the filter from the name index.
+   * The profiles are checked once loaded, the index may miss a change done on another cluster node.
+   */
+  private List<Identity> getIdentitiesForMentionsFromIndex(ProfileFilter profileFilter, long offset, long limit) {
+
+    Set<String> excludedIds = new HashSet<String>();
+    for (Identity excluded : profileFilter.getExcludedIdentityList()) {
+      excludedIds.add(excluded.getId());
+    }
+
+    //
+    IdentityResult identityResult = new IdentityResult(offset, limit, nameIndex.size());
+    Iterator<String> identityIds = nameIndex.find(profileFilter.getName(), excludedIds);
+    while (identityResult.addMore() && identityIds.hasNext()) {
+      String identityId = identityIds.next();
+      Identity identity = getStorage().findIdentityById(identityId);
+      if (identity == null) {
+        nameIndex.remove(identityId);
+        continue;
+      }
+      if (identity.isDeleted() || !identity.isEnable()) {
+        continue;
+      }
+      Profile profile = loadProfile(identity, profileFilter);
+      String firstName = (String) profile.getProperty(Profile.FIRST_NAME);
+      String lastName = (String) profile.getProperty(Profile.LAST_NAME);
+      String fullName = (String) profile.getProperty(Profile.FULL_NAME);
+      if (!IdentityNameIndex.matches(profileFilter.getName(), firstName, lastName, fullName)) {
+        nameIndex.put(identityId, firstName, lastName, fullName);
+        continue;
+      }
+      identity.setProfile(profile);
+      identityResult.add(identity);
+    }
+
+    return identityResult.result();
+  }
   
 
   /**
@@ -1179,7 +1937,7 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
       if (! identity.isEnable()) {
         continue;
       }
-      Profile profile = getStorage().loadProfile(new Profile(identity));
+      Profile profile = loadProfile(identity, profileFilter);
       identity.setProfile(profile);
       listIdentity.add(identity);
 
@@ -1194,9 +1952,18 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
   public int getIdentitiesByProfileFilterCount(final String providerId, final ProfileFilter profileFilter)
       throws IdentityStorageException {
 
+    //
+    ProfileSearchIndex index = getProfileSearchIndex(providerId, profileFilter);
+    if (index != null) {
+      try {
+        return index.count(providerId, profileFilter);
+      } catch (Exception e) {
+        LOG.warn("Failed to search the profile search index, the identities are searched in JCR", e);
+      }
+    }
+
     List<Identity> excludedIdentityList = profileFilter.getExcludedIdentityList();
 
-    QueryBuilder<ProfileEntity> builder = getSession().createQueryBuilder(ProfileEntity.class);
     WhereExpression whereExpression = new WhereExpression();
 
     whereExpression
@@ -1208,27 +1975,64 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
     StorageUtils.applyExcludes(whereExpression, excludedIdentityList);
     StorageUtils.applyFilter(whereExpression, profileFilter);
 
-    builder.where(whereExpression.toString());
+    return getCountFromQuery(providerId, whereExpression);
 
-    QueryResult<ProfileEntity> results = builder.get().objects();
+  }
 
-    return getCountFromQueryResult(results);
+  /**
+   * Counts the profiles of the enabled identities matching a where expression from the hit count of the JCR index,
+   * without loading the profiles. The profiles of the disabled identities, which are few, are counted apart and
+   * subtracted.
+   */
+  private int getCountFromQuery(final String providerId, final WhereExpression whereExpression) {
+    String where = whereExpression.toString();
+    int count = countProfiles(where);
+
+    List<String> disabledIds = count > 0 ? getDisabledIdentityIds(providerId) : Collections.<String>emptyList();
+    for (int i = 0; i < disabledIds.size() && count > 0; i += COUNT_DISABLED_BATCH_SIZE) {
+      List<String> batch = disabledIds.subList(i, Math.min(i + COUNT_DISABLED_BATCH_SIZE, disabledIds.size()));
+      WhereExpression disabledExpression = new WhereExpression();
+      disabledExpression.startGroup();
+      for (int j = 0; j < batch.size(); ++j) {
+        if (j > 0) {
+          disabledExpression.or();
+        }
+        disabledExpression.equals(ProfileEntity.parentId, batch.get(j));
+      }
+      disabledExpression.endGroup();
+      count -= countProfiles("(" + where + ") AND " + disabledExpression.toString());
+    }
+
+    return count;
+  }
 
+  private int countProfiles(final String where) {
+    QueryBuilder<ProfileEntity> builder = getSession().createQueryBuilder(ProfileEntity.class);
+    builder.where(where);
+    return builder.get().objects().size();
   }
 
-  private int getCountFromQueryResult(QueryResult<ProfileEntity> results) {
-    int count = 0;
+  /**
+   * Gets the ids of the disabled identities of a provider.
+   */
+  private List<String> getDisabledIdentityIds(final String providerId) {
+    QueryBuilder<IdentityEntity> builder = getSession().createQueryBuilder(IdentityEntity.class);
+    WhereExpression whereExpression = new WhereExpression();
+
+    whereExpression
+        .like(JCRProperties.path, getProviderRoot().getProviders().get(
+                                                    providerId).getPath() + StorageUtils.SLASH_STR + StorageUtils.PERCENT_STR)
+        .and()
+        .equals(JCRProperties.mixinTypes, JCRProperties.IS_DISABLED_NODE_TYPE);
+
+    builder.where(whereExpression.toString());
+
+    List<String> ids = new ArrayList<String>();
+    QueryResult<IdentityEntity> results = builder.get().objects();
     while (results.hasNext()) {
-      ProfileEntity profileEntity = results.next();
-      
-      //ignore if the user is disabled
-      if (_getMixin(profileEntity.getIdentity(), DisabledEntity.class, false) != null) {
-        continue;
-      }
-      
-      count++;
+      ids.add(results.next().getId());
     }
-    return count;
+    return ids;
   }
   
   /**
@@ -1237,9 +2041,18 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
   public int getIdentitiesByFirstCharacterOfNameCount(final String providerId, final ProfileFilter profileFilter)
       throws IdentityStorageException {
 
+    //
+    ProfileSearchIndex index = getProfileSearchIndex(providerId, profileFilter);
+    if (index != null) {
+      try {
+        return index.count(providerId, profileFilter);
+      } catch (Exception e) {
+        LOG.warn("Failed to search the profile search index, the identities are searched in JCR", e);
+      }
+    }
+
     List<Identity> excludedIdentityList = profileFilter.getExcludedIdentityList();
 
-    QueryBuilder<ProfileEntity> builder = getSession().createQueryBuilder(ProfileEntity.class);
     WhereExpression whereExpression = new WhereExpression();
 
     whereExpression
@@ -1250,11 +2063,7 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
     StorageUtils.applyExcludes(whereExpression, excludedIdentityList);
     StorageUtils.applyFilter(whereExpression, profileFilter);
 
-    builder.where(whereExpression.toString());
-    
-    QueryResult<ProfileEntity> results = builder.get().objects();
-    
-    return getCountFromQueryResult(results);
+    return getCountFromQuery(providerId, whereExpression);
   }
 
   /**
@@ -1263,6 +2072,15 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
   public List<Identity> getIdentitiesByFirstCharacterOfName(final String providerId, final ProfileFilter profileFilter,
       long offset, long limit, boolean forceLoadOrReloadProfile) throws IdentityStorageException {
 
+    //
+    ProfileSearchIndex index = getProfileSearchIndex(providerId, profileFilter);
+    if (index != null) {
+      try {
+        return loadIndexedIdentities(index.search(providerId, profileFilter, offset, limit), profileFilter);
+      } catch (Exception e) {
+        LOG.warn("Failed to search the profile search index, the identities are searched in JCR", e);
+      }
+    }
 
     //
     QueryBuilder<ProfileEntity> builder = getSession().createQueryBuilder(ProfileEntity.class);
@@ -1299,7 +2117,7 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
       if (! identity.isEnable()) {
         continue;
       }
-      Profile profile = getStorage().loadProfile(new Profile(identity));
+      Profile profile = loadProfile(identity, profileFilter);
       identity.setProfile(profile);
       
       identityResult.add(identity);
@@ -1379,7 +2197,7 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
       if (! identity.isEnable()) {
         continue;
       }
-      Profile profile = getStorage().loadProfile(new Profile(identity));
+      Profile profile = loadProfile(identity, profileFilter);
       identity.setProfile(profile);
       listIdentity.add(identity);
     }
@@ -1442,6 +2260,9 @@ public class IdentityStorageImpl extends AbstractStorage implements IdentityStor
         _getMixin(identityEntity, DisabledEntity.class, true);
       }
       getSession().save();
+      if (OrganizationIdentityProvider.NAME.equals(identityEntity.getProviderId()) && identityEntity.getProfile() != null) {
+        updateProfileSearchIndex(identityEntity.getProfile());
+      }
     } catch (Exception e) {
       LOG.warn(String.format("Process enable identity of user %s unsuccessfully.", identity.getRemoteId()));
       LOG.debug(e.getMessage(), e);
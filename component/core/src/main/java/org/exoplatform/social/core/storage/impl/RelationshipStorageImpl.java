@@ -48,6 +48,7 @@ import org.exoplatform.services.log.Log;
 import org.exoplatform.social.core.chromattic.entity.DisabledEntity;
 import org.exoplatform.social.core.chromattic.entity.IdentityEntity;
 import org.exoplatform.social.core.chromattic.entity.ProfileEntity;
+import org.exoplatform.social.core.chromattic.entity.ProviderEntity;
 import org.exoplatform.social.core.chromattic.entity.RelationshipEntity;
 import org.exoplatform.social.core.chromattic.entity.RelationshipListEntity;
 import org.exoplatform.social.core.identity.model.Identity;
@@ -63,9 +64,12 @@ import org.exoplatform.social.core.storage.api.ActivityStorage;
 import org.exoplatform.social.core.storage.api.IdentityStorage;
 import org.exoplatform.social.core.storage.api.RelationshipStorage;
 import org.exoplatform.social.core.storage.cache.CachedActivityStorage;
+import org.exoplatform.social.core.storage.cache.model.data.RelationshipGraphData;
+import org.exoplatform.social.core.storage.cache.model.key.RelationshipType;
 import org.exoplatform.social.core.storage.exception.NodeNotFoundException;
 import org.exoplatform.social.core.storage.query.JCRProperties;
 import org.exoplatform.social.core.storage.query.WhereExpression;
+import org.exoplatform.social.core.storage.streams.ConnectionStreamUpdater;
 import org.exoplatform.social.core.storage.streams.StreamInvocationHelper;
 
 /**
@@ -104,6 +108,10 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
     return activityStorage;
   }
   
+  private ConnectionStreamUpdater getConnectionStreamUpdater() {
+    return CommonsUtils.getService(ConnectionStreamUpdater.class);
+  }
+
   private void clearActivityStorageCache() {
     if (getCachedActivityStorage() instanceof CachedActivityStorage) {
       ((CachedActivityStorage) getCachedActivityStorage()).clearCache();
@@ -288,10 +296,20 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
                                                         final long offset, final long limit) {
     
     if (relations.isEmpty()) return new ArrayList<Identity>();
-    
+
+    //
+    List<Identity> filtered = filterRelations(relations, filter);
+    if (filtered != null) {
+      if (offset >= filtered.size()) {
+        return new ArrayList<Identity>();
+      }
+      int from = (int) Math.max(0, offset);
+      int to = limit <= 0 ? filtered.size() : (int) Math.min(filtered.size(), from + limit);
+      return new ArrayList<Identity>(filtered.subList(from, to));
+    }
+
     //
     List<Identity> found = new ArrayList<Identity>();
-    if(relations.isEmpty()) return found ;
     QueryBuilder<ProfileEntity> builder = getSession().createQueryBuilder(ProfileEntity.class);
     WhereExpression whereExpression = new WhereExpression();
     StorageUtils.applyWhereFromIdentity(whereExpression, relations);
@@ -328,6 +346,12 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
       return 0;
     }
 
+    //
+    List<Identity> filtered = filterRelations(relations, filter);
+    if (filtered != null) {
+      return filtered.size();
+    }
+
     //
     QueryBuilder<ProfileEntity> builder = getSession().createQueryBuilder(ProfileEntity.class);
 
@@ -350,6 +374,32 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
     return number;
   }
 
+  /**
+   * Filters relations in memory, by intersecting the identities found by the identity indexes with the relations, so
+   * that no query with one condition per relation is needed.
+   *
+   * @return the relations matching the filter sorted by full name, null if the filter must be applied by a query
+   */
+  private List<Identity> filterRelations(final List<Identity> relations, final ProfileFilter filter) {
+
+    Map<String, Identity> relationsById = new HashMap<String, Identity>();
+    for (Identity relation : relations) {
+      relationsById.put(relation.getId(), relation);
+    }
+    List<String> ids = identityStorage.filterIdentityIds(filter, relationsById.keySet());
+    if (ids == null) {
+      return null;
+    }
+
+    //
+    List<Identity> found = new ArrayList<Identity>(ids.size());
+    for (String id : ids) {
+      found.add(relationsById.get(id));
+    }
+    return found;
+
+  }
+
   private RelationshipStorage getStorage() {
     return (relationshipStorage != null ? relationshipStorage : this);
   }
@@ -359,6 +409,39 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
    */
 
   protected RelationshipEntity _createRelationship(final Relationship relationship) throws NodeNotFoundException {
+
+    RelationshipEntity createdRelationship = createRelationshipEntities(relationship);
+    RelationshipEntity symmetricalRelationship = createdRelationship.getReciprocal();
+
+    getSession().save();
+
+    //
+    LOG.debug(String.format(
+        "Relationship from %s:%s to %s:%s created (%s)",
+        createdRelationship.getFrom().getProviderId(),
+        createdRelationship.getFrom().getRemoteId(),
+        createdRelationship.getTo().getProviderId(),
+        createdRelationship.getTo().getRemoteId(),
+        createdRelationship.getPath()
+    ));
+
+    //
+    LOG.debug(String.format(
+        "Symmetrical relationship from %s:%s to %s:%s created (%s)",
+        symmetricalRelationship.getFrom().getProviderId(),
+        symmetricalRelationship.getFrom().getRemoteId(),
+        symmetricalRelationship.getTo().getProviderId(),
+        symmetricalRelationship.getTo().getRemoteId(),
+        symmetricalRelationship.getPath()
+    ));
+
+    return createdRelationship;
+  }
+
+  /**
+   * Creates the relationship nodes of both identities, without saving the session.
+   */
+  private RelationshipEntity createRelationshipEntities(final Relationship relationship) throws NodeNotFoundException {
     String identityId1 = relationship.getSender().getId();
     String identityId2 = relationship.getReceiver().getId();
 
@@ -419,27 +502,8 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
 
     relationship.setId(createdRelationship.getId());
 
-    getSession().save();
-
-    //
-    LOG.debug(String.format(
-        "Relationship from %s:%s to %s:%s created (%s)",
-        createdRelationship.getFrom().getProviderId(),
-        createdRelationship.getFrom().getRemoteId(),
-        createdRelationship.getTo().getProviderId(),
-        createdRelationship.getTo().getRemoteId(),
-        createdRelationship.getPath()
-    ));
-
-    //
-    LOG.debug(String.format(
-        "Symmetrical relationship from %s:%s to %s:%s created (%s)",
-        symmetricalRelationship.getFrom().getProviderId(),
-        symmetricalRelationship.getFrom().getRemoteId(),
-        symmetricalRelationship.getTo().getProviderId(),
-        symmetricalRelationship.getTo().getRemoteId(),
-        symmetricalRelationship.getPath()
-    ));
+    updateRelationshipCount(createdRelationship.getParent(), 1);
+    updateRelationshipCount(symmetricalRelationship.getParent(), 1);
 
     return createdRelationship;
   }
@@ -455,6 +519,9 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
     savedRelationship.setStatus(relationship.getStatus().toString());
     symmetricalRelationship.setStatus(relationship.getStatus().toString());
 
+    RelationshipListEntity savedList = savedRelationship.getParent();
+    RelationshipListEntity symmetricalList = symmetricalRelationship.getParent();
+
     switch (relationship.getStatus()) {
       case PENDING:
 
@@ -464,6 +531,9 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
 
         symmetricalRelationship.getParent().getParent().getReceiver().getRelationships()
             .put(symmetricalRelationship.getName(), symmetricalRelationship);
+
+        moveRelationshipCount(savedList, savedList.getParent().getSender());
+        moveRelationshipCount(symmetricalList, symmetricalList.getParent().getReceiver());
         
         break;
       case CONFIRMED:
@@ -481,11 +551,16 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
 
         symmetricalRelationship.getParent().getParent().getRelationship().getRelationships()
             .put(symmetricalRelationship.getName(), symmetricalRelationship);
+
+        moveRelationshipCount(savedList, savedList.getParent().getRelationship());
+        moveRelationshipCount(symmetricalList, symmetricalList.getParent().getRelationship());
+
+        // the connection is created when it is confirmed
+        long confirmedTimeStamp = System.currentTimeMillis();
+        savedRelationship.setCreatedTime(confirmedTimeStamp);
+        symmetricalRelationship.setCreatedTime(confirmedTimeStamp);
         
-        updateRelationshipStatistic(sender, true);
-        updateRelationshipStatistic(receiver, true);
-        
-        StreamInvocationHelper.connect(relationship.getSender(), relationship.getReceiver());
+        connectStreams(relationship.getSender(), relationship.getReceiver());
         
         break;
       
@@ -517,32 +592,140 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
     return savedRelationship;
   }
   
+  private void connectStreams(Identity sender, Identity receiver) {
+    ConnectionStreamUpdater streamUpdater = getConnectionStreamUpdater();
+    if (streamUpdater != null) {
+      streamUpdater.connect(sender, receiver);
+    } else {
+      StreamInvocationHelper.connect(sender, receiver);
+    }
+  }
+
+  /**
+   * Gets the name of the property of an identity which counts the relationships of one of its lists.
+   *
+   * @param list the relationship list
+   * @return the property name, null for an unknown list
+   */
+  private static String getCountParam(RelationshipListEntity list) {
+    String name = list.getName();
+    if ("relationship".equals(name)) {
+      return IdentityEntity.RELATIONSHIP_NUMBER_PARAM;
+    } else if ("sender".equals(name)) {
+      return IdentityEntity.SENDER_NUMBER_PARAM;
+    } else if ("receiver".equals(name)) {
+      return IdentityEntity.RECEIVER_NUMBER_PARAM;
+    } else if ("ignore".equals(name)) {
+      return IdentityEntity.IGNORE_NUMBER_PARAM;
+    } else if ("ignored".equals(name)) {
+      return IdentityEntity.IGNORED_NUMBER_PARAM;
+    }
+    return null;
+  }
+
+  /**
+   * Updates the counter of a relationship list in the same session as the change of the list. A counter which does not
+   * exist yet is left as is, the list is counted the first time the counter is read.
+   *
+   * @param list the relationship list
+   * @param delta the number of relationships added, or removed if negative
+   */
+  private void updateRelationshipCount(RelationshipListEntity list, int delta) {
+    String param = getCountParam(list);
+    IdentityEntity owner = list.getParent();
+    if (param == null || !owner.hasProperty(param)) {
+      return;
+    }
+    int count = parseCount(owner.getProperty(param));
+    if (count < 0) {
+      // unreadable, counted again on the next read
+      owner.getProperties().remove(param);
+      return;
+    }
+    owner.setProperty(param, String.valueOf(Math.max(0, count + delta)));
+  }
+
+  /**
+   * Moves a relationship from the counter of a list to the one of another list of the same identity.
+   */
+  private void moveRelationshipCount(RelationshipListEntity from, RelationshipListEntity to) {
+    if (!from.getName().equals(to.getName())) {
+      updateRelationshipCount(from, -1);
+      updateRelationshipCount(to, 1);
+    }
+  }
+
   /**
-   * Updates the relationship statistic for the given user. 
-   * 
+   * Gets the number of relationships of a list of an identity from its counter. The counter is initialized from the
+   * list the first time, loading its relationships once.
+   *
    * @param identityEntity the identity
-   * @param isIncreaseCount determines the increase or decrease
-   * @throws NodeNotFoundException
+   * @param list the relationship list of the identity
+   * @return the number of relationships of the list
    */
-  private void updateRelationshipStatistic(IdentityEntity identityEntity, boolean isIncreaseCount) {
-    int newValue = 0;
-    if (identityEntity.hasProperty(IdentityEntity.RELATIONSHIP_NUMBER_PARAM)) {
-      String value = identityEntity.getProperties().get(IdentityEntity.RELATIONSHIP_NUMBER_PARAM);
-      newValue = Integer.valueOf(value);
-      if (isIncreaseCount) {
-        newValue++;
-      } else {
-        newValue--;
-      }
-    } else {
-      if (isIncreaseCount) {
-        newValue = 1;
+  private int getRelationshipCount(IdentityEntity identityEntity, RelationshipListEntity list) {
+    String param = getCountParam(list);
+    int count = parseCount(identityEntity.getProperty(param));
+    if (count < 0) {
+      count = list.getRelationships().size();
+      identityEntity.setProperty(param, String.valueOf(count));
+      getSession().save();
+    }
+    return count;
+  }
+
+  private static int parseCount(String value) {
+    if (value == null) {
+      return -1;
+    }
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Recomputes the relationship counters of a page of identities of the organization provider from their relationship
+   * lists, with one save for the page. It repairs the counters written by older versions, which did not count all the
+   * changes.
+   *
+   * @param offset the index of the first identity
+   * @param limit the maximum number of identities
+   * @return the number of identities processed, less than the limit once the last page is reached
+   * @throws RelationshipStorageException
+   * @since 4.4
+   */
+  public int recountRelationships(final long offset, final long limit) throws RelationshipStorageException {
+
+    ProviderEntity providerEntity = getProviderRoot().getProviders().get(OrganizationIdentityProvider.NAME);
+    if (providerEntity == null) {
+      return 0;
+    }
+
+    //
+    QueryBuilder<IdentityEntity> builder = getSession().createQueryBuilder(IdentityEntity.class);
+    WhereExpression whereExpression = new WhereExpression();
+    whereExpression.like(JCRProperties.path,
+                         providerEntity.getPath() + StorageUtils.SLASH_STR + StorageUtils.PERCENT_STR);
+    builder.where(whereExpression.toString());
+
+    QueryResult<IdentityEntity> results = builder.get().objects(offset, limit);
+    int processed = 0;
+    while (results.hasNext()) {
+      IdentityEntity identityEntity = results.next();
+      for (RelationshipListEntity list : new RelationshipListEntity[] {
+          identityEntity.getRelationship(), identityEntity.getSender(), identityEntity.getReceiver(),
+          identityEntity.getIgnore(), identityEntity.getIgnored() }) {
+        if (list != null) {
+          identityEntity.setProperty(getCountParam(list), String.valueOf(list.getRelationships().size()));
+        }
       }
+      ++processed;
     }
-    
-    identityEntity.setProperty(IdentityEntity.RELATIONSHIP_NUMBER_PARAM, String.valueOf(newValue));
+    getSession().save();
 
-    
+    return processed;
   }
 
   protected List<Relationship> _getSenderRelationships(
@@ -726,6 +909,51 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
     return relationship;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public List<Relationship> confirmRelationships(final List<Relationship> relationships)
+      throws RelationshipStorageException {
+
+    List<Relationship> confirmed = new ArrayList<Relationship>();
+    try {
+      for (Relationship relationship : relationships) {
+        Relationship existing;
+        try {
+          existing = _getRelationship(relationship.getSender(), relationship.getReceiver());
+        }
+        catch (NodeNotFoundException e) {
+          existing = null;
+        }
+
+        //
+        if (existing == null) {
+          relationship.setStatus(Relationship.Type.CONFIRMED);
+          createRelationshipEntities(relationship);
+          connectStreams(relationship.getSender(), relationship.getReceiver());
+          confirmed.add(relationship);
+        }
+        else if (existing.getStatus() == Relationship.Type.PENDING) {
+          existing.setStatus(Relationship.Type.CONFIRMED);
+          _saveRelationship(existing);
+          confirmed.add(existing);
+        }
+      }
+
+      // one save for all the relationships
+      getSession().save();
+    }
+    catch (NodeNotFoundException e) {
+      throw new RelationshipStorageException(
+          RelationshipStorageException.Type.ILLEGAL_ARGUMENTS,
+          new String[] { Relationship.class.getSimpleName() });
+    }
+    //
+    clearActivityStorageCache();
+
+    return confirmed;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -737,11 +965,9 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
 
       IdentityEntity from = toDeleteRelationship.getFrom();
       IdentityEntity to = toDeleteRelationship.getTo();
-      
-      if(Relationship.Type.CONFIRMED.equals(relationship.getStatus())) {
-        updateRelationshipStatistic(from, false);
-        updateRelationshipStatistic(to, false);
-      }
+
+      updateRelationshipCount(toDeleteRelationship.getParent(), -1);
+      updateRelationshipCount(symmetricalRelationship.getParent(), -1);
 
       _removeById(RelationshipEntity.class, symmetricalRelationship.getId());
       _removeById(RelationshipEntity.class, relationship.getId());
@@ -750,7 +976,12 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
       StorageUtils.persist();
       
       //getCachedActivityStreamStorage().deleteConnect(relationship.getSender(), relationship.getReceiver());
-      StreamInvocationHelper.deleteConnect(relationship.getSender(), relationship.getReceiver());
+      ConnectionStreamUpdater streamUpdater = getConnectionStreamUpdater();
+      if (streamUpdater != null) {
+        streamUpdater.deleteConnect(relationship.getSender(), relationship.getReceiver());
+      } else {
+        StreamInvocationHelper.deleteConnect(relationship.getSender(), relationship.getReceiver());
+      }
       
       clearActivityStorageCache();
 
@@ -901,36 +1132,24 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
    * {@inheritDoc}
    */
   public List<Identity> getLastConnections(Identity identity, int limit) throws RelationshipStorageException {
+    return getLastConnections(identity, 0, limit);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<Identity> getLastConnections(Identity identity, long since, int limit)
+      throws RelationshipStorageException {
     //check the limit parameter
     if (limit <= 0) {
       return new ArrayList<Identity>();
     }
     //
-    List<Identity> identities = new ArrayList<Identity>();
-    try {
-      IdentityEntity identityEntity = _findById(IdentityEntity.class, identity.getId());
-      String relationshipNodePath = identityEntity.getPath() + StorageUtils.SLASH_STR + StorageUtils.SOC_RELATIONSHIP;
-      Node node = (Node) getSession().getJCRSession().getItem(relationshipNodePath);
-      NodeIterator iterator = AbstractService.getNodeIteratorOrderDESC(node);
-      while (iterator.hasNext() && limit > 0) {
-        Node relNode = iterator.nextNode();
-        if (relNode.getName().contains(StorageUtils.COLON_STR)) {
-          String remoteId = relNode.getName().split(StorageUtils.COLON_STR)[1];
-          Identity newIdentity = identityStorage.findIdentity(OrganizationIdentityProvider.NAME, remoteId);
-          if (newIdentity != null) {//SOC-4865 : avoid the case that user has been deleted but the relationship is kept
-            identities.add(newIdentity);
-            limit--;
-          }
-        }
-      }
-    }
-    catch (Exception e) {
-      throw new RelationshipStorageException(
-           RelationshipStorageException.Type.FAILED_TO_GET_RELATIONSHIP,
-           e.getMessage());
+    List<String> ids = getRelationshipGraph(identity).getLatestIds(since, limit, RelationshipType.CONNECTION);
+    if (ids.isEmpty()) {
+      return new ArrayList<Identity>();
     }
-
-    return identities;
+    return identityStorage.findIdentitiesByIds(ids);
   }
 
   /**
@@ -1015,8 +1234,17 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
    * {@inheritDoc}
    */
   public int getIncomingRelationshipsCount(Identity receiver) throws RelationshipStorageException {
-    //
-    return getIncomingRelationships(receiver, 0, -1).size();
+
+    try {
+      IdentityEntity receiverEntity = _findById(IdentityEntity.class, receiver.getId());
+      return getRelationshipCount(receiverEntity, receiverEntity.getReceiver());
+    }
+    catch (NodeNotFoundException e) {
+      throw new RelationshipStorageException(
+           RelationshipStorageException.Type.FAILED_TO_GET_RELATIONSHIP,
+           e.getMessage());
+    }
+
   }
 
   /**
@@ -1045,7 +1273,17 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
    * {@inheritDoc}
    */
   public int getOutgoingRelationshipsCount(Identity sender) throws RelationshipStorageException {
-    return getOutgoingRelationships(sender, 0, -1).size();
+
+    try {
+      IdentityEntity senderEntity = _findById(IdentityEntity.class, sender.getId());
+      return getRelationshipCount(senderEntity, senderEntity.getSender());
+    }
+    catch (NodeNotFoundException e) {
+      throw new RelationshipStorageException(
+           RelationshipStorageException.Type.FAILED_TO_GET_RELATIONSHIP,
+           e.getMessage());
+    }
+
   }
 
   /**
@@ -1059,10 +1297,10 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
      try {
 
        IdentityEntity identityEntity = _findById(IdentityEntity.class, identity.getId());
-       nb += identityEntity.getRelationship().getRelationships().size();
-       nb += identityEntity.getSender().getRelationships().size();
-       nb += identityEntity.getReceiver().getRelationships().size();
-       nb += identityEntity.getIgnore().getRelationships().size();
+       nb += getRelationshipCount(identityEntity, identityEntity.getRelationship());
+       nb += getRelationshipCount(identityEntity, identityEntity.getSender());
+       nb += getRelationshipCount(identityEntity, identityEntity.getReceiver());
+       nb += getRelationshipCount(identityEntity, identityEntity.getIgnore());
 
        return nb;
        
@@ -1107,18 +1345,8 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
    */
   public int getConnectionsCount(Identity identity) throws RelationshipStorageException {
     try {
-      // TODO : use property to improve the perfs
       IdentityEntity identityEntity = _findById(IdentityEntity.class, identity.getId());
-      if (identityEntity.hasProperty(IdentityEntity.RELATIONSHIP_NUMBER_PARAM)) {
-        String value = identityEntity.getProperties().get(IdentityEntity.RELATIONSHIP_NUMBER_PARAM);
-        return Integer.valueOf(value);
-      } else {
-        //
-        int totalSize = identityEntity.getRelationship().getRelationships().size();
-        identityEntity.setProperty(IdentityEntity.RELATIONSHIP_NUMBER_PARAM, String.valueOf(totalSize));
-        getSession().save();
-        return totalSize;
-      }
+      return getRelationshipCount(identityEntity, identityEntity.getRelationship());
     }
     catch (NodeNotFoundException e) {
       throw new RelationshipStorageException(RelationshipStorageException.Type.ILLEGAL_ARGUMENTS);
@@ -1320,6 +1548,150 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
     return suggestions;
   }
 
+  /**
+   * Reads the relationship graph of an identity: the ids of the enabled identities of its relationship, receiver,
+   * sender, ignore and ignored lists, in the order of the relationship nodes, and the creation times of the
+   * relationships. Only the relationship and identity nodes are read, the identities and their profiles are not loaded.
+   *
+   * @param identity the identity
+   * @return the relationship graph
+   * @throws RelationshipStorageException
+   * @since 4.4
+   */
+  public RelationshipGraphData getRelationshipGraph(final Identity identity) throws RelationshipStorageException {
+
+    try {
+      IdentityEntity identityEntity = _findById(IdentityEntity.class, identity.getId());
+      Map<String, Long> createdTimes = new HashMap<String, Long>();
+      List<String> ignored = getOtherIds(identityEntity, identityEntity.getIgnore(), createdTimes);
+      ignored.addAll(getOtherIds(identityEntity, identityEntity.getIgnored(), createdTimes));
+      return new RelationshipGraphData(getOtherIds(identityEntity, identityEntity.getRelationship(), createdTimes),
+                                       getOtherIds(identityEntity, identityEntity.getReceiver(), createdTimes),
+                                       getOtherIds(identityEntity, identityEntity.getSender(), createdTimes),
+                                       ignored,
+                                       createdTimes);
+    }
+    catch (NodeNotFoundException e) {
+      throw new RelationshipStorageException(RelationshipStorageException.Type.ILLEGAL_ARGUMENTS);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public Map<String, Relationship.Type> getRelationshipStatuses(final Identity viewer, final List<Identity> others)
+      throws RelationshipStorageException {
+
+    Map<String, Relationship.Type> statuses = new HashMap<String, Relationship.Type>();
+    if (viewer == null || others == null || others.isEmpty()) {
+      return statuses;
+    }
+    RelationshipGraphData graph = getRelationshipGraph(viewer);
+    for (Identity other : others) {
+      Relationship.Type status = graph.getStatus(other.getId());
+      if (status != null) {
+        statuses.put(other.getId(), status);
+      }
+    }
+    return statuses;
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public List<Relationship> getLastRelationships(final Identity identity, final Relationship.Type type,
+                                                 final long since, final int offset, final int limit)
+      throws RelationshipStorageException {
+
+    int from = Math.max(0, offset);
+    List<String> ids = getRelationshipGraph(identity).getLatestIds(since, limit > 0 ? from + limit : 0,
+                                                                   getGraphTypes(type));
+    return getRelationships(identity, ids.subList(Math.min(from, ids.size()), ids.size()));
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public int getLastRelationshipsCount(final Identity identity, final Relationship.Type type, final long since)
+      throws RelationshipStorageException {
+
+    return getRelationshipGraph(identity).getLatestIds(since, 0, getGraphTypes(type)).size();
+
+  }
+
+  /**
+   * Gets the relationships of an identity with some other identities, in the order of their ids. The other identities
+   * are loaded first, as the pending and ignored relationships are found by their remote ids.
+   *
+   * @param identity the identity
+   * @param ids the ids of the other identities
+   * @return the found relationships
+   */
+  private List<Relationship> getRelationships(Identity identity, List<String> ids) {
+    List<Relationship> relationships = new ArrayList<Relationship>();
+    if (ids.isEmpty()) {
+      return relationships;
+    }
+    for (Identity other : identityStorage.findIdentitiesByIds(ids)) {
+      Relationship relationship = getRelationship(identity, other);
+      if (relationship != null) {
+        relationships.add(relationship);
+      }
+    }
+    return relationships;
+  }
+
+  /**
+   * Gets the lists of the relationship graph which hold the relationships of a status.
+   *
+   * @param type the relationship status
+   * @return the relationship graph types
+   */
+  public static RelationshipType[] getGraphTypes(Relationship.Type type) {
+    switch (type) {
+      case CONFIRMED:
+        return new RelationshipType[] { RelationshipType.CONNECTION };
+      case PENDING:
+        return new RelationshipType[] { RelationshipType.INCOMMING, RelationshipType.OUTGOING };
+      case INCOMING:
+        return new RelationshipType[] { RelationshipType.INCOMMING };
+      case OUTGOING:
+        return new RelationshipType[] { RelationshipType.OUTGOING };
+      case IGNORED:
+        return new RelationshipType[] { RelationshipType.IGNORED };
+      default:
+        return new RelationshipType[] { RelationshipType.CONNECTION, RelationshipType.INCOMMING,
+                                        RelationshipType.OUTGOING };
+    }
+  }
+
+  /**
+   * Gets the ids of the other enabled identities of a relationship list. The receiver relationships may have their
+   * sender and receiver exchanged (SOC-4283), so the other identity is the one which is not the owner.
+   */
+  private List<String> getOtherIds(IdentityEntity owner, RelationshipListEntity list, Map<String, Long> createdTimes) {
+    List<String> ids = new ArrayList<String>();
+    if (list == null) {
+      return ids;
+    }
+    for (RelationshipEntity relationshipEntity : list.getRelationships().values()) {
+      IdentityEntity other = relationshipEntity.getTo();
+      if (other == null || owner.getId().equals(other.getId())) {
+        other = relationshipEntity.getFrom();
+      }
+      if (other != null && _getMixin(other, DisabledEntity.class, false) == null) {
+        ids.add(other.getId());
+        if (relationshipEntity.getCreatedTime() != null) {
+          createdTimes.put(other.getId(), relationshipEntity.getCreatedTime());
+        }
+      }
+    }
+    return ids;
+  }
+
   public void setStorage(RelationshipStorage storage) {
     this.relationshipStorage = storage;
   }
@@ -1393,16 +1765,16 @@ public class RelationshipStorageImpl extends AbstractStorage implements Relation
       switch (type) {
 
       case ALL:
-        return receiverEntity.getRelationship().getRelationships().size()
-            + receiverEntity.getReceiver().getRelationships().size()
-            + receiverEntity.getSender().getRelationships().size();
+        return getRelationshipCount(receiverEntity, receiverEntity.getRelationship())
+            + getRelationshipCount(receiverEntity, receiverEntity.getReceiver())
+            + getRelationshipCount(receiverEntity, receiverEntity.getSender());
       case CONFIRMED:
-        return receiverEntity.getRelationship().getRelationships().size();
+        return getRelationshipCount(receiverEntity, receiverEntity.getRelationship());
       case PENDING:
-        return receiverEntity.getReceiver().getRelationships().size()
-            + receiverEntity.getSender().getRelationships().size();
+        return getRelationshipCount(receiverEntity, receiverEntity.getReceiver())
+            + getRelationshipCount(receiverEntity, receiverEntity.getSender());
       case IGNORED:
-        return receiverEntity.getIgnored().getRelationships().size();
+        return getRelationshipCount(receiverEntity, receiverEntity.getIgnored());
       }
     } catch (Exception e) {
       return 0;
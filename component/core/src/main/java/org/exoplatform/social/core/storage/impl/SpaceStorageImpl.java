@@ -17,6 +17,7 @@
 
 package org.exoplatform.social.core.storage.impl;
 
+import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringEscapeUtils;
 import org.chromattic.api.ChromatticSession;
 import org.chromattic.api.query.Ordering;
@@ -27,6 +28,7 @@ import org.chromattic.core.api.ChromatticSessionImpl;
 import org.exoplatform.container.PortalContainer;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
+import org.exoplatform.services.organization.MembershipTypeHandler;
 import org.exoplatform.social.core.chromattic.entity.IdentityEntity;
 import org.exoplatform.social.core.chromattic.entity.ProviderEntity;
 import org.exoplatform.social.core.chromattic.entity.SpaceEntity;
@@ -42,6 +44,7 @@ import org.exoplatform.social.core.service.LinkProvider;
 import org.exoplatform.social.core.space.SpaceFilter;
 import org.exoplatform.social.core.space.SpaceUtils;
 import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.space.model.SpaceMembershipStatus;
 import org.exoplatform.social.core.storage.SpaceStorageException;
 import org.exoplatform.social.core.storage.api.ActivityStreamStorage;
 import org.exoplatform.social.core.storage.api.SpaceStorage;
@@ -256,6 +259,14 @@ public class SpaceStorageImpl extends AbstractStorage implements SpaceStorage {
       public void setIds(Space space, String[] ids) {
         space.setMembers(ids);
       }
+      @Override
+      public String[] idsOf(SpaceEntity spaceEntity) {
+        return spaceEntity.getMembersId();
+      }
+      @Override
+      public void setIds(SpaceEntity spaceEntity, String[] ids) {
+        spaceEntity.setMembersId(ids);
+      }
     },
     MANAGER() {
       @Override
@@ -270,6 +281,14 @@ public class SpaceStorageImpl extends AbstractStorage implements SpaceStorage {
       public void setIds(Space space, String[] ids) {
         space.setManagers(ids);
       }
+      @Override
+      public String[] idsOf(SpaceEntity spaceEntity) {
+        return spaceEntity.getManagerMembersId();
+      }
+      @Override
+      public void setIds(SpaceEntity spaceEntity, String[] ids) {
+        spaceEntity.setManagerMembersId(ids);
+      }
     },
     PENDING() {
       @Override
@@ -284,6 +303,14 @@ public class SpaceStorageImpl extends AbstractStorage implements SpaceStorage {
       public void setIds(Space space, String[] ids) {
         space.setPendingUsers(ids);
       }
+      @Override
+      public String[] idsOf(SpaceEntity spaceEntity) {
+        return spaceEntity.getPendingMembersId();
+      }
+      @Override
+      public void setIds(SpaceEntity spaceEntity, String[] ids) {
+        spaceEntity.setPendingMembersId(ids);
+      }
     },
     INVITED() {
       @Override
@@ -298,11 +325,25 @@ public class SpaceStorageImpl extends AbstractStorage implements SpaceStorage {
       public void setIds(Space space, String[] ids) {
         space.setInvitedUsers(ids);
       }
+      @Override
+      public String[] idsOf(SpaceEntity spaceEntity) {
+        return spaceEntity.getInvitedMembersId();
+      }
+      @Override
+      public void setIds(SpaceEntity spaceEntity, String[] ids) {
+        spaceEntity.setInvitedMembersId(ids);
+      }
     };
 
     public abstract SpaceListEntity refsOf(IdentityEntity identityEntity);
     public abstract String[] idsOf(Space space);
     public abstract void setIds(Space space, String[] ids);
+    public abstract String[] idsOf(SpaceEntity spaceEntity);
+    public abstract void setIds(SpaceEntity spaceEntity, String[] ids);
+
+    public static RefType of(SpaceMembershipStatus status) {
+      return valueOf(status.name());
+    }
   }
 
   private class UpdateContext {
@@ -333,9 +374,15 @@ public class SpaceStorageImpl extends AbstractStorage implements SpaceStorage {
       return l1;
     }
 
-    List<String> l = new ArrayList(Arrays.asList(l1));
-    l.removeAll(Arrays.asList(l2));
-    return l.toArray(new String[]{});
+    // a set, not the list, so that diffing the lists of a large space stays linear
+    Set<String> excluded = new HashSet<String>(Arrays.asList(l2));
+    List<String> l = new ArrayList<String>(l1.length);
+    for (String id : l1) {
+      if (!excluded.contains(id)) {
+        l.add(id);
+      }
+    }
+    return l.toArray(new String[l.size()]);
   }
 
   private void createRefs(SpaceEntity spaceEntity, Space space) throws NodeNotFoundException {
@@ -848,6 +895,132 @@ public class SpaceStorageImpl extends AbstractStorage implements SpaceStorage {
 
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public boolean addSpaceMember(Space space, String userId, SpaceMembershipStatus status) throws SpaceStorageException {
+    try {
+      SpaceEntity entity = _findById(SpaceEntity.class, space.getId());
+      if (!addId(space, entity, userId, RefType.of(status))) {
+        return false;
+      }
+      getSession().save();
+      return true;
+    }
+    catch (NodeNotFoundException e) {
+      throw new SpaceStorageException(SpaceStorageException.Type.FAILED_TO_SAVE_SPACE, e.getMessage(), e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean removeSpaceMember(Space space, String userId, SpaceMembershipStatus status) throws SpaceStorageException {
+    try {
+      SpaceEntity entity = _findById(SpaceEntity.class, space.getId());
+      if (!removeId(space, entity, userId, RefType.of(status))) {
+        return false;
+      }
+      getSession().save();
+      return true;
+    }
+    catch (NodeNotFoundException e) {
+      throw new SpaceStorageException(SpaceStorageException.Type.FAILED_TO_SAVE_SPACE, e.getMessage(), e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean moveSpaceMember(Space space, String userId, SpaceMembershipStatus status,
+                                 SpaceMembershipStatus... from) throws SpaceStorageException {
+    try {
+      SpaceEntity entity = _findById(SpaceEntity.class, space.getId());
+      boolean changed = false;
+      for (SpaceMembershipStatus fromStatus : from) {
+        changed |= removeId(space, entity, userId, RefType.of(fromStatus));
+      }
+      boolean added = addId(space, entity, userId, RefType.of(status));
+      if (changed || added) {
+        getSession().save();
+      }
+      return added;
+    }
+    catch (NodeNotFoundException e) {
+      throw new SpaceStorageException(SpaceStorageException.Type.FAILED_TO_SAVE_SPACE, e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Adds a user to one list of a space entity and creates its references, without saving the session.
+   *
+   * @return true if the user was not in the list of the entity
+   */
+  private boolean addId(Space space, SpaceEntity entity, String userId, RefType type) {
+    if (!ArrayUtils.contains(type.idsOf(space), userId)) {
+      type.setIds(space, (String[]) ArrayUtils.add(type.idsOf(space), userId));
+    }
+
+    String[] ids = type.idsOf(entity);
+    if (ArrayUtils.contains(ids, userId)) {
+      return false;
+    }
+    type.setIds(entity, (String[]) ArrayUtils.add(ids, userId));
+
+    //
+    UpdateContext context = new UpdateContext(new String[] { userId }, new String[0]);
+    manageRefList(context, entity, type);
+    if (type == RefType.MEMBER) {
+      manageActivityRefList(context, entity, type);
+    }
+    return true;
+  }
+
+  /**
+   * Removes a user from one list of a space entity and removes its references, without saving the session.
+   *
+   * @return true if the user was in the list of the entity
+   */
+  private boolean removeId(Space space, SpaceEntity entity, String userId, RefType type) {
+    type.setIds(space, (String[]) ArrayUtils.removeElement(type.idsOf(space), userId));
+
+    String[] ids = type.idsOf(entity);
+    if (!ArrayUtils.contains(ids, userId)) {
+      return false;
+    }
+    type.setIds(entity, (String[]) ArrayUtils.removeElement(ids, userId));
+
+    //
+    UpdateContext context = new UpdateContext(new String[0], new String[] { userId });
+    manageRefList(context, entity, type);
+    if (type == RefType.MEMBER) {
+      manageActivityRefList(context, entity, type);
+    }
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean isSpaceMember(String spaceId, String userId, SpaceMembershipStatus status) throws SpaceStorageException {
+    Space space = getSpaceById(spaceId);
+    return space != null && ArrayUtils.contains(RefType.of(status).idsOf(space), userId);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean hasAnyGroupMembership(String groupId, String userId) {
+    return SpaceUtils.isUserHasMembershipTypesInGroup(userId, groupId, MembershipTypeHandler.ANY_MEMBERSHIP_TYPE);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void updateGroupMembership(String groupId, String userId) {
+    // the memberships are read from the organization service each time, only the cached storage keeps them
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -0,0 +1,334 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.storage.streams;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.management.annotations.Managed;
+import org.exoplatform.management.annotations.ManagedDescription;
+import org.exoplatform.management.annotations.ManagedName;
+import org.exoplatform.management.jmx.annotations.NameTemplate;
+import org.exoplatform.management.jmx.annotations.Property;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.common.service.SocialServiceContext;
+import org.exoplatform.social.common.service.impl.SocialServiceContextImpl;
+import org.exoplatform.social.common.service.thread.ThreadPoolConfig;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.storage.api.ActivityStorage;
+import org.exoplatform.social.core.storage.api.ActivityStreamStorage;
+import org.exoplatform.social.core.storage.cache.CachedActivityStorage;
+
+/**
+ * Adds the activities of two identities to the connections stream of each other when they get connected, and removes
+ * them when they get disconnected, in background and page by page, newest first. The pages of the last days of all
+ * the pending connections go before the older ones, so the recent streams are right quickly even for identities with a
+ * long history.
+ * <br>
+ * A new connection or disconnection of two identities replaces the one still pending for them. When the social
+ * service context is not asynchronous, the streams are updated before returning.
+ *
+ * @since 4.4
+ */
+@Managed
+@ManagedDescription("Updates the connections streams when identities get connected or disconnected")
+@NameTemplate({@Property(key = "service", value = "social"), @Property(key = "view", value = "ConnectionStreamUpdater")})
+public class ConnectionStreamUpdater {
+
+  private static final Log LOG = ExoLogger.getLogger(ConnectionStreamUpdater.class);
+
+  static final String RECENT_DAYS_PARAM = "recent-days";
+
+  static final String BATCH_SIZE_PARAM = "batch-size";
+
+  static final int DEFAULT_RECENT_DAYS = 30;
+
+  static final int DEFAULT_BATCH_SIZE = 100;
+
+  private final ActivityStreamStorage streamStorage;
+
+  private final ActivityStorage activityStorage;
+
+  private final long recentPeriod;
+
+  private final int batchSize;
+
+  /**
+   * The pending task of each pair of identities.
+   */
+  private final Map<String, Task> tasks = new HashMap<String, Task>();
+
+  private final LinkedList<Task> recentTasks = new LinkedList<Task>();
+
+  private final LinkedList<Task> olderTasks = new LinkedList<Task>();
+
+  private ExecutorService executor;
+
+  private boolean running;
+
+  public ConnectionStreamUpdater(ActivityStreamStorage streamStorage,
+                                 ActivityStorage activityStorage,
+                                 InitParams params) {
+    this.streamStorage = streamStorage;
+    this.activityStorage = activityStorage;
+    ValueParam recentDaysParam = params != null ? params.getValueParam(RECENT_DAYS_PARAM) : null;
+    ValueParam batchSizeParam = params != null ? params.getValueParam(BATCH_SIZE_PARAM) : null;
+    int recentDays = recentDaysParam != null ? Integer.parseInt(recentDaysParam.getValue()) : DEFAULT_RECENT_DAYS;
+    this.recentPeriod = TimeUnit.DAYS.toMillis(recentDays);
+    this.batchSize = batchSizeParam != null ? Integer.parseInt(batchSizeParam.getValue()) : DEFAULT_BATCH_SIZE;
+  }
+
+  /**
+   * Adds the activities of each identity to the connections stream of the other one.
+   *
+   * @param sender the sender of the relationship
+   * @param receiver the receiver of the relationship
+   */
+  public void connect(Identity sender, Identity receiver) {
+    schedule(new Task(sender, receiver, true));
+  }
+
+  /**
+   * Removes the activities of each identity from the connections stream of the other one.
+   *
+   * @param sender the sender of the relationship
+   * @param receiver the receiver of the relationship
+   */
+  public void deleteConnect(Identity sender, Identity receiver) {
+    schedule(new Task(sender, receiver, false));
+  }
+
+  @Managed
+  @ManagedName("Pending")
+  @ManagedDescription("The number of connections and disconnections whose streams are not updated yet")
+  public synchronized int getPending() {
+    return tasks.size();
+  }
+
+  private void schedule(Task task) {
+    SocialServiceContext ctx = SocialServiceContextImpl.getInstance();
+    if (!ctx.isAsync()) {
+      while (!task.isDone()) {
+        runPage(task);
+      }
+      clearActivityCache();
+      return;
+    }
+
+    //
+    synchronized (this) {
+      Task previous = tasks.put(task.key, task);
+      if (previous != null) {
+        previous.cancelled = true;
+        if (previous.connect && !task.connect) {
+          // only the activities the connection has gone through need to be removed, known once its last page is done
+          task.previous = previous;
+        }
+      }
+      recentTasks.add(task);
+      if (!running) {
+        running = true;
+        getExecutor().submit(new Runnable() {
+          public void run() {
+            drain();
+          }
+        });
+      }
+    }
+  }
+
+  private void drain() {
+    boolean drained = false;
+    Task task = null;
+    try {
+      while (true) {
+        boolean recent;
+        synchronized (this) {
+          task = recentTasks.isEmpty() ? olderTasks.poll() : recentTasks.poll();
+          if (task == null) {
+            running = false;
+            drained = true;
+            return;
+          }
+          if (task.cancelled) {
+            continue;
+          }
+          task.start();
+          recent = task.isRecent();
+        }
+
+        //
+        try {
+          runPage(task);
+        } catch (Exception e) {
+          LOG.warn("Failed to update the connections streams of " + task.key, e);
+          synchronized (this) {
+            task.before[0] = -1;
+            task.before[1] = -1;
+          }
+        }
+        if (task.isDone() || recent != task.isRecent()) {
+          clearActivityCache();
+        }
+
+        //
+        synchronized (this) {
+          if (task.isDone()) {
+            if (tasks.get(task.key) == task) {
+              tasks.remove(task.key);
+            }
+          }
+          else if (!task.cancelled) {
+            (task.isRecent() ? recentTasks : olderTasks).add(task);
+          }
+        }
+      }
+    } finally {
+      // an error stopped the loop: the task in progress is dropped and the next schedule drains the others
+      if (!drained) {
+        synchronized (this) {
+          if (task != null && tasks.get(task.key) == task) {
+            tasks.remove(task.key);
+          }
+          running = false;
+        }
+      }
+    }
+  }
+
+  /**
+   * Handles the next page of the newest direction of a task.
+   */
+  private void runPage(Task task) {
+    int i;
+    long before;
+    synchronized (this) {
+      i = task.before[0] >= task.before[1] ? 0 : 1;
+      before = task.before[i];
+    }
+    Identity poster = i == 0 ? task.sender : task.receiver;
+    Identity receiver = i == 0 ? task.receiver : task.sender;
+    long next;
+    if (task.connect) {
+      next = streamStorage.connect(poster, receiver, before, batchSize);
+    }
+    else {
+      next = streamStorage.deleteConnect(poster, receiver, before, batchSize);
+    }
+    synchronized (this) {
+      task.before[i] = next < task.until[i] ? -1 : next;
+    }
+  }
+
+  private void clearActivityCache() {
+    if (activityStorage instanceof CachedActivityStorage) {
+      ((CachedActivityStorage) activityStorage).clearCache();
+    }
+  }
+
+  private synchronized ExecutorService getExecutor() {
+    if (executor == null) {
+      ThreadPoolConfig config = new ThreadPoolConfig();
+      config.setPoolSize(1);
+      config.setMaxPoolSize(1);
+      config.setKeepAliveTime(10L);
+      config.setTimeUnit(TimeUnit.SECONDS);
+      config.setMaxQueueSize(10);
+      config.setPriority(Thread.MIN_PRIORITY);
+      executor = SocialServiceContextImpl.getInstance().getExecutorServiceManager()
+                                         .newThreadPool("ConnectionStream", config);
+    }
+    return executor;
+  }
+
+  /**
+   * The stream update of a connection or disconnection: the activities of the sender for the streams of the receiver,
+   * and the other way around.
+   */
+  private class Task {
+
+    private final Identity sender;
+
+    private final Identity receiver;
+
+    private final boolean connect;
+
+    private final String key;
+
+    /**
+     * The time to start the next page of each direction at, -1 when it is done, guarded by the updater.
+     */
+    private final long[] before = { Long.MAX_VALUE, Long.MAX_VALUE };
+
+    /**
+     * The time to stop each direction at, guarded by the updater.
+     */
+    private final long[] until = { 0, 0 };
+
+    /**
+     * The connection this disconnection replaces, guarded by the updater until this task starts.
+     */
+    private Task previous;
+
+    /**
+     * The activities last updated since this time are handled first.
+     */
+    private final long recentSince = System.currentTimeMillis() - recentPeriod;
+
+    private volatile boolean cancelled;
+
+    private Task(Identity sender, Identity receiver, boolean connect) {
+      this.sender = sender;
+      this.receiver = receiver;
+      this.connect = connect;
+      this.key = sender.getId().compareTo(receiver.getId()) < 0 ? sender.getId() + "/" + receiver.getId()
+                                                                 : receiver.getId() + "/" + sender.getId();
+    }
+
+    /**
+     * Stops each direction where the replaced connection has stopped. The updater runs one page at a time, so the
+     * connection has no page in progress when this task starts.
+     */
+    private void start() {
+      if (previous != null) {
+        until[0] = previous.before[0];
+        until[1] = previous.before[1];
+        previous = null;
+      }
+    }
+
+    private boolean isDone() {
+      synchronized (ConnectionStreamUpdater.this) {
+        return before[0] < 0 && before[1] < 0;
+      }
+    }
+
+    private boolean isRecent() {
+      synchronized (ConnectionStreamUpdater.this) {
+        return Math.max(before[0], before[1]) >= recentSince;
+      }
+    }
+
+  }
+
+}
@@ -95,6 +95,28 @@ public class SynchronizedActivityStreamStorage extends ActivityStreamStorageImpl
     }
   }
   
+  @Override
+  public long connect(Identity poster, Identity receiver, long before, int limit) {
+    boolean created = startSynchronization();
+    try {
+      return super.connect(poster, receiver, before, limit);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+  }
+  
+  @Override
+  public long deleteConnect(Identity poster, Identity receiver, long before, int limit) {
+    boolean created = startSynchronization();
+    try {
+      return super.deleteConnect(poster, receiver, before, limit);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+  }
+  
   @Override
   public List<ExoSocialActivity> getConnections(Identity owner, int offset, int limit) {
     boolean created = startSynchronization();
@@ -17,12 +17,17 @@
 
 package org.exoplatform.social.core.storage.synchronization;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.exoplatform.social.core.identity.model.ActiveIdentityFilter;
 import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.IdentityStatus;
 import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.model.AvatarAttachment;
+import org.exoplatform.social.core.model.AvatarSize;
 import org.exoplatform.social.core.profile.ProfileFilter;
 import org.exoplatform.social.core.storage.IdentityStorageException;
 import org.exoplatform.social.core.storage.impl.IdentityStorageImpl;
@@ -132,6 +137,137 @@ public class SynchronizedIdentityStorage extends IdentityStorageImpl {
 
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Profile loadProfileSummary(Profile profile) throws IdentityStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.loadProfileSummary(profile);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public AvatarAttachment getAvatar(final Identity identity, final AvatarSize size) throws IdentityStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.getAvatar(identity, size);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public IdentityStatus getIdentityStatus(final String providerId, final String remoteId) throws IdentityStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.getIdentityStatus(providerId, remoteId);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<Identity> findIdentitiesByIds(final Collection<String> ids) throws IdentityStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.findIdentitiesByIds(ids);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<Identity> findIdentities(final String providerId, final Collection<String> remoteIds)
+      throws IdentityStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.findIdentities(providerId, remoteIds);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<String, Integer> getProfileHashes(final String providerId, final String... properties)
+      throws IdentityStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.getProfileHashes(providerId, properties);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int syncProfiles(final List<Profile> profiles) throws IdentityStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.syncProfiles(profiles);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<String> filterIdentityIds(final ProfileFilter profileFilter, final Collection<String> identityIds)
+      throws IdentityStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.filterIdentityIds(profileFilter, identityIds);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -21,6 +21,7 @@ import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.relationship.model.Relationship;
 import org.exoplatform.social.core.storage.RelationshipStorageException;
 import org.exoplatform.social.core.storage.api.IdentityStorage;
+import org.exoplatform.social.core.storage.cache.model.data.RelationshipGraphData;
 import org.exoplatform.social.core.storage.impl.RelationshipStorageImpl;
 
 import java.util.List;
@@ -58,6 +59,23 @@ public class SynchronizedRelationshipStorage extends RelationshipStorageImpl {
 
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<Relationship> confirmRelationships(final List<Relationship> relationships)
+      throws RelationshipStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.confirmRelationships(relationships);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -308,6 +326,107 @@ public class SynchronizedRelationshipStorage extends RelationshipStorageImpl {
 
   }
   
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public RelationshipGraphData getRelationshipGraph(final Identity identity) throws RelationshipStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.getRelationshipGraph(identity);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<String, Relationship.Type> getRelationshipStatuses(final Identity viewer, final List<Identity> others)
+      throws RelationshipStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.getRelationshipStatuses(viewer, others);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<Identity> getLastConnections(final Identity identity, final long since, final int limit)
+      throws RelationshipStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.getLastConnections(identity, since, limit);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<Relationship> getLastRelationships(final Identity identity, final Relationship.Type type,
+                                                 final long since, final int offset, final int limit)
+      throws RelationshipStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.getLastRelationships(identity, type, since, offset, limit);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getLastRelationshipsCount(final Identity identity, final Relationship.Type type, final long since)
+      throws RelationshipStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.getLastRelationshipsCount(identity, type, since);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int recountRelationships(final long offset, final long limit) throws RelationshipStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.recountRelationships(offset, limit);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -19,6 +19,7 @@ package org.exoplatform.social.core.storage.synchronization;
 
 import org.exoplatform.social.core.space.SpaceFilter;
 import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.space.model.SpaceMembershipStatus;
 import org.exoplatform.social.core.storage.SpaceStorageException;
 import org.exoplatform.social.core.storage.api.ActivityStreamStorage;
 import org.exoplatform.social.core.storage.impl.IdentityStorageImpl;
@@ -76,6 +77,57 @@ public class SynchronizedSpaceStorage extends SpaceStorageImpl {
 
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean addSpaceMember(final Space space, final String userId, final SpaceMembershipStatus status)
+      throws SpaceStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.addSpaceMember(space, userId, status);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean removeSpaceMember(final Space space, final String userId, final SpaceMembershipStatus status)
+      throws SpaceStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.removeSpaceMember(space, userId, status);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean moveSpaceMember(final Space space, final String userId, final SpaceMembershipStatus status,
+                                 final SpaceMembershipStatus... from) throws SpaceStorageException {
+
+    boolean created = startSynchronization();
+    try {
+      return super.moveSpaceMember(space, userId, status, from);
+    }
+    finally {
+      stopSynchronization(created);
+    }
+
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.identity.provider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.exoplatform.commons.utils.ListAccess;
+import org.exoplatform.services.organization.OrganizationService;
+import org.exoplatform.services.organization.User;
+import org.exoplatform.services.organization.UserHandler;
+import org.exoplatform.services.organization.UserStatus;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.storage.api.IdentityStorage;
+import org.exoplatform.social.core.test.AbstractCoreTest;
+
+/**
+ * Unit Test for {@link OrganizationIdentitySynchronizer}.
+ */
+public class OrganizationIdentitySynchronizerTest extends AbstractCoreTest {
+
+  private IdentityStorage identityStorage;
+
+  private UserHandler userHandler;
+
+  private OrganizationIdentitySynchronizer synchronizer;
+
+  private Set<String> enabledRemoteIds;
+
+  private List<String> userNamesWithoutIdentity;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    identityStorage = getService(IdentityStorage.class);
+    OrganizationService organizationService = getService(OrganizationService.class);
+    userHandler = organizationService.getUserHandler();
+    synchronizer = new OrganizationIdentitySynchronizer(organizationService, identityStorage, null);
+
+    // the synchronization creates the identities of all the users and disables the others, they are restored after
+    enabledRemoteIds = identityStorage.getProfileHashes(OrganizationIdentityProvider.NAME).keySet();
+    userNamesWithoutIdentity = new ArrayList<String>();
+    ListAccess<User> users = userHandler.findAllUsers(UserStatus.ANY);
+    for (User user : users.load(0, users.getSize())) {
+      if (identityStorage.findIdentity(OrganizationIdentityProvider.NAME, user.getUserName()) == null) {
+        userNamesWithoutIdentity.add(user.getUserName());
+      }
+    }
+
+    User user = userHandler.createUserInstance("syncuser");
+    user.setFirstName("Sync");
+    user.setLastName("User");
+    user.setDisplayName("Sync User");
+    user.setEmail("syncuser@acme.com");
+    userHandler.createUser(user, false);
+    userNamesWithoutIdentity.add("syncuser");
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    userHandler.removeUser("syncuser", false);
+    for (String userName : userNamesWithoutIdentity) {
+      Identity identity = identityStorage.findIdentity(OrganizationIdentityProvider.NAME, userName);
+      if (identity != null) {
+        identityStorage.deleteIdentity(identity);
+      }
+    }
+    List<Profile> profiles = new ArrayList<Profile>();
+    for (String remoteId : enabledRemoteIds) {
+      Identity identity = new Identity(OrganizationIdentityProvider.NAME, remoteId);
+      identity.setEnable(true);
+      profiles.add(new Profile(identity));
+    }
+    identityStorage.syncProfiles(profiles);
+    super.tearDown();
+  }
+
+  public void testSynchronize() throws Exception {
+    assertTrue(synchronizer.synchronize());
+    assertFalse(synchronizer.isRunning());
+    assertEquals(synchronizer.getTotal(), synchronizer.getProcessed());
+    assertTrue(synchronizer.getCreated() > 0);
+    Profile profile = loadProfile("syncuser");
+    assertEquals("Sync", profile.getProperty(Profile.FIRST_NAME));
+    assertEquals("Sync User", profile.getProperty(Profile.FULL_NAME));
+    assertEquals("syncuser@acme.com", profile.getProperty(Profile.EMAIL));
+    assertEquals("syncuser", profile.getProperty(Profile.USERNAME));
+
+    // nothing to synchronize
+    assertTrue(synchronizer.synchronize());
+    assertEquals(0, synchronizer.getCreated());
+    assertEquals(0, synchronizer.getUpdated());
+    assertEquals(0, synchronizer.getDisabled());
+
+    // updated user
+    User user = userHandler.findUserByName("syncuser");
+    user.setFirstName("Synced");
+    userHandler.saveUser(user, false);
+    assertTrue(synchronizer.synchronize());
+    assertEquals(0, synchronizer.getCreated());
+    assertEquals(1, synchronizer.getUpdated());
+    assertEquals("Synced", loadProfile("syncuser").getProperty(Profile.FIRST_NAME));
+
+    // disabled user
+    userHandler.setEnabled("syncuser", false, false);
+    assertTrue(synchronizer.synchronize());
+    assertEquals(1, synchronizer.getDisabled());
+    assertFalse(identityStorage.findIdentity(OrganizationIdentityProvider.NAME, "syncuser").isEnable());
+
+    // enabled again
+    userHandler.setEnabled("syncuser", true, false);
+    assertTrue(synchronizer.synchronize());
+    assertEquals(1, synchronizer.getUpdated());
+    assertEquals(0, synchronizer.getDisabled());
+    assertTrue(identityStorage.findIdentity(OrganizationIdentityProvider.NAME, "syncuser").isEnable());
+  }
+
+  public void testHash() throws Exception {
+    User user = userHandler.findUserByName("syncuser");
+    Profile profile = OrganizationIdentitySynchronizer.toProfile(user);
+    assertTrue(profile.getIdentity().isEnable());
+    int hash = OrganizationIdentitySynchronizer.hash(profile);
+
+    user.setEmail("sync@acme.com");
+    assertFalse(hash == OrganizationIdentitySynchronizer.hash(OrganizationIdentitySynchronizer.toProfile(user)));
+
+    identityStorage.syncProfiles(Arrays.asList(profile));
+    Map<String, Integer> hashes = identityStorage.getProfileHashes(OrganizationIdentityProvider.NAME,
+                                                                   OrganizationIdentitySynchronizer.SYNCHRONIZED_PROPERTIES);
+    assertEquals(Integer.valueOf(hash), hashes.get("syncuser"));
+  }
+
+  private Profile loadProfile(String remoteId) {
+    Identity identity = identityStorage.findIdentity(OrganizationIdentityProvider.NAME, remoteId);
+    assertNotNull(identity);
+    return identityStorage.loadProfile(new Profile(identity));
+  }
+}
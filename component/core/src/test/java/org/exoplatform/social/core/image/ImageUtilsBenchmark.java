@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.image;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of the avatar resizing on a 12 megapixels photo. It is not part of the test suites, run it with the
+ * {@link #main(String[])} method from the test classpath.
+ * <br>
+ * "perSize" decodes the image once for each avatar size with
+ * {@link ImageUtils#createResizedAvatarAttachment(java.io.InputStream, int, int, String, String, String, String)} and
+ * "oneDecode" creates all the sizes from a single decoding with
+ * {@link ImageUtils#createSquareAvatarAttachments(java.io.InputStream, String, String, String, String, int...)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx512m")
+public class ImageUtilsBenchmark {
+
+  static final int[] SIZES = {32, 64, 128};
+
+  @Param({"jpeg", "png"})
+  public String format;
+
+  @Param({"perSize", "oneDecode"})
+  public String mode;
+
+  private byte[] imageBytes;
+
+  private String mimeType;
+
+  @Setup
+  public void setUp() throws Exception {
+    BufferedImage image = new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = image.createGraphics();
+    graphics.setPaint(new GradientPaint(0, 0, Color.ORANGE, 4000, 3000, Color.BLUE));
+    graphics.fillRect(0, 0, 4000, 3000);
+    // some noise so that the encoded image has the size of a photo
+    Random random = new Random(42);
+    for (int i = 0; i < 20000; i++) {
+      graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+      graphics.fillRect(random.nextInt(4000), random.nextInt(3000), 1 + random.nextInt(40), 1 + random.nextInt(40));
+    }
+    graphics.dispose();
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ImageIO.write(image, format, output);
+    imageBytes = output.toByteArray();
+    mimeType = "image/" + format;
+  }
+
+  @Benchmark
+  public void resize(Blackhole blackhole) {
+    if ("perSize".equals(mode)) {
+      for (int size : SIZES) {
+        blackhole.consume(ImageUtils.createResizedAvatarAttachment(new ByteArrayInputStream(imageBytes), 0, size, "id",
+                                                                   "avatar", mimeType, null));
+      }
+    } else {
+      blackhole.consume(ImageUtils.createSquareAvatarAttachments(new ByteArrayInputStream(imageBytes), "id", "avatar",
+                                                                 mimeType, null, SIZES));
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(ImageUtilsBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -16,9 +16,17 @@
  */
 package org.exoplatform.social.core.image;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import javax.imageio.ImageIO;
 
 import junit.framework.TestCase;
 
+import org.exoplatform.social.core.model.AvatarAttachment;
+
 public class ImageUtilsTest extends TestCase {
 
   public void testBuildFileName() {
@@ -36,5 +44,60 @@ public class ImageUtilsTest extends TestCase {
     assertEquals("_100x0", postfix);
   }
 
-  // TODO: Write unit test for function
+  public void testGetSubsampling() {
+    assertEquals(15, ImageUtils.getSubsampling(4000, 3000, 100, 100));
+    assertEquals(20, ImageUtils.getSubsampling(4000, 3000, 100, 0));
+    assertEquals(1, ImageUtils.getSubsampling(150, 150, 100, 100));
+    assertEquals(1, ImageUtils.getSubsampling(150, 150, 0, 0));
+  }
+
+  public void testCreateResizedAvatarAttachment() throws Exception {
+    AvatarAttachment avatar = ImageUtils.createResizedAvatarAttachment(image(400, 200, "png"), 100, 0, "id", "avatar.png",
+                                                                       "image/png", "portal-test");
+    assertNotNull(avatar);
+    assertEquals("id", avatar.getId());
+    assertEquals("image/png", avatar.getMimeType());
+    assertEquals("portal-test", avatar.getWorkspace());
+    assertDimension(50, 50, avatar);
+
+    // the first frame of a GIF image is resized to a PNG image
+    avatar = ImageUtils.createResizedAvatarAttachment(image(200, 400, "gif"), 100, 0, "id", "avatar.gif", "image/gif", null);
+    assertNotNull(avatar);
+    assertEquals("image/png", avatar.getMimeType());
+    assertDimension(100, 100, avatar);
+
+    assertNull(ImageUtils.createResizedAvatarAttachment(image(200, 400, "png"), 0, 0, "id", "avatar.png", "image/png", null));
+    assertNull(ImageUtils.createResizedAvatarAttachment(new ByteArrayInputStream("not an image".getBytes()), 100, 0, "id",
+                                                        "avatar.png", "image/png", null));
+  }
+
+  public void testCreateSquareAvatarAttachments() throws Exception {
+    List<AvatarAttachment> avatars = ImageUtils.createSquareAvatarAttachments(image(1600, 1200, "jpeg"), "id", "avatar.jpg",
+                                                                              "image/jpeg", null, 64, 128, 32);
+    assertEquals(3, avatars.size());
+    assertDimension(64, 64, avatars.get(0));
+    assertDimension(128, 128, avatars.get(1));
+    assertDimension(32, 32, avatars.get(2));
+    assertEquals("image/jpeg", avatars.get(0).getMimeType());
+
+    // an image smaller than the size is enlarged
+    avatars = ImageUtils.createSquareAvatarAttachments(image(20, 40, "png"), "id", "avatar.png", "image/png", null, 64);
+    assertDimension(64, 64, avatars.get(0));
+
+    assertNull(ImageUtils.createSquareAvatarAttachments(image(20, 40, "png"), "id", "avatar.png", "image/png", null));
+    assertNull(ImageUtils.createSquareAvatarAttachments(image(20, 40, "png"), "id", "avatar.png", "image/png", null, 0));
+  }
+
+  private static ByteArrayInputStream image(int width, int height, String format) throws Exception {
+    int type = "gif".equals(format) ? BufferedImage.TYPE_BYTE_INDEXED : BufferedImage.TYPE_INT_RGB;
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(width, height, type), format, output);
+    return new ByteArrayInputStream(output.toByteArray());
+  }
+
+  private static void assertDimension(int width, int height, AvatarAttachment avatar) throws Exception {
+    BufferedImage image = ImageIO.read(new ByteArrayInputStream(avatar.getImageBytes()));
+    assertEquals(width, image.getWidth());
+    assertEquals(height, image.getHeight());
+  }
 }
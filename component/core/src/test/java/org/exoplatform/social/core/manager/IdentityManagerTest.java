@@ -31,6 +31,7 @@ import org.exoplatform.social.core.activity.model.ExoSocialActivity;
 import org.exoplatform.social.core.identity.SpaceMemberFilterListAccess.Type;
 import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.identity.model.ProfileSummary;
 import org.exoplatform.social.core.identity.provider.Application;
 import org.exoplatform.social.core.identity.provider.FakeIdentityProvider;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
@@ -1079,6 +1080,32 @@ public class IdentityManagerTest extends AbstractCoreTest {
     assertEquals("johnActivityList.size() must be 1", 1, johnActivityList.size());
   }
   
+  public void testGetProfileSummary() throws Exception {
+    Identity identity = new Identity(OrganizationIdentityProvider.NAME, "summary");
+    identityManager.saveIdentity(identity);
+    tearDownIdentityList.add(identity);
+    Profile profile = new Profile(identity);
+    profile.setProperty(Profile.FIRST_NAME, "Mary");
+    profile.setProperty(Profile.LAST_NAME, "Williams");
+    profile.setProperty(Profile.FULL_NAME, "Mary Williams");
+    profile.setProperty(Profile.POSITION, "developer");
+    profile.setProperty(Profile.GENDER, "female");
+    identityManager.saveProfile(profile);
+
+    ProfileSummary summary = identityManager.getProfileSummary(identity.getId());
+    assertNotNull(summary);
+    assertEquals(identity.getId(), summary.getIdentityId());
+    assertEquals("summary", summary.getRemoteId());
+    assertEquals("Mary Williams", summary.getFullName());
+    assertEquals("developer", summary.getPosition());
+    assertNotNull(summary.getUrl());
+
+    //the summary is refreshed when the profile is saved
+    profile.setProperty(Profile.POSITION, "manager");
+    identityManager.saveProfile(profile);
+    assertEquals("manager", identityManager.getProfileSummary(identity.getId()).getPosition());
+  }
+
   public void testGetIdentitiesByName() throws Exception {
     User user = userHandler.createUserInstance("alex");
     user.setFirstName("");
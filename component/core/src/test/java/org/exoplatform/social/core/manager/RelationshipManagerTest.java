@@ -1226,6 +1226,39 @@ public class RelationshipManagerTest extends AbstractCoreTest {
     tearDownRelationshipList.addAll(senderRelationships);
   }
 
+  /**
+   * Test {@link RelationshipManager#confirmAll(List)}
+   *
+   * @throws Exception
+   */
+  public void testConfirmAll() throws Exception {
+    Relationship pending = relationshipManager.inviteToConnect(johnIdentity, demoIdentity);
+    Relationship connected = relationshipManager.inviteToConnect(maryIdentity, demoIdentity);
+    relationshipManager.confirm(demoIdentity, maryIdentity);
+
+    List<Relationship> confirmed = relationshipManager.confirmAll(Arrays.asList(new Relationship(johnIdentity, demoIdentity),
+                                                                                new Relationship(johnIdentity, maryIdentity),
+                                                                                new Relationship(maryIdentity, demoIdentity),
+                                                                                new Relationship(maryIdentity, johnIdentity)));
+    assertEquals(2, confirmed.size());
+    assertEquals(pending.getId(), confirmed.get(0).getId());
+    assertEquals(Relationship.Type.CONFIRMED, relationshipManager.get(johnIdentity, demoIdentity).getStatus());
+    assertEquals(Relationship.Type.CONFIRMED, relationshipManager.get(maryIdentity, johnIdentity).getStatus());
+    assertEquals(2, relationshipManager.getConnections(johnIdentity).getSize());
+    assertEquals(2, relationshipManager.getConnections(demoIdentity).getSize());
+
+    try {
+      relationshipManager.confirmAll(Arrays.asList(new Relationship(johnIdentity, johnIdentity)));
+      fail("an identity cannot be connected to itself");
+    } catch (Exception e) {
+      // expected
+    }
+
+    tearDownRelationshipList.add(relationshipManager.get(johnIdentity, demoIdentity));
+    tearDownRelationshipList.add(relationshipManager.get(johnIdentity, maryIdentity));
+    tearDownRelationshipList.add(connected);
+  }
+
   /**
    * Test {@link RelationshipManager#delete(Relationship)}
    *
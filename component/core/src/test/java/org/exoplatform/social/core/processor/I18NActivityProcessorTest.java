@@ -304,6 +304,38 @@ public class I18NActivityProcessorTest extends TestCase {
     assertEquals("hello world from title.", newActivity.getTitle());
   }
 
+  public void testCachedMessages() throws Exception {
+    Map<String, String> activityKeyTypeMapping = new HashMap<String, String>();
+    activityKeyTypeMapping.put("updated", "FakeResourceBundle.update_topic_title");
+    initActivityResourceBundlePlugin(activityKeyTypeMapping);
+    i18NActivityProcessor.addActivityResourceBundlePlugin(activityResourceBundlePlugin);
+    Locale enLocale = new Locale("en");
+
+    Map<String, String> templateParams = new LinkedHashMap<String, String>();
+    templateParams.put("title", "first");
+    ExoSocialActivity activity = createActivity("updated", "title");
+    activity.setTemplateParams(templateParams);
+    assertEquals("Title has been updated: first", i18NActivityProcessor.process(activity, enLocale).getTitle());
+
+    //the cached message is formatted again with the new params
+    templateParams = new LinkedHashMap<String, String>();
+    templateParams.put("title", "second");
+    activity = createActivity("updated", "title");
+    activity.setTemplateParams(templateParams);
+    assertEquals("Title has been updated: second", i18NActivityProcessor.process(activity, enLocale).getTitle());
+
+    //the same key is now mapped to another message
+    i18NActivityProcessor.removeActivityResourceBundlePlugin(activityResourceBundlePlugin);
+    activityKeyTypeMapping = new HashMap<String, String>();
+    activityKeyTypeMapping.put("updated", "FakeResourceBundle.update_topic_content");
+    initActivityResourceBundlePlugin(activityKeyTypeMapping);
+    i18NActivityProcessor.addActivityResourceBundlePlugin(activityResourceBundlePlugin);
+
+    activity = createActivity("updated", "title");
+    activity.setTemplateParams(templateParams);
+    assertEquals("Content has been updated: second", i18NActivityProcessor.process(activity, enLocale).getTitle());
+  }
+
 
   private FakeResourceBundleService getResourceBundleService() throws Exception {
     FakeResourceBundleService fakeResourceBundleService = new FakeResourceBundleService(createService());
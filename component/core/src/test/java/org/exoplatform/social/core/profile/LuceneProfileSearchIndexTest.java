@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.profile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.lucene.store.RAMDirectory;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.search.Sorting;
+
+/**
+ * Unit Test for {@link LuceneProfileSearchIndex}.
+ */
+public class LuceneProfileSearchIndexTest extends TestCase {
+
+  private static final String PROVIDER = "organization";
+
+  private LuceneProfileSearchIndex index;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    index = new LuceneProfileSearchIndex(new RAMDirectory());
+    List<IndexedProfile> profiles = new ArrayList<IndexedProfile>();
+    profiles.add(profile("1", "Mary", "Williams", "Developer", "java", "eXo", 4));
+    profiles.add(profile("2", "John", "Anthony", "Product manager", "scrum", "eXo", 3));
+    profiles.add(profile("3", "Jack", "Miller", "Java developer", "java, sql", "Acme", 2));
+    profiles.add(profile("4", "James", "Davis", null, null, null, 1));
+    IndexedProfile space = new IndexedProfile("5", "space");
+    space.setFirstName("Java");
+    space.setLastName("Team");
+    profiles.add(space);
+    index.rebuild(profiles.iterator());
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    index.stop();
+    super.tearDown();
+  }
+
+  public void testSearchByName() throws Exception {
+    assertTrue(index.isReady());
+    assertEquals("[2, 4, 3, 1]", search(new ProfileFilter()));
+    assertEquals(4, index.count(PROVIDER, new ProfileFilter()));
+    assertEquals("[2, 4, 3]", search(name("j")));
+    assertEquals("[1]", search(name("Y W")));
+    assertEquals("[4, 3]", search(name("ja")));
+    assertEquals("[4]", search(name("j%s")));
+    assertEquals("[]", search(name("xavier")));
+
+    ProfileFilter filter = new ProfileFilter();
+    filter.setFirstCharacterOfName('M');
+    assertEquals("[3]", search(filter));
+
+    filter = name("j");
+    filter.setExcludedIdentityList(Arrays.asList(new Identity("2")));
+    assertEquals("[4, 3]", search(filter));
+    assertEquals(2, index.count(PROVIDER, filter));
+  }
+
+  public void testSearchByFields() throws Exception {
+    ProfileFilter filter = new ProfileFilter();
+    filter.setPosition("developer");
+    assertEquals("[3, 1]", search(filter));
+
+    filter = new ProfileFilter();
+    filter.setSkills("java");
+    filter.setCompany("exo");
+    assertEquals("[1]", search(filter));
+
+    filter = new ProfileFilter();
+    filter.setAll("manager");
+    assertEquals("[2]", search(filter));
+
+    filter = new ProfileFilter();
+    filter.setAll("java developer");
+    assertEquals("[3]", search(filter));
+  }
+
+  public void testPagingAndSorting() throws Exception {
+    ProfileFilter filter = new ProfileFilter();
+    assertEquals(Arrays.asList("4", "3"), index.search(PROVIDER, filter, 1, 2));
+    assertEquals(Arrays.asList("1"), index.search(PROVIDER, filter, 3, 10));
+    assertEquals(0, index.search(PROVIDER, filter, 10, 10).size());
+
+    filter.setSorting(new Sorting(Sorting.SortBy.TITLE, Sorting.OrderBy.DESC));
+    assertEquals("[1, 3, 4, 2]", search(filter));
+
+    filter.setSorting(new Sorting(Sorting.SortBy.DATE, Sorting.OrderBy.ASC));
+    assertEquals("[4, 3, 2, 1]", search(filter));
+  }
+
+  public void testUpdate() throws Exception {
+    index.index(profile("2", "John", "Young", null, null, null, 3));
+    assertEquals("[4, 3, 1, 2]", search(new ProfileFilter()));
+    assertEquals("[]", search(name("anthony")));
+
+    index.remove("3");
+    assertEquals("[4, 2]", search(name("j")));
+
+    index.clear();
+    assertFalse(index.isReady());
+    index.index(profile("6", "Peter", "Jones", null, null, null, 5));
+    assertEquals("[]", search(new ProfileFilter()));
+  }
+
+  public void testChangesDuringRebuild() throws Exception {
+    final Iterator<IndexedProfile> profiles = Arrays.asList(
+        profile("1", "Mary", "Williams", null, null, null, 4),
+        profile("2", "John", "Anthony", null, null, null, 3)).iterator();
+    index.rebuild(new Iterator<IndexedProfile>() {
+      public boolean hasNext() {
+        return profiles.hasNext();
+      }
+
+      public IndexedProfile next() {
+        IndexedProfile profile = profiles.next();
+        try {
+          // saved after the profiles were read
+          index.index(profile("2", "John", "Young", null, null, null, 3));
+          index.remove("1");
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+        return profile;
+      }
+
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    });
+    assertTrue(index.isReady());
+    assertEquals("[2]", search(new ProfileFilter()));
+    assertEquals("[2]", search(name("young")));
+  }
+
+  public void testSupports() throws Exception {
+    assertTrue(index.supports(name("jo*")));
+    assertFalse(index.supports(name("jo?")));
+    assertFalse(index.supports(null));
+  }
+
+  private String search(ProfileFilter filter) throws Exception {
+    return index.search(PROVIDER, filter, 0, -1).toString();
+  }
+
+  private static ProfileFilter name(String name) {
+    ProfileFilter filter = new ProfileFilter();
+    filter.setName(name);
+    return filter;
+  }
+
+  private static IndexedProfile profile(String id, String firstName, String lastName, String position, String skills,
+                                        String company, long createdTime) {
+    IndexedProfile profile = new IndexedProfile(id, PROVIDER);
+    profile.setFirstName(firstName);
+    profile.setLastName(lastName);
+    profile.setFullName(firstName + " " + lastName);
+    profile.setPosition(position);
+    if (skills != null) {
+      profile.setSkills(Arrays.asList(skills));
+    }
+    if (company != null) {
+      profile.setOrganizations(Arrays.asList(company));
+    }
+    profile.setCreatedTime(createdTime);
+    return profile;
+  }
+}
@@ -495,6 +495,38 @@ public void testConnectionsExistActivities() throws ActivityStorageException {
     relationshipManager.unregisterListener(relationshipPublisher);
   }
   
+  public void testConnectByPages() throws ActivityStorageException {
+    for (int i = 0; i < 5; i++) {
+      ExoSocialActivity activity = new ExoSocialActivityImpl();
+      activity.setTitle("activity title " + i);
+      activityStorage.saveActivity(demoIdentity, activity);
+      tearDownActivityList.add(activity);
+    }
+    assertEquals(0, streamStorage.getNumberOfConnections(maryIdentity));
+
+    // newest first, page by page
+    long before = streamStorage.connect(demoIdentity, maryIdentity, Long.MAX_VALUE, 2);
+    int pages = 1;
+    assertTrue(streamStorage.getNumberOfConnections(maryIdentity) >= 2);
+    while (before >= 0) {
+      before = streamStorage.connect(demoIdentity, maryIdentity, before, 2);
+      pages++;
+    }
+    assertTrue(pages <= 3);
+    assertEquals(5, streamStorage.getNumberOfConnections(maryIdentity));
+    assertEquals(0, streamStorage.getNumberOfConnections(demoIdentity));
+    assertEquals(-1, streamStorage.connect(demoIdentity, maryIdentity, Long.MAX_VALUE, 10));
+    assertEquals(5, streamStorage.getNumberOfConnections(maryIdentity));
+
+    //
+    before = Long.MAX_VALUE;
+    while (before >= 0) {
+      before = streamStorage.deleteConnect(demoIdentity, maryIdentity, before, 2);
+    }
+    assertEquals(0, streamStorage.getNumberOfConnections(maryIdentity));
+    assertEquals(5, streamStorage.getNumberOfFeed(demoIdentity));
+  }
+  
   public void testConnectionsExistActivitiesCounter() throws ActivityStorageException {
     
     RelationshipPublisher relationshipPublisher = (RelationshipPublisher) getContainer().getComponentInstanceOfType(RelationshipPublisher.class);
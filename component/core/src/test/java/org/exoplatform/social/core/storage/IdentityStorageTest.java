@@ -2,6 +2,7 @@ package org.exoplatform.social.core.storage;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.chromattic.api.ChromatticSession;
@@ -21,6 +22,7 @@ import org.exoplatform.social.core.chromattic.entity.IdentityEntity;
 import org.exoplatform.social.core.chromattic.entity.ProviderRootEntity;
 import org.exoplatform.social.core.identity.SpaceMemberFilterListAccess.Type;
 import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.IdentityStatus;
 import org.exoplatform.social.core.identity.model.Profile;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
 import org.exoplatform.social.core.model.AvatarAttachment;
@@ -250,6 +252,76 @@ public class IdentityStorageTest extends AbstractCoreTest {
     tearDownIdentityList.add(foundIdentity);
   }
 
+  /**
+   * Tests {@link IdenityStorage#findIdentitiesByIds(java.util.Collection)} and
+   * {@link IdenityStorage#findIdentities(String, java.util.Collection)}
+   *
+   */
+  @MaxQueryNumber(150)
+  public void testFindIdentities() {
+    List<String> ids = new ArrayList<String>();
+    for (String userName : Arrays.asList("mary", "john", "demo")) {
+      Identity identity = new Identity(OrganizationIdentityProvider.NAME, userName);
+      identityStorage.saveIdentity(identity);
+      tearDownIdentityList.add(identity);
+      ids.add(identity.getId());
+    }
+
+    List<Identity> identities = identityStorage.findIdentitiesByIds(Arrays.asList(ids.get(2), "not-found", ids.get(0), ids.get(2)));
+    assertEquals(2, identities.size());
+    assertEquals(ids.get(2), identities.get(0).getId());
+    assertEquals("demo", identities.get(0).getRemoteId());
+    assertEquals(OrganizationIdentityProvider.NAME, identities.get(0).getProviderId());
+    assertEquals(ids.get(0), identities.get(1).getId());
+
+    identities = identityStorage.findIdentities(OrganizationIdentityProvider.NAME, Arrays.asList("john", "not-found", "mary"));
+    assertEquals(2, identities.size());
+    assertEquals(ids.get(1), identities.get(0).getId());
+    assertEquals("john", identities.get(0).getRemoteId());
+    assertEquals(ids.get(0), identities.get(1).getId());
+
+    assertEquals(0, identityStorage.findIdentities("not-found", Arrays.asList("john")).size());
+    assertEquals(0, identityStorage.findIdentitiesByIds(new ArrayList<String>()).size());
+  }
+
+  /**
+   * Tests {@link IdenityStorage#getIdentityStatus(String, String)}
+   *
+   */
+  @MaxQueryNumber(100)
+  public void testGetIdentityStatus() {
+    final String userName = "username";
+
+    IdentityStatus status = identityStorage.getIdentityStatus(OrganizationIdentityProvider.NAME, userName);
+    assertFalse(status.exists());
+    assertFalse(status.isActive());
+    assertNull(identityStorage.findIdentity(OrganizationIdentityProvider.NAME, userName));
+
+    Identity identity = new Identity(OrganizationIdentityProvider.NAME, userName);
+    identityStorage.saveIdentity(identity);
+    tearDownIdentityList.add(identity);
+
+    status = identityStorage.getIdentityStatus(OrganizationIdentityProvider.NAME, userName);
+    assertEquals(identity.getId(), status.getId());
+    assertFalse(status.isDeleted());
+    assertTrue(status.isEnable());
+    assertTrue(status.isActive());
+
+    identityStorage.processEnabledIdentity(identity, false);
+    status = identityStorage.getIdentityStatus(OrganizationIdentityProvider.NAME, userName);
+    assertTrue(status.exists());
+    assertFalse(status.isEnable());
+    assertFalse(status.isActive());
+    identityStorage.processEnabledIdentity(identity, true);
+
+    identity.setDeleted(true);
+    identityStorage.updateIdentity(identity);
+    status = identityStorage.getIdentityStatus(OrganizationIdentityProvider.NAME, userName);
+    assertTrue(status.exists());
+    assertTrue(status.isDeleted());
+    assertFalse(status.isActive());
+  }
+
   /**
    * Tests {@link IdenityStorage#saveProfile(Profile)}
    *
@@ -573,12 +645,38 @@ public class IdentityStorageTest extends AbstractCoreTest {
     Identity identity = identityStorage.findIdentity(OrganizationIdentityProvider.NAME, "username1");
     identityStorage.processEnabledIdentity(identity, false);
     assertEquals(4, identityStorage.getIdentitiesByProfileFilterCount("organization", pf));
+    ProfileFilter firstCharFilter = new ProfileFilter();
+    firstCharFilter.setFirstCharacterOfName('L');
+    assertEquals(4, identityStorage.getIdentitiesByFirstCharacterOfNameCount("organization", firstCharFilter));
     
     //enable username1
     identityStorage.processEnabledIdentity(identity, true);
     assertEquals(5, identityStorage.getIdentitiesByProfileFilterCount("organization", pf));
+    assertEquals(5, identityStorage.getIdentitiesByFirstCharacterOfNameCount("organization", firstCharFilter));
   }
   
+  /**
+   * Tests {@link IdenityStorage#getIdentitiesByProfileFilterCount(String, ProfileFilter)} with a position filter, which
+   * adds an OR condition to the query, and a disabled identity.
+   */
+  @MaxQueryNumber(2000)
+  public void testGetIdentitiesByPositionCountWithDisabledIdentity() throws Exception {
+    populateData();
+
+    ProfileFilter pf = new ProfileFilter();
+    pf.setPosition("developer");
+    assertEquals(5, identityStorage.getIdentitiesByProfileFilterCount("organization", pf));
+
+    //disable username1
+    Identity identity = identityStorage.findIdentity(OrganizationIdentityProvider.NAME, "username1");
+    identityStorage.processEnabledIdentity(identity, false);
+    assertEquals(4, identityStorage.getIdentitiesByProfileFilterCount("organization", pf));
+
+    //enable username1
+    identityStorage.processEnabledIdentity(identity, true);
+    assertEquals(5, identityStorage.getIdentitiesByProfileFilterCount("organization", pf));
+  }
+
   /**
    * Tests {@link IdenityStorage#getIdentitiesByProfileFilterCount(String, ProfileFilter, int, int, boolean)}
    * 
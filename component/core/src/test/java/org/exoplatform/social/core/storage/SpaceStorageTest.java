@@ -21,6 +21,8 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.commons.lang.ArrayUtils;
+
 import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.identity.model.Profile;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
@@ -30,6 +32,7 @@ import org.exoplatform.social.core.service.LinkProvider;
 import org.exoplatform.social.core.space.SpaceFilter;
 import org.exoplatform.social.core.space.impl.DefaultSpaceApplicationHandler;
 import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.space.model.SpaceMembershipStatus;
 import org.exoplatform.social.core.storage.api.IdentityStorage;
 import org.exoplatform.social.core.storage.api.SpaceStorage;
 import org.exoplatform.social.core.storage.impl.StorageUtils;
@@ -1317,6 +1320,107 @@ public class SpaceStorageTest extends AbstractCoreTest {
     assertEquals("memberSpaces.size() must return: 0", 0, memberSpaces.size());
   }
 
+  /**
+   * Test {@link org.exoplatform.social.core.storage.api.SpaceStorage#addSpaceMember(Space, String, SpaceMembershipStatus)}
+   * and {@link org.exoplatform.social.core.storage.api.SpaceStorage#removeSpaceMember(Space, String, SpaceMembershipStatus)}
+   *
+   * @throws Exception
+   * @since 4.4
+   */
+  @MaxQueryNumber(300)
+  public void testAddAndRemoveSpaceMember() throws Exception {
+    Space space = this.getSpaceInstance(0);
+    spaceStorage.saveSpace(space, true);
+    StorageUtils.persist();
+    tearDownSpaceList.add(space);
+
+    assertTrue(spaceStorage.addSpaceMember(space, "paul", SpaceMembershipStatus.MEMBER));
+    assertFalse(spaceStorage.addSpaceMember(space, "paul", SpaceMembershipStatus.MEMBER));
+    assertTrue(spaceStorage.removeSpaceMember(space, "paul", SpaceMembershipStatus.PENDING));
+    assertTrue(spaceStorage.removeSpaceMember(space, "mary", SpaceMembershipStatus.INVITED));
+    assertFalse(spaceStorage.removeSpaceMember(space, "mary", SpaceMembershipStatus.INVITED));
+    assertEquals(4, space.getMembers().length);
+    StorageUtils.persist();
+
+    Space got = spaceStorage.getSpaceById(space.getId());
+    assertEquals(6, got.getMembers().length);
+    assertEquals(2, got.getManagers().length);
+    assertEquals(2, got.getPendingUsers().length);
+    assertEquals(1, got.getInvitedUsers().length);
+    assertEquals(1, spaceStorage.getMemberSpacesCount("paul"));
+    assertEquals(0, spaceStorage.getPendingSpacesCount("paul"));
+    assertEquals(0, spaceStorage.getInvitedSpacesCount("mary"));
+
+    assertTrue(spaceStorage.removeSpaceMember(got, "raul", SpaceMembershipStatus.MEMBER));
+    StorageUtils.persist();
+    assertEquals(0, spaceStorage.getMemberSpacesCount("raul"));
+    assertEquals(5, spaceStorage.getSpaceById(space.getId()).getMembers().length);
+  }
+
+  /**
+   * Test {@link org.exoplatform.social.core.storage.api.SpaceStorage#moveSpaceMember(Space, String, SpaceMembershipStatus, SpaceMembershipStatus...)}
+   *
+   * @throws Exception
+   * @since 4.4
+   */
+  @MaxQueryNumber(300)
+  public void testMoveSpaceMember() throws Exception {
+    Space space = this.getSpaceInstance(0);
+    spaceStorage.saveSpace(space, true);
+    StorageUtils.persist();
+    tearDownSpaceList.add(space);
+    int members = spaceStorage.getSpaceById(space.getId()).getMembers().length;
+
+    assertTrue(spaceStorage.moveSpaceMember(space, "paul", SpaceMembershipStatus.MEMBER,
+                                            SpaceMembershipStatus.INVITED, SpaceMembershipStatus.PENDING));
+    assertTrue(spaceStorage.moveSpaceMember(space, "mary", SpaceMembershipStatus.MEMBER,
+                                            SpaceMembershipStatus.INVITED, SpaceMembershipStatus.PENDING));
+    assertFalse(spaceStorage.moveSpaceMember(space, "mary", SpaceMembershipStatus.MEMBER,
+                                             SpaceMembershipStatus.INVITED, SpaceMembershipStatus.PENDING));
+    assertFalse(ArrayUtils.contains(space.getPendingUsers(), "paul"));
+    assertFalse(ArrayUtils.contains(space.getInvitedUsers(), "mary"));
+    StorageUtils.persist();
+
+    Space got = spaceStorage.getSpaceById(space.getId());
+    assertEquals(members + 2, got.getMembers().length);
+    assertEquals(2, got.getPendingUsers().length);
+    assertEquals(1, got.getInvitedUsers().length);
+    assertEquals(1, spaceStorage.getMemberSpacesCount("paul"));
+    assertEquals(1, spaceStorage.getMemberSpacesCount("mary"));
+    assertEquals(0, spaceStorage.getPendingSpacesCount("paul"));
+    assertEquals(0, spaceStorage.getInvitedSpacesCount("mary"));
+  }
+
+  /**
+   * Test {@link org.exoplatform.social.core.storage.api.SpaceStorage#isSpaceMember(String, String, SpaceMembershipStatus)}
+   *
+   * @throws Exception
+   * @since 4.4
+   */
+  @MaxQueryNumber(300)
+  public void testIsSpaceMember() throws Exception {
+    Space space = this.getSpaceInstance(0);
+    spaceStorage.saveSpace(space, true);
+    StorageUtils.persist();
+    tearDownSpaceList.add(space);
+
+    assertTrue(spaceStorage.isSpaceMember(space.getId(), "raul", SpaceMembershipStatus.MEMBER));
+    assertTrue(spaceStorage.isSpaceMember(space.getId(), "demo", SpaceMembershipStatus.MEMBER));
+    assertTrue(spaceStorage.isSpaceMember(space.getId(), "demo", SpaceMembershipStatus.MANAGER));
+    assertFalse(spaceStorage.isSpaceMember(space.getId(), "raul", SpaceMembershipStatus.MANAGER));
+    assertTrue(spaceStorage.isSpaceMember(space.getId(), "paul", SpaceMembershipStatus.PENDING));
+    assertTrue(spaceStorage.isSpaceMember(space.getId(), "mary", SpaceMembershipStatus.INVITED));
+    assertFalse(spaceStorage.isSpaceMember(space.getId(), "nobody", SpaceMembershipStatus.MEMBER));
+
+    spaceStorage.addSpaceMember(space, "paul", SpaceMembershipStatus.MEMBER);
+    spaceStorage.removeSpaceMember(space, "paul", SpaceMembershipStatus.PENDING);
+    StorageUtils.persist();
+    assertTrue(spaceStorage.isSpaceMember(space.getId(), "paul", SpaceMembershipStatus.MEMBER));
+    assertFalse(spaceStorage.isSpaceMember(space.getId(), "paul", SpaceMembershipStatus.PENDING));
+
+    assertFalse(spaceStorage.hasAnyGroupMembership(space.getGroupId(), "paul"));
+  }
+
   /**
    * Test {@link org.exoplatform.social.core.storage.SpaceStorage#getMemberSpacesByFilter(String, org.exoplatform.social.core.space.SpaceFilter, long, long)}
    *
@@ -17,15 +17,20 @@
 
 package org.exoplatform.social.core.storage.cache;
 
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.social.core.identity.model.ActiveIdentityFilter;
 import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.IdentityStatus;
 import org.exoplatform.social.core.identity.model.Profile;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
+import org.exoplatform.social.core.model.AvatarAttachment;
+import org.exoplatform.social.core.model.AvatarSize;
 import org.exoplatform.social.core.profile.ProfileFilter;
 import org.exoplatform.social.core.storage.api.IdentityStorage;
 import org.exoplatform.social.core.storage.streams.StreamConfig;
@@ -57,6 +62,9 @@ public class CachedIdentityStorageTestCase extends AbstractCoreTest {
     cacheService.getCountIdentitiesCache().clearCache();
     cacheService.getIdentityIndexCache().clearCache();
     cacheService.getProfileCache().clearCache();
+    cacheService.getProfileSummaryCache().clearCache();
+    cacheService.getAvatarCache().clearCache();
+    cacheService.getIdentityStatusCache().clearCache();
 
     tearDownIdentityList = new ArrayList<String>();
   }
@@ -119,6 +127,71 @@ public class CachedIdentityStorageTestCase extends AbstractCoreTest {
 
   }
 
+  @MaxQueryNumber(150)
+  public void testFindIdentities() throws Exception {
+
+    List<String> ids = new ArrayList<String>();
+    for (String remoteId : Arrays.asList("id1", "id2", "id3")) {
+      Identity i = new Identity(OrganizationIdentityProvider.NAME, remoteId);
+      identityStorage.saveIdentity(i);
+      tearDownIdentityList.add(i.getId());
+      ids.add(i.getId());
+    }
+    cacheService.getIdentityCache().clearCache();
+
+    // only the misses are loaded and cached
+    identityStorage.findIdentityById(ids.get(0));
+    assertEquals(1, cacheService.getIdentityCache().getCacheSize());
+    List<Identity> identities = identityStorage.findIdentitiesByIds(ids);
+    assertEquals(3, identities.size());
+    assertEquals(ids.get(1), identities.get(1).getId());
+    assertEquals("id2", identities.get(1).getRemoteId());
+    assertEquals(3, cacheService.getIdentityCache().getCacheSize());
+
+    assertEquals(0, cacheService.getIdentityIndexCache().getCacheSize());
+    identities = identityStorage.findIdentities(OrganizationIdentityProvider.NAME, Arrays.asList("id3", "unknown", "id1"));
+    assertEquals(2, identities.size());
+    assertEquals(ids.get(2), identities.get(0).getId());
+    assertEquals(ids.get(0), identities.get(1).getId());
+    assertEquals(2, cacheService.getIdentityIndexCache().getCacheSize());
+
+    // the profile is loaded when it is accessed
+    assertEquals(0, cacheService.getProfileCache().getCacheSize());
+    assertNotNull(identities.get(0).getProfile().getId());
+    assertEquals(1, cacheService.getProfileCache().getCacheSize());
+
+  }
+
+  @MaxQueryNumber(100)
+  public void testGetIdentityStatus() throws Exception {
+
+    assertEquals(0, cacheService.getIdentityStatusCache().getCacheSize());
+    assertFalse(identityStorage.getIdentityStatus(OrganizationIdentityProvider.NAME, "id").exists());
+    assertEquals(1, cacheService.getIdentityStatusCache().getCacheSize());
+
+    // the identity is not loaded to get its status
+    Identity i = new Identity(OrganizationIdentityProvider.NAME, "id");
+    identityStorage.saveIdentity(i);
+    assertEquals(0, cacheService.getIdentityStatusCache().getCacheSize());
+    cacheService.getIdentityCache().clearCache();
+    IdentityStatus status = identityStorage.getIdentityStatus(OrganizationIdentityProvider.NAME, "id");
+    assertEquals(i.getId(), status.getId());
+    assertTrue(status.isActive());
+    assertEquals(1, cacheService.getIdentityStatusCache().getCacheSize());
+    assertEquals(0, cacheService.getIdentityCache().getCacheSize());
+    assertEquals(0, cacheService.getProfileCache().getCacheSize());
+
+    identityStorage.processEnabledIdentity(i, false);
+    assertEquals(0, cacheService.getIdentityStatusCache().getCacheSize());
+    assertFalse(identityStorage.getIdentityStatus(OrganizationIdentityProvider.NAME, "id").isEnable());
+    identityStorage.processEnabledIdentity(i, true);
+
+    identityStorage.deleteIdentity(i);
+    assertEquals(0, cacheService.getIdentityStatusCache().getCacheSize());
+    assertFalse(identityStorage.getIdentityStatus(OrganizationIdentityProvider.NAME, "id").exists());
+
+  }
+
   @MaxQueryNumber(372)
   public void testRemoveIdentity() throws Exception {
 
@@ -169,6 +242,70 @@ public class CachedIdentityStorageTestCase extends AbstractCoreTest {
 
   }
 
+  @MaxQueryNumber(150)
+  public void testLoadProfileSummary() throws Exception {
+
+    Identity i = new Identity(OrganizationIdentityProvider.NAME, "id");
+    identityStorage.saveIdentity(i);
+    tearDownIdentityList.add(i.getId());
+    Profile profile = new Profile(i);
+    profile.setProperty(Profile.FIRST_NAME, "Summary");
+    profile.setProperty(Profile.LAST_NAME, "Profile");
+    profile.setProperty(Profile.FULL_NAME, "Summary Profile");
+    profile.setProperty(Profile.EMAIL, "summary@exoplatform.com");
+    identityStorage.saveProfile(profile);
+    assertEquals(0, cacheService.getProfileCache().getCacheSize());
+    assertEquals(0, cacheService.getProfileSummaryCache().getCacheSize());
+
+    ProfileFilter filter = new ProfileFilter();
+    filter.setName("Summary");
+    filter.setSummaryOnly(true);
+    List<Identity> identities = identityStorage.getIdentitiesByProfileFilter(OrganizationIdentityProvider.NAME, filter,
+                                                                             0, 10, false);
+    assertEquals(1, identities.size());
+    assertEquals("Summary Profile", identities.get(0).getProfile().getFullName());
+    assertNull(identities.get(0).getProfile().getProperty(Profile.EMAIL));
+    assertEquals(0, cacheService.getProfileCache().getCacheSize());
+    assertEquals(1, cacheService.getProfileSummaryCache().getCacheSize());
+
+    Profile loaded = identityStorage.loadProfile(new Profile(i));
+    assertEquals("summary@exoplatform.com", loaded.getProperty(Profile.EMAIL));
+    assertEquals(1, cacheService.getProfileCache().getCacheSize());
+
+    identityStorage.saveProfile(loaded);
+    assertEquals(0, cacheService.getProfileCache().getCacheSize());
+    assertEquals(0, cacheService.getProfileSummaryCache().getCacheSize());
+
+  }
+
+  @MaxQueryNumber(150)
+  public void testGetAvatar() throws Exception {
+
+    Identity i = new Identity(OrganizationIdentityProvider.NAME, "id");
+    identityStorage.saveIdentity(i);
+    tearDownIdentityList.add(i.getId());
+    assertNull(identityStorage.getAvatar(i, AvatarSize.SMALL));
+    assertEquals(1, cacheService.getAvatarCache().getCacheSize());
+
+    Profile profile = new Profile(i);
+    InputStream inputStream = getClass().getResourceAsStream("/eXo-Social.png");
+    profile.setProperty(Profile.AVATAR, new AvatarAttachment(null, "avatar", "image/png", inputStream, null,
+                                                             System.currentTimeMillis()));
+    identityStorage.saveProfile(profile);
+    assertEquals(0, cacheService.getAvatarCache().getCacheSize());
+
+    AvatarAttachment original = identityStorage.getAvatar(i, AvatarSize.ORIGINAL);
+    AvatarAttachment small = identityStorage.getAvatar(i, AvatarSize.SMALL);
+    assertNotNull(original);
+    assertNotNull(small);
+    assertTrue(small.getImageBytes().length < original.getImageBytes().length);
+    assertEquals(original.getLastModified(), small.getLastModified());
+    assertEquals(2, cacheService.getAvatarCache().getCacheSize());
+
+    assertSame(small.getImageBytes(), identityStorage.getAvatar(i, AvatarSize.SMALL).getImageBytes());
+
+  }
+
   @MaxQueryNumber(90)
   public void testSaveProfile() throws Exception {
 
@@ -18,7 +18,9 @@
 package org.exoplatform.social.core.storage.cache;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
@@ -57,6 +59,7 @@ public class CachedRelationshipStorageTestCase extends AbstractCoreTest {
     cacheService.getRelationshipCacheByIdentity().clearCache();
     cacheService.getRelationshipsCache().clearCache();
     cacheService.getRelationshipsCount().clearCache();
+    cacheService.getRelationshipGraphCache().clearCache();
 
     tearDownIdentityList = new ArrayList<String>();
   }
@@ -348,6 +351,177 @@ public class CachedRelationshipStorageTestCase extends AbstractCoreTest {
   }
   
   
+  public void testGetConnectionsFromGraph() throws Exception {
+    Identity spearsIdentity = createIdentity("spears");
+    Identity williamsIdentity = createIdentity("williams");
+    Identity christmasIdentity = createIdentity("christmas");
+
+    Relationship connection = createRelationship(spearsIdentity, williamsIdentity, Relationship.Type.CONFIRMED);
+    createRelationship(spearsIdentity, christmasIdentity, Relationship.Type.PENDING);
+    assertEquals(0, cacheService.getRelationshipGraphCache().getCacheSize());
+
+    //
+    List<Identity> connections = relationshipStorage.getConnections(spearsIdentity, 0, 10);
+    assertEquals(1, connections.size());
+    assertEquals(williamsIdentity.getId(), connections.get(0).getId());
+    assertEquals(1, relationshipStorage.getConnectionsCount(spearsIdentity));
+    assertEquals(1, relationshipStorage.getOutgoingRelationshipsCount(spearsIdentity));
+    assertEquals(0, relationshipStorage.getIncomingRelationshipsCount(spearsIdentity));
+    assertTrue(relationshipStorage.hasRelationship(spearsIdentity, williamsIdentity, null));
+    assertFalse(relationshipStorage.hasRelationship(spearsIdentity, christmasIdentity, null));
+    assertEquals(1, cacheService.getRelationshipGraphCache().getCacheSize());
+
+    //
+    assertEquals(1, relationshipStorage.getIncomingRelationships(christmasIdentity, 0, -1).size());
+    assertEquals(0, relationshipStorage.getConnections(spearsIdentity, 1, 10).size());
+    assertEquals(2, cacheService.getRelationshipGraphCache().getCacheSize());
+
+    // the graphs of both identities are dropped
+    relationshipStorage.removeRelationship(connection);
+    assertEquals(1, cacheService.getRelationshipGraphCache().getCacheSize());
+    assertEquals(0, relationshipStorage.getConnectionsCount(spearsIdentity));
+    assertFalse(relationshipStorage.hasRelationship(spearsIdentity, williamsIdentity, null));
+  }
+
+  public void testUpdateSuggestions() throws Exception {
+    Identity adamsIdentity = createIdentity("adams");
+    Identity bakerIdentity = createIdentity("baker");
+    Identity carterIdentity = createIdentity("carter");
+
+    createRelationship(adamsIdentity, bakerIdentity, Relationship.Type.CONFIRMED);
+    assertEquals(0, relationshipStorage.getSuggestions(adamsIdentity, -1, -1, 10).size());
+    assertEquals(0, relationshipStorage.getSuggestions(adamsIdentity, 5, 5, 10).size());
+    assertEquals(2, cacheService.getSuggestionCache().getCacheSize());
+
+    // carter is suggested to adams without computing the suggestions again
+    createRelationship(bakerIdentity, carterIdentity, Relationship.Type.CONFIRMED);
+    assertEquals(2, cacheService.getSuggestionCache().getCacheSize());
+    relationshipStorage.updateSuggestions(bakerIdentity, carterIdentity);
+    assertEquals(1, cacheService.getSuggestionCache().getCacheSize());
+
+    Map<Identity, Integer> suggestions = relationshipStorage.getSuggestions(adamsIdentity, -1, -1, 10);
+    assertEquals(1, suggestions.size());
+    assertEquals(carterIdentity.getId(), suggestions.keySet().iterator().next().getId());
+    assertEquals(1, suggestions.values().iterator().next().intValue());
+    assertEquals(1, cacheService.getSuggestionCache().getCacheSize());
+
+    // same result when computed again
+    cacheService.getSuggestionCache().clearCache();
+    assertEquals(suggestions, relationshipStorage.getSuggestions(adamsIdentity, -1, -1, 10));
+  }
+
+  public void testGetRelationshipStatuses() throws Exception {
+    Identity viewerIdentity = createIdentity("viewer");
+    Identity connectedIdentity = createIdentity("connected");
+    Identity invitedIdentity = createIdentity("invited");
+    Identity invitingIdentity = createIdentity("inviting");
+    Identity ignoredIdentity = createIdentity("ignored");
+    Identity strangerIdentity = createIdentity("stranger");
+
+    createRelationship(viewerIdentity, connectedIdentity, Relationship.Type.CONFIRMED);
+    createRelationship(viewerIdentity, invitedIdentity, Relationship.Type.PENDING);
+    createRelationship(invitingIdentity, viewerIdentity, Relationship.Type.PENDING);
+    createRelationship(viewerIdentity, ignoredIdentity, Relationship.Type.IGNORED);
+
+    List<Identity> others = new ArrayList<Identity>();
+    others.add(connectedIdentity);
+    others.add(invitedIdentity);
+    others.add(invitingIdentity);
+    others.add(ignoredIdentity);
+    others.add(strangerIdentity);
+    others.add(viewerIdentity);
+
+    Map<String, Relationship.Type> statuses = relationshipStorage.getRelationshipStatuses(viewerIdentity, others);
+    assertEquals(4, statuses.size());
+    assertEquals(Relationship.Type.CONFIRMED, statuses.get(connectedIdentity.getId()));
+    assertEquals(Relationship.Type.OUTGOING, statuses.get(invitedIdentity.getId()));
+    assertEquals(Relationship.Type.INCOMING, statuses.get(invitingIdentity.getId()));
+    assertEquals(Relationship.Type.IGNORED, statuses.get(ignoredIdentity.getId()));
+    assertNull(statuses.get(strangerIdentity.getId()));
+    assertEquals(1, cacheService.getRelationshipGraphCache().getCacheSize());
+
+    // seen from the other side
+    statuses = relationshipStorage.getRelationshipStatuses(invitingIdentity, Arrays.asList(viewerIdentity));
+    assertEquals(Relationship.Type.OUTGOING, statuses.get(viewerIdentity.getId()));
+    statuses = relationshipStorage.getRelationshipStatuses(ignoredIdentity, Arrays.asList(viewerIdentity));
+    assertEquals(Relationship.Type.IGNORED, statuses.get(viewerIdentity.getId()));
+  }
+
+  public void testGetLastRelationships() throws Exception {
+    Identity ownerIdentity = createIdentity("owner");
+    Identity firstIdentity = createIdentity("first");
+    Identity secondIdentity = createIdentity("second");
+    Identity thirdIdentity = createIdentity("third");
+
+    Relationship invitation = createRelationship(firstIdentity, ownerIdentity, Relationship.Type.PENDING);
+    Thread.sleep(5);
+    createRelationship(ownerIdentity, secondIdentity, Relationship.Type.CONFIRMED);
+    Thread.sleep(5);
+    long since = System.currentTimeMillis();
+    createRelationship(ownerIdentity, thirdIdentity, Relationship.Type.PENDING);
+
+    assertEquals(Arrays.asList(secondIdentity.getId()), ids(relationshipStorage.getLastConnections(ownerIdentity, 10)));
+    List<Relationship> relationships = relationshipStorage.getLastRelationships(ownerIdentity, Relationship.Type.ALL, 0, 0, 0);
+    assertEquals(3, relationships.size());
+    assertEquals(thirdIdentity.getId(), relationships.get(0).getReceiver().getId());
+    assertEquals(1, relationshipStorage.getLastRelationships(ownerIdentity, Relationship.Type.PENDING, since, 0, 0).size());
+    assertEquals(1, relationshipStorage.getLastRelationshipsCount(ownerIdentity, Relationship.Type.PENDING, since));
+    assertEquals(3, relationshipStorage.getLastRelationshipsCount(ownerIdentity, Relationship.Type.ALL, 0));
+
+    // paging
+    relationships = relationshipStorage.getLastRelationships(ownerIdentity, Relationship.Type.ALL, 0, 1, 1);
+    assertEquals(1, relationships.size());
+    assertEquals(secondIdentity.getId(), relationships.get(0).getReceiver().getId());
+    assertEquals(0, relationshipStorage.getLastRelationships(ownerIdentity, Relationship.Type.ALL, 0, 3, 10).size());
+
+    // the connection is created when the invitation is confirmed
+    Thread.sleep(5);
+    invitation.setStatus(Relationship.Type.CONFIRMED);
+    relationshipStorage.saveRelationship(invitation);
+    assertEquals(Arrays.asList(firstIdentity.getId(), secondIdentity.getId()),
+                 ids(relationshipStorage.getLastConnections(ownerIdentity, 10)));
+    assertEquals(Arrays.asList(firstIdentity.getId()),
+                 ids(relationshipStorage.getLastConnections(ownerIdentity, since, 10)));
+    assertEquals(Arrays.asList(firstIdentity.getId()), ids(relationshipStorage.getLastConnections(ownerIdentity, 1)));
+    assertEquals(0, relationshipStorage.getLastConnections(ownerIdentity, 0).size());
+  }
+
+  public void testGetLastRelationshipsFromColdCache() throws Exception {
+    Identity ownerIdentity = createIdentity("owner");
+    Identity invitedIdentity = createIdentity("invited");
+    Identity ignoredIdentity = createIdentity("ignored");
+    createRelationship(ownerIdentity, invitedIdentity, Relationship.Type.PENDING);
+    createRelationship(ignoredIdentity, ownerIdentity, Relationship.Type.IGNORED);
+
+    // the relationships are not in the cache anymore, only their ids are read from the graph
+    cacheService.getRelationshipCache().clearCache();
+    cacheService.getRelationshipCacheByIdentity().clearCache();
+    cacheService.getRelationshipGraphCache().clearCache();
+
+    List<Relationship> relationships = relationshipStorage.getLastRelationships(ownerIdentity,
+                                                                                Relationship.Type.OUTGOING, 0, 0, 0);
+    assertEquals(1, relationships.size());
+    assertEquals(invitedIdentity.getId(), relationships.get(0).getReceiver().getId());
+    relationships = relationshipStorage.getLastRelationships(ownerIdentity, Relationship.Type.IGNORED, 0, 0, 0);
+    assertEquals(1, relationships.size());
+    assertEquals(ignoredIdentity.getId(), relationships.get(0).getSender().getId());
+    relationships = relationshipStorage.getLastRelationships(ignoredIdentity, Relationship.Type.IGNORED, 0, 0, 0);
+    assertEquals(1, relationships.size());
+
+    // no missing relationship has been cached
+    assertNotNull(relationshipStorage.getRelationship(ownerIdentity, invitedIdentity));
+    assertNotNull(relationshipStorage.getRelationship(invitedIdentity, ownerIdentity));
+    assertNotNull(relationshipStorage.getRelationship(ownerIdentity, ignoredIdentity));
+  }
+
+  private List<String> ids(List<Identity> identities) {
+    List<String> ids = new ArrayList<String>();
+    for (Identity identity : identities) {
+      ids.add(identity.getId());
+    }
+    return ids;
+  }
+
   private Identity createIdentity(String remoteId) {
     Identity identity = new Identity("organization", remoteId);
     identityStorage.saveIdentity(identity);
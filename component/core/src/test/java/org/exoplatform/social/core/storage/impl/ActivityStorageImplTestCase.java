@@ -1007,6 +1007,68 @@ public class ActivityStorageImplTestCase extends AbstractCoreTest {
     activityStorage.getActivityProcessors().remove(processor);
 
   }
+
+  @MaxQueryNumber(366)
+  public void testActivitiesProcessing() throws Exception {
+
+    //
+    BatchDummyProcessor processor = new BatchDummyProcessor(null);
+    activityStorage.getActivityProcessors().add(processor);
+
+    //
+    List<String> activityIds = new ArrayList<String>();
+    for (int i = 0; i < 3; i++) {
+      ExoSocialActivity activity = new ExoSocialActivityImpl();
+      activity.setTitle("activity " + i);
+      activityStorage.saveActivity(rootIdentity, activity);
+      tearDownActivityList.add(activity);
+      activityIds.add(activity.getId());
+    }
+    activityIds.add("unknown");
+
+    //
+    List<ExoSocialActivity> got = activityStorage.getActivities(activityIds);
+    assertEquals(4, got.size());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(activityIds.get(i), got.get(i).getId());
+      assertEquals("edited", got.get(i).getTitle());
+    }
+    assertNull(got.get(3));
+    assertEquals(1, processor.batches);
+
+    //
+    activityStorage.getActivityProcessors().remove(processor);
+
+  }
+
+  public void testActivitiesProcessingFailure() throws Exception {
+
+    //
+    List<String> activityIds = new ArrayList<String>();
+    for (int i = 0; i < 3; i++) {
+      ExoSocialActivity activity = new ExoSocialActivityImpl();
+      activity.setTitle("activity " + i);
+      activityStorage.saveActivity(rootIdentity, activity);
+      tearDownActivityList.add(activity);
+      activityIds.add(activity.getId());
+    }
+
+    //
+    FailingProcessor processor = new FailingProcessor(null);
+    processor.failingTitle = "activity 1";
+    activityStorage.getActivityProcessors().add(processor);
+
+    // the other activities are processed once, the failing one is left as it is
+    List<ExoSocialActivity> got = activityStorage.getActivities(activityIds);
+    assertEquals(3, got.size());
+    assertEquals("activity 0 edited", got.get(0).getTitle());
+    assertEquals("activity 1", got.get(1).getTitle());
+    assertEquals("activity 2 edited", got.get(2).getTitle());
+
+    //
+    activityStorage.getActivityProcessors().remove(processor);
+
+  }
   
   /**
    * Gets an instance of Space.
@@ -1060,6 +1122,38 @@ public class ActivityStorageImplTestCase extends AbstractCoreTest {
     }
   }
 
+  class BatchDummyProcessor extends DummyProcessor {
+
+    private int batches;
+
+    BatchDummyProcessor(final InitParams params) {
+      super(params);
+    }
+
+    @Override
+    public void processActivities(final List<ExoSocialActivity> activities) {
+      batches++;
+      super.processActivities(activities);
+    }
+  }
+
+  class FailingProcessor extends BaseActivityProcessorPlugin {
+
+    private String failingTitle;
+
+    FailingProcessor(final InitParams params) {
+      super(params);
+    }
+
+    @Override
+    public void processActivity(final ExoSocialActivity activity) {
+      if (activity.getTitle().equals(failingTitle)) {
+        throw new IllegalStateException("failing activity");
+      }
+      activity.setTitle(activity.getTitle() + " edited");
+    }
+  }
+
   private Space getSpaceInstance(int number) {
     Space space = new Space();
     space.setApp("app");
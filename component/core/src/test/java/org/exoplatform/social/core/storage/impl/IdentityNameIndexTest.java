@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.core.storage.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.exoplatform.social.core.profile.ProfileFilter;
+import org.exoplatform.social.core.search.Sorting;
+
+/**
+ * Unit Test for {@link IdentityNameIndex}.
+ */
+public class IdentityNameIndexTest extends TestCase {
+
+  private IdentityNameIndex index;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    index = new IdentityNameIndex();
+    List<String[]> names = new ArrayList<String[]>();
+    names.add(IdentityNameIndex.names("1", "Mary", "Williams", "Mary Williams"));
+    names.add(IdentityNameIndex.names("2", "John", "Anthony", "John Anthony"));
+    names.add(IdentityNameIndex.names("3", "Jack", "Miller", "Jack Miller"));
+    names.add(IdentityNameIndex.names("4", "James", "Davis", "James Davis"));
+    index.load(names);
+  }
+
+  public void testFind() throws Exception {
+    assertEquals(4, index.size());
+    assertEquals("[2, 4, 3, 1]", find(""));
+    assertEquals("[2, 4, 3, 1]", find("  "));
+    assertEquals("[2, 4, 3]", find("j"));
+    assertEquals("[4, 3, 1]", find("I"));
+    assertEquals("[1]", find("y w"));
+    assertEquals("[1]", find("mary "));
+    assertEquals("[]", find("williams "));
+    assertEquals("[]", find("xavier"));
+
+    Set<String> excludedIds = new HashSet<String>();
+    excludedIds.add("2");
+    assertEquals("[4, 3]", toString(index.find("j", excludedIds)));
+  }
+
+  public void testUpdate() throws Exception {
+    index.put("5", "Paul", "Brown", "Paul Brown");
+    assertEquals("[2, 5, 4, 3, 1]", find(""));
+
+    index.put("2", "John", "Young", "John Young");
+    assertEquals("[5, 4, 3, 1, 2]", find(""));
+    assertEquals("[]", find("anthony"));
+
+    index.remove("3");
+    assertEquals("[4, 2]", find("j"));
+    assertEquals(4, index.size());
+
+    index.clear();
+    assertFalse(index.isLoaded());
+    index.put("6", "Peter", "Jones", "Peter Jones");
+    assertEquals("[]", find(""));
+  }
+
+  public void testFilter() throws Exception {
+    // sorted by full name, nothing is returned when an identity is unknown
+    assertEquals("[3, 4, 2, 1]", index.filter("", Arrays.asList("1", "2", "3", "4")).toString());
+    assertEquals("[3, 2]", index.filter("j", Arrays.asList("2", "3")).toString());
+    assertNull(index.filter("j", Arrays.asList("2", "3", "7")));
+    assertEquals("[]", index.filter("xavier", Arrays.asList("1", "2")).toString());
+    assertEquals("[]", index.filter("", Collections.<String>emptyList()).toString());
+  }
+
+  public void testIsIndexable() throws Exception {
+    ProfileFilter filter = new ProfileFilter();
+    filter.setName("jo");
+    assertTrue(IdentityNameIndex.isIndexable(filter));
+
+    filter.setName("jo*");
+    assertFalse(IdentityNameIndex.isIndexable(filter));
+
+    filter.setName("jo");
+    filter.setPosition("developer");
+    assertFalse(IdentityNameIndex.isIndexable(filter));
+
+    filter = new ProfileFilter();
+    filter.setFirstCharacterOfName('j');
+    assertFalse(IdentityNameIndex.isIndexable(filter));
+
+    filter = new ProfileFilter();
+    filter.setSorting(new Sorting(Sorting.SortBy.DATE, Sorting.OrderBy.ASC));
+    assertFalse(IdentityNameIndex.isIndexable(filter));
+    assertTrue(IdentityNameIndex.isNameFilter(filter));
+
+    assertFalse(IdentityNameIndex.isIndexable(null));
+  }
+
+  private String find(String name) {
+    return toString(index.find(name, Collections.<String>emptySet()));
+  }
+
+  private String toString(Iterator<String> ids) {
+    List<String> list = new ArrayList<String>();
+    while (ids.hasNext()) {
+      list.add(ids.next());
+    }
+    return list.toString();
+  }
+}
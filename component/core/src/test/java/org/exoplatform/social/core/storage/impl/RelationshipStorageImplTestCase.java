@@ -656,6 +656,39 @@ public class RelationshipStorageImplTestCase extends AbstractCoreTest {
     assertEquals(tweedyIdentity, got.get(2));
     assertEquals(williamsIdentity, got.get(3));
   }
+
+  @MaxQueryNumber(639)
+  public void testGetConnectionsByNameFilter() throws Exception {
+
+    //
+    Identity spearsIdentity = createIdentity("spears");
+    Identity williamsIdentity = createIdentity("williams");
+    Identity christmasIdentity = createIdentity("christmas");
+    Identity kellyIdentity = createIdentity("kelly");
+    Identity tweedyIdentity = createIdentity("tweedy");
+
+    //
+    createRelationship(spearsIdentity, williamsIdentity, Relationship.Type.CONFIRMED);
+    createRelationship(spearsIdentity, christmasIdentity, Relationship.Type.CONFIRMED);
+    createRelationship(spearsIdentity, kellyIdentity, Relationship.Type.CONFIRMED);
+    createRelationship(tweedyIdentity, kellyIdentity, Relationship.Type.CONFIRMED);
+
+    ProfileFilter profileFilter = new ProfileFilter();
+    profileFilter.setName("e");
+
+    List<Identity> got = storage.getConnectionsByFilter(spearsIdentity, profileFilter, 0, 10);
+    assertEquals(1, got.size());
+    assertEquals(kellyIdentity, got.get(0));
+    assertEquals(1, storage.getConnectionsCountByFilter(spearsIdentity, profileFilter));
+
+    profileFilter.setName("s");
+    got = storage.getConnectionsByFilter(spearsIdentity, profileFilter, 0, 10);
+    assertEquals(2, got.size());
+    assertEquals(christmasIdentity, got.get(0));
+    assertEquals(williamsIdentity, got.get(1));
+    assertEquals(1, storage.getConnectionsByFilter(spearsIdentity, profileFilter, 1, 10).size());
+    assertEquals(2, storage.getConnectionsCountByFilter(spearsIdentity, profileFilter));
+  }
   
   @MaxQueryNumber(591)
   public void testGetIncomingByFilter() throws Exception {
@@ -707,6 +740,48 @@ public class RelationshipStorageImplTestCase extends AbstractCoreTest {
     assertEquals(williamsIdentity, got.get(3));
   }
   
+  @MaxQueryNumber(639)
+  public void testRelationshipCounters() throws Exception {
+    Identity adamsIdentity = createIdentity("adams");
+    Identity bakerIdentity = createIdentity("baker");
+    Identity carterIdentity = createIdentity("carter");
+
+    assertEquals(0, storage.getRelationshipsCount(adamsIdentity));
+    assertEquals(0, storage.getRelationshipsCount(bakerIdentity));
+    assertEquals(0, storage.getRelationshipsCount(carterIdentity));
+
+    // the invitation is counted by both identities
+    Relationship relationship = createRelationship(adamsIdentity, bakerIdentity, Relationship.Type.PENDING);
+    assertEquals(1, storage.getOutgoingRelationshipsCount(adamsIdentity));
+    assertEquals(1, storage.getIncomingRelationshipsCount(bakerIdentity));
+    assertEquals(1, storage.getRelationshipsCountByStatus(bakerIdentity, Relationship.Type.PENDING));
+    assertEquals(0, storage.getConnectionsCount(adamsIdentity));
+
+    // moved to the connections once confirmed
+    relationship.setStatus(Relationship.Type.CONFIRMED);
+    storage.saveRelationship(relationship);
+    assertEquals(0, storage.getOutgoingRelationshipsCount(adamsIdentity));
+    assertEquals(0, storage.getIncomingRelationshipsCount(bakerIdentity));
+    assertEquals(1, storage.getConnectionsCount(adamsIdentity));
+    assertEquals(1, storage.getConnectionsCount(bakerIdentity));
+
+    createRelationship(adamsIdentity, carterIdentity, Relationship.Type.CONFIRMED);
+    assertEquals(2, storage.getConnectionsCount(adamsIdentity));
+    assertEquals(2, storage.getRelationshipsCount(adamsIdentity));
+    assertEquals(2, storage.getRelationshipsCountByStatus(adamsIdentity, Relationship.Type.CONFIRMED));
+
+    storage.removeRelationship(relationship);
+    assertEquals(1, storage.getConnectionsCount(adamsIdentity));
+    assertEquals(0, storage.getConnectionsCount(bakerIdentity));
+
+    // the recomputed counters are the same
+    assertTrue(storage.recountRelationships(0, 100) >= 3);
+    assertEquals(1, storage.getConnectionsCount(adamsIdentity));
+    assertEquals(0, storage.getConnectionsCount(bakerIdentity));
+    assertEquals(1, storage.getConnectionsCount(carterIdentity));
+    assertEquals(1, storage.getRelationshipsCount(adamsIdentity));
+  }
+
   private Identity createIdentity(String remoteId) throws Exception {
     Identity identity = new Identity("organization", remoteId);
     identityStorage.saveIdentity(identity);
@@ -23,6 +23,7 @@ import org.exoplatform.social.core.application.RelationshipPublisherTest;
 import org.exoplatform.social.core.application.SpaceActivityPublisherTest;
 import org.exoplatform.social.core.feature.SpaceLastVisitedTest;
 import org.exoplatform.social.core.feature.WhatsHotTest;
+import org.exoplatform.social.core.identity.provider.OrganizationIdentitySynchronizerTest;
 import org.exoplatform.social.core.listeners.SocialUserProfileEventListenerImplTest;
 import org.exoplatform.social.core.manager.ActivityManagerTest;
 import org.exoplatform.social.core.manager.IdentityManagerTest;
@@ -85,6 +86,7 @@ import org.junit.runners.Suite.SuiteClasses;
   SpaceActivityPublisherTest.class,
   SpaceLifeCycleTest.class,
   SocialUserProfileEventListenerImplTest.class,
+  OrganizationIdentitySynchronizerTest.class,
   OSHtmlSanitizerProcessorTest.class,
   TemplateParamsProcessorTest.class,
   ProfileUpdatesPublisherTest.class,
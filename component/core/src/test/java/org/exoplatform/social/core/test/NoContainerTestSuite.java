@@ -24,10 +24,12 @@ import org.exoplatform.social.core.identity.model.IdentityTest;
 import org.exoplatform.social.core.image.ImageUtilsTest;
 import org.exoplatform.social.core.processor.ActivityResourceBundlePluginTest;
 import org.exoplatform.social.core.processor.I18NActivityProcessorTest;
+import org.exoplatform.social.core.profile.LuceneProfileSearchIndexTest;
 import org.exoplatform.social.core.relationship.RelationshipTest;
 import org.exoplatform.social.core.space.SpaceUtilsTest;
 import org.exoplatform.social.core.storage.ChromatticNameEncodeTest;
 import org.exoplatform.social.core.storage.StorageUtilsTest;
+import org.exoplatform.social.core.storage.impl.IdentityNameIndexTest;
 import org.exoplatform.social.core.storage.query.ExpressionConstructorTestCase;
 import org.exoplatform.social.core.storage.query.WhereExpressionTypesafetyTestCase;
 import org.exoplatform.social.core.storage.query.WhereExpressionValuesTestCase;
@@ -52,7 +54,9 @@ import org.junit.runners.Suite.SuiteClasses;
   ActiviyBuilderWhereTest.class,
   ActivityIteratorTest.class,
   IdentityResultTest.class,
-  ChromatticNameEncodeTest.class
+  ChromatticNameEncodeTest.class,
+  IdentityNameIndexTest.class,
+  LuceneProfileSearchIndexTest.class
   })
 public class NoContainerTestSuite {
   
@@ -18,6 +18,7 @@ package org.exoplatform.social.notification;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -28,6 +29,7 @@ import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.container.PortalContainer;
 import org.exoplatform.social.core.activity.model.ExoSocialActivity;
 import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.IdentityStatus;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
 import org.exoplatform.social.core.identity.provider.SpaceIdentityProvider;
 import org.exoplatform.social.core.manager.ActivityManager;
@@ -106,8 +108,7 @@ public class Utils {
    * @return The returned value is "true" if the activity is created, or "false" if the activity is not created.
    */
   public static boolean isSpaceActivity(ExoSocialActivity activity) {
-    Identity id = getIdentityManager().getOrCreateIdentity(SpaceIdentityProvider.NAME, activity.getStreamOwner(), false);
-    return (id != null);
+    return getIdentityManager().getIdentityStatus(SpaceIdentityProvider.NAME, activity.getStreamOwner()).exists();
   }
   
   public static void sendToCommeters(Set<String> receivers, String[] commenters, String poster) {
@@ -122,8 +123,7 @@ public class Utils {
    */
   public static void sendToStreamOwner(Set<String> receivers, String streamOwner, String posteId) {
     //Don't send to the stream owner when it's a space
-    Identity id = getIdentityManager().getOrCreateIdentity(SpaceIdentityProvider.NAME, streamOwner, false);
-    if (id != null) 
+    if (getIdentityManager().getIdentityStatus(SpaceIdentityProvider.NAME, streamOwner).exists())
       return;
     
     String postRemoteId = Utils.getUserId(posteId);
@@ -157,14 +157,17 @@ public class Utils {
    * @return The remote Ids.
    */
   private static Set<String> getDestinataires(String[] users, String poster) {
-    Set<String> destinataires = new HashSet<String>();
+    Set<String> identityIds = new LinkedHashSet<String>();
     for (String user : users) {
       user = user.split("@")[0];
-      String userName = getUserId(user);
       if (! user.equals(poster)) {
-        destinataires.add(userName);
+        identityIds.add(user);
       }
     }
+    Set<String> destinataires = new HashSet<String>();
+    for (Identity identity : getIdentityManager().getIdentitiesByIds(identityIds)) {
+      destinataires.add(identity.getRemoteId());
+    }
     return destinataires;
   }
   
@@ -179,9 +182,8 @@ public class Utils {
     String domain = CommonsUtils.getCurrentDomain();
     while (matcher.find()) {
       String remoteId = matcher.group(2);
-      Identity identity = getIdentityManager().getOrCreateIdentity(OrganizationIdentityProvider.NAME, remoteId, false);
       // if not the right mention then ignore
-      if (identity != null) { 
+      if (getIdentityManager().getIdentityStatus(OrganizationIdentityProvider.NAME, remoteId).exists()) { 
         String result = matcher.group();
         String host = matcher.group(1);
         title = title.replace(result, result.replace(host, domain + host));
@@ -203,8 +205,8 @@ public class Utils {
     Matcher matcher = MENTION_PATTERN.matcher(title);
     while (matcher.find()) {
       String remoteId = matcher.group(2);
-      Identity identity = getIdentityManager().getOrCreateIdentity(OrganizationIdentityProvider.NAME, remoteId, false);
-      if (identity != null && posterRemoteId.equals(remoteId) == false) { 
+      if (posterRemoteId.equals(remoteId) == false
+          && getIdentityManager().getIdentityStatus(OrganizationIdentityProvider.NAME, remoteId).exists()) { 
         mentioners.add(remoteId);
       }
     }
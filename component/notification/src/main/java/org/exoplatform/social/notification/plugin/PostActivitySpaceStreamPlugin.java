@@ -21,7 +21,7 @@ import org.exoplatform.commons.api.notification.model.NotificationInfo;
 import org.exoplatform.commons.api.notification.plugin.BaseNotificationPlugin;
 import org.exoplatform.container.xml.InitParams;
 import org.exoplatform.social.core.activity.model.ExoSocialActivity;
-import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.IdentityStatus;
 import org.exoplatform.social.core.identity.provider.SpaceIdentityProvider;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.notification.Utils;
@@ -62,9 +62,9 @@ public class PostActivitySpaceStreamPlugin extends BaseNotificationPlugin {
   @Override
   public boolean isValid(NotificationContext ctx) {
     ExoSocialActivity activity = ctx.value(SocialNotificationUtils.ACTIVITY);
-    Identity spaceIdentity = Utils.getIdentityManager().getOrCreateIdentity(SpaceIdentityProvider.NAME, activity.getStreamOwner(), false);
+    IdentityStatus spaceStatus = Utils.getIdentityManager().getIdentityStatus(SpaceIdentityProvider.NAME, activity.getStreamOwner());
     //if the space is not null and it's not the default activity of space, then it's valid to make notification 
-    if (spaceIdentity != null && activity.getPosterId().equals(spaceIdentity.getId()) == false) {
+    if (spaceStatus.exists() && activity.getPosterId().equals(spaceStatus.getId()) == false) {
       return true;
     }
     
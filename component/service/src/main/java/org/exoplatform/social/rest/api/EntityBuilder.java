@@ -20,6 +20,7 @@ package org.exoplatform.social.rest.api;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -174,9 +175,19 @@ public class EntityBuilder {
     if (userNames == null || userNames.length == 0) {
       return new ArrayList<DataEntity>();
     }
+    IdentityManager identityManager = CommonsUtils.getService(IdentityManager.class);
+    Map<String, Identity> identities = new HashMap<String, Identity>();
+    for (Identity identity : identityManager.getIdentitiesByRemoteIds(OrganizationIdentityProvider.NAME, Arrays.asList(userNames))) {
+      identities.put(identity.getRemoteId(), identity);
+    }
     List<DataEntity> userEntities = new ArrayList<DataEntity>();
     for (int i = 0; i < userNames.length; i++) {
-      userEntities.add(buildEntityProfile(userNames[i], restPath, expand).getDataEntity());
+      Identity identity = identities.get(userNames[i]);
+      if (identity != null) {
+        userEntities.add(buildEntityProfile(identity.getProfile(), restPath, expand).getDataEntity());
+      } else {
+        userEntities.add(buildEntityProfile(userNames[i], restPath, expand).getDataEntity());
+      }
     }
     return userEntities;
   }
@@ -270,7 +281,7 @@ public class EntityBuilder {
    * @return a hash map
    */
   public static ActivityEntity buildEntityFromActivity(ExoSocialActivity activity, String restPath, String expand) {
-    Identity poster = CommonsUtils.getService(IdentityManager.class).getIdentity(activity.getPosterId(), true);
+    Identity poster = CommonsUtils.getService(IdentityManager.class).getIdentity(activity.getPosterId(), false);
     ActivityEntity activityEntity = new ActivityEntity(activity);
     activityEntity.setHref(RestUtils.getRestUrl(ACTIVITIES_TYPE, activity.getId(), restPath));
     LinkEntity identityLink;
@@ -302,7 +313,7 @@ public class EntityBuilder {
   }
   
   public static CommentEntity buildEntityFromComment(ExoSocialActivity comment, String restPath, String expand, boolean isBuildList) {
-    Identity poster = CommonsUtils.getService(IdentityManager.class).getIdentity(comment.getPosterId(), true);
+    Identity poster = CommonsUtils.getService(IdentityManager.class).getIdentity(comment.getPosterId(), false);
     CommentEntity commentEntity = new CommentEntity(comment.getId());
     commentEntity.setHref(RestUtils.getRestUrl(ACTIVITIES_TYPE, comment.getId(), restPath));
     LinkEntity identityLink;
@@ -17,6 +17,8 @@
 
 package org.exoplatform.social.rest.api;
 
+import java.util.List;
+
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
@@ -55,6 +57,18 @@ public interface RelationshipsRestResources extends SocialRest {
                                               @QueryParam("expand") String expand,
                                               RelationshipEntity model) throws Exception;
 
+  /**
+   * Confirms many relationships at once
+   * 
+   * @param uriInfo
+   * @return
+   * @throws Exception
+   */
+  @POST
+  @Path("bulk")
+  public abstract Response confirmRelationships(@Context UriInfo uriInfo,
+                                                List<RelationshipEntity> models) throws Exception;
+
   /**
    * Get a relationship by id
    * 
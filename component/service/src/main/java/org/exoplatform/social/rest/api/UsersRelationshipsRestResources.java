@@ -44,6 +44,7 @@ public interface UsersRelationshipsRestResources extends SocialRest {
                                                  @QueryParam("offset") int offset,
                                                  @QueryParam("limit") int limit,
                                                  @QueryParam("returnSize") boolean returnSize,
+                                                 @QueryParam("since") long since,
                                                  @QueryParam("expand") String expand) throws Exception;
 
   /**
@@ -23,7 +23,11 @@ import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.security.RolesAllowed;
 import javax.ws.rs.DELETE;
@@ -166,6 +170,62 @@ public class RelationshipsRestResourcesV1 implements RelationshipsRestResources
     return EntityBuilder.getResponse(EntityBuilder.buildEntityRelationship(relationship, uriInfo.getPath(), expand, true), uriInfo, RestUtils.getJsonMediaType(), Response.Status.OK);
   }
   
+  @POST
+  @Path("bulk")
+  @Produces(MediaType.APPLICATION_JSON)
+  @RolesAllowed("users")
+  @ApiOperation(value = "Confirms many relationships at once",
+                httpMethod = "POST",
+                response = Response.class,
+                notes = "This connects all the pairs of users when the authenticated user is in the group /platform/administrators. The relationships which do not exist are created confirmed, the pending ones get confirmed and the confirmed ones are left unchanged. The connections streams are updated in background.")
+  @ApiResponses(value = { 
+    @ApiResponse (code = 200, message = "Request fulfilled"),
+    @ApiResponse (code = 500, message = "Internal server error"),
+    @ApiResponse (code = 400, message = "Invalid query input"),
+    @ApiResponse (code = 412, message = "Precondition failed, check your input params")})
+  public Response confirmRelationships(@Context UriInfo uriInfo,
+                                       @ApiParam(value = "Relationship objects to be confirmed, required fields: <br/>sender - user name of the sender,<br/>receiver - user name of the receiver", required = true) List<RelationshipEntity> models) throws Exception {
+    
+    if (! RestUtils.isMemberOfAdminGroup()) {
+      throw new WebApplicationException(Response.Status.UNAUTHORIZED);
+    }
+    if (models == null) {
+      throw new WebApplicationException(Response.Status.PRECONDITION_FAILED);
+    }
+    //
+    Set<String> remoteIds = new HashSet<String>();
+    for (RelationshipEntity model : models) {
+      if (model == null || model.getSender() == null || model.getReceiver() == null
+          || model.getSender().equals(model.getReceiver())) {
+        throw new WebApplicationException(Response.Status.PRECONDITION_FAILED);
+      }
+      remoteIds.add(model.getSender());
+      remoteIds.add(model.getReceiver());
+    }
+    // all the identities are read at once
+    Map<String, Identity> identities = new HashMap<String, Identity>();
+    for (Identity identity : CommonsUtils.getService(IdentityManager.class)
+                                         .getIdentitiesByRemoteIds(OrganizationIdentityProvider.NAME, remoteIds)) {
+      identities.put(identity.getRemoteId(), identity);
+    }
+    List<Relationship> relationships = new ArrayList<Relationship>();
+    for (RelationshipEntity model : models) {
+      Identity sender = identities.get(model.getSender());
+      Identity receiver = identities.get(model.getReceiver());
+      if (sender == null || receiver == null) {
+        throw new WebApplicationException(Response.Status.PRECONDITION_FAILED);
+      }
+      relationships.add(new Relationship(sender, receiver));
+    }
+    
+    List<Relationship> confirmed = CommonsUtils.getService(RelationshipManager.class).confirmAll(relationships);
+    List<DataEntity> relationshipEntities = EntityBuilder.buildRelationshipEntities(confirmed, uriInfo);
+    CollectionEntity collectionRelationship = new CollectionEntity(relationshipEntities, RestProperties.RELATIONSHIPS, 0, confirmed.size());
+    collectionRelationship.setSize(confirmed.size());
+    //
+    return EntityBuilder.getResponse(collectionRelationship, uriInfo, RestUtils.getJsonMediaType(), Response.Status.OK);
+  }
+  
   @GET
   @Path("{id}")
   @RolesAllowed("users")
@@ -78,6 +78,7 @@ public class UsersRelationshipsRestResourcesV1 implements UsersRelationshipsRest
                                         @ApiParam(value = "Offset", required = false, defaultValue = "0") @QueryParam("offset") int offset,
                                         @ApiParam(value = "Limit", required = false, defaultValue = "20") @QueryParam("limit") int limit,
                                         @ApiParam(value = "Returning the number of relationships or not", defaultValue = "false") @QueryParam("returnSize") boolean returnSize,
+                                        @ApiParam(value = "Only the relationships created since this time in milliseconds, the most recent first", required = false) @QueryParam("since") long since,
                                         @ApiParam(value = "Asking for a full representation of a specific subresource, ex: sender or receiver", required = false) @QueryParam("expand") String expand) throws Exception {
     
     offset = offset > 0 ? offset : RestUtils.getOffset(uriInfo);
@@ -96,14 +97,19 @@ public class UsersRelationshipsRestResourcesV1 implements UsersRelationshipsRest
     List<Relationship> relationships = new ArrayList<Relationship>();
     int size = 0;
     
+    Identity target;
     if (user != null & RestUtils.isMemberOfAdminGroup()) {
-      Identity givenUser = identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, user, true);
-      relationships = relationshipManager.getRelationshipsByStatus(givenUser, type, offset, limit);
-      size = returnSize ? relationshipManager.getRelationshipsCountByStatus(givenUser, type) : -1;
+      target = identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, user, true);
     } else {
-      Identity authenticatedUser = identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, ConversationState.getCurrent().getIdentity().getUserId(), true);
-      relationships = relationshipManager.getRelationshipsByStatus(authenticatedUser, type, offset, limit);
-      size = returnSize ? relationshipManager.getRelationshipsCountByStatus(authenticatedUser, type) : -1;
+      target = identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, ConversationState.getCurrent().getIdentity().getUserId(), true);
+    }
+    if (since > 0) {
+      // read from the relationships ordered by creation time, only the page is loaded
+      relationships = relationshipManager.getLastRelationships(target, type, since, offset, limit);
+      size = returnSize ? relationshipManager.getLastRelationshipsCount(target, type, since) : -1;
+    } else {
+      relationships = relationshipManager.getRelationshipsByStatus(target, type, offset, limit);
+      size = returnSize ? relationshipManager.getRelationshipsCountByStatus(target, type) : -1;
     }
     
     List<DataEntity> relationshipEntities = EntityBuilder.buildRelationshipEntities(relationships, uriInfo);
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.service.rest;
+
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+
+import org.exoplatform.services.rest.resource.ResourceContainer;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.manager.IdentityManager;
+import org.exoplatform.social.core.model.AvatarAttachment;
+import org.exoplatform.social.core.model.AvatarSize;
+
+/**
+ * Serves the avatars of the identities in fixed sizes, with HTTP caching.
+ * <br>
+ * The resized avatars are kept in the bounded avatar cache of the identity storage, so the hot avatars are not read
+ * from JCR for each request. The responses carry a strong ETag built from the identity, the size and the last
+ * modification of the avatar, a conditional request with a matching <code>If-None-Match</code> is answered with 304.
+ * When the request gives the last modification of the avatar as version, the response may be cached for a year
+ * since a new avatar gets a new version, otherwise the clients must revalidate it.
+ *
+ * @anchor AvatarRestService
+ * @since 4.4
+ */
+@Path("social/avatar")
+public class AvatarRestService implements ResourceContainer {
+
+  /** One year, the max age of a versioned avatar */
+  private static final int VERSIONED_MAX_AGE = 365 * 24 * 60 * 60;
+
+  private final IdentityManager identityManager;
+
+  public AvatarRestService(IdentityManager identityManager) {
+    this.identityManager = identityManager;
+  }
+
+  /**
+   * Gets the avatar of an identity.
+   *
+   * @param request The request, to evaluate its preconditions.
+   * @param identityId The id of the identity.
+   * @param size The size of the avatar: small, medium, large or original, the default.
+   * @param version The last modification time of the avatar, optional.
+   * @return The avatar image, or 304 if the client has the same avatar.
+   * @anchor AvatarRestService.getAvatar
+   * @authentication
+   * @request
+   * GET: {@code http://localhost:8080/rest/social/avatar/<identityId>?size=medium&v=1420070400000}
+   * @LevelAPI Experimental
+   */
+  @GET
+  @RolesAllowed("users")
+  @Path("{identityId}")
+  public Response getAvatar(@Context Request request,
+                            @PathParam("identityId") String identityId,
+                            @QueryParam("size") String size,
+                            @QueryParam("v") String version) {
+
+    Identity identity = identityManager.getIdentity(identityId, false);
+    if (identity == null || identity.isDeleted()) {
+      throw new WebApplicationException(Response.Status.NOT_FOUND);
+    }
+
+    AvatarSize avatarSize = AvatarSize.fromName(size);
+    AvatarAttachment avatar = identityManager.getAvatar(identity, avatarSize);
+    if (avatar == null) {
+      throw new WebApplicationException(Response.Status.NOT_FOUND);
+    }
+
+    //
+    EntityTag tag = new EntityTag(identity.getId() + "-" + avatarSize.name().toLowerCase() + "-" + avatar.getLastModified());
+    CacheControl cacheControl = new CacheControl();
+    cacheControl.setPrivate(true);
+    if (String.valueOf(avatar.getLastModified()).equals(version)) {
+      cacheControl.setMaxAge(VERSIONED_MAX_AGE);
+    } else {
+      cacheControl.setMaxAge(0);
+      cacheControl.setMustRevalidate(true);
+    }
+
+    ResponseBuilder builder = request.evaluatePreconditions(tag);
+    if (builder == null) {
+      builder = Response.ok(avatar.getImageBytes(), getMimeType(avatar));
+    }
+    return builder.tag(tag).cacheControl(cacheControl).build();
+  }
+
+  private static String getMimeType(AvatarAttachment avatar) {
+    String mimeType = avatar.getMimeType();
+    if (mimeType == null || mimeType.indexOf('/') < 0) {
+      return "image/" + (mimeType == null ? "png" : mimeType);
+    }
+    return mimeType;
+  }
+
+}
@@ -125,6 +125,13 @@ public class LinkShare extends DefaultFilter {
   private static final int MIN_HEIGHT = 55;
   //maxium description length = 250 characters
   private static final int MAX_DESCRIPTION = 500;
+
+  /**
+   * Patterns used on each shared link, compiled once.
+   */
+  private static final Pattern PARENT_DIRECTORY_PATTERN = Pattern.compile("\\.\\./");
+  private static final Pattern LINE_BREAK_PATTERN = Pattern.compile("\r\n|\n\r|\n|\r");
+
   //default lang
   private static String lang = "en";
   private String   link;
@@ -602,9 +609,7 @@ public class LinkShare extends DefaultFilter {
       link = link.substring(1, link.length());
       return this.link + link;        
     } else if (link.startsWith("../")) {
-      String regex = "\\.\\./";
-      Pattern partern = Pattern.compile(regex);
-      Matcher matcher = partern.matcher(link);
+      Matcher matcher = PARENT_DIRECTORY_PATTERN.matcher(link);
       int level = 0;
       while (matcher.find()) {
         level++;
@@ -636,7 +641,10 @@ public class LinkShare extends DefaultFilter {
    */
   private String escapeSpecialCharacters(String str) {
     if (str != null) {
-      return str.replaceAll("\r\n|\n\r|\n|\r", "");
+      if (str.indexOf('\n') < 0 && str.indexOf('\r') < 0) {
+        return str;
+      }
+      return LINE_BREAK_PATTERN.matcher(str).replaceAll("");
     } else {
       return "";
     }
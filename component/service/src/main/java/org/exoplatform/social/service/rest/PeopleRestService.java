@@ -160,6 +160,7 @@ public class PeopleRestService implements ResourceContainer{
     filter.setPosition("");
     filter.setSkills("");
     filter.setExcludedIdentityList(excludedIdentityList);
+    filter.setSummaryOnly(true);
     
     Identity currentIdentity = getIdentityManager().getOrCreateIdentity(
                                  OrganizationIdentityProvider.NAME, currentUser, false);
@@ -219,6 +220,7 @@ public class PeopleRestService implements ResourceContainer{
     filter.setPosition("");
     filter.setSkills("");
     filter.setExcludedIdentityList(excludedIdentityList);
+    filter.setSummaryOnly(true);
     List<Identity> identities = Arrays.asList(getIdentityManager().getIdentitiesByProfileFilter(
                                   OrganizationIdentityProvider.NAME, filter, false).load(0, (int)SUGGEST_LIMIT));
     
@@ -388,7 +390,8 @@ public class PeopleRestService implements ResourceContainer{
         
         if(currentUserName != null && !userId.equals(currentUserName)) {
           // Set relationship type
-          Relationship relationship = getRelationshipManager().get(currentIdentity, identity);
+          Relationship.Type status = getRelationshipManager().getRelationshipStatuses(currentIdentity, Arrays.asList(identity))
+                                                             .get(identity.getId());
           
           if(currentIdentity != null) {
             // Process action
@@ -408,7 +411,7 @@ public class PeopleRestService implements ResourceContainer{
               }
             }
   
-            relationshipType = getRelationshipType(relationship, currentIdentity);
+            relationshipType = getRelationshipType(status);
             peopleInfo.setRelationshipType(relationshipType);
           }
         }
@@ -672,22 +675,20 @@ public class PeopleRestService implements ResourceContainer{
   }
   
   /**
-   * Gets type of relationship appropriate to each specific relationship.
+   * Gets type of relationship appropriate to each specific relationship status.
    * 
-   * @param relationship Relationship of current user and selected user.
-   * @param identity Current identity
+   * @param status Status of the relationship of current user with selected user.
    * @return Relationship Type.
    */
-  private String getRelationshipType(Relationship relationship, Identity identity) {
-    if (relationship == null) return ALIEN_STATUS;
-    if (relationship.getStatus() == Relationship.Type.PENDING) {
-      if (relationship.getSender().equals(identity)) {
-        return WAITING_STATUS;  
-      }
+  private String getRelationshipType(Relationship.Type status) {
+    if (status == null) return ALIEN_STATUS;
+    if (status == Relationship.Type.OUTGOING) {
+      return WAITING_STATUS;
+    } else if (status == Relationship.Type.INCOMING) {
       return PENDING_STATUS;
-    } else if (relationship.getStatus() == Relationship.Type.CONFIRMED) {
+    } else if (status == Relationship.Type.CONFIRMED) {
       return CONFIRMED_STATUS;
-    } else if (relationship.getStatus() == Relationship.Type.IGNORED) {
+    } else if (status == Relationship.Type.IGNORED) {
       return IGNORED_STATUS;
     }
     
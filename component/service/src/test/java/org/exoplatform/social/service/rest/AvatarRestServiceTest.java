@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2003-2015 eXo Platform SAS.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.exoplatform.social.service.rest;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import javax.imageio.ImageIO;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.services.rest.impl.ContainerResponse;
+import org.exoplatform.services.rest.impl.MultivaluedMapImpl;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
+import org.exoplatform.social.core.manager.IdentityManager;
+import org.exoplatform.social.core.model.AvatarAttachment;
+import org.exoplatform.social.core.model.AvatarSize;
+import org.exoplatform.social.service.test.AbstractResourceTest;
+
+/**
+ * Unit Test for {@link AvatarRestService}.
+ */
+public class AvatarRestServiceTest extends AbstractResourceTest {
+
+  private IdentityManager identityManager;
+  private AvatarRestService avatarRestService;
+  private Identity identity;
+
+  public void setUp() throws Exception {
+    super.setUp();
+    identityManager = (IdentityManager) PortalContainer.getInstance().getComponentInstanceOfType(IdentityManager.class);
+    avatarRestService = new AvatarRestService(identityManager);
+    registry(avatarRestService);
+
+    identity = new Identity(OrganizationIdentityProvider.NAME, "avatar_user");
+    identityManager.saveIdentity(identity);
+    Profile profile = new Profile(identity);
+    profile.setProperty(Profile.AVATAR, new AvatarAttachment(null, "avatar", "image/png",
+                                                             new ByteArrayInputStream(createImage(200, 100)), null,
+                                                             System.currentTimeMillis()));
+    identityManager.saveProfile(profile);
+  }
+
+  public void tearDown() throws Exception {
+    identityManager.deleteIdentity(identity);
+    unregistry(avatarRestService);
+    super.tearDown();
+  }
+
+  public void testGetAvatar() throws Exception {
+    startSessionAs("root");
+    ContainerResponse response = service("GET", "/social/avatar/" + identity.getId() + "?size=small", "", null, null);
+    assertEquals(200, response.getStatus());
+    BufferedImage image = ImageIO.read(new ByteArrayInputStream((byte[]) response.getEntity()));
+    assertEquals(AvatarSize.SMALL.getWidth(), image.getWidth());
+    assertEquals(AvatarSize.SMALL.getWidth(), image.getHeight());
+    EntityTag tag = (EntityTag) response.getHttpHeaders().getFirst("ETag");
+    assertNotNull(tag);
+
+    MultivaluedMap<String, String> headers = new MultivaluedMapImpl();
+    headers.putSingle("If-None-Match", tag.toString());
+    response = service("GET", "/social/avatar/" + identity.getId() + "?size=small", "", headers, null);
+    assertEquals(304, response.getStatus());
+
+    response = service("GET", "/social/avatar/" + identity.getId(), "", headers, null);
+    assertEquals(200, response.getStatus());
+    image = ImageIO.read(new ByteArrayInputStream((byte[]) response.getEntity()));
+    assertEquals(200, image.getWidth());
+  }
+
+  public void testGetMissingAvatar() throws Exception {
+    startSessionAs("root");
+    Identity other = new Identity(OrganizationIdentityProvider.NAME, "no_avatar_user");
+    identityManager.saveIdentity(other);
+    try {
+      assertEquals(404, service("GET", "/social/avatar/" + other.getId(), "", null, null).getStatus());
+      assertEquals(404, service("GET", "/social/avatar/unknown", "", null, null).getStatus());
+    } finally {
+      identityManager.deleteIdentity(other);
+    }
+  }
+
+  private static byte[] createImage(int width, int height) throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", output);
+    return output.toByteArray();
+  }
+}
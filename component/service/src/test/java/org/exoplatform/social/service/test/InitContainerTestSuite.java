@@ -26,6 +26,7 @@ import org.exoplatform.social.rest.impl.spacemembership.SpaceMembershipRestResou
 import org.exoplatform.social.rest.impl.userrelationship.UsersRelationshipsRestResourcesTest;
 import org.exoplatform.social.rest.impl.users.UserRestResourcesTest;
 import org.exoplatform.social.service.rest.ActivitiesRestServiceTest;
+import org.exoplatform.social.service.rest.AvatarRestServiceTest;
 import org.exoplatform.social.service.rest.IdentityRestServiceTest;
 import org.exoplatform.social.service.rest.IntranetNotificationsRestServiceTest;
 import org.exoplatform.social.service.rest.LinkShareRestServiceTest;
@@ -54,6 +55,7 @@ import org.junit.runners.Suite.SuiteClasses;
   VersionResourcesTest.class,
   ActivitiesRestServiceTest.class,
   IdentityRestServiceTest.class,
+  AvatarRestServiceTest.class,
   LinkShareRestServiceTest.class,
   PeopleRestServiceTest.class,
   RestCheckerTest.class,
@@ -18,6 +18,7 @@ package org.exoplatform.social.webui;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -314,6 +315,33 @@ public class Utils {
     return getRelationshipManager().get(identity, getViewerIdentity());
   }
 
+  /**
+   * Gets the relationships of the viewer with a list of identities, read in one pass over the relationships of the
+   * viewer. The relationships only have their sender, receiver and status, they are meant to be displayed.
+   *
+   * @param identities the identities
+   * @return the relationship by identity id, null for the viewer and the identities without relationship
+   * @since 4.4
+   */
+  public static final Map<String, Relationship> getRelationships(List<Identity> identities) {
+    Identity viewer = getViewerIdentity();
+    Map<String, Relationship.Type> statuses = getRelationshipManager().getRelationshipStatuses(viewer, identities);
+    Map<String, Relationship> relationships = new HashMap<String, Relationship>();
+    for (Identity identity : identities) {
+      Relationship.Type status = statuses.get(identity.getId());
+      Relationship relationship = null;
+      if (status == Relationship.Type.INCOMING) {
+        relationship = new Relationship(identity, viewer, Relationship.Type.PENDING);
+      } else if (status == Relationship.Type.OUTGOING) {
+        relationship = new Relationship(viewer, identity, Relationship.Type.PENDING);
+      } else if (status != null) {
+        relationship = new Relationship(viewer, identity, status);
+      }
+      relationships.put(identity.getId(), relationship);
+    }
+    return relationships;
+  }
+
   /**
    * Gets spaceService
    * @return spaceService
@@ -29,6 +29,7 @@ import org.exoplatform.social.core.activity.model.ExoSocialActivity;
 import org.exoplatform.social.core.activity.model.ExoSocialActivityImpl;
 import org.exoplatform.social.core.application.SpaceActivityPublisher;
 import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.ProfileSummary;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
 import org.exoplatform.social.core.identity.provider.SpaceIdentityProvider;
 import org.exoplatform.social.core.processor.I18NActivityProcessor;
@@ -132,7 +133,7 @@ public class BaseUIActivity extends UIForm {
     WebuiRequestContext requestContext = WebuiRequestContext.getCurrentInstance();
     ResourceBundle resourceBundle = requestContext.getApplicationResourceBundle();
     this.activity = activity;
-    Identity identity = Utils.getIdentityManager().getIdentity(activity.getUserId(), true);
+    Identity identity = Utils.getIdentityManager().getIdentity(activity.getUserId(), false);
     setOwnerIdentity(identity);
 
     UIFormTextAreaInput commentTextArea = new UIFormTextAreaInput("CommentTextarea" + activity.getId(), "CommentTextarea", null);
@@ -628,6 +629,27 @@ public class BaseUIActivity extends UIForm {
     this.ownerIdentity = ownerIdentity;
   }
 
+  /**
+   * Gets the name, avatar and position of the owner of the activity without loading the whole profile.
+   *
+   * @return the profile summary of the owner
+   * @since 4.4
+   */
+  public ProfileSummary getOwnerProfileSummary() {
+    return getProfileSummary(ownerIdentity.getId());
+  }
+
+  /**
+   * Gets the name, avatar and position of a liker or a commenter without loading the whole profile.
+   *
+   * @param identityId the identity id
+   * @return the profile summary, null if the identity does not exist
+   * @since 4.4
+   */
+  public ProfileSummary getProfileSummary(String identityId) {
+    return Utils.getIdentityManager().getProfileSummary(identityId);
+  }
+
   public Identity getSpaceCreatorIdentity() {
 
     // If an activity of space then set creator information
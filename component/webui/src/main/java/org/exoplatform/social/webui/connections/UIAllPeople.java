@@ -19,6 +19,7 @@ package org.exoplatform.social.webui.connections;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.exoplatform.commons.utils.ListAccess;
 import org.exoplatform.services.log.ExoLogger;
@@ -91,6 +92,7 @@ public class UIAllPeople extends UIContainer {
   private boolean enableLoadNext;
   private int loadingCapacity;
   private List<Identity> peopleList;
+  private Map<String, Relationship> relationships;
   private ListAccess<Identity> peopleListAccess;
   private int peopleNum;
   String selectedChar = null;
@@ -204,6 +206,8 @@ public class UIAllPeople extends UIContainer {
     }
     uiProfileUserSearch.setLoadFromSearch(false);
     
+    this.relationships = Utils.getRelationships(this.peopleList);
+
     int realPeopleListSize = this.peopleList.size();
 
     setEnableLoadNext((realPeopleListSize >= PEOPLE_PER_PAGE)
@@ -460,6 +464,9 @@ public class UIAllPeople extends UIContainer {
     if (identity.equals(Utils.getViewerIdentity())) {
       return null;
     }
+    if (relationships != null && relationships.containsKey(identity.getId())) {
+      return relationships.get(identity.getId());
+    }
     return Utils.getRelationshipManager().get(identity, Utils.getViewerIdentity());
   }
 }
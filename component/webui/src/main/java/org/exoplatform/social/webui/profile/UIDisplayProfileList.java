@@ -19,6 +19,7 @@ package org.exoplatform.social.webui.profile;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.exoplatform.commons.utils.ListAccess;
 import org.exoplatform.services.log.ExoLogger;
@@ -98,6 +99,7 @@ public class UIDisplayProfileList extends UIContainer {
   private boolean enableLoadNext;
   private int loadingCapacity;
   private List<Identity> peopleList;
+  private Map<String, Relationship> relationships;
   private ListAccess<Identity> peopleListAccess;
   private int peopleNum;
   String selectedChar = null;
@@ -207,6 +209,8 @@ public class UIDisplayProfileList extends UIContainer {
   public List<Identity> getPeopleList() throws Exception {
     this.peopleList = loadPeople(0, currentLoadIndex + loadingCapacity);
     
+    this.relationships = Utils.getRelationships(this.peopleList);
+
     int realPeopleListSize = this.peopleList.size();
 
     setEnableLoadNext((realPeopleListSize >= PEOPLE_PER_PAGE)
@@ -466,6 +470,9 @@ public class UIDisplayProfileList extends UIContainer {
     if (identity.equals(Utils.getViewerIdentity())) {
       return null;
     }
+    if (relationships != null && relationships.containsKey(identity.getId())) {
+      return relationships.get(identity.getId());
+    }
     return Utils.getRelationshipManager().get(identity, Utils.getViewerIdentity());
   }
 }